@@ -0,0 +1,405 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+
+/**
+ * Audit listener which passes the events to another listener in a separate
+ * writer thread, so that writing of the output does not slow down the audit.
+ * The events are queued in a bounded buffer and handed to the listener in
+ * batches, in the order they were received. When the buffer is full, the
+ * audit waits for the writer thread. {@link #auditFinished(AuditEvent)} returns
+ * only after the listener has handled all events including the end of the audit.
+ * An exception thrown by the listener is rethrown to the audit on the next event.
+ * When the audit is aborted without {@link #auditFinished(AuditEvent)}, the writer
+ * thread is stopped by {@link #close()} or by the start of the next audit.
+ * A {@link DefaultLogger} is flushed according to the flush policy instead of
+ * after each file.
+ */
+public final class AsyncAuditListener implements AuditListener, AutoCloseable {
+
+    /** The default capacity of the event buffer. */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    /** Name of the writer thread. */
+    private static final String THREAD_NAME = "checkstyle-audit-listener";
+
+    /** The listener to pass the events to. */
+    private final AuditListener listener;
+
+    /** When to flush the listener. */
+    private final FlushPolicy flushPolicy;
+
+    /** The maximum number of events handed to the listener at once. */
+    private final int batchSize;
+
+    /** The buffer of events waiting for the writer thread. */
+    private final BlockingQueue<QueuedEvent> events;
+
+    /** The first exception thrown by the listener. */
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    /** The writer thread of the current audit. */
+    private Thread writer;
+
+    /**
+     * Creates a new {@code AsyncAuditListener} instance with the default
+     * capacity, which flushes the listener after each batch of events.
+     * @param listener the listener to pass the events to.
+     */
+    public AsyncAuditListener(AuditListener listener) {
+        this(listener, DEFAULT_CAPACITY, FlushPolicy.BATCH);
+    }
+
+    /**
+     * Creates a new {@code AsyncAuditListener} instance.
+     * @param listener the listener to pass the events to.
+     * @param capacity the maximum number of events waiting for the writer thread.
+     * @param flushPolicy when to flush the listener if it is {@link Flushable}.
+     */
+    public AsyncAuditListener(AuditListener listener, int capacity, FlushPolicy flushPolicy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be greater than zero");
+        }
+        this.listener = listener;
+        this.flushPolicy = flushPolicy;
+        if (listener instanceof DefaultLogger) {
+            ((DefaultLogger) listener).setFlushAfterFile(false);
+        }
+        batchSize = capacity;
+        events = new ArrayBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public void auditStarted(AuditEvent event) {
+        // the writer thread of an aborted audit is stopped and its failure is forgotten
+        stopWriter();
+        failure.set(null);
+        put(new QueuedEvent(EventType.AUDIT_STARTED, event, null));
+    }
+
+    @Override
+    public void auditFinished(AuditEvent event) {
+        // the end of the audit is queued even after a failure to stop the writer thread
+        put(new QueuedEvent(EventType.AUDIT_FINISHED, event, null));
+        final Thread thread = getWriter();
+        try {
+            thread.join();
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while finishing the audit", ex);
+        }
+        finally {
+            clearWriter(thread);
+        }
+        checkFailure();
+    }
+
+    @Override
+    public void fileStarted(AuditEvent event) {
+        enqueue(new QueuedEvent(EventType.FILE_STARTED, event, null));
+    }
+
+    @Override
+    public void fileFinished(AuditEvent event) {
+        enqueue(new QueuedEvent(EventType.FILE_FINISHED, event, null));
+    }
+
+    @Override
+    public void addError(AuditEvent event) {
+        enqueue(new QueuedEvent(EventType.ERROR, event, null));
+    }
+
+    @Override
+    public void addException(AuditEvent event, Throwable throwable) {
+        enqueue(new QueuedEvent(EventType.EXCEPTION, event, throwable));
+    }
+
+    /**
+     * Stops the writer thread of an aborted audit, dropping the events
+     * not handed to the listener yet. Does nothing if the audit is finished.
+     */
+    @Override
+    public void close() {
+        stopWriter();
+    }
+
+    /**
+     * Puts an event to the buffer, waiting while the buffer is full.
+     * Rethrows the exception of the listener if it has failed.
+     * @param event the event.
+     */
+    private void enqueue(QueuedEvent event) {
+        checkFailure();
+        put(event);
+    }
+
+    /**
+     * Puts an event to the buffer without checking for a failure of the listener.
+     * @param event the event.
+     */
+    private void put(QueuedEvent event) {
+        getWriter();
+        try {
+            events.put(event);
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while passing an audit event", ex);
+        }
+    }
+
+    /**
+     * Rethrows the exception thrown by the listener, if any.
+     */
+    private void checkFailure() {
+        final RuntimeException cause = failure.get();
+        if (cause != null) {
+            throw cause;
+        }
+    }
+
+    /**
+     * Returns the writer thread of the current audit, starting it if needed.
+     * @return the writer thread.
+     */
+    private synchronized Thread getWriter() {
+        if (writer == null) {
+            writer = new Thread(this::writeEvents, THREAD_NAME);
+            writer.setDaemon(true);
+            writer.start();
+        }
+        return writer;
+    }
+
+    /**
+     * Forgets the writer thread of the finished audit.
+     * @param thread the writer thread of the finished audit.
+     */
+    private synchronized void clearWriter(Thread thread) {
+        if (writer == thread) {
+            writer = null;
+        }
+    }
+
+    /**
+     * Interrupts the writer thread of the current audit, if any, and waits for it to stop.
+     */
+    private void stopWriter() {
+        final Thread thread = removeWriter();
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while stopping the writer thread",
+                        ex);
+            }
+        }
+        events.clear();
+    }
+
+    /**
+     * Forgets the writer thread of the current audit.
+     * @return the writer thread or {@code null} if there is none.
+     */
+    private synchronized Thread removeWriter() {
+        final Thread thread = writer;
+        writer = null;
+        return thread;
+    }
+
+    /**
+     * Hands the buffered events to the listener until the audit is finished.
+     */
+    private void writeEvents() {
+        final List<QueuedEvent> batch = new ArrayList<>(batchSize);
+        boolean finished = false;
+        try {
+            while (!finished) {
+                batch.add(events.take());
+                events.drainTo(batch, batchSize - 1);
+                for (final QueuedEvent event : batch) {
+                    fire(event);
+                    if (event.type == EventType.AUDIT_FINISHED) {
+                        finished = true;
+                    }
+                }
+                if (flushPolicy == FlushPolicy.BATCH) {
+                    flush();
+                }
+                batch.clear();
+            }
+        }
+        catch (InterruptedException ex) {
+            failure.compareAndSet(null,
+                    new IllegalStateException("Audit listener thread was interrupted", ex));
+            events.clear();
+        }
+    }
+
+    /**
+     * Hands an event to the listener. After the listener has failed,
+     * the events are dropped.
+     * @param event the event.
+     */
+    private void fire(QueuedEvent event) {
+        if (failure.get() == null) {
+            try {
+                event.type.fire(listener, event);
+                if (flushPolicy == FlushPolicy.FILE && event.type == EventType.FILE_FINISHED) {
+                    flush();
+                }
+            }
+            // -@cs[IllegalCatch] The exception of the listener is rethrown to the audit
+            catch (RuntimeException ex) {
+                failure.compareAndSet(null, ex);
+            }
+        }
+    }
+
+    /**
+     * Flushes the listener if it supports flushing.
+     */
+    private void flush() {
+        if (listener instanceof Flushable && failure.get() == null) {
+            try {
+                ((Flushable) listener).flush();
+            }
+            catch (IOException ex) {
+                failure.compareAndSet(null, new UncheckedIOException(ex));
+            }
+        }
+    }
+
+    /**
+     * When the writer thread flushes a {@link Flushable} listener.
+     */
+    public enum FlushPolicy {
+
+        /** Flush after each batch of events. */
+        BATCH,
+        /** Flush after each file. */
+        FILE,
+        /** Leave flushing to the listener, which flushes at the end of the audit. */
+        AUDIT
+
+    }
+
+    /**
+     * Types of the audit events.
+     */
+    private enum EventType {
+
+        /** Start of the audit. */
+        AUDIT_STARTED {
+            @Override
+            public void fire(AuditListener auditListener, QueuedEvent event) {
+                auditListener.auditStarted(event.event);
+            }
+        },
+        /** End of the audit. */
+        AUDIT_FINISHED {
+            @Override
+            public void fire(AuditListener auditListener, QueuedEvent event) {
+                auditListener.auditFinished(event.event);
+            }
+        },
+        /** Start of a file. */
+        FILE_STARTED {
+            @Override
+            public void fire(AuditListener auditListener, QueuedEvent event) {
+                auditListener.fileStarted(event.event);
+            }
+        },
+        /** End of a file. */
+        FILE_FINISHED {
+            @Override
+            public void fire(AuditListener auditListener, QueuedEvent event) {
+                auditListener.fileFinished(event.event);
+            }
+        },
+        /** An error. */
+        ERROR {
+            @Override
+            public void fire(AuditListener auditListener, QueuedEvent event) {
+                auditListener.addError(event.event);
+            }
+        },
+        /** An exception. */
+        EXCEPTION {
+            @Override
+            public void fire(AuditListener auditListener, QueuedEvent event) {
+                auditListener.addException(event.event, event.throwable);
+            }
+        };
+
+        /**
+         * Hands an event of this type to the listener.
+         * @param auditListener the listener.
+         * @param event the event.
+         */
+        public abstract void fire(AuditListener auditListener, QueuedEvent event);
+
+    }
+
+    /**
+     * An audit event waiting for the writer thread.
+     */
+    private static final class QueuedEvent {
+
+        /** The type of the event. */
+        private final EventType type;
+
+        /** The event. */
+        private final AuditEvent event;
+
+        /** The exception of an {@link EventType#EXCEPTION} event. */
+        private final Throwable throwable;
+
+        /**
+         * Creates a new {@code QueuedEvent} instance.
+         * @param type the type of the event.
+         * @param event the event.
+         * @param throwable the exception, may be {@code null}.
+         */
+        /* package */ QueuedEvent(EventType type, AuditEvent event, Throwable throwable) {
+            this.type = type;
+            this.event = event;
+            this.throwable = throwable;
+        }
+
+    }
+
+}
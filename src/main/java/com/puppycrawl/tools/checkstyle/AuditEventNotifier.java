@@ -0,0 +1,183 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.BeforeExecutionFileFilterSet;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+
+/**
+ * Notifies the audit listeners of a {@link Checker} about the audit events, which
+ * are accepted by the filters. File names are reported and filtered relative to
+ * the base directory.
+ */
+final class AuditEventNotifier {
+
+    /** The source of the audit events. */
+    private final Object source;
+
+    /** The listeners to notify. */
+    private final List<AuditListener> listeners;
+
+    /** The audit event filters. */
+    private final FilterSet filters;
+
+    /** The before execution file filters. */
+    private final BeforeExecutionFileFilterSet beforeExecutionFileFilters;
+
+    /** The basedir to strip off in file names. */
+    private String basedir;
+
+    /**
+     * Creates a new {@code AuditEventNotifier} instance.
+     * @param source the source of the audit events.
+     * @param listeners the listeners to notify, which may change later.
+     * @param filters the audit event filters, which may change later.
+     * @param beforeExecutionFileFilters the before execution file filters,
+     *     which may change later.
+     */
+    /* package */ AuditEventNotifier(Object source, List<AuditListener> listeners,
+            FilterSet filters, BeforeExecutionFileFilterSet beforeExecutionFileFilters) {
+        this.source = source;
+        this.listeners = listeners;
+        this.filters = filters;
+        this.beforeExecutionFileFilters = beforeExecutionFileFilters;
+    }
+
+    /**
+     * Sets base directory.
+     * @param basedir the base directory to strip off in file names
+     */
+    public void setBasedir(String basedir) {
+        this.basedir = basedir;
+    }
+
+    /** Notify all listeners about the audit start. */
+    public void fireAuditStarted() {
+        final AuditEvent event = new AuditEvent(source);
+        for (final AuditListener listener : listeners) {
+            listener.auditStarted(event);
+        }
+    }
+
+    /** Notify all listeners about the audit end. */
+    public void fireAuditFinished() {
+        final AuditEvent event = new AuditEvent(source);
+        for (final AuditListener listener : listeners) {
+            listener.auditFinished(event);
+        }
+    }
+
+    /**
+     * Check if all before execution file filters accept starting the file.
+     * @param fileName the file to be audited
+     * @return {@code true} if the file is accepted.
+     */
+    public boolean acceptFileStarted(String fileName) {
+        final String stripped = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
+        return beforeExecutionFileFilters.accept(stripped);
+    }
+
+    /**
+     * Notify all listeners about the beginning of a file audit.
+     * @param fileName the file to be audited
+     */
+    public void fireFileStarted(String fileName) {
+        final String stripped = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
+        final AuditEvent event = new AuditEvent(source, stripped);
+        for (final AuditListener listener : listeners) {
+            listener.fileStarted(event);
+        }
+    }
+
+    /**
+     * Notify all listeners about the errors in a file which are accepted by the filters.
+     * @param fileName the audited file
+     * @param errors the audit errors from the file
+     * @return the errors accepted by the filters
+     */
+    public List<LocalizedMessage> fireAcceptedErrors(String fileName,
+                                                     Collection<LocalizedMessage> errors) {
+        final List<LocalizedMessage> acceptedErrors = new ArrayList<>();
+        for (final AuditEvent event : createEvents(fileName, errors)) {
+            if (filters.accept(event)) {
+                acceptedErrors.add(event.getLocalizedMessage());
+                fireError(event);
+            }
+        }
+        return acceptedErrors;
+    }
+
+    /**
+     * Notify all listeners about the errors in a file, which are already filtered
+     * or are taken from the cache.
+     * @param fileName the audited file
+     * @param errors the audit errors from the file
+     */
+    public void fireErrors(String fileName, Collection<LocalizedMessage> errors) {
+        createEvents(fileName, errors).forEach(this::fireError);
+    }
+
+    /**
+     * Creates the audit events of a file.
+     * @param fileName the file.
+     * @param messages the messages of the file.
+     * @return the audit events.
+     */
+    public List<AuditEvent> createEvents(String fileName,
+                                         Collection<LocalizedMessage> messages) {
+        final String stripped = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
+        final List<AuditEvent> result = new ArrayList<>(messages.size());
+        for (final LocalizedMessage element : messages) {
+            result.add(new AuditEvent(source, stripped, element));
+        }
+        return result;
+    }
+
+    /**
+     * Notify all listeners about the end of a file audit.
+     * @param fileName the audited file
+     */
+    public void fireFileFinished(String fileName) {
+        final String stripped = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
+        final AuditEvent event = new AuditEvent(source, stripped);
+        for (final AuditListener listener : listeners) {
+            listener.fileFinished(event);
+        }
+    }
+
+    /**
+     * Notify all listeners about an error.
+     * @param event the audit event of the error
+     */
+    private void fireError(AuditEvent event) {
+        for (final AuditListener listener : listeners) {
+            listener.addError(event);
+        }
+    }
+
+}
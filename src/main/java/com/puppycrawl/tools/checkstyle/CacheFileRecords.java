@@ -0,0 +1,190 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Reads and writes the records of the binary format of {@link PropertyCacheFile}.
+ * The file starts with a header followed by records, each of which sets or removes
+ * an entry. Changed entries are appended as new records, so the file is read by
+ * replaying all of its records in order.
+ * Cache files in the legacy property file format are still read.
+ */
+final class CacheFileRecords {
+
+    /** The first bytes of a binary cache file, "CSC" followed by the format version. */
+    private static final int FORMAT_HEADER = 0x43534301;
+
+    /** Type of the record which sets an entry. */
+    private static final byte PUT_RECORD = 1;
+
+    /** Type of the record which removes an entry. */
+    private static final byte REMOVE_RECORD = 2;
+
+    /** Prevents instantiation. */
+    private CacheFileRecords() {
+    }
+
+    /**
+     * Reads the details from a cache file in the binary or the legacy property file format.
+     * The details of a broken binary cache file are discarded.
+     * @param content the content of the cache file
+     * @param details the details to read the entries to
+     * @return the number of records of a binary cache file, or {@code -1} if the cache
+     *     file is in the legacy format or is broken and has to be rewritten
+     * @throws IOException when there is a problems with file read
+     */
+    public static int read(byte[] content, Properties details) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(content);
+        int records = -1;
+        if (content.length >= Integer.BYTES && buffer.getInt() == FORMAT_HEADER) {
+            try {
+                int count = 0;
+                while (buffer.hasRemaining()) {
+                    readRecord(buffer, details);
+                    count++;
+                }
+                records = count;
+            }
+            catch (final BufferUnderflowException ignored) {
+                // the file was not written completely, the cache has to be rebuilt
+                details.clear();
+            }
+        }
+        else {
+            details.load(new ByteArrayInputStream(content));
+        }
+        return records;
+    }
+
+    /**
+     * Writes all details to a new binary cache file, sorted by key.
+     * @param path the cache file
+     * @param details the details to write
+     * @throws IOException when there is a problems with file save
+     */
+    public static void write(Path path, Properties details) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(FORMAT_HEADER);
+            for (String key : new TreeSet<>(details.stringPropertyNames())) {
+                writeRecord(out, key, details.getProperty(key));
+            }
+        }
+    }
+
+    /**
+     * Appends the changed details to the binary cache file.
+     * @param path the cache file
+     * @param changes the changed entries, removed entries have {@code null} values
+     * @throws IOException when there is a problems with file save
+     */
+    public static void append(Path path, Map<String, String> changes) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(path, StandardOpenOption.APPEND)))) {
+            for (Map.Entry<String, String> change : changes.entrySet()) {
+                writeRecord(out, change.getKey(), change.getValue());
+            }
+        }
+    }
+
+    /**
+     * Reads a record of a binary cache file and applies it to the details.
+     * @param buffer the content of the cache file
+     * @param details the details to apply the record to
+     * @throws BufferUnderflowException when the record is broken
+     */
+    private static void readRecord(ByteBuffer buffer, Properties details) {
+        final byte type = buffer.get();
+        final String key = readString(buffer);
+        if (type == PUT_RECORD) {
+            details.setProperty(key, readString(buffer));
+        }
+        else if (type == REMOVE_RECORD) {
+            details.remove(key);
+        }
+        else {
+            throw new BufferUnderflowException();
+        }
+    }
+
+    /**
+     * Reads a length prefixed UTF-8 string of a binary cache file.
+     * @param buffer the content of the cache file
+     * @return the string
+     * @throws BufferUnderflowException when the string is broken
+     */
+    private static String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        final String result = new String(buffer.array(), buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return result;
+    }
+
+    /**
+     * Writes a record of a binary cache file.
+     * @param out the stream of the cache file
+     * @param key the key of the entry
+     * @param value the value of the entry or {@code null} if the entry is removed
+     * @throws IOException when there is a problems with file save
+     */
+    private static void writeRecord(DataOutputStream out, String key, String value)
+            throws IOException {
+        if (value == null) {
+            out.writeByte(REMOVE_RECORD);
+            writeString(out, key);
+        }
+        else {
+            out.writeByte(PUT_RECORD);
+            writeString(out, key);
+            writeString(out, value);
+        }
+    }
+
+    /**
+     * Writes a length prefixed UTF-8 string of a binary cache file.
+     * @param out the stream of the cache file
+     * @param value the string
+     * @throws IOException when there is a problems with file save
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+}
@@ -0,0 +1,303 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+
+/**
+ * Encodes the violations of a file for {@link PropertyCacheFile}.
+ * The cache file can be modified by anyone who can write to it, so the violations
+ * are stored field by field instead of with the Java serialization and only
+ * strings, numbers, booleans and characters are accepted as message arguments.
+ * The source class of a message is looked up without initializing it through
+ * the class loader of the modules, which also loads custom checks.
+ */
+final class CachedViolations {
+
+    /** The version of the encoding, written before the violations. */
+    private static final byte FORMAT_VERSION = 1;
+
+    /** Marks a {@code null} string or argument. */
+    private static final byte NULL_VALUE = 0;
+
+    /** Marks a {@link String} argument or a present string. */
+    private static final byte STRING_VALUE = 1;
+
+    /** Marks an {@link Integer} argument. */
+    private static final byte INTEGER_VALUE = 2;
+
+    /** Marks a {@link Long} argument. */
+    private static final byte LONG_VALUE = 3;
+
+    /** Marks a {@link Double} argument. */
+    private static final byte DOUBLE_VALUE = 4;
+
+    /** Marks a {@link Boolean} argument. */
+    private static final byte BOOLEAN_VALUE = 5;
+
+    /** Marks a {@link Character} argument. */
+    private static final byte CHARACTER_VALUE = 6;
+
+    /** Prevents instantiation. */
+    private CachedViolations() {
+    }
+
+    /**
+     * Encodes violations to a string which can be stored in the cache.
+     * @param violations the violations to encode.
+     * @return the encoded violations.
+     * @throws IOException if some violation argument cannot be encoded.
+     */
+    public static String encode(List<LocalizedMessage> violations) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(outputStream)) {
+            output.writeByte(FORMAT_VERSION);
+            output.writeInt(violations.size());
+            for (LocalizedMessage violation : violations) {
+                writeViolation(output, violation);
+            }
+        }
+        return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+    }
+
+    /**
+     * Restores violations encoded by {@link #encode(List)}.
+     * @param encoded the encoded violations.
+     * @param classLoader the class loader to find the source classes of the violations.
+     * @return the violations or {@code null} if they cannot be restored.
+     */
+    public static List<LocalizedMessage> decode(String encoded, ClassLoader classLoader) {
+        List<LocalizedMessage> violations = null;
+        try (DataInputStream input = new DataInputStream(
+                new ByteArrayInputStream(Base64.getDecoder().decode(encoded)))) {
+            if (input.readByte() == FORMAT_VERSION) {
+                final int count = input.readInt();
+                if (count > 0) {
+                    final List<LocalizedMessage> result = new ArrayList<>();
+                    for (int index = 0; index < count; index++) {
+                        result.add(readViolation(input, classLoader));
+                    }
+                    if (input.read() == -1) {
+                        violations = result;
+                    }
+                }
+            }
+        }
+        catch (final IOException | ClassNotFoundException | IllegalArgumentException ignored) {
+            // cache entry is broken or refers to unknown classes, the file will be checked again
+        }
+        return violations;
+    }
+
+    /**
+     * Writes a single violation.
+     * @param output the output to write to.
+     * @param violation the violation to write.
+     * @throws IOException if some violation argument cannot be encoded.
+     */
+    private static void writeViolation(DataOutput output, LocalizedMessage violation)
+            throws IOException {
+        output.writeInt(violation.getLineNo());
+        output.writeInt(violation.getColumnNo());
+        output.writeInt(violation.getColumnCharIndex());
+        output.writeInt(violation.getTokenType());
+        final SeverityLevel severityLevel = violation.getSeverityLevel();
+        if (severityLevel == null) {
+            writeString(output, null);
+        }
+        else {
+            writeString(output, severityLevel.getName());
+        }
+        writeString(output, violation.getModuleId());
+        writeString(output, violation.getBundleName());
+        writeString(output, violation.getKey());
+        final Object[] args = violation.getArgs();
+        if (args == null) {
+            output.writeInt(-1);
+        }
+        else {
+            output.writeInt(args.length);
+            for (Object arg : args) {
+                writeArgument(output, arg);
+            }
+        }
+        output.writeUTF(violation.getSourceName());
+        writeString(output, violation.getCustomMessage());
+    }
+
+    /**
+     * Reads a single violation written by {@link #writeViolation(DataOutput, LocalizedMessage)}.
+     * @param input the input to read from.
+     * @param classLoader the class loader to find the source class of the violation.
+     * @return the violation.
+     * @throws IOException if the input is broken.
+     * @throws ClassNotFoundException if the source class of the violation is unknown.
+     */
+    private static LocalizedMessage readViolation(DataInput input, ClassLoader classLoader)
+            throws IOException, ClassNotFoundException {
+        final int lineNo = input.readInt();
+        final int columnNo = input.readInt();
+        final int columnCharIndex = input.readInt();
+        final int tokenType = input.readInt();
+        final String severityName = readString(input);
+        SeverityLevel severityLevel = null;
+        if (severityName != null) {
+            severityLevel = SeverityLevel.getInstance(severityName);
+        }
+        final String moduleId = readString(input);
+        final String bundle = readString(input);
+        final String key = readString(input);
+        final int argCount = input.readInt();
+        Object[] args = null;
+        if (argCount >= 0) {
+            final List<Object> argList = new ArrayList<>();
+            for (int index = 0; index < argCount; index++) {
+                argList.add(readArgument(input));
+            }
+            args = argList.toArray();
+        }
+        final Class<?> sourceClass = Class.forName(input.readUTF(), false, classLoader);
+        final String customMessage = readString(input);
+        return new LocalizedMessage(lineNo, columnNo, columnCharIndex, tokenType, bundle, key,
+                args, severityLevel, moduleId, sourceClass, customMessage);
+    }
+
+    /**
+     * Writes a string which can be {@code null}.
+     * @param output the output to write to.
+     * @param value the string to write.
+     * @throws IOException if the string is too long.
+     */
+    private static void writeString(DataOutput output, String value) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL_VALUE);
+        }
+        else {
+            output.writeByte(STRING_VALUE);
+            output.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutput, String)}.
+     * @param input the input to read from.
+     * @return the string or {@code null}.
+     * @throws IOException if the input is broken.
+     */
+    private static String readString(DataInput input) throws IOException {
+        final byte type = input.readByte();
+        final String value;
+        if (type == NULL_VALUE) {
+            value = null;
+        }
+        else if (type == STRING_VALUE) {
+            value = input.readUTF();
+        }
+        else {
+            throw new IOException("Invalid string type " + type);
+        }
+        return value;
+    }
+
+    /**
+     * Writes a message argument.
+     * @param output the output to write to.
+     * @param arg the argument to write.
+     * @throws IOException if the argument type is not supported.
+     */
+    private static void writeArgument(DataOutput output, Object arg) throws IOException {
+        if (arg == null || arg instanceof String) {
+            writeString(output, (String) arg);
+        }
+        else if (arg instanceof Integer) {
+            output.writeByte(INTEGER_VALUE);
+            output.writeInt((Integer) arg);
+        }
+        else if (arg instanceof Long) {
+            output.writeByte(LONG_VALUE);
+            output.writeLong((Long) arg);
+        }
+        else if (arg instanceof Double) {
+            output.writeByte(DOUBLE_VALUE);
+            output.writeDouble((Double) arg);
+        }
+        else if (arg instanceof Boolean) {
+            output.writeByte(BOOLEAN_VALUE);
+            output.writeBoolean((Boolean) arg);
+        }
+        else if (arg instanceof Character) {
+            output.writeByte(CHARACTER_VALUE);
+            output.writeChar((Character) arg);
+        }
+        else {
+            throw new IOException("Unsupported argument type " + arg.getClass().getName());
+        }
+    }
+
+    /**
+     * Reads a message argument written by {@link #writeArgument(DataOutput, Object)}.
+     * @param input the input to read from.
+     * @return the argument.
+     * @throws IOException if the input is broken.
+     */
+    private static Object readArgument(DataInput input) throws IOException {
+        final byte type = input.readByte();
+        final Object value;
+        switch (type) {
+            case NULL_VALUE:
+                value = null;
+                break;
+            case STRING_VALUE:
+                value = input.readUTF();
+                break;
+            case INTEGER_VALUE:
+                value = input.readInt();
+                break;
+            case LONG_VALUE:
+                value = input.readLong();
+                break;
+            case DOUBLE_VALUE:
+                value = input.readDouble();
+                break;
+            case BOOLEAN_VALUE:
+                value = input.readBoolean();
+                break;
+            case CHARACTER_VALUE:
+                value = input.readChar();
+                break;
+            default:
+                throw new IOException("Invalid argument type " + type);
+        }
+        return value;
+    }
+
+}
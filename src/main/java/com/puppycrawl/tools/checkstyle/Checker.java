@@ -21,23 +21,32 @@ package com.puppycrawl.tools.checkstyle;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
 import com.puppycrawl.tools.checkstyle.api.AuditEvent;
 import com.puppycrawl.tools.checkstyle.api.AuditListener;
 import com.puppycrawl.tools.checkstyle.api.AutomaticBean;
@@ -48,7 +57,6 @@ import com.puppycrawl.tools.checkstyle.api.Configuration;
 import com.puppycrawl.tools.checkstyle.api.Context;
 import com.puppycrawl.tools.checkstyle.api.ExternalResourceHolder;
 import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
-import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.Filter;
 import com.puppycrawl.tools.checkstyle.api.FilterSet;
 import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
@@ -66,8 +74,11 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** Message to use when an exception occurs and should be printed as a violation. */
     public static final String EXCEPTION_MSG = "general.exception";
 
-    /** Logger for Checker. */
-    private final Log log;
+    /**
+     * The number of files per thread which can be processed ahead of the file
+     * that is currently reported to the listeners in multi thread mode.
+     */
+    private static final int PENDING_FILES_PER_THREAD = 4;
 
     /** Maintains error count. */
     private final SeverityLevelCounter counter = new SeverityLevelCounter(
@@ -79,6 +90,19 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** Vector of fileset checks. */
     private final List<FileSetCheck> fileSetChecks = new ArrayList<>();
 
+    /** Configurations of the fileset checks created by this checker. */
+    private final Map<FileSetCheck, Configuration> fileSetCheckConfigs = new HashMap<>();
+
+    /**
+     * Shared fileset checks which are not thread safe and are called by one
+     * thread at a time in multi thread mode.
+     */
+    private final Set<FileSetCheck> serializedFileSetChecks =
+            Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /** Fileset check instances created for additional threads in multi thread mode. */
+    private final List<FileSetCheck> threadFileSetChecks = new ArrayList<>();
+
     /** The audit event before execution file filters. */
     private final BeforeExecutionFileFilterSet beforeExecutionFileFilters =
             new BeforeExecutionFileFilterSet();
@@ -86,6 +110,12 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** The audit event filters. */
     private final FilterSet filters = new FilterSet();
 
+    /** Configurations of the audit event filters created by this checker. */
+    private final Map<Filter, Configuration> filterConfigs = new IdentityHashMap<>();
+
+    /** Notifies the listeners about the audit events. */
+    private final AuditEventNotifier notifier;
+
     /** The basedir to strip off in file names. */
     private String basedir;
 
@@ -124,19 +154,31 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     /** Cache file. **/
     private PropertyCacheFile cacheFile;
 
+    /**
+     * Controls whether files are cached by a hash of their content together with
+     * their violations, instead of being cached by timestamp only when they have none.
+     */
+    private boolean cacheViolations;
+
+    /** Cache of parsed Java files, or {@code null} if they are not cached. */
+    private JavaAstCache astCache;
+
     /** Controls whether exceptions should halt execution or not. */
     private boolean haltOnException = true;
 
     /** The tab width for column reporting. */
     private int tabWidth = CommonUtil.DEFAULT_TAB_WIDTH;
 
+    /** The number of threads to process files with. */
+    private int threadsNumber = 1;
+
     /**
      * Creates a new {@code Checker} instance.
      * The instance needs to be contextualized and configured.
      */
     public Checker() {
+        notifier = new AuditEventNotifier(this, listeners, filters, beforeExecutionFileFilters);
         addListener(counter);
-        log = LogFactory.getLog(Checker.class);
     }
 
     /**
@@ -150,6 +192,16 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         cacheFile.load();
     }
 
+    /**
+     * Sets the directory to cache the ASTs of parsed Java files in, so that files
+     * which have not changed are not parsed again by later runs.
+     * @param directory the directory of the cache.
+     * @throws IOException if the directory cannot be created.
+     */
+    public void setAstCacheDirectory(String directory) throws IOException {
+        astCache = new JavaAstCache(Paths.get(directory));
+    }
+
     /**
      * Removes before execution file filter.
      * @param filter before execution file filter to remove.
@@ -170,8 +222,10 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     public void destroy() {
         listeners.clear();
         fileSetChecks.clear();
+        fileSetCheckConfigs.clear();
         beforeExecutionFileFilters.clear();
         filters.clear();
+        filterConfigs.clear();
         if (cacheFile != null) {
             try {
                 cacheFile.persist();
@@ -196,10 +250,27 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
      */
     public void setBasedir(String basedir) {
         this.basedir = basedir;
+        notifier.setBasedir(basedir);
     }
 
     @Override
     public int process(List<File> files) throws CheckstyleException {
+        return process(files.iterator());
+    }
+
+    /**
+     * Processes files as the iterator supplies them. Files are requested from the
+     * iterator only when they are about to be processed, so the audit of the first
+     * files can start and report before all files are known, and the files need not
+     * be kept in memory.
+     * Once this is done, it is highly recommended to call for
+     * the destroy method to close and remove the listeners.
+     * @param files the iterator over the files to be audited.
+     * @return the total number of audit events with error severity found
+     * @throws CheckstyleException if error condition within Checkstyle occurs
+     * @see #destroy()
+     */
+    public int process(Iterator<File> files) throws CheckstyleException {
         if (cacheFile != null) {
             cacheFile.putExternalResources(getExternalResourceLocations());
         }
@@ -210,17 +281,26 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
             fsc.beginProcessing(charset);
         }
 
-        final List<File> targetFiles = files.stream()
-                .filter(file -> CommonUtil.matchesFileExtension(file, fileExtensions))
-                .collect(Collectors.toList());
-        processFiles(targetFiles);
+        final Iterator<File> targetFiles = new TargetFileIterator(files);
+        final FileProcessor fileProcessor = new FileProcessor(charset, astCache, cacheFile,
+                cacheViolations, moduleClassLoader, haltOnException, serializedFileSetChecks);
+        if (threadsNumber > 1) {
+            new ParallelFileProcessor(fileProcessor).processFiles(targetFiles);
+        }
+        else {
+            fileProcessor.processFiles(targetFiles, fileSetChecks, notifier);
+        }
 
         // Finish up
         // It may also log!!!
         fileSetChecks.forEach(FileSetCheck::finishProcessing);
+        threadFileSetChecks.forEach(FileSetCheck::finishProcessing);
 
         // It may also log!!!
         fileSetChecks.forEach(FileSetCheck::destroy);
+        threadFileSetChecks.forEach(FileSetCheck::destroy);
+        threadFileSetChecks.clear();
+        serializedFileSetChecks.clear();
 
         final int errorCount = counter.getCount();
         fireAuditFinished();
@@ -252,119 +332,12 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
 
     /** Notify all listeners about the audit start. */
     private void fireAuditStarted() {
-        final AuditEvent event = new AuditEvent(this);
-        for (final AuditListener listener : listeners) {
-            listener.auditStarted(event);
-        }
+        notifier.fireAuditStarted();
     }
 
     /** Notify all listeners about the audit end. */
     private void fireAuditFinished() {
-        final AuditEvent event = new AuditEvent(this);
-        for (final AuditListener listener : listeners) {
-            listener.auditFinished(event);
-        }
-    }
-
-    /**
-     * Processes a list of files with all FileSetChecks.
-     * @param files a list of files to process.
-     * @throws CheckstyleException if error condition within Checkstyle occurs.
-     * @noinspection ProhibitedExceptionThrown
-     */
-    //-@cs[CyclomaticComplexity] no easy way to split this logic of processing the file
-    private void processFiles(List<File> files) throws CheckstyleException {
-        for (final File file : files) {
-            String fileName = null;
-            try {
-                fileName = file.getAbsolutePath();
-                final long timestamp = file.lastModified();
-                if (cacheFile != null && cacheFile.isInCache(fileName, timestamp)
-                        || !acceptFileStarted(fileName)) {
-                    continue;
-                }
-                if (cacheFile != null) {
-                    cacheFile.put(fileName, timestamp);
-                }
-                fireFileStarted(fileName);
-                final SortedSet<LocalizedMessage> fileMessages = processFile(file);
-                fireErrors(fileName, fileMessages);
-                fireFileFinished(fileName);
-            }
-            // -@cs[IllegalCatch] There is no other way to deliver filename that was under
-            // processing. See https://github.com/checkstyle/checkstyle/issues/2285
-            catch (Exception ex) {
-                if (fileName != null && cacheFile != null) {
-                    cacheFile.remove(fileName);
-                }
-
-                // We need to catch all exceptions to put a reason failure (file name) in exception
-                throw new CheckstyleException("Exception was thrown while processing "
-                        + file.getPath(), ex);
-            }
-            catch (Error error) {
-                if (fileName != null && cacheFile != null) {
-                    cacheFile.remove(fileName);
-                }
-
-                // We need to catch all errors to put a reason failure (file name) in error
-                throw new Error("Error was thrown while processing " + file.getPath(), error);
-            }
-        }
-    }
-
-    /**
-     * Processes a file with all FileSetChecks.
-     * @param file a file to process.
-     * @return a sorted set of messages to be logged.
-     * @throws CheckstyleException if error condition within Checkstyle occurs.
-     * @noinspection ProhibitedExceptionThrown
-     */
-    private SortedSet<LocalizedMessage> processFile(File file) throws CheckstyleException {
-        final SortedSet<LocalizedMessage> fileMessages = new TreeSet<>();
-        try {
-            final FileText theText = new FileText(file.getAbsoluteFile(), charset);
-            for (final FileSetCheck fsc : fileSetChecks) {
-                fileMessages.addAll(fsc.process(file, theText));
-            }
-        }
-        catch (final IOException ioe) {
-            log.debug("IOException occurred.", ioe);
-            fileMessages.add(new LocalizedMessage(1,
-                    Definitions.CHECKSTYLE_BUNDLE, EXCEPTION_MSG,
-                    new String[] {ioe.getMessage()}, null, getClass(), null));
-        }
-        // -@cs[IllegalCatch] There is no other way to obey haltOnException field
-        catch (Exception ex) {
-            if (haltOnException) {
-                throw ex;
-            }
-
-            log.debug("Exception occurred.", ex);
-
-            final StringWriter sw = new StringWriter();
-            final PrintWriter pw = new PrintWriter(sw, true);
-
-            ex.printStackTrace(pw);
-
-            fileMessages.add(new LocalizedMessage(1,
-                    Definitions.CHECKSTYLE_BUNDLE, EXCEPTION_MSG,
-                    new String[] {sw.getBuffer().toString()},
-                    null, getClass(), null));
-        }
-        return fileMessages;
-    }
-
-    /**
-     * Check if all before execution file filters accept starting the file.
-     *
-     * @param fileName
-     *            the file to be audited
-     * @return {@code true} if the file is accepted.
-     */
-    private boolean acceptFileStarted(String fileName) {
-        final String stripped = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
-        return beforeExecutionFileFilters.accept(stripped);
+        notifier.fireAuditFinished();
     }
 
     /**
@@ -375,11 +348,7 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
      */
     @Override
     public void fireFileStarted(String fileName) {
-        final String stripped = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
-        final AuditEvent event = new AuditEvent(this, stripped);
-        for (final AuditListener listener : listeners) {
-            listener.fileStarted(event);
-        }
+        notifier.fireFileStarted(fileName);
     }
 
     /**
@@ -390,17 +359,8 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
      */
     @Override
     public void fireErrors(String fileName, SortedSet<LocalizedMessage> errors) {
-        final String stripped = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
-        boolean hasNonFilteredViolations = false;
-        for (final LocalizedMessage element : errors) {
-            final AuditEvent event = new AuditEvent(this, stripped, element);
-            if (filters.accept(event)) {
-                hasNonFilteredViolations = true;
-                for (final AuditListener listener : listeners) {
-                    listener.addError(event);
-                }
-            }
-        }
+        final boolean hasNonFilteredViolations =
+                !notifier.fireAcceptedErrors(fileName, errors).isEmpty();
         if (hasNonFilteredViolations && cacheFile != null) {
             cacheFile.remove(fileName);
         }
@@ -414,11 +374,7 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
      */
     @Override
     public void fireFileFinished(String fileName) {
-        final String stripped = CommonUtil.relativizeAndNormalizePath(basedir, fileName);
-        final AuditEvent event = new AuditEvent(this, stripped);
-        for (final AuditListener listener : listeners) {
-            listener.fileFinished(event);
-        }
+        notifier.fireFileFinished(fileName);
     }
 
     @Override
@@ -446,6 +402,12 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         context.add("basedir", basedir);
         context.add("tabWidth", String.valueOf(tabWidth));
         childContext = context;
+
+        final Configuration configuration = getConfiguration();
+        if (configuration instanceof DefaultConfiguration) {
+            threadsNumber = ((DefaultConfiguration) configuration).getThreadModeSettings()
+                    .getCheckerThreadsNumber();
+        }
     }
 
     /**
@@ -456,25 +418,12 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
     protected void setupChild(Configuration childConf)
             throws CheckstyleException {
         final String name = childConf.getName();
-        final Object child;
-
-        try {
-            child = moduleFactory.createModule(name);
-
-            if (child instanceof AutomaticBean) {
-                final AutomaticBean bean = (AutomaticBean) child;
-                bean.contextualize(childContext);
-                bean.configure(childConf);
-            }
-        }
-        catch (final CheckstyleException ex) {
-            throw new CheckstyleException("cannot initialize module " + name
-                    + " - " + ex.getMessage(), ex);
-        }
+        final Object child = createChildModule(childConf);
         if (child instanceof FileSetCheck) {
             final FileSetCheck fsc = (FileSetCheck) child;
             fsc.init();
             addFileSetCheck(fsc);
+            fileSetCheckConfigs.put(fsc, childConf);
         }
         else if (child instanceof BeforeExecutionFileFilter) {
             final BeforeExecutionFileFilter filter = (BeforeExecutionFileFilter) child;
@@ -483,6 +432,7 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         else if (child instanceof Filter) {
             final Filter filter = (Filter) child;
             addFilter(filter);
+            filterConfigs.put(filter, childConf);
         }
         else if (child instanceof AuditListener) {
             final AuditListener listener = (AuditListener) child;
@@ -494,6 +444,32 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         }
     }
 
+    /**
+     * Creates and configures a child module.
+     * @param childConf the configuration of the child module.
+     * @return the configured child module.
+     * @throws CheckstyleException if the module cannot be created or configured.
+     */
+    private Object createChildModule(Configuration childConf) throws CheckstyleException {
+        final String name = childConf.getName();
+        final Object child;
+
+        try {
+            child = moduleFactory.createModule(name);
+
+            if (child instanceof AutomaticBean) {
+                final AutomaticBean bean = (AutomaticBean) child;
+                bean.contextualize(childContext);
+                bean.configure(childConf);
+            }
+        }
+        catch (final CheckstyleException ex) {
+            throw new CheckstyleException("cannot initialize module " + name
+                    + " - " + ex.getMessage(), ex);
+        }
+        return child;
+    }
+
     /**
      * Adds a FileSetCheck to the list of FileSetChecks
      * that is executed in process().
@@ -634,6 +610,15 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         this.tabWidth = tabWidth;
     }
 
+    /**
+     * Sets whether files are cached by a hash of their content together with
+     * the violations reported on them.
+     * @param cacheViolations the new value.
+     */
+    public void setCacheViolations(boolean cacheViolations) {
+        this.cacheViolations = cacheViolations;
+    }
+
     /**
      * Clears the cache.
      */
@@ -643,4 +628,331 @@ public class Checker extends AutomaticBean implements MessageDispatcher, RootMod
         }
     }
 
+    /**
+     * Iterator over the files with the extensions processed by the checker,
+     * which takes the files from another iterator as they are requested.
+     */
+    private final class TargetFileIterator implements Iterator<File> {
+
+        /** The iterator over all files. */
+        private final Iterator<File> files;
+
+        /** The next target file, or {@code null} if it is not found yet. */
+        private File nextFile;
+
+        /**
+         * Creates an iterator.
+         * @param files the iterator over all files.
+         */
+        /* package */ TargetFileIterator(Iterator<File> files) {
+            this.files = files;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (nextFile == null && files.hasNext()) {
+                final File file = files.next();
+                if (CommonUtil.matchesFileExtension(file, fileExtensions)) {
+                    nextFile = file;
+                }
+            }
+            return nextFile != null;
+        }
+
+        @Override
+        public File next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final File result = nextFile;
+            nextFile = null;
+            return result;
+        }
+
+    }
+
+    /**
+     * Processes files with all FileSetChecks using several threads.
+     * Files are read, looked up in the cache, parsed, checked and filtered by the
+     * worker threads, while the listeners are notified by the calling thread in the
+     * order of the files.
+     * Filters are applied in the worker threads, as some of them rely on the
+     * thread local state of the checks. Filters created from the configuration are
+     * instantiated once per thread, other filters are called by one thread at a time.
+     */
+    private final class ParallelFileProcessor {
+
+        /** The fileset check sets available to worker threads, one set per thread. */
+        private final BlockingQueue<List<FileSetCheck>> threadChecks =
+                new ArrayBlockingQueue<>(threadsNumber);
+
+        /** The audit event filters available to worker threads, one set per thread. */
+        private final BlockingQueue<FilterSet> threadFilters =
+                new ArrayBlockingQueue<>(threadsNumber);
+
+        /** The files which are processed, in the order of notification. */
+        private final Deque<PendingFile> pendingFiles = new ArrayDeque<>();
+
+        /** The processor to read and check the files with. */
+        private final FileProcessor fileProcessor;
+
+        /**
+         * Creates a new {@code ParallelFileProcessor} instance.
+         * @param fileProcessor the processor to read and check the files with.
+         */
+        /* package */ ParallelFileProcessor(FileProcessor fileProcessor) {
+            this.fileProcessor = fileProcessor;
+        }
+
+        /**
+         * Processes files.
+         * @param files an iterator over the files to process.
+         * @throws CheckstyleException if error condition within Checkstyle occurs.
+         */
+        public void processFiles(Iterator<File> files) throws CheckstyleException {
+            createThreadFileSetChecks();
+            createThreadFilters();
+            final ExecutorService executor = Executors.newFixedThreadPool(threadsNumber);
+            try {
+                while (files.hasNext()) {
+                    final File file = files.next();
+                    final String fileName = file.getAbsolutePath();
+                    final long timestamp = file.lastModified();
+                    if (!fileProcessor.isInTimestampCache(fileName, timestamp)
+                            && notifier.acceptFileStarted(fileName)) {
+                        pendingFiles.add(new PendingFile(file, timestamp,
+                                executor.submit(() -> processFile(file))));
+                        if (pendingFiles.size() >= threadsNumber * PENDING_FILES_PER_THREAD) {
+                            finishFile(pendingFiles.remove());
+                        }
+                    }
+                    finishCompletedFiles();
+                }
+                while (!pendingFiles.isEmpty()) {
+                    finishFile(pendingFiles.remove());
+                }
+            }
+            finally {
+                executor.shutdownNow();
+            }
+        }
+
+        /**
+         * Creates the sets of fileset checks used by the worker threads.
+         * Checks annotated with {@link StatelessCheck} are shared between all threads,
+         * checks annotated with {@link FileStatefulCheck} are instantiated once per thread
+         * and all other checks are shared and used by one thread at a time.
+         * @throws CheckstyleException if a fileset check cannot be instantiated.
+         */
+        private void createThreadFileSetChecks() throws CheckstyleException {
+            threadChecks.add(fileSetChecks);
+            for (final FileSetCheck fsc : fileSetChecks) {
+                if (!fsc.getClass().isAnnotationPresent(StatelessCheck.class)
+                        && !isInstantiatedPerThread(fsc)) {
+                    serializedFileSetChecks.add(fsc);
+                }
+            }
+            for (int thread = 1; thread < threadsNumber; thread++) {
+                final List<FileSetCheck> checks = new ArrayList<>(fileSetChecks.size());
+                for (final FileSetCheck fsc : fileSetChecks) {
+                    if (isInstantiatedPerThread(fsc)) {
+                        final FileSetCheck copy =
+                                (FileSetCheck) createChildModule(fileSetCheckConfigs.get(fsc));
+                        copy.init();
+                        copy.setMessageDispatcher(Checker.this);
+                        copy.beginProcessing(charset);
+                        threadFileSetChecks.add(copy);
+                        checks.add(copy);
+                    }
+                    else {
+                        checks.add(fsc);
+                    }
+                }
+                threadChecks.add(checks);
+            }
+        }
+
+        /**
+         * Creates the sets of audit event filters used by the worker threads.
+         * Filters created from the configuration are instantiated once per thread,
+         * all other filters are shared and called by one thread at a time.
+         * @throws CheckstyleException if a filter cannot be instantiated.
+         */
+        private void createThreadFilters() throws CheckstyleException {
+            final FilterSet sharedFilters = new FilterSet();
+            for (final Filter filter : filters.getFilters()) {
+                if (!filterConfigs.containsKey(filter)) {
+                    sharedFilters.addFilter(event -> acceptSerialized(filter, event));
+                }
+            }
+            for (int thread = 0; thread < threadsNumber; thread++) {
+                final FilterSet filterSet = new FilterSet();
+                filterSet.addFilter(sharedFilters);
+                for (final Filter filter : filters.getFilters()) {
+                    final Configuration filterConfig = filterConfigs.get(filter);
+                    if (thread == 0 && filterConfig != null) {
+                        filterSet.addFilter(filter);
+                    }
+                    else if (filterConfig != null) {
+                        filterSet.addFilter((Filter) createChildModule(filterConfig));
+                    }
+                }
+                threadFilters.add(filterSet);
+            }
+        }
+
+        /**
+         * Checks whether a separate instance of the fileset check should be used
+         * by every thread.
+         * @param fsc the fileset check.
+         * @return {@code true} if the check keeps only file scoped state and can be recreated.
+         */
+        private boolean isInstantiatedPerThread(FileSetCheck fsc) {
+            return fileSetCheckConfigs.containsKey(fsc)
+                    && fsc.getClass().isAnnotationPresent(FileStatefulCheck.class)
+                    && !(fsc instanceof TreeWalker
+                        && ((TreeWalker) fsc).hasGlobalStatefulChecks());
+        }
+
+        /**
+         * Processes a file in a worker thread. The violations of the file are taken
+         * from the cache when its content is cached, otherwise the file is checked
+         * and the audit event filters are applied.
+         * @param file a file to process.
+         * @return the content hash and the accepted audit events of the file.
+         * @throws CheckstyleException if error condition within Checkstyle occurs.
+         * @throws InterruptedException if the thread is interrupted.
+         */
+        private FileProcessor.FileResult processFile(File file)
+                throws CheckstyleException, InterruptedException {
+            final List<FileSetCheck> checks = threadChecks.take();
+            try {
+                FileProcessor.FileResult result = fileProcessor.checkFile(file, checks);
+                if (!result.isCached()) {
+                    final List<AuditEvent> events =
+                            notifier.createEvents(file.getAbsolutePath(), result.getMessages());
+                    final FilterSet filterSet = threadFilters.take();
+                    try {
+                        events.removeIf(event -> !filterSet.accept(event));
+                    }
+                    finally {
+                        threadFilters.add(filterSet);
+                    }
+                    result = new FileProcessor.FileResult(result.getContentHash(), events.stream()
+                            .map(AuditEvent::getLocalizedMessage)
+                            .collect(Collectors.toList()), false);
+                }
+                return result;
+            }
+            finally {
+                threadChecks.add(checks);
+            }
+        }
+
+        /**
+         * Applies a filter shared between worker threads, one thread at a time.
+         * @param filter the filter.
+         * @param event the audit event.
+         * @return {@code true} if the filter accepts the event.
+         */
+        private boolean acceptSerialized(Filter filter, AuditEvent event) {
+            synchronized (filter) {
+                return filter.accept(event);
+            }
+        }
+
+        /**
+         * Notifies the listeners about the files at the head of the queue which are
+         * already processed, so that the results are not held back while the next
+         * file is requested from a slow source.
+         * @throws CheckstyleException if error condition within Checkstyle occurs.
+         */
+        private void finishCompletedFiles() throws CheckstyleException {
+            while (!pendingFiles.isEmpty() && pendingFiles.peek().result.isDone()) {
+                finishFile(pendingFiles.remove());
+            }
+        }
+
+        /**
+         * Waits for a file processed by a worker thread and notifies the listeners.
+         * @param pendingFile the file to finish.
+         * @throws CheckstyleException if error condition within Checkstyle occurs.
+         * @noinspection ProhibitedExceptionThrown
+         */
+        private void finishFile(PendingFile pendingFile) throws CheckstyleException {
+            final File file = pendingFile.file;
+            final FileProcessor.FileResult result;
+            try {
+                result = pendingFile.result.get();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                removeFromCache(file);
+                throw new CheckstyleException(
+                        FileProcessor.EXCEPTION_WHILE_PROCESSING + file.getPath(), ex);
+            }
+            catch (ExecutionException ex) {
+                removeFromCache(file);
+                final Throwable cause = ex.getCause();
+                if (cause instanceof Error) {
+                    throw new Error(FileProcessor.ERROR_WHILE_PROCESSING + file.getPath(), cause);
+                }
+                throw new CheckstyleException(
+                        FileProcessor.EXCEPTION_WHILE_PROCESSING + file.getPath(), cause);
+            }
+            final String fileName = file.getAbsolutePath();
+            final List<LocalizedMessage> messages = result.getMessages();
+            if (result.getContentHash() != null) {
+                cacheFile.put(fileName, result.getContentHash(), messages);
+            }
+            else if (cacheFile != null && !cacheViolations && messages.isEmpty()) {
+                cacheFile.put(fileName, pendingFile.timestamp);
+            }
+            fireFileStarted(fileName);
+            notifier.fireErrors(fileName, messages);
+            fireFileFinished(fileName);
+        }
+
+        /**
+         * Removes a file which failed to be processed from the cache, so that
+         * a stale entry does not skip it in the next audit.
+         * @param file the file.
+         */
+        private void removeFromCache(File file) {
+            if (cacheFile != null) {
+                cacheFile.remove(file.getAbsolutePath());
+            }
+        }
+
+    }
+
+    /**
+     * A file which is being processed by a worker thread.
+     */
+    private static final class PendingFile {
+
+        /** The file. */
+        private final File file;
+
+        /** The last modification time of the file. */
+        private final long timestamp;
+
+        /** The result of processing the file. */
+        private final Future<FileProcessor.FileResult> result;
+
+        /**
+         * Creates a new {@code PendingFile} instance.
+         * @param file the file.
+         * @param timestamp the last modification time of the file.
+         * @param result the result of processing the file.
+         */
+        /* package */ PendingFile(File file, long timestamp,
+                Future<FileProcessor.FileResult> result) {
+            this.file = file;
+            this.timestamp = timestamp;
+            this.result = result;
+        }
+
+    }
+
 }
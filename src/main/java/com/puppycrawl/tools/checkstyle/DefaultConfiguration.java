@@ -19,11 +19,19 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
@@ -135,8 +143,10 @@ public final class DefaultConfiguration implements Configuration {
      * Adds a custom message to this configuration.
      * @param key the message key
      * @param value the custom message pattern
+     * @throws IllegalArgumentException if the custom message pattern is not valid
      */
     public void addMessage(String key, String value) {
+        new MessageFormat(value, Locale.ROOT);
         messages.put(key, value);
     }
 
@@ -150,6 +160,72 @@ public final class DefaultConfiguration implements Configuration {
         return new HashMap<>(messages);
     }
 
+    /**
+     * Calculates a fingerprint of this configuration from the names, attributes,
+     * messages and children of its modules. The fingerprint does not depend on the
+     * order of attributes and messages, and it is the same for equal configurations
+     * between runs, so it can be used to invalidate cached results.
+     * @return the SHA-1 fingerprint, encoded like the other hashes of the cache file.
+     */
+    public String getFingerprint() {
+        try {
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            writeConfiguration(new DataOutputStream(content), this);
+            return PropertyCacheFile.getHashCode(content.toByteArray());
+        }
+        catch (final IOException | CheckstyleException ex) {
+            // rethrow as unchecked exception
+            throw new IllegalStateException("Unable to calculate fingerprint.", ex);
+        }
+    }
+
+    /**
+     * Writes a configuration and all its children to the fingerprint content.
+     * @param output the output of the fingerprint content.
+     * @param configuration the configuration.
+     * @throws IOException if the content cannot be written.
+     * @throws CheckstyleException if an attribute of the configuration cannot be read.
+     */
+    private static void writeConfiguration(DataOutputStream output,
+            Configuration configuration) throws IOException, CheckstyleException {
+        writeString(output, configuration.getName());
+        final String[] attributeNames = configuration.getAttributeNames();
+        Arrays.sort(attributeNames);
+        output.writeInt(attributeNames.length);
+        for (String attributeName : attributeNames) {
+            writeString(output, attributeName);
+            writeString(output, configuration.getAttribute(attributeName));
+        }
+        final Map<String, String> sortedMessages = new TreeMap<>(configuration.getMessages());
+        output.writeInt(sortedMessages.size());
+        for (Map.Entry<String, String> message : sortedMessages.entrySet()) {
+            writeString(output, message.getKey());
+            writeString(output, message.getValue());
+        }
+        final Configuration[] childConfigurations = configuration.getChildren();
+        output.writeInt(childConfigurations.length);
+        for (Configuration child : childConfigurations) {
+            writeConfiguration(output, child);
+        }
+    }
+
+    /**
+     * Writes a length prefixed string to the fingerprint content.
+     * @param output the output of the fingerprint content.
+     * @param value the string, may be {@code null}.
+     * @throws IOException if the content cannot be written.
+     */
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+        }
+        else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+    }
+
     /**
      * Gets the thread mode configuration.
      * @return the thread mode configuration.
@@ -19,6 +19,7 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import java.io.Flushable;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
@@ -40,7 +41,7 @@ import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
  *
  * @see XMLLogger
  */
-public class DefaultLogger extends AutomaticBean implements AuditListener {
+public class DefaultLogger extends AutomaticBean implements AuditListener, Flushable {
 
     /**
      * A key pointing to the add exception
@@ -71,6 +72,9 @@ public class DefaultLogger extends AutomaticBean implements AuditListener {
     /** Formatter for the log message. */
     private final AuditEventFormatter formatter;
 
+    /** Whether the info stream is flushed after each file. */
+    private boolean flushAfterFile = true;
+
     /**
      * Creates a new {@code DefaultLogger} instance.
      * @param outputStream where to log audit events
@@ -189,7 +193,27 @@ public class DefaultLogger extends AutomaticBean implements AuditListener {
 
     @Override
     public void fileFinished(AuditEvent event) {
+        if (flushAfterFile) {
+            infoWriter.flush();
+        }
+    }
+
+    /**
+     * Sets whether the info stream is flushed after each file. It is disabled
+     * when the flushing is controlled by {@link AsyncAuditListener}.
+     * @param flushAfterFile whether to flush after each file.
+     */
+    /* package */ void setFlushAfterFile(boolean flushAfterFile) {
+        this.flushAfterFile = flushAfterFile;
+    }
+
+    /**
+     * Flushes the output streams.
+     */
+    @Override
+    public void flush() {
         infoWriter.flush();
+        errorWriter.flush();
     }
 
     /**
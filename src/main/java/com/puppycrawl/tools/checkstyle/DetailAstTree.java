@@ -0,0 +1,682 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
+
+/**
+ * Immutable AST which keeps its nodes in parallel arrays indexed by node number.
+ * Nodes are numbered in document order, so the nodes of a branch have consecutive
+ * numbers. The token types of each branch are summarized once, after the tree is
+ * built, as a bit set packed into a shared array of words.
+ * {@link DetailAST} objects are created for the nodes on demand and are
+ * reused, so they can be compared by identity. The tree can be written
+ * in a compact binary form and read back without parsing the file again.
+ */
+final class DetailAstTree {
+
+    /** Number which means that there is no node. */
+    private static final int NONE = -1;
+
+    /** Number of bits to address a bit within a word of the branch token types. */
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    /** Initial capacity of the arrays. */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /** The greatest token type, which the nodes of a read AST may have. */
+    private static final int MAX_TOKEN_TYPE =
+            Arrays.stream(TokenUtil.getAllTokenIds()).max().getAsInt();
+
+    /** Number of nodes. */
+    private int size;
+
+    /** Types of the nodes. */
+    private int[] types = new int[INITIAL_CAPACITY];
+
+    /** Line numbers of the nodes. */
+    private int[] lineNumbers = new int[INITIAL_CAPACITY];
+
+    /** Column numbers of the nodes. */
+    private int[] columnNumbers = new int[INITIAL_CAPACITY];
+
+    /** Parents of the nodes. */
+    private int[] parents = new int[INITIAL_CAPACITY];
+
+    /** First children of the nodes. */
+    private int[] firstChildren = new int[INITIAL_CAPACITY];
+
+    /** Next siblings of the nodes. */
+    private int[] nextSiblings = new int[INITIAL_CAPACITY];
+
+    /** Previous siblings of the nodes. */
+    private int[] previousSiblings = new int[INITIAL_CAPACITY];
+
+    /** Texts of the nodes, equal texts of a copied AST share one string. */
+    private String[] texts = new String[INITIAL_CAPACITY];
+
+    /** Number of words of the branch token types per node. */
+    private int wordsPerNode;
+
+    /**
+     * Distinct sets of token types of the branches, {@link #wordsPerNode} words
+     * for each set. Bit {@code type} of the words of a set is set if the branch
+     * contains a token of the type.
+     */
+    private long[] branchTokenTypes;
+
+    /**
+     * Indices of the sets of token types of the branches of the nodes. Most branches
+     * have the same types as many others, so the sets are shared.
+     */
+    private int[] branchTokenTypeSets;
+
+    /** The nodes which have been requested. */
+    private Node[] nodes;
+
+    /**
+     * Creates an empty tree to add nodes to.
+     */
+    private DetailAstTree() {
+        // nodes are added by the caller
+    }
+
+    /**
+     * Creates a tree with the same structure and content as the given AST.
+     * @param root the first node of the AST, its next siblings are copied as well.
+     * @param nodesWithComments collection to add the nodes of the AST, for which
+     *     {@link JavaParser#hasHiddenCommentsBefore(DetailAST)} returns {@code true},
+     *     or {@code null} if they are not needed.
+     * @param withComments whether comment nodes and their children are copied.
+     */
+    private DetailAstTree(DetailAST root, Collection<DetailAST> nodesWithComments,
+            boolean withComments) {
+        final Map<String, String> sharedTexts = new HashMap<>();
+        DetailAST ast = root;
+        int parent = NONE;
+        int previous = NONE;
+        while (ast != null) {
+            DetailAST firstChild = null;
+            if (withComments || !TokenUtil.isCommentType(ast.getType())) {
+                if (nodesWithComments != null && JavaParser.hasHiddenCommentsBefore(ast)) {
+                    nodesWithComments.add(ast);
+                }
+                previous = addNode(ast.getType(), ast.getLineNo(), ast.getColumnNo(),
+                        sharedTexts.computeIfAbsent(ast.getText(), Function.identity()),
+                        parent, previous);
+                firstChild = ast.getFirstChild();
+            }
+            if (firstChild == null) {
+                DetailAST next = ast.getNextSibling();
+                while (next == null && parent != NONE) {
+                    ast = ast.getParent();
+                    previous = parent;
+                    parent = parents[parent];
+                    next = ast.getNextSibling();
+                }
+                ast = next;
+            }
+            else {
+                ast = firstChild;
+                parent = previous;
+                previous = NONE;
+            }
+        }
+        complete();
+    }
+
+    /**
+     * Creates a tree with the same structure and content as the given AST.
+     * @param root the first node of the AST, its next siblings are copied as well.
+     * @return the first node of the created tree, or {@code null} if the AST is empty.
+     */
+    /* package */ static DetailAST copyOf(DetailAST root) {
+        return copyOf(root, null);
+    }
+
+    /**
+     * Creates a tree with the same structure and content as the given AST
+     * created by {@link JavaParser#parse}, and collects its nodes with comments.
+     * @param root the first node of the AST, its next siblings are copied as well.
+     * @param nodesWithComments collection to add the nodes of the AST, for which
+     *     {@link JavaParser#hasHiddenCommentsBefore(DetailAST)} returns {@code true},
+     *     or {@code null} if they are not needed.
+     * @return the first node of the created tree, or {@code null} if the AST is empty.
+     */
+    /* package */ static DetailAST copyOf(DetailAST root,
+            Collection<DetailAST> nodesWithComments) {
+        DetailAST result = null;
+        if (root != null) {
+            result = new DetailAstTree(root, nodesWithComments, true).getRoot();
+        }
+        return result;
+    }
+
+    /**
+     * Creates a tree with the same structure and content as the given AST
+     * without its comment nodes.
+     * @param root the first node of the AST, its next siblings are copied as well.
+     * @return the first node of the created tree, or {@code null} if the AST has
+     *     no nodes other than comments.
+     */
+    /* package */ static DetailAST copyWithoutComments(DetailAST root) {
+        return new DetailAstTree(root, null, false).getRoot();
+    }
+
+    /**
+     * Writes the AST in a compact binary form, which is read by
+     * {@link #read(ByteBuffer)}. Texts of the nodes are written once and
+     * the nodes refer to them by index.
+     * @param root the first node of the AST, its next siblings are written as well,
+     *     may be {@code null}.
+     * @param output the output to write to.
+     * @throws IOException if the AST cannot be written.
+     */
+    /* package */ static void write(DetailAST root, DataOutput output) throws IOException {
+        final DetailAstTree tree;
+        if (root instanceof Node) {
+            tree = ((Node) root).getTree();
+        }
+        else {
+            tree = new DetailAstTree(root, null, true);
+        }
+        tree.writeNodes(output);
+    }
+
+    /**
+     * Reads an AST written by {@link #write(DetailAST, DataOutput)}.
+     * @param input the buffer to read from.
+     * @return the first node of the AST, or {@code null} if the AST is empty.
+     * @throws IOException if the AST is not valid.
+     */
+    /* package */ static DetailAST read(ByteBuffer input) throws IOException {
+        final String[] textTable = new String[readCount(input)];
+        for (int index = 0; index < textTable.length; index++) {
+            final byte[] bytes = new byte[readCount(input)];
+            input.get(bytes);
+            textTable[index] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        final int count = readCount(input);
+        final DetailAstTree tree = new DetailAstTree();
+        final int[] lastChildren = new int[count];
+        int lastRoot = NONE;
+        for (int node = 0; node < count; node++) {
+            final int type = input.getInt();
+            final int lineNumber = input.getInt();
+            final int columnNumber = input.getInt();
+            final int text = input.getInt();
+            final int parent = input.getInt();
+            if (parent < NONE || parent >= node || text < 0 || text >= textTable.length) {
+                throw new IOException("Invalid node " + node);
+            }
+            if (!isValidToken(type, lineNumber, columnNumber)) {
+                throw new IOException("Invalid token of node " + node);
+            }
+            lastChildren[node] = NONE;
+            final int previous;
+            if (parent == NONE) {
+                previous = lastRoot;
+                lastRoot = node;
+            }
+            else {
+                previous = lastChildren[parent];
+                lastChildren[parent] = node;
+            }
+            tree.addNode(type, lineNumber, columnNumber, textTable[text], parent, previous);
+        }
+        tree.complete();
+        return tree.getRoot();
+    }
+
+    /**
+     * Checks whether a read token is one, which the parser may create. Line and
+     * column numbers are {@code -1} for nodes without a position.
+     * @param type the token type.
+     * @param lineNumber the line number.
+     * @param columnNumber the column number.
+     * @return true if the token is valid.
+     */
+    private static boolean isValidToken(int type, int lineNumber, int columnNumber) {
+        return type >= 0 && type <= MAX_TOKEN_TYPE
+                && lineNumber >= NONE && columnNumber >= NONE;
+    }
+
+    /**
+     * Reads the number of the following items, which are not shorter than a byte.
+     * @param input the buffer to read from.
+     * @return the number of items.
+     * @throws IOException if the number does not fit the rest of the buffer.
+     */
+    /* package */ static int readCount(ByteBuffer input) throws IOException {
+        final int count = input.getInt();
+        if (count < 0 || count > input.remaining()) {
+            throw new IOException("Invalid number of items " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Adds a node as the next sibling of the previous node or the first child
+     * of the parent.
+     * @param type the type of the node.
+     * @param lineNumber the line number of the node.
+     * @param columnNumber the column number of the node.
+     * @param text the text of the node.
+     * @param parent number of the parent node.
+     * @param previous number of the previous sibling.
+     * @return number of the added node.
+     */
+    private int addNode(int type, int lineNumber, int columnNumber, String text,
+            int parent, int previous) {
+        if (size == types.length) {
+            grow();
+        }
+        final int node = size;
+        size++;
+        types[node] = type;
+        lineNumbers[node] = lineNumber;
+        columnNumbers[node] = columnNumber;
+        texts[node] = text;
+        parents[node] = parent;
+        firstChildren[node] = NONE;
+        nextSiblings[node] = NONE;
+        previousSiblings[node] = previous;
+        if (previous != NONE) {
+            nextSiblings[previous] = node;
+        }
+        else if (parent != NONE) {
+            firstChildren[parent] = node;
+        }
+        return node;
+    }
+
+    /**
+     * Increases capacity of the arrays twice.
+     */
+    private void grow() {
+        resize(types.length * 2);
+    }
+
+    /**
+     * Changes capacity of the arrays.
+     * @param capacity the new capacity.
+     */
+    private void resize(int capacity) {
+        types = Arrays.copyOf(types, capacity);
+        lineNumbers = Arrays.copyOf(lineNumbers, capacity);
+        columnNumbers = Arrays.copyOf(columnNumbers, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        firstChildren = Arrays.copyOf(firstChildren, capacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+        previousSiblings = Arrays.copyOf(previousSiblings, capacity);
+        texts = Arrays.copyOf(texts, capacity);
+    }
+
+    /**
+     * Completes the tree when all nodes have been added, trimming the arrays to its size.
+     */
+    private void complete() {
+        resize(size);
+        summarizeBranches();
+        nodes = new Node[size];
+    }
+
+    /**
+     * Writes the tree in the form read by {@link #read(ByteBuffer)}.
+     * @param output the output to write to.
+     * @throws IOException if the tree cannot be written.
+     */
+    private void writeNodes(DataOutput output) throws IOException {
+        final Map<String, Integer> textIndices = new LinkedHashMap<>();
+        for (int node = 0; node < size; node++) {
+            textIndices.putIfAbsent(texts[node], textIndices.size());
+        }
+        output.writeInt(textIndices.size());
+        for (String text : textIndices.keySet()) {
+            final byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+        output.writeInt(size);
+        for (int node = 0; node < size; node++) {
+            output.writeInt(types[node]);
+            output.writeInt(lineNumbers[node]);
+            output.writeInt(columnNumbers[node]);
+            output.writeInt(textIndices.get(texts[node]));
+            output.writeInt(parents[node]);
+        }
+    }
+
+    /**
+     * Computes the token types of all branches in a single pass. Children have
+     * greater numbers than their parents, so visiting the nodes in reverse order
+     * completes each branch before it is added to the branch of the parent.
+     * Equal sets of types are then stored once.
+     */
+    private void summarizeBranches() {
+        int maxType = 0;
+        for (int node = 0; node < size; node++) {
+            maxType = Math.max(maxType, types[node]);
+        }
+        wordsPerNode = (maxType >> ADDRESS_BITS_PER_WORD) + 1;
+        final long[] words = new long[size * wordsPerNode];
+        for (int node = size - 1; node >= 0; node--) {
+            final int offset = node * wordsPerNode;
+            words[offset + (types[node] >> ADDRESS_BITS_PER_WORD)] |= 1L << types[node];
+            final int parent = parents[node];
+            if (parent != NONE) {
+                final int parentOffset = parent * wordsPerNode;
+                for (int word = 0; word < wordsPerNode; word++) {
+                    words[parentOffset + word] |= words[offset + word];
+                }
+            }
+        }
+        shareBranches(words);
+    }
+
+    /**
+     * Stores each distinct set of token types of the branches once.
+     * @param words the sets of token types of all nodes.
+     */
+    private void shareBranches(long[] words) {
+        final BranchSets sets = new BranchSets(wordsPerNode);
+        branchTokenTypeSets = new int[size];
+        for (int node = 0; node < size; node++) {
+            branchTokenTypeSets[node] = sets.add(words, node * wordsPerNode);
+        }
+        branchTokenTypes = sets.toArray();
+    }
+
+    /**
+     * Returns the first node of the tree.
+     * @return the first node, or {@code null} if the tree is empty.
+     */
+    private Node getRoot() {
+        Node root = null;
+        if (size > 0) {
+            root = getNode(0);
+        }
+        return root;
+    }
+
+    /**
+     * Returns the node object for a node number, creating it on first request.
+     * @param node number of the node.
+     * @return the node object, or null for {@link #NONE}.
+     */
+    private Node getNode(int node) {
+        Node result = null;
+        if (node != NONE) {
+            result = nodes[node];
+            if (result == null) {
+                result = new Node(node);
+                nodes[node] = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Node of the tree.
+     */
+    private final class Node implements DetailAST {
+
+        /** Number of the node. */
+        private final int number;
+
+        /**
+         * Creates a node object.
+         * @param number number of the node.
+         */
+        /* package */ Node(int number) {
+            this.number = number;
+        }
+
+        /**
+         * Returns the tree of the node.
+         * @return the tree.
+         */
+        private DetailAstTree getTree() {
+            return DetailAstTree.this;
+        }
+
+        @Override
+        public int getChildCount() {
+            int count = 0;
+            for (int child = firstChildren[number]; child != NONE; child = nextSiblings[child]) {
+                count++;
+            }
+            return count;
+        }
+
+        @Override
+        public int getChildCount(int type) {
+            int count = 0;
+            for (int child = firstChildren[number]; child != NONE; child = nextSiblings[child]) {
+                if (types[child] == type) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public DetailAST getParent() {
+            return getNode(parents[number]);
+        }
+
+        @Override
+        public String getText() {
+            return texts[number];
+        }
+
+        @Override
+        public int getType() {
+            return types[number];
+        }
+
+        @Override
+        public int getLineNo() {
+            return lineNumbers[number];
+        }
+
+        @Override
+        public int getColumnNo() {
+            return columnNumbers[number];
+        }
+
+        @Override
+        public DetailAST getLastChild() {
+            int lastChild = firstChildren[number];
+            if (lastChild != NONE) {
+                while (nextSiblings[lastChild] != NONE) {
+                    lastChild = nextSiblings[lastChild];
+                }
+            }
+            return getNode(lastChild);
+        }
+
+        @Override
+        public boolean branchContains(int type) {
+            final int word = type >> ADDRESS_BITS_PER_WORD;
+            return type >= 0 && word < wordsPerNode
+                    && (branchTokenTypes[branchTokenTypeSets[number] * wordsPerNode + word]
+                        & 1L << type) != 0;
+        }
+
+        @Override
+        public DetailAST getPreviousSibling() {
+            return getNode(previousSiblings[number]);
+        }
+
+        @Override
+        public DetailAST findFirstToken(int type) {
+            int child = firstChildren[number];
+            while (child != NONE && types[child] != type) {
+                child = nextSiblings[child];
+            }
+            return getNode(child);
+        }
+
+        @Override
+        public DetailAST getNextSibling() {
+            return getNode(nextSiblings[number]);
+        }
+
+        @Override
+        public DetailAST getFirstChild() {
+            return getNode(firstChildren[number]);
+        }
+
+        @Override
+        public int getNumberOfChildren() {
+            return getChildCount();
+        }
+
+        @Override
+        public String toString() {
+            return getText() + "[" + getLineNo() + "x" + getColumnNo() + "]";
+        }
+
+    }
+
+    /**
+     * Distinct sets of token types, which are found by an open addressing hash table,
+     * so that adding the set of a node does not create objects.
+     */
+    private static final class BranchSets {
+
+        /** Multiplier of the hash code of a set. */
+        private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+        /** Number of words of a set. */
+        private final int wordsPerSet;
+
+        /** Words of the distinct sets. */
+        private long[] sets;
+
+        /** Number of the distinct sets. */
+        private int count;
+
+        /** Indices of the sets by their hash codes, {@link #NONE} for empty slots. */
+        private int[] table = new int[INITIAL_CAPACITY];
+
+        /**
+         * Creates an empty collection of sets.
+         * @param wordsPerSet number of words of a set.
+         */
+        /* package */ BranchSets(int wordsPerSet) {
+            this.wordsPerSet = wordsPerSet;
+            sets = new long[INITIAL_CAPACITY * wordsPerSet];
+            Arrays.fill(table, NONE);
+        }
+
+        /**
+         * Adds a set unless an equal set has been added.
+         * @param words the words containing the set.
+         * @param offset index of the first word of the set.
+         * @return index of the set.
+         */
+        /* package */ int add(long[] words, int offset) {
+            int slot = findSlot(words, offset);
+            if (table[slot] == NONE) {
+                if (count == sets.length / wordsPerSet) {
+                    sets = Arrays.copyOf(sets, sets.length * 2);
+                }
+                System.arraycopy(words, offset, sets, count * wordsPerSet, wordsPerSet);
+                table[slot] = count;
+                count++;
+                if (count * 2 > table.length) {
+                    rehash();
+                    slot = findSlot(words, offset);
+                }
+            }
+            return table[slot];
+        }
+
+        /**
+         * Returns the words of all sets.
+         * @return the words of the sets in the order they were added.
+         */
+        /* package */ long[] toArray() {
+            return Arrays.copyOf(sets, count * wordsPerSet);
+        }
+
+        /**
+         * Finds the slot of the set, or the empty slot to add it to.
+         * @param words the words containing the set.
+         * @param offset index of the first word of the set.
+         * @return the slot.
+         */
+        private int findSlot(long[] words, int offset) {
+            long hash = 0;
+            for (int word = 0; word < wordsPerSet; word++) {
+                hash = (hash + words[offset + word]) * HASH_MULTIPLIER;
+            }
+            final int mask = table.length - 1;
+            int slot = (int) (hash >>> Integer.SIZE) & mask;
+            while (table[slot] != NONE && !isEqual(words, offset, table[slot])) {
+                slot = slot + 1 & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Checks whether the set is equal to an added set.
+         * @param words the words containing the set.
+         * @param offset index of the first word of the set.
+         * @param index index of the added set.
+         * @return true if the sets are equal.
+         */
+        private boolean isEqual(long[] words, int offset, int index) {
+            final int setOffset = index * wordsPerSet;
+            int word = 0;
+            while (word < wordsPerSet && words[offset + word] == sets[setOffset + word]) {
+                word++;
+            }
+            return word == wordsPerSet;
+        }
+
+        /**
+         * Doubles the size of the hash table.
+         */
+        private void rehash() {
+            table = new int[table.length * 2];
+            Arrays.fill(table, NONE);
+            for (int index = 0; index < count; index++) {
+                table[findSlot(sets, index * wordsPerSet)] = index;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,385 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+
+/**
+ * Reads files, looks them up in the cache and processes them with the FileSetChecks
+ * of a {@link Checker}. The processor is used by all threads of an audit, while
+ * each thread passes its own set of FileSetChecks.
+ */
+final class FileProcessor {
+
+    /** Message of the exception thrown when a file cannot be processed. */
+    static final String EXCEPTION_WHILE_PROCESSING = "Exception was thrown while processing ";
+
+    /** Message of the error thrown when a file cannot be processed. */
+    static final String ERROR_WHILE_PROCESSING = "Error was thrown while processing ";
+
+    /** Logger for the processor, which logs as Checker. */
+    private static final Log LOG = LogFactory.getLog(Checker.class);
+
+    /** Name of the charset of the files. */
+    private final String charset;
+
+    /** Cache of parsed Java files, or {@code null} if they are not cached. */
+    private final JavaAstCache astCache;
+
+    /** Cache file, or {@code null} if files are not cached. */
+    private final PropertyCacheFile cacheFile;
+
+    /** Whether files are cached by a hash of their content together with their violations. */
+    private final boolean cacheViolations;
+
+    /** The class loader to find the source classes of cached violations. */
+    private final ClassLoader cacheClassLoader;
+
+    /** Controls whether exceptions should halt execution or not. */
+    private final boolean haltOnException;
+
+    /** Shared fileset checks which are called by one thread at a time. */
+    private final Set<FileSetCheck> serializedFileSetChecks;
+
+    /**
+     * Creates a new {@code FileProcessor} instance.
+     * @param charset the name of the charset of the files.
+     * @param astCache the cache of parsed Java files, may be {@code null}.
+     * @param cacheFile the cache file, may be {@code null}.
+     * @param cacheViolations whether files are cached with their violations.
+     * @param moduleClassLoader the class loader of the modules, which finds the
+     *     source classes of cached violations, may be {@code null}.
+     * @param haltOnException whether exceptions should halt execution.
+     * @param serializedFileSetChecks the shared fileset checks which are called
+     *     by one thread at a time.
+     */
+    /* package */ FileProcessor(String charset, JavaAstCache astCache,
+            PropertyCacheFile cacheFile, boolean cacheViolations, ClassLoader moduleClassLoader,
+            boolean haltOnException, Set<FileSetCheck> serializedFileSetChecks) {
+        this.charset = charset;
+        this.astCache = astCache;
+        this.cacheFile = cacheFile;
+        this.cacheViolations = cacheViolations;
+        if (moduleClassLoader == null) {
+            cacheClassLoader = Checker.class.getClassLoader();
+        }
+        else {
+            cacheClassLoader = moduleClassLoader;
+        }
+        this.haltOnException = haltOnException;
+        this.serializedFileSetChecks = serializedFileSetChecks;
+    }
+
+    /**
+     * Processes files with all FileSetChecks.
+     * @param files an iterator over the files to process.
+     * @param checks the FileSetChecks to process the files with.
+     * @param notifier the notifier of the listeners.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     * @noinspection ProhibitedExceptionThrown
+     */
+    //-@cs[CyclomaticComplexity] no easy way to split this logic of processing the file
+    public void processFiles(Iterator<File> files, List<FileSetCheck> checks,
+            AuditEventNotifier notifier) throws CheckstyleException {
+        while (files.hasNext()) {
+            final File file = files.next();
+            String fileName = null;
+            try {
+                fileName = file.getAbsolutePath();
+                final long timestamp = file.lastModified();
+                if (isInTimestampCache(fileName, timestamp)
+                        || !notifier.acceptFileStarted(fileName)) {
+                    continue;
+                }
+                if (!cacheViolations && cacheFile != null) {
+                    cacheFile.put(fileName, timestamp);
+                }
+                notifier.fireFileStarted(fileName);
+                final FileResult result = checkFile(file, checks);
+                if (result.isCached()) {
+                    notifier.fireErrors(fileName, result.getMessages());
+                }
+                else {
+                    final List<LocalizedMessage> acceptedMessages =
+                            notifier.fireAcceptedErrors(fileName, result.getMessages());
+                    if (result.getContentHash() != null) {
+                        cacheFile.put(fileName, result.getContentHash(), acceptedMessages);
+                    }
+                    else if (cacheFile != null && !acceptedMessages.isEmpty()) {
+                        cacheFile.remove(fileName);
+                    }
+                }
+                notifier.fireFileFinished(fileName);
+            }
+            // -@cs[IllegalCatch] There is no other way to deliver filename that was under
+            // processing. See https://github.com/checkstyle/checkstyle/issues/2285
+            catch (Exception ex) {
+                if (fileName != null && cacheFile != null) {
+                    cacheFile.remove(fileName);
+                }
+
+                // We need to catch all exceptions to put a reason failure (file name) in exception
+                throw new CheckstyleException(EXCEPTION_WHILE_PROCESSING + file.getPath(), ex);
+            }
+            catch (Error error) {
+                if (fileName != null && cacheFile != null) {
+                    cacheFile.remove(fileName);
+                }
+
+                // We need to catch all errors to put a reason failure (file name) in error
+                throw new Error(ERROR_WHILE_PROCESSING + file.getPath(), error);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a file has checked ok with the same timestamp before.
+     * Always {@code false} when files are cached with their violations.
+     * @param fileName the file to check.
+     * @param timestamp the timestamp of the file.
+     * @return {@code true} if the file does not need to be processed.
+     */
+    public boolean isInTimestampCache(String fileName, long timestamp) {
+        return cacheFile != null && !cacheViolations && cacheFile.isInCache(fileName, timestamp);
+    }
+
+    /**
+     * Reads a file and processes it with all FileSetChecks, unless the file is
+     * cached with its violations. The content hash is calculated from the text
+     * which is read for processing, so the file is read once.
+     * @param file a file to process.
+     * @param checks the FileSetChecks to process the file with.
+     * @return the content hash of the file and its cached violations or the
+     *     messages to be logged.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    public FileResult checkFile(File file, List<FileSetCheck> checks)
+            throws CheckstyleException {
+        String contentHash = null;
+        List<LocalizedMessage> cachedMessages = null;
+        List<LocalizedMessage> fileMessages;
+        try {
+            final FileText theText = new FileText(file.getAbsoluteFile(), charset);
+            if (cacheViolations && cacheFile != null) {
+                contentHash = PropertyCacheFile.getContentHash(theText);
+                cachedMessages = cacheFile.getViolations(file.getAbsolutePath(), contentHash,
+                        cacheClassLoader);
+            }
+            if (cachedMessages == null) {
+                fileMessages = processFile(file, theText, checks);
+            }
+            else {
+                fileMessages = cachedMessages;
+            }
+        }
+        catch (final IOException ioe) {
+            LOG.debug("IOException occurred.", ioe);
+            fileMessages = Collections.singletonList(new LocalizedMessage(1,
+                    Definitions.CHECKSTYLE_BUNDLE, Checker.EXCEPTION_MSG,
+                    new String[] {ioe.getMessage()}, null, Checker.class, null));
+        }
+        return new FileResult(contentHash, fileMessages, cachedMessages != null);
+    }
+
+    /**
+     * Processes a file with all FileSetChecks.
+     * @param file a file to process.
+     * @param theText the text of the file.
+     * @param checks the FileSetChecks to process the file with.
+     * @return the sorted messages to be logged.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     * @noinspection ProhibitedExceptionThrown
+     */
+    private List<LocalizedMessage> processFile(File file, FileText theText,
+            List<FileSetCheck> checks) throws CheckstyleException {
+        final List<LocalizedMessage> fileMessages = new ArrayList<>();
+        try {
+            final JavaParseResult parseResult = new JavaParseResult(theText, astCache,
+                    hasTreeWalker(checks, TreeWalker::hasOrdinaryChecks),
+                    hasTreeWalker(checks, TreeWalker::hasCommentChecks));
+            for (final FileSetCheck fsc : checks) {
+                if (serializedFileSetChecks.contains(fsc)) {
+                    synchronized (fsc) {
+                        runFileSetCheck(fsc, file, theText, parseResult, fileMessages);
+                    }
+                }
+                else {
+                    runFileSetCheck(fsc, file, theText, parseResult, fileMessages);
+                }
+            }
+        }
+        // -@cs[IllegalCatch] There is no other way to obey haltOnException field
+        catch (Exception ex) {
+            if (haltOnException) {
+                throw ex;
+            }
+
+            LOG.debug("Exception occurred.", ex);
+
+            final StringWriter sw = new StringWriter();
+            final PrintWriter pw = new PrintWriter(sw, true);
+
+            ex.printStackTrace(pw);
+
+            fileMessages.add(new LocalizedMessage(1,
+                    Definitions.CHECKSTYLE_BUNDLE, Checker.EXCEPTION_MSG,
+                    new String[] {sw.getBuffer().toString()},
+                    null, Checker.class, null));
+        }
+        return sortMessages(fileMessages);
+    }
+
+    /**
+     * Sorts the messages of a file reported by all fileset checks. Equal messages
+     * are reported once, as they were when each check collected them in a sorted set.
+     * @param messages the messages of the file in the order they were reported.
+     * @return the sorted messages.
+     */
+    private static List<LocalizedMessage> sortMessages(List<LocalizedMessage> messages) {
+        Collections.sort(messages);
+        final List<LocalizedMessage> result = new ArrayList<>(messages.size());
+        LocalizedMessage previous = null;
+        for (final LocalizedMessage message : messages) {
+            if (previous == null || previous.compareTo(message) != 0) {
+                result.add(message);
+                previous = message;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether a tree walker matches the condition, for example whether it
+     * has checks, which require comment nodes. Forms of the AST, which no walker
+     * requires, are not copied.
+     * @param checks the FileSetChecks to process a file with.
+     * @param condition the condition.
+     * @return true if a tree walker matches the condition.
+     */
+    private static boolean hasTreeWalker(List<FileSetCheck> checks,
+            Predicate<TreeWalker> condition) {
+        boolean result = false;
+        for (FileSetCheck fsc : checks) {
+            if (fsc instanceof TreeWalker && condition.test((TreeWalker) fsc)) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Processes a file with a FileSetCheck. Tree walkers share the result of
+     * parsing the file, so it is parsed once at most.
+     * @param fsc the FileSetCheck.
+     * @param file the file to process.
+     * @param fileText the text of the file.
+     * @param parseResult the result of parsing the file, which is parsed when
+     *     a tree walker needs it.
+     * @param messages the list to add the messages of the FileSetCheck to.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    private static void runFileSetCheck(FileSetCheck fsc, File file, FileText fileText,
+            JavaParseResult parseResult, List<LocalizedMessage> messages)
+            throws CheckstyleException {
+        if (fsc instanceof TreeWalker) {
+            ((TreeWalker) fsc).processUnsorted(file, fileText, parseResult, messages);
+        }
+        else if (fsc instanceof AbstractFileSetCheck) {
+            ((AbstractFileSetCheck) fsc).processUnsorted(file, fileText, messages);
+        }
+        else {
+            messages.addAll(fsc.process(file, fileText));
+        }
+    }
+
+    /**
+     * The result of processing a file.
+     */
+    public static final class FileResult {
+
+        /** The content hash of the file if it is cached with its violations. */
+        private final String contentHash;
+
+        /** The messages of the file. */
+        private final List<LocalizedMessage> messages;
+
+        /** Whether the messages are taken from the cache. */
+        private final boolean cached;
+
+        /**
+         * Creates a new {@code FileResult} instance.
+         * @param contentHash the content hash of the file, may be {@code null}.
+         * @param messages the messages of the file.
+         * @param cached whether the messages are taken from the cache.
+         */
+        /* package */ FileResult(String contentHash, List<LocalizedMessage> messages,
+                boolean cached) {
+            this.contentHash = contentHash;
+            this.messages = messages;
+            this.cached = cached;
+        }
+
+        /**
+         * Returns the content hash of the file.
+         * @return the content hash, or {@code null} if the file is not cached
+         *     with its violations.
+         */
+        public String getContentHash() {
+            return contentHash;
+        }
+
+        /**
+         * Returns the messages of the file.
+         * @return the messages.
+         */
+        public List<LocalizedMessage> getMessages() {
+            return messages;
+        }
+
+        /**
+         * Checks whether the messages are taken from the cache.
+         * @return {@code true} if the messages are taken from the cache.
+         */
+        public boolean isCached() {
+            return cached;
+        }
+
+    }
+
+}
@@ -0,0 +1,267 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.TextBlock;
+import com.puppycrawl.tools.checkstyle.grammar.GeneratedJavaRecognizer;
+
+/**
+ * Cache of parsed Java files on disk, which lets reruns with other checks skip
+ * lexing and parsing of files which have not changed. An entry keeps the AST of
+ * a file with comment nodes and the positions of the comments in a compact binary
+ * form. Entries are named by a SHA-1 hash of the file text and kept in a
+ * subdirectory named by a hash of the grammar version, so changes of the grammar
+ * do not use stale entries. Entries are memory-mapped when they are read.
+ * An entry which cannot be read is treated as missing and replaced, and an entry
+ * which cannot be written is logged and skipped, so the cache never fails an audit.
+ * The cache can be used by several threads and processes.
+ */
+public final class JavaAstCache {
+
+    /** The first bytes of an entry. */
+    private static final int MAGIC = 0x43534154;
+
+    /** The version of the format of entries. */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The version of the lexer and the parser. It must be incremented whenever
+     * java.g, {@link JavaLexer} or the way {@link JavaParser} appends comment nodes
+     * changes the AST of some file, as entries of the previous version are read
+     * as they are. The version of Checkstyle is not enough, as it is missing or
+     * unchanged during development.
+     */
+    private static final int GRAMMAR_VERSION = 1;
+
+    /** Extension of the entries. */
+    private static final String ENTRY_EXTENSION = ".ast";
+
+    /** Extension of the entries, which are being written. */
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    /** Number of the values of a single line comment in an entry. */
+    private static final int SINGLE_LINE_COMMENT_VALUES = 2;
+
+    /** Number of the values of a block comment in an entry. */
+    private static final int BLOCK_COMMENT_VALUES = 4;
+
+    /** Orders comments by their position in the file. */
+    private static final Comparator<TextBlock> COMMENT_ORDER =
+            Comparator.comparingInt(TextBlock::getStartLineNo)
+                    .thenComparingInt(TextBlock::getStartColNo);
+
+    /** The directory of the entries of the current grammar version. */
+    private final Path directory;
+
+    /** Logger for failures to write entries. */
+    private final Log log;
+
+    /**
+     * Creates a cache in the given directory, creating the directory if needed.
+     * @param baseDirectory the directory of the cache.
+     * @throws IOException if the directory cannot be created.
+     */
+    public JavaAstCache(Path baseDirectory) throws IOException {
+        directory = Files.createDirectories(baseDirectory.resolve(getGrammarVersion()));
+        log = LogFactory.getLog(JavaAstCache.class);
+    }
+
+    /**
+     * Calculates the key of the entry of a file.
+     * @param text the text of the file.
+     * @return the key of the entry.
+     */
+    /* package */ static String getKey(FileText text) {
+        return PropertyCacheFile.getContentHash(text);
+    }
+
+    /**
+     * Reads the entry of a file and reports the comments of the file to its contents.
+     * @param key the key of the entry.
+     * @param contents the contents of the file.
+     * @return the first node of the AST with comment nodes, or {@code null}
+     *     if there is no valid entry.
+     */
+    /* package */ DetailAST get(String key, FileContents contents) {
+        DetailAST result = null;
+        final Path file = directory.resolve(key + ENTRY_EXTENSION);
+        if (Files.isRegularFile(file)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                result = read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+                        contents);
+            }
+            catch (final IOException | BufferUnderflowException ignored) {
+                // entry is broken or removed, the file is parsed and the entry is written again
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes the entry of a file. The file is checked without the entry if it
+     * cannot be written, for example when the disk is full.
+     * @param key the key of the entry.
+     * @param contents the contents of the file with the reported comments.
+     * @param astWithComments the first node of the AST with comment nodes.
+     */
+    /* package */ void put(String key, FileContents contents, DetailAST astWithComments) {
+        try {
+            write(key, contents, astWithComments);
+        }
+        catch (IOException ex) {
+            log.debug("Unable to cache the AST of " + contents.getFileName(), ex);
+        }
+    }
+
+    /**
+     * Writes the entry of a file. The entry is written to a temporary file
+     * and moved in place, so readers never see a partially written entry.
+     * @param key the key of the entry.
+     * @param contents the contents of the file with the reported comments.
+     * @param astWithComments the first node of the AST with comment nodes.
+     * @throws IOException if the entry cannot be written.
+     */
+    private void write(String key, FileContents contents, DetailAST astWithComments)
+            throws IOException {
+        final Path temporary = Files.createTempFile(directory, key, TEMPORARY_EXTENSION);
+        try {
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeInt(MAGIC);
+                writeComments(contents, output);
+                DetailAstTree.write(astWithComments, output);
+            }
+            Files.move(temporary, directory.resolve(key + ENTRY_EXTENSION),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Reads an entry. The comments are reported to the contents only when
+     * the whole entry has been read.
+     * @param input the buffer of the entry.
+     * @param contents the contents of the file.
+     * @return the first node of the AST with comment nodes.
+     * @throws IOException if the entry is not valid.
+     */
+    private static DetailAST read(ByteBuffer input, FileContents contents)
+            throws IOException {
+        if (input.getInt() != MAGIC) {
+            throw new IOException("Invalid cache entry");
+        }
+        final IntBuffer singleLineComments = readValues(input, SINGLE_LINE_COMMENT_VALUES);
+        final IntBuffer blockComments = readValues(input, BLOCK_COMMENT_VALUES);
+        final DetailAST result = DetailAstTree.read(input);
+        while (singleLineComments.hasRemaining()) {
+            contents.reportSingleLineComment(singleLineComments.get(), singleLineComments.get());
+        }
+        while (blockComments.hasRemaining()) {
+            contents.reportBlockComment(blockComments.get(), blockComments.get(),
+                    blockComments.get(), blockComments.get());
+        }
+        return result;
+    }
+
+    /**
+     * Reads the positions of comments.
+     * @param input the buffer of the entry.
+     * @param valuesPerComment number of values of each comment.
+     * @return the values of all comments.
+     * @throws IOException if the number of comments is not valid.
+     */
+    private static IntBuffer readValues(ByteBuffer input, int valuesPerComment)
+            throws IOException {
+        final int count = DetailAstTree.readCount(input);
+        if (count > input.remaining() / (valuesPerComment * Integer.BYTES)) {
+            throw new IOException("Invalid number of comments " + count);
+        }
+        final int[] values = new int[count * valuesPerComment];
+        input.asIntBuffer().get(values);
+        input.position(input.position() + values.length * Integer.BYTES);
+        return IntBuffer.wrap(values);
+    }
+
+    /**
+     * Writes the positions of the comments reported to the contents, so that they
+     * can be reported again in the same order.
+     * @param contents the contents of the file.
+     * @param output the output to write to.
+     * @throws IOException if the comments cannot be written.
+     */
+    private static void writeComments(FileContents contents, DataOutputStream output)
+            throws IOException {
+        final List<TextBlock> singleLineComments = contents.getSingleLineComments().values()
+                .stream().sorted(COMMENT_ORDER).collect(Collectors.toList());
+        output.writeInt(singleLineComments.size());
+        for (TextBlock comment : singleLineComments) {
+            output.writeInt(comment.getStartLineNo());
+            output.writeInt(comment.getStartColNo());
+        }
+        final List<TextBlock> blockComments = contents.getBlockComments().values().stream()
+                .flatMap(List::stream).sorted(COMMENT_ORDER).collect(Collectors.toList());
+        output.writeInt(blockComments.size());
+        for (TextBlock comment : blockComments) {
+            output.writeInt(comment.getStartLineNo());
+            output.writeInt(comment.getStartColNo());
+            output.writeInt(comment.getEndLineNo());
+            output.writeInt(comment.getEndColNo());
+        }
+    }
+
+    /**
+     * Calculates the version of the grammar, which depends on the version of
+     * the lexer and the parser, the version of Checkstyle, the token types and
+     * the format of entries.
+     * @return the hash of the grammar version.
+     */
+    private static String getGrammarVersion() {
+        final String version = String.join(":", String.valueOf(FORMAT_VERSION),
+                String.valueOf(GRAMMAR_VERSION),
+                JavaAstCache.class.getPackage().getImplementationVersion(),
+                String.join(",", GeneratedJavaRecognizer._tokenNames));
+        return PropertyCacheFile.getHashCode(version.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,1120 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import antlr.CharScanner;
+import antlr.CommonHiddenStreamToken;
+import antlr.MismatchedCharException;
+import antlr.NoViableAltForCharException;
+import antlr.RecognitionException;
+import antlr.SemanticException;
+import antlr.Token;
+import antlr.TokenStream;
+import antlr.TokenStreamException;
+import antlr.TokenStreamRecognitionException;
+import com.puppycrawl.tools.checkstyle.grammar.CommentListener;
+import com.puppycrawl.tools.checkstyle.grammar.GeneratedJavaRecognizer;
+import com.puppycrawl.tools.checkstyle.grammar.GeneratedJavaTokenTypes;
+
+/**
+ * Lexer of Java source code, which scans the text directly and produces the same
+ * tokens as the lexer generated from the grammar: the same types, texts, lines and
+ * columns, the same reports to the comment listener, and the same errors.
+ * Whitespace is skipped without creating tokens, and the tokens of operators
+ * share their texts. Changes of the produced tokens must increment the grammar
+ * version of {@link JavaAstCache}. The lexer generated from the grammar is kept
+ * only as the source of the token types and to test this lexer against it.
+ */
+final class JavaLexer implements TokenStream {
+
+    /** Character which ends the text, a character of the text with this code ends it too. */
+    private static final char EOF_CHAR = CharScanner.EOF_CHAR;
+
+    /** Number of characters the lexer may look at past the end of the text. */
+    private static final int LOOKAHEAD = 4;
+
+    /** Result of matching, which means that the text does not match. */
+    private static final int NONE = -1;
+
+    /** Radix of binary literals. */
+    private static final int BINARY = 2;
+
+    /** Radix of octal literals. */
+    private static final int OCTAL = 8;
+
+    /** Radix of decimal literals. */
+    private static final int DECIMAL = 10;
+
+    /** Radix of hexadecimal literals. */
+    private static final int HEXADECIMAL = 16;
+
+    /** Number of hexadecimal digits in a unicode escape. */
+    private static final int UNICODE_ESCAPE_DIGITS = 4;
+
+    /** Digits of the unicode escape of the backslash, without the last one. */
+    private static final String BACKSLASH_ESCAPE_DIGITS = "005";
+
+    /** Text of the dot. */
+    private static final String DOT_TEXT = ".";
+
+    /** Text of the ellipsis. */
+    private static final String ELLIPSIS_TEXT = "...";
+
+    /** Text of the start of comments. */
+    private static final String SINGLE_LINE_COMMENT_START = "//";
+
+    /** Text of the start of block comments. */
+    private static final String BLOCK_COMMENT_START = "/*";
+
+    /** Text of the end of block comments. */
+    private static final String BLOCK_COMMENT_END = "*/";
+
+    /** Characters, which can not be a part of an identifier. */
+    private static final String IDENTIFIER_DELIMITERS = "\t\n\f\r !\"%&'()*+,-./:;<=>?@[\\]^{|}~";
+
+    /** Characters, which can follow a backslash in an escape sequence other than unicode one. */
+    private static final String STANDARD_ESCAPES = "nrtbf\"'\\01234567";
+
+    /** Operators, longer operators precede the operators they start with. */
+    private static final String[] OPERATORS = {
+        ">>>=", ">>=", ">>>", "<<=", ">>", ">=", "<<", "<=", "::", "==", "!=", "/=", "+=", "++",
+        "-=", "--", "->", "*=", "%=", "^=", "|=", "||", "&=", "&&", "?", "(", ")", "[", "]",
+        "{", "}", ":", ",", "=", "!", "~", "/", "+", "-", "*", "%", ">", "<", "^", "|", "&",
+        ";", "@",
+    };
+
+    /** Token types of {@link #OPERATORS}. */
+    private static final int[] OPERATOR_TYPES = {
+        GeneratedJavaTokenTypes.BSR_ASSIGN, GeneratedJavaTokenTypes.SR_ASSIGN,
+        GeneratedJavaTokenTypes.BSR, GeneratedJavaTokenTypes.SL_ASSIGN,
+        GeneratedJavaTokenTypes.SR, GeneratedJavaTokenTypes.GE,
+        GeneratedJavaTokenTypes.SL, GeneratedJavaTokenTypes.LE,
+        GeneratedJavaTokenTypes.DOUBLE_COLON, GeneratedJavaTokenTypes.EQUAL,
+        GeneratedJavaTokenTypes.NOT_EQUAL, GeneratedJavaTokenTypes.DIV_ASSIGN,
+        GeneratedJavaTokenTypes.PLUS_ASSIGN, GeneratedJavaTokenTypes.INC,
+        GeneratedJavaTokenTypes.MINUS_ASSIGN, GeneratedJavaTokenTypes.DEC,
+        GeneratedJavaTokenTypes.LAMBDA, GeneratedJavaTokenTypes.STAR_ASSIGN,
+        GeneratedJavaTokenTypes.MOD_ASSIGN, GeneratedJavaTokenTypes.BXOR_ASSIGN,
+        GeneratedJavaTokenTypes.BOR_ASSIGN, GeneratedJavaTokenTypes.LOR,
+        GeneratedJavaTokenTypes.BAND_ASSIGN, GeneratedJavaTokenTypes.LAND,
+        GeneratedJavaTokenTypes.QUESTION, GeneratedJavaTokenTypes.LPAREN,
+        GeneratedJavaTokenTypes.RPAREN, GeneratedJavaTokenTypes.LBRACK,
+        GeneratedJavaTokenTypes.RBRACK, GeneratedJavaTokenTypes.LCURLY,
+        GeneratedJavaTokenTypes.RCURLY, GeneratedJavaTokenTypes.COLON,
+        GeneratedJavaTokenTypes.COMMA, GeneratedJavaTokenTypes.ASSIGN,
+        GeneratedJavaTokenTypes.LNOT, GeneratedJavaTokenTypes.BNOT,
+        GeneratedJavaTokenTypes.DIV, GeneratedJavaTokenTypes.PLUS,
+        GeneratedJavaTokenTypes.MINUS, GeneratedJavaTokenTypes.STAR,
+        GeneratedJavaTokenTypes.MOD, GeneratedJavaTokenTypes.GT,
+        GeneratedJavaTokenTypes.LT, GeneratedJavaTokenTypes.BXOR,
+        GeneratedJavaTokenTypes.BOR, GeneratedJavaTokenTypes.BAND,
+        GeneratedJavaTokenTypes.SEMI, GeneratedJavaTokenTypes.AT,
+    };
+
+    /** Indices of {@link #OPERATORS} by their first character, in the same order. */
+    private static final int[][] OPERATORS_BY_FIRST_CHAR = groupOperators();
+
+    /** Token types of keywords by their texts. */
+    private static final Map<String, Integer> KEYWORDS = createKeywords();
+
+    /** The text to scan. */
+    private final CharSequence source;
+
+    /** Matcher of number literals in the text. */
+    private final NumberMatcher numberMatcher;
+
+    /** Listener of comments. */
+    private final CommentListener commentListener;
+
+    /** Index of the next character. */
+    private int position;
+
+    /** Line number of the next character, starting from 1. */
+    private int line = 1;
+
+    /** Index of the character, which the current line starts with. */
+    private int lineStart;
+
+    /** Index of the first character of the current token. */
+    private int tokenStart;
+
+    /** Line number of the current token. */
+    private int tokenLine;
+
+    /** Column number of the current token, starting from 1. */
+    private int tokenColumn;
+
+    /**
+     * Creates a lexer of the text.
+     * @param text the text to scan.
+     * @param commentListener listener to report comments to.
+     */
+    /* package */ JavaLexer(CharSequence text, CommentListener commentListener) {
+        source = text;
+        numberMatcher = new NumberMatcher(text);
+        this.commentListener = commentListener;
+    }
+
+    @Override
+    public Token nextToken() throws TokenStreamException {
+        Token token = null;
+        try {
+            while (token == null) {
+                tokenStart = position;
+                tokenLine = line;
+                tokenColumn = getColumn();
+                token = scanToken();
+            }
+        }
+        catch (RecognitionException ex) {
+            // -@cs[IllegalInstantiation] The parser expects errors of the lexer in this wrapper
+            throw new TokenStreamRecognitionException(ex);
+        }
+        return token;
+    }
+
+    /**
+     * Scans a token starting at the current position.
+     * @return the token, or {@code null} if whitespace has been skipped.
+     * @throws RecognitionException if the text is not valid.
+     */
+    private Token scanToken() throws RecognitionException {
+        final char character = charAt(source, position);
+        Token token = null;
+        switch (character) {
+            case ' ':
+            case '\t':
+            case '\f':
+            case '\r':
+            case '\n':
+                skipWhitespace();
+                break;
+            case '\'':
+                token = scanCharLiteral();
+                break;
+            case '"':
+                token = scanStringLiteral();
+                break;
+            case '.':
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+                token = scanNumber();
+                break;
+            case '/':
+                token = scanSlash();
+                break;
+            case '\\':
+                throw createException();
+            case EOF_CHAR:
+                token = makeToken(Token.EOF_TYPE, null);
+                break;
+            default:
+                if (character < OPERATORS_BY_FIRST_CHAR.length
+                        && OPERATORS_BY_FIRST_CHAR[character] != null) {
+                    token = scanOperator(OPERATORS_BY_FIRST_CHAR[character]);
+                }
+                else {
+                    token = scanIdentifier();
+                }
+                break;
+        }
+        return token;
+    }
+
+    /**
+     * Skips whitespace and line breaks.
+     */
+    private void skipWhitespace() {
+        boolean whitespace = true;
+        while (whitespace) {
+            final char character = charAt(source, position);
+            if (character == ' ' || character == '\t' || character == '\f') {
+                position++;
+            }
+            else if (character == '\r' || character == '\n') {
+                skipLineBreak();
+            }
+            else {
+                whitespace = false;
+            }
+        }
+    }
+
+    /**
+     * Skips the line break at the current position and starts a new line.
+     */
+    private void skipLineBreak() {
+        if (charAt(source, position) == '\r' && charAt(source, position + 1) == '\n') {
+            position++;
+        }
+        position++;
+        line++;
+        lineStart = position;
+    }
+
+    /**
+     * Scans a token starting with a slash: a comment or an operator.
+     * @return the token.
+     * @throws RecognitionException if a block comment is not closed.
+     */
+    private Token scanSlash() throws RecognitionException {
+        final Token token;
+        final char next = charAt(source, position + 1);
+        if (next == '/') {
+            token = scanSingleLineComment();
+        }
+        else if (next == '*') {
+            token = scanBlockComment();
+        }
+        else {
+            token = scanOperator(OPERATORS_BY_FIRST_CHAR['/']);
+        }
+        return token;
+    }
+
+    /**
+     * Scans a single line comment. Its text is the content of the comment
+     * including the line break.
+     * @return the token of the comment.
+     */
+    private Token scanSingleLineComment() {
+        position += SINGLE_LINE_COMMENT_START.length();
+        commentListener.reportSingleLineComment(SINGLE_LINE_COMMENT_START, tokenLine,
+                tokenColumn - 1);
+        final int contentStart = position;
+        char character = charAt(source, position);
+        while (character != '\n' && character != '\r' && character != EOF_CHAR) {
+            position++;
+            character = charAt(source, position);
+        }
+        if (character == EOF_CHAR) {
+            line++;
+            lineStart = position;
+        }
+        else {
+            skipLineBreak();
+        }
+        return makeToken(GeneratedJavaTokenTypes.SINGLE_LINE_COMMENT,
+                source.subSequence(contentStart, position).toString());
+    }
+
+    /**
+     * Scans a block comment. Its text is the content of the comment.
+     * @return the token of the comment.
+     * @throws RecognitionException if the comment is not closed.
+     */
+    private Token scanBlockComment() throws RecognitionException {
+        position += BLOCK_COMMENT_START.length();
+        final int contentStart = position;
+        boolean content = true;
+        while (content) {
+            content = skipBlockCommentContent();
+        }
+        final int contentEnd = position;
+        for (int index = 0; index < BLOCK_COMMENT_END.length(); index++) {
+            final char expected = BLOCK_COMMENT_END.charAt(index);
+            if (charAt(source, position) != expected) {
+                throw createMismatchException(expected);
+            }
+            position++;
+        }
+        commentListener.reportBlockComment(BLOCK_COMMENT_START, tokenLine, tokenColumn - 1,
+                line, getColumn() - 2);
+        return makeToken(GeneratedJavaTokenTypes.BLOCK_COMMENT_BEGIN,
+                source.subSequence(contentStart, contentEnd).toString());
+    }
+
+    /**
+     * Skips a character or a line break of the content of a block comment.
+     * Near the end of the text the content ends earlier, as in the generated lexer,
+     * so that an unclosed comment is reported at the same position.
+     * @return true if the content continues at the current position.
+     */
+    private boolean skipBlockCommentContent() {
+        boolean skipped = true;
+        switch (charAt(source, position)) {
+            case '\r':
+                if (charAt(source, position + 1) == '\n' && isBeforeEnd(LOOKAHEAD - 1)) {
+                    skipLineBreak();
+                }
+                else if (isBeforeEnd(2)) {
+                    position++;
+                    line++;
+                    lineStart = position;
+                }
+                else {
+                    skipped = false;
+                }
+                break;
+            case '\n':
+                skipLineBreak();
+                break;
+            case '*':
+                skipped = isBeforeEnd(2) && charAt(source, position + 1) != '/';
+                if (skipped) {
+                    position++;
+                }
+                break;
+            case EOF_CHAR:
+                skipped = false;
+                break;
+            default:
+                position++;
+                break;
+        }
+        return skipped;
+    }
+
+    /**
+     * Checks whether the characters following the current one are not the end
+     * of the text.
+     * @param count number of the following characters to check.
+     * @return true if none of the characters is the end of the text.
+     */
+    private boolean isBeforeEnd(int count) {
+        boolean result = true;
+        for (int index = 1; index <= count; index++) {
+            result &= charAt(source, position + index) != EOF_CHAR;
+        }
+        return result;
+    }
+
+    /**
+     * Scans a character literal.
+     * @return the token of the literal.
+     * @throws RecognitionException if the literal is not valid.
+     */
+    private Token scanCharLiteral() throws RecognitionException {
+        position++;
+        final char character = charAt(source, position);
+        if (character == '\\') {
+            scanEscape();
+        }
+        else if (character == '\'' || character == EOF_CHAR) {
+            throw createException();
+        }
+        else {
+            position++;
+        }
+        if (charAt(source, position) != '\'') {
+            throw createMismatchException('\'');
+        }
+        position++;
+        return makeToken(GeneratedJavaTokenTypes.CHAR_LITERAL);
+    }
+
+    /**
+     * Scans a string literal. Line breaks in the literal do not start new lines,
+     * as in the generated lexer.
+     * @return the token of the literal.
+     * @throws RecognitionException if the literal is not valid.
+     */
+    private Token scanStringLiteral() throws RecognitionException {
+        position++;
+        char character = charAt(source, position);
+        while (character != '"') {
+            if (character == '\\') {
+                scanEscape();
+            }
+            else if (character == EOF_CHAR) {
+                throw createMismatchException('"');
+            }
+            else {
+                position++;
+            }
+            character = charAt(source, position);
+        }
+        position++;
+        return makeToken(GeneratedJavaTokenTypes.STRING_LITERAL);
+    }
+
+    /**
+     * Scans an escape sequence starting with a backslash at the current position.
+     * @throws RecognitionException if the escape sequence is not valid.
+     */
+    private void scanEscape() throws RecognitionException {
+        position++;
+        if (charAt(source, position) == 'u') {
+            skipUnicodeMarkers();
+            if (startsWith(source, position, BACKSLASH_ESCAPE_DIGITS)
+                    && isLetter(charAt(source, position + BACKSLASH_ESCAPE_DIGITS.length()), 'c')) {
+                position += UNICODE_ESCAPE_DIGITS;
+                scanEscapedEscape();
+            }
+            else if (isHexDigits(position, UNICODE_ESCAPE_DIGITS)) {
+                position += UNICODE_ESCAPE_DIGITS;
+            }
+            else {
+                throw createException();
+            }
+        }
+        else {
+            scanStandardEscape();
+        }
+    }
+
+    /**
+     * Scans the rest of an escape sequence, which starts with the unicode escape
+     * of the backslash.
+     * @throws RecognitionException if the escape sequence is not valid.
+     */
+    private void scanEscapedEscape() throws RecognitionException {
+        if (charAt(source, position) == '\\' && charAt(source, position + 1) == 'u'
+                && isUnicodeEscapeParts(position + 2, 2)) {
+            position++;
+            skipUnicodeMarkers();
+            scanHexDigits(UNICODE_ESCAPE_DIGITS);
+        }
+        else {
+            scanStandardEscape();
+        }
+    }
+
+    /**
+     * Skips the letters {@code u} of a unicode escape.
+     */
+    private void skipUnicodeMarkers() {
+        while (charAt(source, position) == 'u') {
+            position++;
+        }
+    }
+
+    /**
+     * Checks whether the text has the given number of hexadecimal digits at the given index.
+     * @param start index of the first character.
+     * @param count number of digits.
+     * @return true if the characters are hexadecimal digits.
+     */
+    private boolean isHexDigits(int start, int count) {
+        int index = start;
+        while (index < start + count && isDigit(charAt(source, index), HEXADECIMAL)) {
+            index++;
+        }
+        return index == start + count;
+    }
+
+    /**
+     * Scans the given number of hexadecimal digits.
+     * @param count number of digits.
+     * @throws RecognitionException if there are less digits.
+     */
+    private void scanHexDigits(int count) throws RecognitionException {
+        for (int i = 0; i < count; i++) {
+            if (!isDigit(charAt(source, position), HEXADECIMAL)) {
+                throw createException();
+            }
+            position++;
+        }
+    }
+
+    /**
+     * Scans an escape sequence other than unicode one, the backslash is already skipped.
+     * The octal escapes are scanned as the generated lexer does it: up to three digits
+     * if the first one is less than four, otherwise up to two decimal digits, and
+     * the digit before the end of the text is not a part of the escape.
+     * @throws RecognitionException if the escape sequence is not valid.
+     */
+    private void scanStandardEscape() throws RecognitionException {
+        final char character = charAt(source, position);
+        if (STANDARD_ESCAPES.indexOf(character) < 0) {
+            throw createException();
+        }
+        position++;
+        if (isDigit(character, OCTAL)) {
+            scanOctalEscape(character);
+        }
+    }
+
+    /**
+     * Scans the digits of an octal escape following its first digit.
+     * @param first the first digit.
+     * @throws RecognitionException if the escape is followed by the end of the text.
+     */
+    private void scanOctalEscape(char first) throws RecognitionException {
+        final int radix;
+        final int end;
+        if (first <= '3') {
+            radix = OCTAL;
+            end = position + 2;
+        }
+        else {
+            radix = DECIMAL;
+            end = position + 1;
+        }
+        while (position < end && isDigit(charAt(source, position), radix)
+                && charAt(source, position + 1) != EOF_CHAR) {
+            position++;
+        }
+        if (charAt(source, position) == EOF_CHAR) {
+            throw createException();
+        }
+    }
+
+    /**
+     * Scans an identifier or a keyword.
+     * @return the token of the identifier or keyword.
+     * @throws RecognitionException if the identifier contains a character,
+     *     which is not a part of identifiers.
+     */
+    private Token scanIdentifier() throws RecognitionException {
+        char character = charAt(source, position);
+        if (character != '_' && character != '$'
+                && !Character.isJavaIdentifierStart(character)) {
+            throw createIdentifierException();
+        }
+        position++;
+        character = charAt(source, position);
+        while (character != EOF_CHAR && IDENTIFIER_DELIMITERS.indexOf(character) < 0) {
+            if (character != '_' && character != '$'
+                    && !Character.isJavaIdentifierPart(character)) {
+                throw createIdentifierException();
+            }
+            position++;
+            character = charAt(source, position);
+        }
+        final String text = source.subSequence(tokenStart, position).toString();
+        final Integer keyword = KEYWORDS.get(text);
+        final int type;
+        if (keyword == null) {
+            type = GeneratedJavaTokenTypes.IDENT;
+        }
+        else {
+            type = keyword;
+        }
+        return makeToken(type, text);
+    }
+
+    /**
+     * Scans an operator.
+     * @param candidates indices of the operators, which start with the current character.
+     * @return the token of the operator.
+     */
+    private Token scanOperator(int[] candidates) {
+        int index = 0;
+        while (!startsWith(source, position, OPERATORS[candidates[index]])) {
+            index++;
+        }
+        final String text = OPERATORS[candidates[index]];
+        position += text.length();
+        return makeToken(OPERATOR_TYPES[candidates[index]], text);
+    }
+
+    /**
+     * Scans a number, a dot or an ellipsis. The alternatives are tried in the same
+     * order as in the generated lexer, and the first one which matches is used.
+     * @return the token.
+     * @throws RecognitionException if no alternative matches.
+     */
+    private Token scanNumber() throws RecognitionException {
+        int end = NONE;
+        NumberLiteral literal = null;
+        for (NumberLiteral alternative : NumberLiteral.ALTERNATIVES) {
+            end = numberMatcher.match(alternative, position);
+            if (end != NONE) {
+                literal = alternative;
+                break;
+            }
+        }
+        if (literal == null) {
+            throw createException();
+        }
+        position = end;
+        return makeToken(literal.type);
+    }
+
+    /**
+     * Creates a token, which starts at the start of the current token and ends
+     * at the current position.
+     * @param type the type of the token.
+     * @return the token.
+     */
+    private Token makeToken(int type) {
+        return makeToken(type, source.subSequence(tokenStart, position).toString());
+    }
+
+    /**
+     * Creates a token at the start of the current token.
+     * @param type the type of the token.
+     * @param text the text of the token.
+     * @return the token.
+     */
+    private Token makeToken(int type, String text) {
+        final Token token = new CommonHiddenStreamToken(type, text);
+        token.setLine(tokenLine);
+        token.setColumn(tokenColumn);
+        return token;
+    }
+
+    /**
+     * Returns the column number of the current position, starting from 1.
+     * @return the column number.
+     */
+    private int getColumn() {
+        return position - lineStart + 1;
+    }
+
+    /**
+     * Creates the exception about an unexpected character at the current position.
+     * @return the exception.
+     */
+    private RecognitionException createException() {
+        return new NoViableAltForCharException(charAt(source, position), null, line, getColumn());
+    }
+
+    /**
+     * Creates the exception about a character at the current position, which is
+     * not the expected one.
+     * @param expected the expected character.
+     * @return the exception.
+     */
+    private RecognitionException createMismatchException(char expected) {
+        final MismatchedCharException exception = new MismatchedCharException();
+        exception.mismatchType = MismatchedCharException.CHAR;
+        exception.foundChar = charAt(source, position);
+        exception.expecting = expected;
+        exception.line = line;
+        exception.column = getColumn();
+        return exception;
+    }
+
+    /**
+     * Creates the exception about a character at the current position, which can
+     * not be a part of an identifier.
+     * @return the exception.
+     */
+    private RecognitionException createIdentifierException() {
+        return new SemanticException("Unexpected character 0x"
+                + Integer.toHexString(charAt(source, position)) + " in identifier",
+                null, line, getColumn());
+    }
+
+    /**
+     * Checks whether a character is a digit of the given radix. Only ASCII digits
+     * and letters are digits.
+     * @param character the character.
+     * @param radix the radix.
+     * @return true if the character is a digit.
+     */
+    private static boolean isDigit(char character, int radix) {
+        final int value;
+        if (character >= '0' && character <= '9') {
+            value = character - '0';
+        }
+        else if (character >= 'a' && character <= 'f') {
+            value = character - 'a' + DECIMAL;
+        }
+        else if (character >= 'A' && character <= 'F') {
+            value = character - 'A' + DECIMAL;
+        }
+        else {
+            value = radix;
+        }
+        return value < radix;
+    }
+
+    /**
+     * Checks whether a character is the given letter in lower or upper case.
+     * @param character the character.
+     * @param letter the letter in lower case.
+     * @return true if the character is the letter.
+     */
+    private static boolean isLetter(char character, char letter) {
+        return character == letter || character == Character.toUpperCase(letter);
+    }
+
+    /**
+     * Checks whether the characters at the given index may follow {@code \\u}
+     * in a unicode escape.
+     * @param start index of the first character.
+     * @param count number of the characters.
+     * @return true if the characters are hexadecimal digits or {@code u}.
+     */
+    private boolean isUnicodeEscapeParts(int start, int count) {
+        int index = start;
+        while (index < start + count
+                && (charAt(source, index) == 'u' || isDigit(charAt(source, index), HEXADECIMAL))) {
+            index++;
+        }
+        return index == start + count;
+    }
+
+    /**
+     * Checks whether the text at the given index starts with the given prefix.
+     * @param text the text.
+     * @param start index of the first character.
+     * @param prefix the prefix.
+     * @return true if the text starts with the prefix.
+     */
+    private static boolean startsWith(CharSequence text, int start, String prefix) {
+        int index = 0;
+        while (index < prefix.length() && charAt(text, start + index) == prefix.charAt(index)) {
+            index++;
+        }
+        return index == prefix.length();
+    }
+
+    /**
+     * Returns the character of the text at the given index, which may be past the end
+     * of the text, so that the text is scanned in place without a padded copy.
+     * @param text the text.
+     * @param index index of the character.
+     * @return the character, or {@link #EOF_CHAR} past the end of the text.
+     */
+    private static char charAt(CharSequence text, int index) {
+        final char result;
+        if (index < text.length()) {
+            result = text.charAt(index);
+        }
+        else {
+            result = EOF_CHAR;
+        }
+        return result;
+    }
+
+    /**
+     * Groups indices of the operators by their first characters.
+     * @return the indices of the operators by their first characters.
+     */
+    private static int[][] groupOperators() {
+        final int[][] result = new int[Byte.MAX_VALUE + 1][];
+        for (int index = 0; index < OPERATORS.length; index++) {
+            final char first = OPERATORS[index].charAt(0);
+            if (result[first] == null) {
+                result[first] = new int[] {index};
+            }
+            else {
+                final int[] indices = Arrays.copyOf(result[first], result[first].length + 1);
+                indices[indices.length - 1] = index;
+                result[first] = indices;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates the table of keywords from the literals of the grammar,
+     * and the keywords {@code assert} and {@code enum}, which are identifiers
+     * in the grammar.
+     * @return token types of the keywords by their texts.
+     */
+    private static Map<String, Integer> createKeywords() {
+        final Map<String, Integer> keywords = new HashMap<>();
+        final String[] tokenNames = GeneratedJavaRecognizer._tokenNames;
+        for (int type = 0; type < tokenNames.length; type++) {
+            final String name = tokenNames[type];
+            if (name.charAt(0) == '"') {
+                keywords.put(name.substring(1, name.length() - 1), type);
+            }
+        }
+        keywords.put("assert", GeneratedJavaTokenTypes.ASSERT);
+        keywords.put("enum", GeneratedJavaTokenTypes.ENUM);
+        return keywords;
+    }
+
+    /**
+     * Matcher of number literals, which finds where an alternative of number
+     * literals ends without changing the position of the lexer.
+     */
+    private static final class NumberMatcher {
+
+        /** The text to match. */
+        private final CharSequence source;
+
+        /**
+         * Creates a matcher of number literals.
+         * @param source the text to match.
+         */
+        /* package */ NumberMatcher(CharSequence source) {
+            this.source = source;
+        }
+
+        /**
+         * Matches an alternative of number literals.
+         * @param literal the alternative.
+         * @param start index of the first character.
+         * @return index following the literal, or {@link #NONE} if the text does not match.
+         */
+        private int match(NumberLiteral literal, int start) {
+            final int end;
+            switch (literal) {
+                case HEX_DOUBLE:
+                    end = matchSuffix(matchHexFloatingPoint(start), 'd', true);
+                    break;
+                case HEX_FLOAT:
+                    end = matchSuffix(matchHexFloatingPoint(start), 'f', false);
+                    break;
+                case ELLIPSIS:
+                    end = matchText(start, ELLIPSIS_TEXT);
+                    break;
+                case DOUBLE:
+                    end = matchDouble(start);
+                    break;
+                case FLOAT:
+                    end = matchFloat(start);
+                    break;
+                case LONG:
+                    end = matchSuffix(matchInteger(start), 'l', true);
+                    break;
+                case DOT:
+                    end = matchText(start, DOT_TEXT);
+                    break;
+                default:
+                    end = matchInteger(start);
+                    break;
+            }
+            return end;
+        }
+
+        /**
+         * Matches an integer literal without the suffix.
+         * @param start index of the first character.
+         * @return index following the literal, or {@link #NONE} if the text does not match.
+         */
+        private int matchInteger(int start) {
+            final int end;
+            final char next = charAt(source, start + 1);
+            if (charAt(source, start) != '0') {
+                end = matchDigits(start, DECIMAL);
+            }
+            else if (isLetter(next, 'x')) {
+                end = matchDigits(start + 2, HEXADECIMAL);
+            }
+            else if (isLetter(next, 'b')) {
+                end = matchDigits(start + 2, BINARY);
+            }
+            else {
+                end = matchDigits(start, OCTAL);
+            }
+            return end;
+        }
+
+        /**
+         * Matches a decimal floating point literal of type {@code double},
+         * which needs a suffix.
+         * @param start index of the first character.
+         * @return index following the literal, or {@link #NONE} if the text does not match.
+         */
+        private int matchDouble(int start) {
+            int end = matchSignificand(start, DECIMAL);
+            if (end != NONE && isLetter(charAt(source, end), 'e')) {
+                end = matchSignedInteger(end + 1);
+            }
+            return matchSuffix(end, 'd', true);
+        }
+
+        /**
+         * Matches a decimal floating point literal of type {@code float}, which needs
+         * a suffix or an exponent when there is no decimal point. The generated lexer
+         * matches numbers with a decimal point and without a suffix as {@code float}.
+         * @param start index of the first character.
+         * @return index following the literal, or {@link #NONE} if the text does not match.
+         */
+        private int matchFloat(int start) {
+            int end = matchSignificand(start, DECIMAL);
+            if (end != NONE) {
+                if (isLetter(charAt(source, end), 'e')) {
+                    end = matchSuffix(matchSignedInteger(end + 1), 'f', false);
+                }
+                else if (isLetter(charAt(source, end), 'f')) {
+                    end++;
+                }
+                else if (!containsPoint(start, end)) {
+                    end = NONE;
+                }
+            }
+            return end;
+        }
+
+        /**
+         * Matches a hexadecimal floating point literal without the suffix.
+         * @param start index of the first character.
+         * @return index following the literal, or {@link #NONE} if the text does not match.
+         */
+        private int matchHexFloatingPoint(int start) {
+            int end = NONE;
+            if (charAt(source, start) == '0' && isLetter(charAt(source, start + 1), 'x')) {
+                end = matchSignificand(start + 2, HEXADECIMAL);
+                if (end != NONE && isLetter(charAt(source, end), 'p')) {
+                    end = matchSignedInteger(end + 1);
+                }
+                else {
+                    end = NONE;
+                }
+            }
+            return end;
+        }
+
+        /**
+         * Matches the significand of a floating point literal: digits with or without
+         * a point, there should be digits before or after the point.
+         * @param start index of the first character.
+         * @param radix radix of the digits.
+         * @return index following the significand, or {@link #NONE} if the text does not match.
+         */
+        private int matchSignificand(int start, int radix) {
+            final int integerEnd = matchDigits(start, radix);
+            int end = integerEnd;
+            if (integerEnd != NONE && charAt(source, integerEnd) == '.') {
+                end = integerEnd + 1;
+                if (isDigit(charAt(source, end), radix)) {
+                    end = matchDigits(end, radix);
+                }
+            }
+            else if (charAt(source, start) == '.') {
+                end = matchDigits(start + 1, radix);
+            }
+            return end;
+        }
+
+        /**
+         * Matches an optionally signed decimal integer of an exponent.
+         * @param start index of the first character.
+         * @return index following the integer, or {@link #NONE} if the text does not match.
+         */
+        private int matchSignedInteger(int start) {
+            int digitsStart = start;
+            if (charAt(source, start) == '+' || charAt(source, start) == '-') {
+                digitsStart++;
+            }
+            return matchDigits(digitsStart, DECIMAL);
+        }
+
+        /**
+         * Matches digits, which may be separated by underscores. The first and
+         * the last characters should be digits.
+         * @param start index of the first character.
+         * @param radix radix of the digits.
+         * @return index following the digits, or {@link #NONE} if the text does not match.
+         */
+        private int matchDigits(int start, int radix) {
+            int end = NONE;
+            if (isDigit(charAt(source, start), radix)) {
+                int next = start + 1;
+                while (isDigit(charAt(source, next), radix) || charAt(source, next) == '_') {
+                    next++;
+                }
+                if (isDigit(charAt(source, next - 1), radix)) {
+                    end = next;
+                }
+            }
+            return end;
+        }
+
+        /**
+         * Matches the suffix of a literal.
+         * @param start index of the suffix, or {@link #NONE} if the literal does not match.
+         * @param suffix the suffix in lower case.
+         * @param required whether the literal should have the suffix.
+         * @return index following the suffix, or {@link #NONE} if the text does not match.
+         */
+        private int matchSuffix(int start, char suffix, boolean required) {
+            int end = start;
+            if (start != NONE) {
+                if (isLetter(charAt(source, start), suffix)) {
+                    end++;
+                }
+                else if (required) {
+                    end = NONE;
+                }
+            }
+            return end;
+        }
+
+        /**
+         * Matches the given text.
+         * @param start index of the first character.
+         * @param text the text.
+         * @return index following the text, or {@link #NONE} if the text does not match.
+         */
+        private int matchText(int start, String text) {
+            int end = NONE;
+            if (startsWith(source, start, text)) {
+                end = start + text.length();
+            }
+            return end;
+        }
+
+        /**
+         * Checks whether there is a decimal point within the given range.
+         * @param start index of the first character.
+         * @param end index following the last character.
+         * @return true if the range contains a point.
+         */
+        private boolean containsPoint(int start, int end) {
+            int index = start;
+            while (index < end && charAt(source, index) != '.') {
+                index++;
+            }
+            return index < end;
+        }
+
+    }
+
+    /**
+     * Alternatives of number literals, dots and ellipses.
+     */
+    private enum NumberLiteral {
+
+        /** Hexadecimal floating point literal of type {@code double}. */
+        HEX_DOUBLE(GeneratedJavaTokenTypes.NUM_DOUBLE),
+        /** Hexadecimal floating point literal of type {@code float}. */
+        HEX_FLOAT(GeneratedJavaTokenTypes.NUM_FLOAT),
+        /** Ellipsis. */
+        ELLIPSIS(GeneratedJavaTokenTypes.ELLIPSIS),
+        /** Decimal floating point literal of type {@code double}. */
+        DOUBLE(GeneratedJavaTokenTypes.NUM_DOUBLE),
+        /** Decimal floating point literal of type {@code float}. */
+        FLOAT(GeneratedJavaTokenTypes.NUM_FLOAT),
+        /** Integer literal of type {@code long}. */
+        LONG(GeneratedJavaTokenTypes.NUM_LONG),
+        /** Dot. */
+        DOT(GeneratedJavaTokenTypes.DOT),
+        /** Integer literal of type {@code int}. */
+        INT(GeneratedJavaTokenTypes.NUM_INT);
+
+        /** The alternatives in the order they are tried. */
+        private static final NumberLiteral[] ALTERNATIVES = values();
+
+        /** Token type of the alternative. */
+        private final int type;
+
+        /**
+         * Creates an alternative.
+         * @param type token type of the alternative.
+         */
+        NumberLiteral(int type) {
+            this.type = type;
+        }
+
+    }
+
+}
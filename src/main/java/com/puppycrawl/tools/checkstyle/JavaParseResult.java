@@ -0,0 +1,217 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+/**
+ * Result of parsing a Java file, which is shared by all {@link TreeWalker}s
+ * processing the file. The file is parsed on the first request for an AST and
+ * each form of the AST is copied once, so a file is parsed once however many
+ * walkers check it. The ASTs are immutable {@link DetailAstTree} copies, and the
+ * parsed AST is released as soon as the last required form has been copied, so
+ * only the compact copies are kept while the checks walk them.
+ * With a {@link JavaAstCache} the AST with comment nodes is read from the cache
+ * or stored in it, and the AST without comments is copied from it.
+ * The result is used by one thread at a time.
+ */
+final class JavaParseResult {
+
+    /** The contents of the file, its comments are collected while parsing. */
+    private final FileContents contents;
+
+    /** The cache of parsed files, or {@code null} if files are not cached. */
+    private final JavaAstCache cache;
+
+    /** Whether the AST without comment nodes may be requested. */
+    private final boolean astRequired;
+
+    /** Whether the AST with comment nodes may be requested. */
+    private final boolean astWithCommentsRequired;
+
+    /**
+     * Nodes with hidden comments before them, collected while copying the AST without
+     * comments to append comment nodes without traversing the tree once more.
+     */
+    private final List<DetailAST> nodesWithComments = new ArrayList<>();
+
+    /** Whether the file has been parsed. */
+    private boolean parsed;
+
+    /** The parsed AST, dropped when the last required form of the AST has been copied. */
+    private DetailAST parsedAST;
+
+    /** Whether the AST without comment nodes has been copied. */
+    private boolean astCopied;
+
+    /** Copy of the AST without comment nodes. */
+    private DetailAST ast;
+
+    /** Whether the AST with comment nodes has been copied. */
+    private boolean astWithCommentsCopied;
+
+    /** Copy of the AST with comment nodes. */
+    private DetailAST astWithComments;
+
+    /**
+     * Creates a result of parsing the file, the file is not parsed until requested.
+     * @param text the text of the file.
+     */
+    /* package */ JavaParseResult(FileText text) {
+        this(text, null);
+    }
+
+    /**
+     * Creates a result of parsing the file, the file is not parsed until requested.
+     * @param text the text of the file.
+     * @param cache the cache of parsed files, or {@code null} if files are not cached.
+     */
+    /* package */ JavaParseResult(FileText text, JavaAstCache cache) {
+        this(text, cache, true, true);
+    }
+
+    /**
+     * Creates a result of parsing the file, the file is not parsed until requested.
+     * Only the required forms of the AST are copied, and the parsed AST is released
+     * once the last of them has been copied.
+     * @param text the text of the file.
+     * @param cache the cache of parsed files, or {@code null} if files are not cached.
+     * @param astRequired whether the AST without comment nodes may be requested.
+     * @param astWithCommentsRequired whether the AST with comment nodes may be requested.
+     */
+    /* package */ JavaParseResult(FileText text, JavaAstCache cache,
+            boolean astRequired, boolean astWithCommentsRequired) {
+        contents = new FileContents(text);
+        this.cache = cache;
+        this.astRequired = astRequired;
+        this.astWithCommentsRequired = astWithCommentsRequired;
+    }
+
+    /**
+     * Returns the contents of the file. Its comments are available once an AST
+     * has been requested.
+     * @return the contents of the file.
+     */
+    /* package */ FileContents getContents() {
+        return contents;
+    }
+
+    /**
+     * Returns the AST without comment nodes, parsing the file if needed.
+     * @return the first node of the AST, or {@code null} if the file is empty.
+     * @throws CheckstyleException if the file can not be parsed.
+     * @throws IllegalStateException if the AST without comment nodes is not required.
+     */
+    /* package */ DetailAST getAst() throws CheckstyleException {
+        if (!astRequired) {
+            throw new IllegalStateException("AST without comment nodes is not required");
+        }
+        if (!astCopied) {
+            if (cache == null && astWithCommentsRequired) {
+                ast = DetailAstTree.copyOf(parse(), nodesWithComments);
+            }
+            else if (cache == null) {
+                ast = DetailAstTree.copyOf(parse());
+            }
+            else if (astWithCommentsRequired) {
+                ast = DetailAstTree.copyWithoutComments(getAstWithComments());
+            }
+            else {
+                ast = DetailAstTree.copyWithoutComments(getCachedAstWithComments());
+            }
+            if (!astWithCommentsRequired) {
+                parsedAST = null;
+            }
+            astCopied = true;
+        }
+        return ast;
+    }
+
+    /**
+     * Returns the AST with comment nodes, parsing the file if needed. Without a cache,
+     * the AST without comments is copied first if it is required, because comment
+     * nodes are appended to the parsed AST. Otherwise the comment nodes are appended
+     * right away.
+     * @return the first node of the AST, or {@code null} if the file is empty.
+     * @throws CheckstyleException if the file can not be parsed.
+     * @throws IllegalStateException if the AST with comment nodes is not required.
+     */
+    /* package */ DetailAST getAstWithComments() throws CheckstyleException {
+        if (!astWithCommentsRequired) {
+            throw new IllegalStateException("AST with comment nodes is not required");
+        }
+        if (!astWithCommentsCopied) {
+            if (cache != null) {
+                astWithComments = getCachedAstWithComments();
+            }
+            else if (astRequired) {
+                getAst();
+                astWithComments = DetailAstTree.copyOf(
+                        JavaParser.appendHiddenCommentNodes(parse(), nodesWithComments));
+                nodesWithComments.clear();
+            }
+            else {
+                astWithComments = DetailAstTree.copyOf(
+                        JavaParser.appendHiddenCommentNodes(parse()));
+            }
+            parsedAST = null;
+            astWithCommentsCopied = true;
+        }
+        return astWithComments;
+    }
+
+    /**
+     * Reads the AST with comment nodes from the cache, or parses the file and
+     * stores the AST in the cache. Empty files are cheap to parse and are not stored.
+     * @return the first node of the AST, or {@code null} if the file is empty.
+     * @throws CheckstyleException if the file can not be parsed.
+     */
+    private DetailAST getCachedAstWithComments() throws CheckstyleException {
+        final String key = JavaAstCache.getKey(contents.getText());
+        DetailAST result = cache.get(key, contents);
+        if (result == null) {
+            result = DetailAstTree.copyOf(JavaParser.appendHiddenCommentNodes(parse()));
+            if (result != null) {
+                cache.put(key, contents, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parses the file on the first call.
+     * @return the parsed AST.
+     * @throws CheckstyleException if the file can not be parsed.
+     */
+    private DetailAST parse() throws CheckstyleException {
+        if (!parsed) {
+            parsedAST = JavaParser.parse(contents);
+            parsed = true;
+        }
+        return parsedAST;
+    }
+
+}
@@ -21,9 +21,8 @@ package com.puppycrawl.tools.checkstyle;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Locale;
 
 import antlr.CommonASTWithHiddenTokens;
@@ -37,7 +36,6 @@ import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
-import com.puppycrawl.tools.checkstyle.grammar.GeneratedJavaLexer;
 import com.puppycrawl.tools.checkstyle.grammar.GeneratedJavaRecognizer;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
@@ -77,11 +75,7 @@ public final class JavaParser {
      */
     public static DetailAST parse(FileContents contents)
             throws CheckstyleException {
-        final String fullText = contents.getText().getFullText().toString();
-        final Reader reader = new StringReader(fullText);
-        final GeneratedJavaLexer lexer = new GeneratedJavaLexer(reader);
-        lexer.setCommentListener(contents);
-        lexer.setTokenObjectClass("antlr.CommonHiddenStreamToken");
+        final JavaLexer lexer = new JavaLexer(contents.getText().getFullText(), contents);
 
         final TokenStreamHiddenTokenFilter filter = new TokenStreamHiddenTokenFilter(lexer);
         filter.hide(TokenTypes.SINGLE_LINE_COMMENT);
@@ -125,6 +119,28 @@ public final class JavaParser {
         return ast;
     }
 
+    /**
+     * Parse a text and return the parse tree, reading it from the cache when the text
+     * has been parsed before. The returned tree is immutable.
+     * @param text the text to parse
+     * @param options {@link Options} to control inclusion of comment nodes
+     * @param cache the cache of parsed files
+     * @return the root node of the parse tree
+     * @throws CheckstyleException if the text is not a valid Java source
+     */
+    /* package */ static DetailAST parseFileText(FileText text, Options options,
+            JavaAstCache cache) throws CheckstyleException {
+        final JavaParseResult result = new JavaParseResult(text, cache);
+        final DetailAST ast;
+        if (options == Options.WITH_COMMENTS) {
+            ast = result.getAstWithComments();
+        }
+        else {
+            ast = result.getAst();
+        }
+        return ast;
+    }
+
     /**
      * Parses Java source file.
      * @param file the file to parse
@@ -155,21 +171,9 @@ public final class JavaParser {
         while (curNode != null) {
             lastNode = curNode;
 
-            CommonHiddenStreamToken tokenBefore = ((CommonASTWithHiddenTokens) curNode)
-                    .getHiddenBefore();
-            DetailAST currentSibling = curNode;
-            while (tokenBefore != null) {
-                final DetailAST newCommentNode =
-                         createCommentAstFromToken(tokenBefore);
-
-                ((DetailAstImpl) currentSibling).addPreviousSibling(newCommentNode);
-
-                if (currentSibling == result) {
-                    result = newCommentNode;
-                }
-
-                currentSibling = newCommentNode;
-                tokenBefore = tokenBefore.getHiddenBefore();
+            final DetailAST firstComment = appendHiddenCommentNodesBefore(curNode);
+            if (curNode == result) {
+                result = firstComment;
             }
 
             DetailAST toVisit = curNode.getFirstChild();
@@ -180,22 +184,93 @@ public final class JavaParser {
             curNode = toVisit;
         }
         if (lastNode != null) {
-            CommonHiddenStreamToken tokenAfter = ((CommonASTWithHiddenTokens) lastNode)
-                    .getHiddenAfter();
-            DetailAST currentSibling = lastNode;
-            while (tokenAfter != null) {
-                final DetailAST newCommentNode =
-                        createCommentAstFromToken(tokenAfter);
-
-                ((DetailAstImpl) currentSibling).addNextSibling(newCommentNode);
+            appendHiddenCommentNodesAfter(lastNode);
+        }
+        return result;
+    }
 
-                currentSibling = newCommentNode;
-                tokenAfter = tokenAfter.getHiddenAfter();
+    /**
+     * Appends comment nodes to existing AST, when the nodes which have hidden comment
+     * tokens before them are already known, e.g. collected while walking the AST.
+     * The result is the same as of {@link #appendHiddenCommentNodes(DetailAST)},
+     * but the AST is not traversed again.
+     * @param root of AST
+     * @param nodesWithComments all nodes of AST, for which
+     *     {@link #hasHiddenCommentsBefore(DetailAST)} returns {@code true}
+     * @return root of AST with comment nodes
+     */
+    /* package */ static DetailAST appendHiddenCommentNodes(DetailAST root,
+            Collection<DetailAST> nodesWithComments) {
+        DetailAST result = root;
+        for (DetailAST node : nodesWithComments) {
+            final DetailAST firstComment = appendHiddenCommentNodesBefore(node);
+            if (node == root) {
+                result = firstComment;
+            }
+        }
+        DetailAST lastNode = root;
+        while (lastNode != null) {
+            while (lastNode.getNextSibling() != null) {
+                lastNode = lastNode.getNextSibling();
+            }
+            final DetailAST lastChild = lastNode.getFirstChild();
+            if (lastChild == null) {
+                appendHiddenCommentNodesAfter(lastNode);
             }
+            lastNode = lastChild;
         }
         return result;
     }
 
+    /**
+     * Checks whether there are hidden comment tokens before the node.
+     * @param ast the node to check
+     * @return true if comment nodes should be appended before the node
+     */
+    /* package */ static boolean hasHiddenCommentsBefore(DetailAST ast) {
+        return ((CommonASTWithHiddenTokens) ast).getHiddenBefore() != null;
+    }
+
+    /**
+     * Appends hidden comment tokens placed before the node as its previous siblings.
+     * @param node the node to append comments before
+     * @return the first appended comment node, or the node itself if there are no comments
+     */
+    private static DetailAST appendHiddenCommentNodesBefore(DetailAST node) {
+        CommonHiddenStreamToken tokenBefore = ((CommonASTWithHiddenTokens) node)
+                .getHiddenBefore();
+        DetailAST currentSibling = node;
+        while (tokenBefore != null) {
+            final DetailAST newCommentNode =
+                     createCommentAstFromToken(tokenBefore);
+
+            ((DetailAstImpl) currentSibling).addPreviousSibling(newCommentNode);
+
+            currentSibling = newCommentNode;
+            tokenBefore = tokenBefore.getHiddenBefore();
+        }
+        return currentSibling;
+    }
+
+    /**
+     * Appends hidden comment tokens placed after the last node of AST as its next siblings.
+     * @param lastNode the last node of AST
+     */
+    private static void appendHiddenCommentNodesAfter(DetailAST lastNode) {
+        CommonHiddenStreamToken tokenAfter = ((CommonASTWithHiddenTokens) lastNode)
+                .getHiddenAfter();
+        DetailAST currentSibling = lastNode;
+        while (tokenAfter != null) {
+            final DetailAST newCommentNode =
+                    createCommentAstFromToken(tokenAfter);
+
+            ((DetailAstImpl) currentSibling).addNextSibling(newCommentNode);
+
+            currentSibling = newCommentNode;
+            tokenAfter = tokenAfter.getHiddenAfter();
+        }
+    }
+
     /**
      * Create comment AST from token. Depending on token type
      * SINGLE_LINE_COMMENT or BLOCK_COMMENT_BEGIN is created.
@@ -26,6 +26,7 @@ import java.util.List;
 import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.BaseErrorListener;
 import org.antlr.v4.runtime.BufferedTokenStream;
+import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonToken;
 import org.antlr.v4.runtime.CommonTokenStream;
@@ -37,6 +38,7 @@ import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RecognitionException;
 import org.antlr.v4.runtime.Recognizer;
 import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.misc.Interval;
 import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.antlr.v4.runtime.tree.ParseTree;
@@ -45,7 +47,6 @@ import org.antlr.v4.runtime.tree.TerminalNode;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.DetailNode;
 import com.puppycrawl.tools.checkstyle.api.JavadocTokenTypes;
-import com.puppycrawl.tools.checkstyle.checks.javadoc.JavadocNodeImpl;
 import com.puppycrawl.tools.checkstyle.grammar.javadoc.JavadocLexer;
 import com.puppycrawl.tools.checkstyle.grammar.javadoc.JavadocParser;
 import com.puppycrawl.tools.checkstyle.utils.JavadocUtil;
@@ -81,9 +82,22 @@ public class JavadocDetailNodeParser {
      */
     public static final String MSG_UNCLOSED_HTML_TAG = "javadoc.unclosedHtml";
 
+    /**
+     * System property name to parse Javadoc comments with the faster SLL prediction
+     * mode first. It applies to all Javadoc checks, as they share the parsed comments.
+     */
+    public static final String TWO_STAGE_PREDICTION = "checkstyle.javadoc.twoStagePrediction";
+
     /** Symbols with which javadoc starts. */
     private static final String JAVADOC_START = "/**";
 
+    /**
+     * Lexer and parser of the current thread. They are reset and reused for
+     * every Javadoc comment instead of being created again.
+     */
+    private static final ThreadLocal<JavadocRecognizer> RECOGNIZER =
+            ThreadLocal.withInitial(JavadocRecognizer::new);
+
     /**
      * Line number of the Block comment AST that is being parsed.
      */
@@ -94,6 +108,23 @@ public class JavadocDetailNodeParser {
      */
     private DescriptiveErrorListener errorListener;
 
+    /**
+     * Whether to parse with the faster SLL prediction mode first and to fall
+     * back to the full LL prediction mode only when it fails.
+     */
+    private boolean twoStagePrediction = Boolean.getBoolean(TWO_STAGE_PREDICTION);
+
+    /**
+     * Sets whether to parse with the faster SLL prediction mode first and to
+     * fall back to the full LL prediction mode only when it fails. The result
+     * of parsing is the same in both cases. By default, it is set by the
+     * {@value #TWO_STAGE_PREDICTION} system property.
+     * @param twoStagePrediction whether to use SLL prediction mode first
+     */
+    public void setTwoStagePrediction(boolean twoStagePrediction) {
+        this.twoStagePrediction = twoStagePrediction;
+    }
+
     /**
      * Parses Javadoc comment as DetailNode tree.
      * @param javadocCommentAst
@@ -105,10 +136,9 @@ public class JavadocDetailNodeParser {
 
         final String javadocComment = JavadocUtil.getJavadocCommentContent(javadocCommentAst);
 
-        // Use a new error listener each time to be able to use
-        // one check instance for multiple files to be checked
-        // without getting side effects.
-        errorListener = new DescriptiveErrorListener();
+        final JavadocRecognizer recognizer = RECOGNIZER.get();
+        errorListener = recognizer.errorListener;
+        errorListener.reset();
 
         // Log messages should have line number in scope of file,
         // not in scope of Javadoc comment.
@@ -118,16 +148,17 @@ public class JavadocDetailNodeParser {
         final ParseStatus result = new ParseStatus();
 
         try {
-            final JavadocParser javadocParser = createJavadocParser(javadocComment);
+            final JavadocParser javadocParser = recognizer.getParser(javadocComment);
 
-            final ParseTree javadocParseTree = javadocParser.javadoc();
+            final ParseTree javadocParseTree = parseJavadoc(javadocParser);
 
-            final DetailNode tree = convertParseTreeToDetailNode(javadocParseTree);
+            final JavadocNodeTree tree = new JavadocNodeTree(recognizer.getInputStream());
+            addNodes(recognizer, tree, javadocParseTree, -1);
             // adjust first line to indent of /**
             adjustFirstLineToJavadocIndent(tree,
                         javadocCommentAst.getColumnNo()
                                 + JAVADOC_START.length());
-            result.setTree(tree);
+            result.setTree(tree.getRoot());
             result.firstNonTightHtmlTag = getFirstNonTightHtmlTag(javadocParser);
         }
         catch (ParseCancellationException | IllegalArgumentException ex) {
@@ -160,286 +191,80 @@ public class JavadocDetailNodeParser {
     }
 
     /**
-     * Parses block comment content as javadoc comment.
-     * @param blockComment
-     *        block comment content.
+     * Parses javadoc comment with the given parser. If two stage prediction is
+     * enabled, SLL prediction mode is tried first. It either produces the same
+     * parse tree as LL prediction mode or fails, and in the latter case the
+     * comment is parsed again with LL prediction mode to get the actual error.
+     * @param parser the parser which is set up for the comment.
      * @return parse tree
      */
-    private JavadocParser createJavadocParser(String blockComment) {
-        final JavadocLexer lexer = new JavadocLexer(CharStreams.fromString(blockComment));
-
-        final CommonTokenStream tokens = new CommonTokenStream(lexer);
-
-        final JavadocParser parser = new JavadocParser(tokens);
-
-        // remove default error listeners
-        parser.removeErrorListeners();
-
-        // add custom error listener that logs syntax errors
-        parser.addErrorListener(errorListener);
-
-        // JavadocParserErrorStrategy stops parsing on first parse error encountered unlike the
-        // DefaultErrorStrategy used by ANTLR which rather attempts error recovery.
-        parser.setErrorHandler(new JavadocParserErrorStrategy());
-
-        return parser;
-    }
-
-    /**
-     * Converts ParseTree (that is generated by ANTLRv4) to DetailNode tree.
-     *
-     * @param parseTreeNode root node of ParseTree
-     * @return root of DetailNode tree
-     * @noinspection SuspiciousArrayCast
-     */
-    private DetailNode convertParseTreeToDetailNode(ParseTree parseTreeNode) {
-        final JavadocNodeImpl rootJavadocNode = createRootJavadocNode(parseTreeNode);
-
-        JavadocNodeImpl currentJavadocParent = rootJavadocNode;
-        ParseTree parseTreeParent = parseTreeNode;
-
-        while (currentJavadocParent != null) {
-            // remove unnecessary children tokens
-            if (currentJavadocParent.getType() == JavadocTokenTypes.TEXT) {
-                currentJavadocParent.setChildren(JavadocNodeImpl.EMPTY_DETAIL_NODE_ARRAY);
-            }
-
-            final JavadocNodeImpl[] children =
-                    (JavadocNodeImpl[]) currentJavadocParent.getChildren();
-
-            insertChildrenNodes(children, parseTreeParent);
-
-            if (children.length > 0) {
-                currentJavadocParent = children[0];
-                parseTreeParent = parseTreeParent.getChild(0);
+    private ParseTree parseJavadoc(JavadocParser parser) {
+        ParseTree tree = null;
+        if (twoStagePrediction) {
+            parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+            try {
+                tree = parser.javadoc();
             }
-            else {
-                JavadocNodeImpl nextJavadocSibling = (JavadocNodeImpl) JavadocUtil
-                        .getNextSibling(currentJavadocParent);
-
-                ParseTree nextParseTreeSibling = getNextSibling(parseTreeParent);
-
-                while (nextJavadocSibling == null) {
-                    currentJavadocParent =
-                            (JavadocNodeImpl) currentJavadocParent.getParent();
-
-                    parseTreeParent = parseTreeParent.getParent();
-
-                    if (currentJavadocParent == null) {
-                        break;
-                    }
-
-                    nextJavadocSibling = (JavadocNodeImpl) JavadocUtil
-                            .getNextSibling(currentJavadocParent);
-
-                    nextParseTreeSibling = getNextSibling(parseTreeParent);
-                }
-                currentJavadocParent = nextJavadocSibling;
-                parseTreeParent = nextParseTreeSibling;
+            catch (ParseCancellationException | IllegalArgumentException ignored) {
+                parser.reset();
+                errorListener.reset();
             }
         }
-
-        return rootJavadocNode;
-    }
-
-    /**
-     * Creates child nodes for each node from 'nodes' array.
-     * @param parseTreeParent original ParseTree parent node
-     * @param nodes array of JavadocNodeImpl nodes
-     */
-    private void insertChildrenNodes(final JavadocNodeImpl[] nodes, ParseTree parseTreeParent) {
-        for (int i = 0; i < nodes.length; i++) {
-            final JavadocNodeImpl currentJavadocNode = nodes[i];
-            final ParseTree currentParseTreeNodeChild = parseTreeParent.getChild(i);
-            final JavadocNodeImpl[] subChildren =
-                    createChildrenNodes(currentJavadocNode, currentParseTreeNodeChild);
-            currentJavadocNode.setChildren(subChildren);
-        }
-    }
-
-    /**
-     * Creates children Javadoc nodes base on ParseTree node's children.
-     * @param parentJavadocNode node that will be parent for created children
-     * @param parseTreeNode original ParseTree node
-     * @return array of Javadoc nodes
-     */
-    private JavadocNodeImpl[]
-            createChildrenNodes(JavadocNodeImpl parentJavadocNode, ParseTree parseTreeNode) {
-        final JavadocNodeImpl[] children =
-                new JavadocNodeImpl[parseTreeNode.getChildCount()];
-
-        for (int j = 0; j < children.length; j++) {
-            final JavadocNodeImpl child =
-                    createJavadocNode(parseTreeNode.getChild(j), parentJavadocNode, j);
-
-            children[j] = child;
+        if (tree == null) {
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            tree = parser.javadoc();
         }
-        return children;
+        return tree;
     }
 
     /**
-     * Creates root JavadocNodeImpl node base on ParseTree root node.
-     * @param parseTreeNode ParseTree root node
-     * @return root Javadoc node
-     */
-    private JavadocNodeImpl createRootJavadocNode(ParseTree parseTreeNode) {
-        final JavadocNodeImpl rootJavadocNode = createJavadocNode(parseTreeNode, null, -1);
-
-        final int childCount = parseTreeNode.getChildCount();
-        final DetailNode[] children = rootJavadocNode.getChildren();
-
-        for (int i = 0; i < childCount; i++) {
-            final JavadocNodeImpl child = createJavadocNode(parseTreeNode.getChild(i),
-                    rootJavadocNode, i);
-            children[i] = child;
-        }
-        rootJavadocNode.setChildren(children);
-        return rootJavadocNode;
-    }
-
-    /**
-     * Creates JavadocNodeImpl node on base of ParseTree node.
+     * Adds nodes of ParseTree (that is generated by ANTLRv4) to Javadoc tree.
+     * Children of text nodes are not added.
      *
+     * @param recognizer the recognizer which has produced the ParseTree
+     * @param tree the Javadoc tree
      * @param parseTree ParseTree node
-     * @param parent DetailNode that will be parent of new node
-     * @param index child index that has new node
-     * @return JavadocNodeImpl node on base of ParseTree node.
+     * @param parent number of the parent node in the Javadoc tree
      */
-    private JavadocNodeImpl createJavadocNode(ParseTree parseTree, DetailNode parent, int index) {
-        final JavadocNodeImpl node = new JavadocNodeImpl();
-        if (parseTree.getChildCount() == 0
-                || "Text".equals(getNodeClassNameWithoutContext(parseTree))) {
-            node.setText(parseTree.getText());
+    private void addNodes(JavadocRecognizer recognizer, JavadocNodeTree tree,
+            ParseTree parseTree, int parent) {
+        if (parseTree instanceof TerminalNode) {
+            final Token token = ((TerminalNode) parseTree).getSymbol();
+            final int node = tree.addNode(token.getType(),
+                    token.getLine() - 1 + blockCommentLineNumber,
+                    token.getCharPositionInLine(), parent);
+            tree.setText(node, token.getStartIndex(), token.getStopIndex());
         }
         else {
-            node.setText(getFormattedNodeClassNameWithoutContext(parseTree));
-        }
-        node.setColumnNumber(getColumn(parseTree));
-        node.setLineNumber(getLine(parseTree) + blockCommentLineNumber);
-        node.setIndex(index);
-        node.setType(getTokenType(parseTree));
-        node.setParent(parent);
-        node.setChildren(new JavadocNodeImpl[parseTree.getChildCount()]);
-        return node;
-    }
-
-    /**
-     * Adjust first line nodes to javadoc indent.
-     * @param tree DetailNode tree root
-     * @param javadocColumnNumber javadoc indent
-     */
-    private void adjustFirstLineToJavadocIndent(DetailNode tree, int javadocColumnNumber) {
-        if (tree.getLineNumber() == blockCommentLineNumber) {
-            ((JavadocNodeImpl) tree).setColumnNumber(tree.getColumnNumber() + javadocColumnNumber);
-            final DetailNode[] children = tree.getChildren();
-            for (DetailNode child : children) {
-                adjustFirstLineToJavadocIndent(child, javadocColumnNumber);
+            final ParserRuleContext rule = (ParserRuleContext) parseTree;
+            final int type = recognizer.getRuleType(rule);
+            final int node = tree.addNode(type,
+                    rule.start.getLine() - 1 + blockCommentLineNumber,
+                    rule.start.getCharPositionInLine(), parent);
+            if (type == JavadocTokenTypes.TEXT) {
+                tree.setText(node, rule.start.getStartIndex(), rule.stop.getStopIndex());
             }
-        }
-    }
-
-    /**
-     * Gets line number from ParseTree node.
-     * @param tree
-     *        ParseTree node
-     * @return line number
-     */
-    private static int getLine(ParseTree tree) {
-        final int line;
-        if (tree instanceof TerminalNode) {
-            line = ((TerminalNode) tree).getSymbol().getLine() - 1;
-        }
-        else {
-            final ParserRuleContext rule = (ParserRuleContext) tree;
-            line = rule.start.getLine() - 1;
-        }
-        return line;
-    }
-
-    /**
-     * Gets column number from ParseTree node.
-     * @param tree
-     *        ParseTree node
-     * @return column number
-     */
-    private static int getColumn(ParseTree tree) {
-        final int column;
-        if (tree instanceof TerminalNode) {
-            column = ((TerminalNode) tree).getSymbol().getCharPositionInLine();
-        }
-        else {
-            final ParserRuleContext rule = (ParserRuleContext) tree;
-            column = rule.start.getCharPositionInLine();
-        }
-        return column;
-    }
-
-    /**
-     * Gets next sibling of ParseTree node.
-     * @param node ParseTree node
-     * @return next sibling of ParseTree node.
-     */
-    private static ParseTree getNextSibling(ParseTree node) {
-        ParseTree nextSibling = null;
-
-        if (node.getParent() != null) {
-            final ParseTree parent = node.getParent();
-            int index = 0;
-            while (true) {
-                final ParseTree currentNode = parent.getChild(index);
-                if (currentNode.equals(node)) {
-                    nextSibling = parent.getChild(index + 1);
-                    break;
+            else {
+                final int childCount = rule.getChildCount();
+                for (int i = 0; i < childCount; i++) {
+                    addNodes(recognizer, tree, rule.getChild(i), node);
                 }
-                index++;
             }
         }
-        return nextSibling;
     }
 
     /**
-     * Gets token type of ParseTree node from JavadocTokenTypes class.
-     * @param node ParseTree node.
-     * @return token type from JavadocTokenTypes
+     * Adjust first line nodes to javadoc indent.
+     * @param tree Javadoc tree
+     * @param javadocColumnNumber javadoc indent
      */
-    private static int getTokenType(ParseTree node) {
-        final int tokenType;
-
-        if (node.getChildCount() == 0) {
-            tokenType = ((TerminalNode) node).getSymbol().getType();
-        }
-        else {
-            final String className = getNodeClassNameWithoutContext(node);
-            tokenType = JavadocUtil.getTokenId(convertUpperCamelToUpperUnderscore(className));
+    private void adjustFirstLineToJavadocIndent(JavadocNodeTree tree, int javadocColumnNumber) {
+        final int size = tree.size();
+        for (int node = 0; node < size; node++) {
+            if (tree.getLineNumber(node) == blockCommentLineNumber) {
+                tree.shiftColumnNumber(node, javadocColumnNumber);
+            }
         }
-
-        return tokenType;
-    }
-
-    /**
-     * Gets class name of ParseTree node and removes 'Context' postfix at the
-     * end and formats it.
-     * @param node {@code ParseTree} node whose class name is to be formatted and returned
-     * @return uppercased class name without the word 'Context' and with appropriately
-     *     inserted underscores
-     */
-    private static String getFormattedNodeClassNameWithoutContext(ParseTree node) {
-        final String classNameWithoutContext = getNodeClassNameWithoutContext(node);
-        return convertUpperCamelToUpperUnderscore(classNameWithoutContext);
-    }
-
-    /**
-     * Gets class name of ParseTree node and removes 'Context' postfix at the
-     * end.
-     * @param node
-     *        ParseTree node.
-     * @return class name without 'Context'
-     */
-    private static String getNodeClassNameWithoutContext(ParseTree node) {
-        final String className = node.getClass().getSimpleName();
-        // remove 'Context' at the end
-        final int contextLength = 7;
-        return className.substring(0, className.length() - contextLength);
     }
 
     /**
@@ -567,6 +392,13 @@ public class JavadocDetailNodeParser {
             return errorMessage;
         }
 
+        /**
+         * Forgets the error message of the previous parsing.
+         */
+        private void reset() {
+            errorMessage = null;
+        }
+
         /**
          * Sets offset. Offset is line number of beginning of the Javadoc
          * comment. Log messages should have line number in scope of file, not
@@ -614,6 +446,79 @@ public class JavadocDetailNodeParser {
 
     }
 
+    /**
+     * Javadoc lexer and parser with the custom error handling, which are
+     * reused for all Javadoc comments parsed in a thread.
+     */
+    private static final class JavadocRecognizer {
+
+        /** Custom error listener of the parser. */
+        private final DescriptiveErrorListener errorListener = new DescriptiveErrorListener();
+
+        /** The lexer. */
+        private final JavadocLexer lexer = new JavadocLexer(CharStreams.fromString(""));
+
+        /** The token stream of the lexer. */
+        private final CommonTokenStream tokens = new CommonTokenStream(lexer);
+
+        /** The parser. */
+        private final JavadocParser parser = new JavadocParser(tokens);
+
+        /** Javadoc token types of the parser rules, found on demand. */
+        private final int[] ruleTypes = new int[JavadocParser.ruleNames.length];
+
+        /**
+         * Creates the lexer and the parser with the custom error handling.
+         */
+        /* package */ JavadocRecognizer() {
+            // remove default error listeners
+            parser.removeErrorListeners();
+
+            // add custom error listener that logs syntax errors
+            parser.addErrorListener(errorListener);
+
+            // JavadocParserErrorStrategy stops parsing on first parse error encountered unlike
+            // the DefaultErrorStrategy used by ANTLR which rather attempts error recovery.
+            parser.setErrorHandler(new JavadocParserErrorStrategy());
+        }
+
+        /**
+         * Resets the lexer and the parser to parse block comment content as javadoc comment.
+         * @param blockComment
+         *        block comment content.
+         * @return the parser
+         */
+        /* package */ JavadocParser getParser(String blockComment) {
+            lexer.setInputStream(CharStreams.fromString(blockComment));
+            tokens.setTokenSource(lexer);
+            parser.setTokenStream(tokens);
+            return parser;
+        }
+
+        /**
+         * Returns the content of the comment which is being parsed.
+         * @return the input stream of the lexer
+         */
+        /* package */ CharStream getInputStream() {
+            return lexer.getInputStream();
+        }
+
+        /**
+         * Returns Javadoc token type of the rule.
+         * @param rule the rule context.
+         * @return Javadoc token type
+         */
+        /* package */ int getRuleType(ParserRuleContext rule) {
+            final int ruleIndex = rule.getRuleIndex();
+            if (ruleTypes[ruleIndex] == 0) {
+                ruleTypes[ruleIndex] = JavadocUtil.getTokenId(
+                        convertUpperCamelToUpperUnderscore(JavadocParser.ruleNames[ruleIndex]));
+            }
+            return ruleTypes[ruleIndex];
+        }
+
+    }
+
     /**
      * Contains result of parsing javadoc comment: DetailNode tree and parse
      * error message.
@@ -0,0 +1,309 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import java.util.Arrays;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+import com.puppycrawl.tools.checkstyle.api.DetailNode;
+import com.puppycrawl.tools.checkstyle.api.JavadocTokenTypes;
+import com.puppycrawl.tools.checkstyle.utils.JavadocUtil;
+
+/**
+ * Javadoc tree which keeps its nodes in parallel arrays indexed by node number.
+ * Nodes are numbered in document order, the root has number zero.
+ * {@link DetailNode} objects are created for the nodes on demand, and text of
+ * a node is read from the comment only when it is requested.
+ */
+final class JavadocNodeTree {
+
+    /** Text of the end of file token. */
+    private static final String EOF_TEXT = "<EOF>";
+
+    /** Number which means that there is no node. */
+    private static final int NONE = -1;
+
+    /** Initial capacity of the arrays. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Content of the Javadoc comment. */
+    private final CharStream input;
+
+    /** Number of nodes. */
+    private int size;
+
+    /** Types of the nodes. */
+    private int[] types = new int[INITIAL_CAPACITY];
+
+    /** Line numbers of the nodes. */
+    private int[] lineNumbers = new int[INITIAL_CAPACITY];
+
+    /** Column numbers of the nodes. */
+    private int[] columnNumbers = new int[INITIAL_CAPACITY];
+
+    /** Parents of the nodes. */
+    private int[] parents = new int[INITIAL_CAPACITY];
+
+    /** Indexes of the nodes among their parent's children. */
+    private int[] indexes = new int[INITIAL_CAPACITY];
+
+    /** Numbers of children of the nodes. */
+    private int[] childCounts = new int[INITIAL_CAPACITY];
+
+    /** First children of the nodes. */
+    private int[] firstChildren = new int[INITIAL_CAPACITY];
+
+    /** Last children of the nodes. */
+    private int[] lastChildren = new int[INITIAL_CAPACITY];
+
+    /** Next siblings of the nodes. */
+    private int[] nextSiblings = new int[INITIAL_CAPACITY];
+
+    /**
+     * Start indexes of the node texts in the comment, or {@link #NONE}
+     * if the text of a node is the name of its type.
+     */
+    private int[] textStarts = new int[INITIAL_CAPACITY];
+
+    /** Stop indexes (inclusive) of the node texts in the comment. */
+    private int[] textStops = new int[INITIAL_CAPACITY];
+
+    /** The nodes which have been requested. */
+    private Node[] nodes;
+
+    /**
+     * Creates an empty tree.
+     * @param input content of the Javadoc comment.
+     */
+    /* package */ JavadocNodeTree(CharStream input) {
+        this.input = input;
+    }
+
+    /**
+     * Adds a node as the last child of its parent. Parent must be added before
+     * its children and siblings in document order.
+     * @param type type of the node.
+     * @param lineNumber line number of the node.
+     * @param columnNumber column number of the node.
+     * @param parent number of the parent node, or -1 for the root.
+     * @return number of the added node.
+     */
+    /* package */ int addNode(int type, int lineNumber, int columnNumber, int parent) {
+        if (size == types.length) {
+            grow();
+        }
+        final int node = size;
+        size++;
+        types[node] = type;
+        lineNumbers[node] = lineNumber;
+        columnNumbers[node] = columnNumber;
+        parents[node] = parent;
+        childCounts[node] = 0;
+        firstChildren[node] = NONE;
+        lastChildren[node] = NONE;
+        nextSiblings[node] = NONE;
+        textStarts[node] = NONE;
+        if (parent == NONE) {
+            indexes[node] = NONE;
+        }
+        else {
+            if (childCounts[parent] == 0) {
+                firstChildren[parent] = node;
+            }
+            else {
+                nextSiblings[lastChildren[parent]] = node;
+            }
+            lastChildren[parent] = node;
+            indexes[node] = childCounts[parent];
+            childCounts[parent]++;
+        }
+        return node;
+    }
+
+    /**
+     * Sets text of a node to the part of the comment.
+     * @param node number of the node.
+     * @param start start index of the text in the comment.
+     * @param stop stop index (inclusive) of the text in the comment.
+     */
+    /* package */ void setText(int node, int start, int stop) {
+        textStarts[node] = start;
+        textStops[node] = stop;
+    }
+
+    /**
+     * Returns the line number of a node.
+     * @param node number of the node.
+     * @return line number.
+     */
+    /* package */ int getLineNumber(int node) {
+        return lineNumbers[node];
+    }
+
+    /**
+     * Shifts the column number of a node.
+     * @param node number of the node.
+     * @param offset the value to add to the column number.
+     */
+    /* package */ void shiftColumnNumber(int node, int offset) {
+        columnNumbers[node] += offset;
+    }
+
+    /**
+     * Returns the number of nodes.
+     * @return the number of nodes.
+     */
+    /* package */ int size() {
+        return size;
+    }
+
+    /**
+     * Returns the root node of the tree.
+     * @return the root node.
+     */
+    /* package */ DetailNode getRoot() {
+        nodes = new Node[size];
+        return getNode(0);
+    }
+
+    /**
+     * Increases capacity of the arrays twice.
+     */
+    private void grow() {
+        final int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        lineNumbers = Arrays.copyOf(lineNumbers, capacity);
+        columnNumbers = Arrays.copyOf(columnNumbers, capacity);
+        parents = Arrays.copyOf(parents, capacity);
+        indexes = Arrays.copyOf(indexes, capacity);
+        childCounts = Arrays.copyOf(childCounts, capacity);
+        firstChildren = Arrays.copyOf(firstChildren, capacity);
+        lastChildren = Arrays.copyOf(lastChildren, capacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+        textStarts = Arrays.copyOf(textStarts, capacity);
+        textStops = Arrays.copyOf(textStops, capacity);
+    }
+
+    /**
+     * Returns the node object for a node number, creating it on first request.
+     * @param node number of the node.
+     * @return the node object, or null for {@link #NONE}.
+     */
+    private Node getNode(int node) {
+        Node result = null;
+        if (node != NONE) {
+            result = nodes[node];
+            if (result == null) {
+                result = new Node(node);
+                nodes[node] = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Node of the tree.
+     */
+    private final class Node implements DetailNode {
+
+        /** Number of the node. */
+        private final int number;
+
+        /** Text of the node, read from the comment on first request. */
+        private String text;
+
+        /**
+         * Creates a node object.
+         * @param number number of the node.
+         */
+        /* package */ Node(int number) {
+            this.number = number;
+        }
+
+        @Override
+        public int getType() {
+            return types[number];
+        }
+
+        @Override
+        public String getText() {
+            if (text == null) {
+                final int type = types[number];
+                if (type == JavadocTokenTypes.EOF) {
+                    text = EOF_TEXT;
+                }
+                else if (textStarts[number] == NONE) {
+                    text = JavadocUtil.getTokenName(type);
+                }
+                else {
+                    text = input.getText(Interval.of(textStarts[number], textStops[number]));
+                }
+            }
+            return text;
+        }
+
+        @Override
+        public int getLineNumber() {
+            return lineNumbers[number];
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return columnNumbers[number];
+        }
+
+        @Override
+        public DetailNode[] getChildren() {
+            final DetailNode[] children = new DetailNode[childCounts[number]];
+            int child = firstChildren[number];
+            for (int index = 0; index < children.length; index++) {
+                children[index] = getNode(child);
+                child = nextSiblings[child];
+            }
+            return children;
+        }
+
+        @Override
+        public DetailNode getParent() {
+            return getNode(parents[number]);
+        }
+
+        @Override
+        public int getIndex() {
+            return indexes[number];
+        }
+
+        @Override
+        public String toString() {
+            return "JavadocNode["
+                    + "index=" + getIndex()
+                    + ", type=" + JavadocUtil.getTokenName(getType())
+                    + ", text='" + getText() + '\''
+                    + ", lineNumber=" + getLineNumber()
+                    + ", columnNumber=" + getColumnNumber()
+                    + ", childCount=" + childCounts[number]
+                    + ", parent=" + getParent() + ']';
+        }
+
+    }
+
+}
@@ -25,10 +25,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.logging.ConsoleHandler;
@@ -176,7 +180,8 @@ public final class Main {
         final int exitStatus;
 
         // return error if something is wrong in arguments
-        final List<File> filesToProcess = getFilesToProcess(options);
+        final FileIterator filesToProcess =
+                new FileIterator(options.files, options.getExclusions());
         final List<String> messages = options.validateCli(parseResult, filesToProcess);
         final boolean hasMessages = !messages.isEmpty();
         if (hasMessages) {
@@ -190,42 +195,24 @@ public final class Main {
     }
 
     /**
-     * Determines the files to process.
-     * @param options the user-specified options
-     * @return list of files to process
-     */
-    private static List<File> getFilesToProcess(CliOptions options) {
-        final List<Pattern> patternsToExclude = options.getExclusions();
-
-        final List<File> result = new LinkedList<>();
-        for (File file : options.files) {
-            result.addAll(listFiles(file, patternsToExclude));
-        }
-        return result;
-    }
-
-    /**
-     * Traverses a specified node looking for files to check. Found files are added to
-     * a specified list. Subdirectories are also traversed.
+     * Lists a node looking for files to check. A file to check is listed itself,
+     * a directory lists its entries, which are traversed next.
      * @param node
      *        the node to process
      * @param patternsToExclude The list of patterns to exclude from searching or being added as
      *        files.
-     * @return found files
+     * @return the file or the entries of the directory, or an empty list if the node
+     *        is excluded, can not be read or is neither a file nor a directory
      */
     private static List<File> listFiles(File node, List<Pattern> patternsToExclude) {
-        // could be replaced with org.apache.commons.io.FileUtils.list() method
-        // if only we add commons-io library
-        final List<File> result = new LinkedList<>();
+        final List<File> result = new ArrayList<>();
 
         if (node.canRead() && !isPathExcluded(node.getAbsolutePath(), patternsToExclude)) {
             if (node.isDirectory()) {
                 final File[] files = node.listFiles();
                 // listFiles() can return null, so we need to check it
                 if (files != null) {
-                    for (File element : files) {
-                        result.addAll(listFiles(element, patternsToExclude));
-                    }
+                    result.addAll(Arrays.asList(files));
                 }
             }
             else if (node.isFile()) {
@@ -259,13 +246,13 @@ public final class Main {
     /**
      * Do execution of CheckStyle based on Command line options.
      * @param options user-specified options
-     * @param filesToProcess the list of files whose style to check
+     * @param filesToProcess the files whose style to check
      * @return number of violations
      * @throws IOException if a file could not be read.
      * @throws CheckstyleException if something happens processing the files.
      * @noinspection UseOfSystemOutOrSystemErr
      */
-    private static int runCli(CliOptions options, List<File> filesToProcess)
+    private static int runCli(CliOptions options, Iterator<File> filesToProcess)
             throws IOException, CheckstyleException {
         int result = 0;
         final boolean hasSuppressionLineColumnNumber = options.suppressionLineColumnNumber != null;
@@ -273,33 +260,33 @@ public final class Main {
         // create config helper object
         if (options.printAst) {
             // print AST
-            final File file = filesToProcess.get(0);
+            final File file = filesToProcess.next();
             final String stringAst = AstTreeStringPrinter.printFileAst(file,
                     JavaParser.Options.WITHOUT_COMMENTS);
             System.out.print(stringAst);
         }
         else if (Objects.nonNull(options.xpath)) {
-            final String branch = XpathUtil.printXpathBranch(options.xpath, filesToProcess.get(0));
+            final String branch = XpathUtil.printXpathBranch(options.xpath, filesToProcess.next());
             System.out.print(branch);
         }
         else if (options.printAstWithComments) {
-            final File file = filesToProcess.get(0);
+            final File file = filesToProcess.next();
             final String stringAst = AstTreeStringPrinter.printFileAst(file,
                     JavaParser.Options.WITH_COMMENTS);
             System.out.print(stringAst);
         }
         else if (options.printJavadocTree) {
-            final File file = filesToProcess.get(0);
+            final File file = filesToProcess.next();
             final String stringAst = DetailNodeTreeStringPrinter.printFileAst(file);
             System.out.print(stringAst);
         }
         else if (options.printTreeWithJavadoc) {
-            final File file = filesToProcess.get(0);
+            final File file = filesToProcess.next();
             final String stringAst = AstTreeStringPrinter.printJavaAndJavadocTree(file);
             System.out.print(stringAst);
         }
         else if (hasSuppressionLineColumnNumber) {
-            final File file = filesToProcess.get(0);
+            final File file = filesToProcess.next();
             final String stringSuppressions =
                     SuppressionsStringPrinter.printSuppressions(file,
                             options.suppressionLineColumnNumber, options.tabWidth);
@@ -330,14 +317,14 @@ public final class Main {
     /**
      * Executes required Checkstyle actions based on passed parameters.
      * @param options user-specified options
-     * @param filesToProcess the list of files whose style to check
+     * @param filesToProcess the files whose style to check
      * @return number of violations of ERROR level
      * @throws IOException
      *         when output file could not be found
      * @throws CheckstyleException
      *         when properties file could not be loaded
      */
-    private static int runCheckstyle(CliOptions options, List<File> filesToProcess)
+    private static int runCheckstyle(CliOptions options, Iterator<File> filesToProcess)
             throws CheckstyleException, IOException {
         // setup the properties
         final Properties props;
@@ -371,6 +358,7 @@ public final class Main {
         final ClassLoader moduleClassLoader = Checker.class.getClassLoader();
         final RootModule rootModule = getRootModule(config.getName(), moduleClassLoader);
 
+        AsyncAuditListener asyncListener = null;
         try {
             final AuditListener listener;
             if (options.generateXpathSuppressionsFile) {
@@ -388,6 +376,12 @@ public final class Main {
                 listener = new XpathFileGeneratorAuditListener(getOutputStream(options.outputPath),
                         AutomaticBean.OutputStreamOptions.NONE);
             }
+            else if (options.checkerThreadsNumber > 1) {
+                // write the output while the checker threads process the files
+                asyncListener = new AsyncAuditListener(
+                        createListener(options.format, options.outputPath));
+                listener = asyncListener;
+            }
             else {
                 listener = createListener(options.format, options.outputPath);
             }
@@ -397,15 +391,42 @@ public final class Main {
             rootModule.addListener(listener);
 
             // run RootModule
-            errorCounter = rootModule.process(filesToProcess);
+            errorCounter = process(rootModule, filesToProcess);
         }
         finally {
             rootModule.destroy();
+            if (asyncListener != null) {
+                // stops the writer thread if the audit is aborted
+                asyncListener.close();
+            }
         }
 
         return errorCounter;
     }
 
+    /**
+     * Processes the files with the root module. The checker requests the files
+     * while it processes them, so the directories are traversed during the audit.
+     * Other root modules get the list of all files.
+     * @param rootModule the root module
+     * @param files the files whose style to check
+     * @return number of violations of ERROR level
+     * @throws CheckstyleException if something happens processing the files.
+     */
+    private static int process(RootModule rootModule, Iterator<File> files)
+            throws CheckstyleException {
+        final int result;
+        if (rootModule instanceof Checker) {
+            result = ((Checker) rootModule).process(files);
+        }
+        else {
+            final List<File> fileList = new ArrayList<>();
+            files.forEachRemaining(fileList::add);
+            result = rootModule.process(fileList);
+        }
+        return result;
+    }
+
     /**
      * Loads properties from a File.
      * @param file
@@ -559,6 +580,71 @@ public final class Main {
         }
     }
 
+    /**
+     * Iterator over the files to check. Directories are traversed when their files
+     * are requested, so the first files can be checked before all files are found.
+     * Files are returned in the order of a depth-first traversal. Excluded
+     * directories are not traversed.
+     */
+    private static final class FileIterator implements Iterator<File> {
+
+        /** The files and directories to traverse, the next one first. */
+        private final Deque<File> nodes = new ArrayDeque<>();
+
+        /** The files to check, which are found, but not returned yet. */
+        private final Deque<File> files = new ArrayDeque<>();
+
+        /** The list of patterns to exclude from searching or being added as files. */
+        private final List<Pattern> patternsToExclude;
+
+        /**
+         * Creates an iterator over the files to check.
+         * @param roots the files and directories to traverse
+         * @param patternsToExclude the list of patterns to exclude from searching
+         *        or being added as files
+         */
+        /* package */ FileIterator(List<File> roots, List<Pattern> patternsToExclude) {
+            nodes.addAll(roots);
+            this.patternsToExclude = patternsToExclude;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasFiles(1);
+        }
+
+        @Override
+        public File next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return files.remove();
+        }
+
+        /**
+         * Checks whether there are at least the number of files left, traversing
+         * directories until they are found.
+         * @param count the number of files
+         * @return true if there are at least the number of files left
+         */
+        /* package */ boolean hasFiles(int count) {
+            while (files.size() < count && !nodes.isEmpty()) {
+                final File node = nodes.pop();
+                final List<File> entries = listFiles(node, patternsToExclude);
+                if (node.isDirectory()) {
+                    for (int i = entries.size() - 1; i >= 0; i--) {
+                        nodes.push(entries.get(i));
+                    }
+                }
+                else {
+                    files.addAll(entries);
+                }
+            }
+            return files.size() >= count;
+        }
+
+    }
+
     /** Log Filter used in debug mode. */
     private static final class OnlyCheckstyleLoggersFilter implements Filter {
         /** Name of the package used to filter on. */
@@ -743,16 +829,17 @@ public final class Main {
         /**
          * Validates the user-specified command line options.
          * @param parseResult used to verify if the format option was specified on the command line
-         * @param filesToProcess the list of files whose style to check
+         * @param filesToProcess the files whose style to check
          * @return list of violations
          */
         // -@cs[CyclomaticComplexity] Breaking apart will damage encapsulation
-        private List<String> validateCli(ParseResult parseResult, List<File> filesToProcess) {
+        private List<String> validateCli(ParseResult parseResult,
+                FileIterator filesToProcess) {
             final List<String> result = new ArrayList<>();
             final boolean hasConfigurationFile = configurationFile != null;
             final boolean hasSuppressionLineColumnNumber = suppressionLineColumnNumber != null;
 
-            if (filesToProcess.isEmpty()) {
+            if (!filesToProcess.hasNext()) {
                 result.add("Files to process must be specified, found 0.");
             }
             // ensure there is no conflicting options
@@ -763,7 +850,7 @@ public final class Main {
                         || parseResult.hasMatchedOption(OUTPUT_FORMAT_OPTION)) {
                     result.add("Option '-t' cannot be used with other options.");
                 }
-                else if (filesToProcess.size() > 1) {
+                else if (filesToProcess.hasFiles(2)) {
                     result.add("Printing AST is allowed for only one file.");
                 }
             }
@@ -773,7 +860,7 @@ public final class Main {
                         || parseResult.hasMatchedOption(OUTPUT_FORMAT_OPTION)) {
                     result.add("Option '-s' cannot be used with other options.");
                 }
-                else if (filesToProcess.size() > 1) {
+                else if (filesToProcess.hasFiles(2)) {
                     result.add("Printing xpath suppressions is allowed for only one file.");
                 }
             }
@@ -20,7 +20,6 @@
 package com.puppycrawl.tools.checkstyle;
 
 import java.io.ByteArrayOutputStream;
-import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectOutputStream;
@@ -28,19 +27,26 @@ import java.io.OutputStream;
 import java.io.Serializable;
 import java.math.BigInteger;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 /**
@@ -48,10 +54,16 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
  * that have checked ok(no validation events) and their associated
  * timestamp. It is used to optimize Checkstyle between few launches.
  * It is mostly useful for plugin and extensions of Checkstyle.
- * It uses a property file
+ * It uses a binary file
  * for storage.  A hashcode of the Configuration is stored in the
  * cache file to ensure the cache is invalidated when the
  * configuration has changed.
+ * Changed entries are appended to the end of the file, the file is
+ * rewritten only when it holds too many outdated entries. Cache files
+ * in the legacy property file format are still loaded.
+ * Files can also be cached by a hash of their content together with the
+ * violations reported on them, so that the violations can be reported
+ * again without checking a file whose content has not changed.
  *
  */
 public final class PropertyCacheFile {
@@ -72,6 +84,12 @@ public final class PropertyCacheFile {
      */
     public static final String EXTERNAL_RESOURCE_KEY_PREFIX = "module-resource*?:";
 
+    /**
+     * The property prefix to use for storing the size and the last modification
+     * time of an external resource which is a local file.
+     */
+    private static final String EXTERNAL_RESOURCE_STAMP_KEY_PREFIX = "module-resource-stamp*?:";
+
     /** Size of default byte array for buffer. */
     private static final int BUFFER_SIZE = 1024;
 
@@ -81,9 +99,33 @@ public final class PropertyCacheFile {
     /** Default number for base 16 encoding. */
     private static final int BASE_16 = 16;
 
+    /** Message of the exception thrown when a hashcode cannot be calculated. */
+    private static final String HASHCODE_ERROR = "Unable to calculate hashcode.";
+
+    /** Separates the content hash of a file from its encoded violations. */
+    private static final char VIOLATIONS_SEPARATOR = ':';
+
+    /** The cache file is rewritten when it has that many records per entry. */
+    private static final int COMPACTION_RATIO = 2;
+
     /** The details on files. **/
     private final Properties details = new Properties();
 
+    /**
+     * The entries changed since the cache file was loaded or persisted,
+     * removed entries have {@code null} values.
+     */
+    private final Map<String, String> changes = new LinkedHashMap<>();
+
+    /** The number of records in the cache file. */
+    private int records;
+
+    /**
+     * The size of the cache file when it was loaded or persisted,
+     * or {@code -1} if the cache file has to be rewritten.
+     */
+    private long persistedSize = -1;
+
     /** Configuration object. **/
     private final Configuration config;
 
@@ -117,16 +159,19 @@ public final class PropertyCacheFile {
     public void load() throws IOException {
         // get the current config so if the file isn't found
         // the first time the hash will be added to output file
-        configHash = getHashCodeBasedOnObjectContent(config);
-        final File file = new File(fileName);
-        if (file.exists()) {
-            try (InputStream inStream = Files.newInputStream(file.toPath())) {
-                details.load(inStream);
-                final String cachedConfigHash = details.getProperty(CONFIG_HASH_KEY);
-                if (!configHash.equals(cachedConfigHash)) {
-                    // Detected configuration change - clear cache
-                    reset();
-                }
+        if (config instanceof DefaultConfiguration) {
+            configHash = ((DefaultConfiguration) config).getFingerprint();
+        }
+        else {
+            configHash = getHashCodeBasedOnObjectContent(config);
+        }
+        final Path file = Paths.get(fileName);
+        if (Files.exists(file)) {
+            readDetails(file);
+            final String cachedConfigHash = details.getProperty(CONFIG_HASH_KEY);
+            if (!configHash.equals(cachedConfigHash)) {
+                // Detected configuration change - clear cache
+                reset();
             }
         }
         else {
@@ -145,14 +190,15 @@ public final class PropertyCacheFile {
         if (directory != null) {
             Files.createDirectories(directory);
         }
-        OutputStream out = null;
-        try {
-            out = Files.newOutputStream(path);
-            details.store(out, null);
+        if (persistedSize < 0 || !Files.exists(path) || Files.size(path) != persistedSize
+                || records + changes.size() > details.size() * COMPACTION_RATIO) {
+            writeDetails(path);
         }
-        finally {
-            flushAndCloseOutStream(out);
+        else if (!changes.isEmpty()) {
+            appendChanges(path);
         }
+        changes.clear();
+        persistedSize = Files.size(path);
     }
 
     /**
@@ -161,6 +207,54 @@ public final class PropertyCacheFile {
     public void reset() {
         details.clear();
         details.setProperty(CONFIG_HASH_KEY, configHash);
+        changes.clear();
+        persistedSize = -1;
+    }
+
+    /**
+     * Reads the details from a cache file. All records of a binary cache file are
+     * replayed, only writing the changes is incremental.
+     * @param file the cache file
+     * @throws IOException when there is a problems with file read
+     */
+    private void readDetails(Path file) throws IOException {
+        final byte[] content = Files.readAllBytes(file);
+        final int fileRecords = CacheFileRecords.read(content, details);
+        if (fileRecords >= 0) {
+            records = fileRecords;
+            persistedSize = content.length;
+        }
+    }
+
+    /**
+     * Writes all details to a new binary cache file.
+     * @param path the cache file
+     * @throws IOException when there is a problems with file save
+     */
+    private void writeDetails(Path path) throws IOException {
+        CacheFileRecords.write(path, details);
+        records = details.size();
+    }
+
+    /**
+     * Appends the changed details to the binary cache file.
+     * @param path the cache file
+     * @throws IOException when there is a problems with file save
+     */
+    private void appendChanges(Path path) throws IOException {
+        CacheFileRecords.append(path, changes);
+        records += changes.size();
+    }
+
+    /**
+     * Sets an entry of the cache and records the change.
+     * @param key the key of the entry
+     * @param value the value of the entry
+     */
+    private void setDetail(String key, String value) {
+        if (!value.equals(details.setProperty(key, value))) {
+            changes.put(key, value);
+        }
     }
 
     /**
@@ -186,13 +280,61 @@ public final class PropertyCacheFile {
         return Objects.equals(lastChecked, Long.toString(timestamp));
     }
 
+    /**
+     * Retrieves the violations recorded for a file with the given content hash.
+     * @param uncheckedFileName the file to check
+     * @param contentHash the hash of the content of the file to check
+     * @param classLoader the class loader to find the source classes of the violations
+     * @return the violations of the file or {@code null} if the file with
+     *         the specified content is not in cache
+     */
+    public List<LocalizedMessage> getViolations(String uncheckedFileName, String contentHash,
+                                                ClassLoader classLoader) {
+        final String cached = details.getProperty(uncheckedFileName);
+        List<LocalizedMessage> violations = null;
+        if (cached != null && cached.startsWith(contentHash)) {
+            if (cached.length() == contentHash.length()) {
+                violations = Collections.emptyList();
+            }
+            else if (cached.charAt(contentHash.length()) == VIOLATIONS_SEPARATOR) {
+                violations = CachedViolations.decode(
+                        cached.substring(contentHash.length() + 1), classLoader);
+            }
+        }
+        return violations;
+    }
+
     /**
      * Records that a file checked ok.
      * @param checkedFileName name of the file that checked ok
      * @param timestamp the timestamp of the file
      */
     public void put(String checkedFileName, long timestamp) {
-        details.setProperty(checkedFileName, Long.toString(timestamp));
+        setDetail(checkedFileName, Long.toString(timestamp));
+    }
+
+    /**
+     * Records the content hash of a checked file and the violations reported on it.
+     * The file is removed from the cache if the violations cannot be encoded.
+     * @param checkedFileName name of the checked file
+     * @param contentHash the hash of the content of the file
+     * @param violations the violations reported on the file
+     */
+    public void put(String checkedFileName, String contentHash,
+                    List<LocalizedMessage> violations) {
+        if (violations.isEmpty()) {
+            setDetail(checkedFileName, contentHash);
+        }
+        else {
+            try {
+                setDetail(checkedFileName, contentHash + VIOLATIONS_SEPARATOR
+                        + CachedViolations.encode(violations));
+            }
+            catch (final IOException ignored) {
+                // some violation arguments cannot be encoded, the file will be checked again
+                remove(checkedFileName);
+            }
+        }
     }
 
     /**
@@ -209,7 +351,18 @@ public final class PropertyCacheFile {
      * @param checkedFileName The name of the file to remove.
      */
     public void remove(String checkedFileName) {
-        details.remove(checkedFileName);
+        if (details.remove(checkedFileName) != null) {
+            changes.put(checkedFileName, null);
+        }
+    }
+
+    /**
+     * Calculates the hash of the content of a file, which is already read and decoded.
+     * @param fileText the text of the file.
+     * @return the hash of the file content.
+     */
+    public static String getContentHash(FileText fileText) {
+        return getHashCode(fileText.getFullText().toString().getBytes(StandardCharsets.UTF_8));
     }
 
     /**
@@ -225,18 +378,48 @@ public final class PropertyCacheFile {
             // Instead of hexEncoding outputStream.toByteArray() directly we
             // use a message digest here to keep the length of the
             // hashcode reasonable
+            return getHashCode(outputStream.toByteArray());
+        }
+        catch (final IOException ex) {
+            // rethrow as unchecked exception
+            throw new IllegalStateException(HASHCODE_ERROR, ex);
+        }
+    }
 
-            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
-            digest.update(outputStream.toByteArray());
+    /**
+     * Calculates the SHA-1 hashcode of the bytes.
+     * @param content the bytes.
+     * @return the hashcode of the bytes.
+     */
+    /* package */ static String getHashCode(byte[] content) {
+        final MessageDigest digest = getDigest();
+        digest.update(content);
+        return toHexString(digest.digest());
+    }
 
-            return new BigInteger(1, digest.digest()).toString(BASE_16).toUpperCase(Locale.ROOT);
+    /**
+     * Creates a SHA-1 message digest.
+     * @return the message digest.
+     */
+    private static MessageDigest getDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
         }
-        catch (final IOException | NoSuchAlgorithmException ex) {
+        catch (final NoSuchAlgorithmException ex) {
             // rethrow as unchecked exception
-            throw new IllegalStateException("Unable to calculate hashcode.", ex);
+            throw new IllegalStateException(HASHCODE_ERROR, ex);
         }
     }
 
+    /**
+     * Encodes a digest as an upper case hexadecimal number.
+     * @param digest the digest.
+     * @return the encoded digest.
+     */
+    private static String toHexString(byte[] digest) {
+        return new BigInteger(1, digest).toString(BASE_16).toUpperCase(Locale.ROOT);
+    }
+
     /**
      * Serializes object to output stream.
      * @param object object to be serialized
@@ -263,48 +446,70 @@ public final class PropertyCacheFile {
         final Set<ExternalResource> resources = loadExternalResources(locations);
         if (areExternalResourcesChanged(resources)) {
             reset();
-            fillCacheWithExternalResources(resources);
         }
+        fillCacheWithExternalResources(resources);
     }
 
     /**
      * Loads a set of {@link ExternalResource} based on their locations.
+     * The content of a local file is not read again if its size and last modification
+     * time are the same as when its hash sum was put in cache.
      * @param resourceLocations locations of external configuration resources.
      * @return a set of {@link ExternalResource}.
      */
-    private static Set<ExternalResource> loadExternalResources(Set<String> resourceLocations) {
+    private Set<ExternalResource> loadExternalResources(Set<String> resourceLocations) {
         final Set<ExternalResource> resources = new HashSet<>();
         for (String location : resourceLocations) {
+            final String key = EXTERNAL_RESOURCE_KEY_PREFIX + location;
+            final String stampKey = EXTERNAL_RESOURCE_STAMP_KEY_PREFIX + location;
+            String stamp = null;
+            String contentHashSum;
             try {
-                final byte[] content = loadExternalResource(location);
-                final String contentHashSum = getHashCodeBasedOnObjectContent(content);
-                resources.add(new ExternalResource(EXTERNAL_RESOURCE_KEY_PREFIX + location,
-                        contentHashSum));
+                final URI uri = CommonUtil.getUriByFilename(location);
+                stamp = getFileStamp(uri);
+                contentHashSum = details.getProperty(key);
+                if (stamp == null || contentHashSum == null
+                        || !stamp.equals(details.getProperty(stampKey))) {
+                    contentHashSum = getHashCode(loadExternalResource(uri));
+                }
             }
             catch (CheckstyleException | IOException ex) {
                 // if exception happened (configuration resource was not found, connection is not
                 // available, resource is broken, etc), we need to calculate hash sum based on
                 // exception object content in order to check whether problem is resolved later
                 // and/or the configuration is changed.
-                final String contentHashSum = getHashCodeBasedOnObjectContent(ex);
-                resources.add(new ExternalResource(EXTERNAL_RESOURCE_KEY_PREFIX + location,
-                        contentHashSum));
+                contentHashSum = getHashCodeBasedOnObjectContent(ex);
             }
+            resources.add(new ExternalResource(key, contentHashSum, stampKey, stamp));
         }
         return resources;
     }
 
+    /**
+     * Gets the size and the last modification time of a local file.
+     * @param uri the location of the file.
+     * @return the size and the last modification time of the file or {@code null}
+     *         if the location is not a local file.
+     * @throws IOException if the file attributes cannot be read.
+     */
+    private static String getFileStamp(URI uri) throws IOException {
+        String stamp = null;
+        if ("file".equals(uri.getScheme())) {
+            final Path path = Paths.get(uri);
+            if (Files.isRegularFile(path)) {
+                stamp = Files.size(path) + "/" + Files.getLastModifiedTime(path).toMillis();
+            }
+        }
+        return stamp;
+    }
+
     /**
      * Loads the content of external resource.
-     * @param location external resource location.
+     * @param uri external resource location.
      * @return array of bytes which represents the content of external resource in binary form.
      * @throws IOException if error while loading occurs.
-     * @throws CheckstyleException if error while loading occurs.
      */
-    private static byte[] loadExternalResource(String location)
-            throws IOException, CheckstyleException {
-        final URI uri = CommonUtil.getUriByFilename(location);
-
+    private static byte[] loadExternalResource(URI uri) throws IOException {
         try (InputStream is = uri.toURL().openStream()) {
             return toByteArray(is);
         }
@@ -359,8 +564,15 @@ public final class PropertyCacheFile {
      * @param externalResources a set of {@link ExternalResource}.
      */
     private void fillCacheWithExternalResources(Set<ExternalResource> externalResources) {
-        externalResources
-            .forEach(resource -> details.setProperty(resource.location, resource.contentHashSum));
+        externalResources.forEach(resource -> {
+            setDetail(resource.location, resource.contentHashSum);
+            if (resource.stamp == null) {
+                remove(resource.stampKey);
+            }
+            else {
+                setDetail(resource.stampKey, resource.stamp);
+            }
+        });
     }
 
     /**
@@ -382,15 +594,24 @@ public final class PropertyCacheFile {
         private final String location;
         /** Hash sum which is calculated based on resource content. */
         private final String contentHashSum;
+        /** Cache key of the size and the last modification time of resource. */
+        private final String stampKey;
+        /** Size and last modification time of resource if it is a local file. */
+        private final String stamp;
 
         /**
          * Creates an instance.
          * @param location resource location.
          * @param contentHashSum content hash sum.
+         * @param stampKey cache key of the size and the last modification time.
+         * @param stamp size and last modification time, may be {@code null}.
          */
-        /* package */ ExternalResource(String location, String contentHashSum) {
+        /* package */ ExternalResource(String location, String contentHashSum,
+                String stampKey, String stamp) {
             this.location = location;
             this.contentHashSum = contentHashSum;
+            this.stampKey = stampKey;
+            this.stamp = stamp;
         }
 
     }
@@ -84,18 +84,18 @@ public class ThreadModeSettings implements Serializable {
      * @return resolved module name.
      */
     public final String resolveName(String name) {
+        String result = name;
         if (checkerThreadsNumber > 1) {
             if (CHECKER_MODULE_NAME.equals(name)) {
-                throw new IllegalArgumentException(
-                        "Multi thread mode for Checker module is not implemented");
+                result = MULTI_THREAD_CHECKER_MODULE_NAME;
             }
-            if (TREE_WALKER_MODULE_NAME.equals(name)) {
+            if (treeWalkerThreadsNumber > 1 && TREE_WALKER_MODULE_NAME.equals(name)) {
                 throw new IllegalArgumentException(
                         "Multi thread mode for TreeWalker module is not implemented");
             }
         }
 
-        return name;
+        return result;
     }
 
 }
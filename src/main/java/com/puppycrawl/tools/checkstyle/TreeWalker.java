@@ -20,15 +20,16 @@
 package com.puppycrawl.tools.checkstyle;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Set;
-import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.stream.Stream;
 
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
@@ -41,6 +42,7 @@ import com.puppycrawl.tools.checkstyle.api.ExternalResourceHolder;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
 
 /**
@@ -51,25 +53,23 @@ import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
 @FileStatefulCheck
 public final class TreeWalker extends AbstractFileSetCheck implements ExternalResourceHolder {
 
-    /** Maps from token name to ordinary checks. */
-    private final Map<String, Set<AbstractCheck>> tokenToOrdinaryChecks =
-        new HashMap<>();
+    /** Ordinary checks interested in a token, indexed by token type. */
+    private AbstractCheck[][] tokenToOrdinaryChecks = new AbstractCheck[0][];
 
-    /** Maps from token name to comment checks. */
-    private final Map<String, Set<AbstractCheck>> tokenToCommentChecks =
-            new HashMap<>();
+    /** Comment checks interested in a token, indexed by token type. */
+    private AbstractCheck[][] tokenToCommentChecks = new AbstractCheck[0][];
 
     /** Registered ordinary checks, that don't use comment nodes. */
-    private final Set<AbstractCheck> ordinaryChecks = new HashSet<>();
+    private final Set<AbstractCheck> ordinaryChecks = new LinkedHashSet<>();
 
     /** Registered comment checks. */
-    private final Set<AbstractCheck> commentChecks = new HashSet<>();
+    private final Set<AbstractCheck> commentChecks = new LinkedHashSet<>();
 
     /** The ast filters. */
     private final Set<TreeWalkerFilter> filters = new HashSet<>();
 
-    /** The sorted set of messages. */
-    private final SortedSet<LocalizedMessage> messages = new TreeSet<>();
+    /** The messages of the current file, in the order they were logged. */
+    private final List<LocalizedMessage> messages = new ArrayList<>();
 
     /** Context of child components. */
     private Context childContext;
@@ -153,50 +153,110 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
 
     @Override
     protected void processFiltered(File file, FileText fileText) throws CheckstyleException {
+        walkFile(file, fileText, null);
+        if (!messages.isEmpty()) {
+            addMessages(new TreeSet<>(messages));
+            messages.clear();
+        }
+    }
+
+    /**
+     * Processes a file like {@link #processUnsorted(File, FileText, Collection)}, but
+     * walks the AST of the result of parsing the file, which is shared with other walkers.
+     * @param file the file to process.
+     * @param fileText the text of the file.
+     * @param parseResult the result of parsing the file shared with other walkers.
+     * @param target the collection to add the messages of the file to.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    /* package */ void processUnsorted(File file, FileText fileText,
+            JavaParseResult parseResult, Collection<? super LocalizedMessage> target)
+            throws CheckstyleException {
+        if (CommonUtil.matchesFileExtension(file, getFileExtensions())) {
+            walkFile(file, fileText, parseResult);
+            target.addAll(messages);
+            messages.clear();
+        }
+    }
+
+    /**
+     * Walks a file with the checks and collects the messages accepted by the filters.
+     * @param file the file to process.
+     * @param fileText the text of the file.
+     * @param parseResult the result of parsing the file shared with other walkers,
+     *     or {@code null} to parse the file here.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    private void walkFile(File file, FileText fileText, JavaParseResult parseResult)
+            throws CheckstyleException {
         // check if already checked and passed the file
         if (!ordinaryChecks.isEmpty() || !commentChecks.isEmpty()) {
-            final FileContents contents = getFileContents();
-            final DetailAST rootAST = JavaParser.parse(contents);
+            JavaParseResult result = parseResult;
+            if (result == null) {
+                result = new JavaParseResult(fileText, null, hasOrdinaryChecks(),
+                        hasCommentChecks());
+            }
+            // the file is parsed once for all walkers, the checks walk compact copies of the AST
+            DetailAST rootAST = null;
             if (!ordinaryChecks.isEmpty()) {
-                walk(rootAST, contents, AstState.ORDINARY);
+                rootAST = result.getAst();
             }
+            DetailAST astWithComments = null;
+            DetailAST filteredAST = rootAST;
             if (!commentChecks.isEmpty()) {
-                final DetailAST astWithComments = JavaParser.appendHiddenCommentNodes(rootAST);
-                walk(astWithComments, contents, AstState.WITH_COMMENTS);
+                astWithComments = result.getAstWithComments();
+                filteredAST = skipComments(astWithComments);
             }
-            if (filters.isEmpty()) {
-                addMessages(messages);
+            final FileContents contents = result.getContents();
+            walk(rootAST, astWithComments, contents);
+            if (!filters.isEmpty()) {
+                removeFilteredMessages(file.getAbsolutePath(), contents, filteredAST);
             }
-            else {
-                final SortedSet<LocalizedMessage> filteredMessages =
-                    getFilteredMessages(file.getAbsolutePath(), contents, rootAST);
-                addMessages(filteredMessages);
-            }
-            messages.clear();
         }
     }
 
     /**
-     * Returns filtered set of {@link LocalizedMessage}.
+     * Checks whether the walker has checks, which do not require comment nodes.
+     * @return true if the walker walks the AST without comment nodes.
+     */
+    /* package */ boolean hasOrdinaryChecks() {
+        return !ordinaryChecks.isEmpty();
+    }
+
+    /**
+     * Checks whether the walker has checks, which require comment nodes.
+     * @return true if the walker walks the AST with comment nodes.
+     */
+    /* package */ boolean hasCommentChecks() {
+        return !commentChecks.isEmpty();
+    }
+
+    /**
+     * Skips the comment nodes which precede the first node of the AST.
+     * @param astWithComments the AST with comment nodes
+     * @return the first node which is not a comment, or {@code null} if there is none
+     */
+    private static DetailAST skipComments(DetailAST astWithComments) {
+        DetailAST result = astWithComments;
+        while (result != null && TokenUtil.isCommentType(result.getType())) {
+            result = result.getNextSibling();
+        }
+        return result;
+    }
+
+    /**
+     * Removes the {@link LocalizedMessage}s which are not accepted by the filters.
      * @param fileName path to the file
      * @param fileContents the contents of the file
      * @param rootAST root AST element {@link DetailAST} of the file
-     * @return filtered set of messages
      */
-    private SortedSet<LocalizedMessage> getFilteredMessages(
+    private void removeFilteredMessages(
             String fileName, FileContents fileContents, DetailAST rootAST) {
-        final SortedSet<LocalizedMessage> result = new TreeSet<>(messages);
-        for (LocalizedMessage element : messages) {
+        messages.removeIf(element -> {
             final TreeWalkerAuditEvent event =
                     new TreeWalkerAuditEvent(fileContents, fileName, element, rootAST);
-            for (TreeWalkerFilter filter : filters) {
-                if (!filter.accept(event)) {
-                    result.remove(element);
-                    break;
-                }
-            }
-        }
-        return result;
+            return filters.stream().anyMatch(filter -> !filter.accept(event));
+        });
     }
 
     /**
@@ -219,7 +279,7 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
             for (String token : checkTokens) {
                 final int tokenId = TokenUtil.getTokenId(token);
                 if (Arrays.binarySearch(acceptableTokens, tokenId) >= 0) {
-                    registerCheck(token, check);
+                    registerCheck(tokenId, check);
                 }
                 else {
                     final String message = String.format(Locale.ROOT, "Token \"%s\" was "
@@ -247,41 +307,71 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
      * @throws CheckstyleException if Check is misconfigured
      */
     private void registerCheck(int tokenId, AbstractCheck check) throws CheckstyleException {
-        registerCheck(TokenUtil.getTokenName(tokenId), check);
-    }
-
-    /**
-     * Register a check for a specified token name.
-     * @param token the name of the token
-     * @param check the check to register
-     * @throws CheckstyleException if Check is misconfigured
-     */
-    private void registerCheck(String token, AbstractCheck check) throws CheckstyleException {
         if (check.isCommentNodesRequired()) {
-            tokenToCommentChecks.computeIfAbsent(token, empty -> new HashSet<>()).add(check);
+            tokenToCommentChecks = addCheck(tokenToCommentChecks, tokenId, check);
         }
-        else if (TokenUtil.isCommentType(token)) {
+        else if (TokenUtil.isCommentType(tokenId)) {
             final String message = String.format(Locale.ROOT, "Check '%s' waits for comment type "
                     + "token ('%s') and should override 'isCommentNodesRequired()' "
-                    + "method to return 'true'", check.getClass().getName(), token);
+                    + "method to return 'true'", check.getClass().getName(),
+                    TokenUtil.getTokenName(tokenId));
             throw new CheckstyleException(message);
         }
         else {
-            tokenToOrdinaryChecks.computeIfAbsent(token, empty -> new HashSet<>()).add(check);
+            tokenToOrdinaryChecks = addCheck(tokenToOrdinaryChecks, tokenId, check);
         }
     }
 
     /**
-     * Initiates the walk of an AST.
-     * @param ast the root AST
+     * Adds a check to the checks of a token in a dispatch table, unless it is already there.
+     * Checks of a token keep the order of their registration.
+     * @param table the dispatch table indexed by token type
+     * @param tokenId the id of the token
+     * @param check the check to add
+     * @return the dispatch table, possibly reallocated to fit the token id
+     */
+    private static AbstractCheck[][] addCheck(AbstractCheck[][] table, int tokenId,
+            AbstractCheck check) {
+        AbstractCheck[][] result = table;
+        if (tokenId >= result.length) {
+            result = Arrays.copyOf(result, tokenId + 1);
+        }
+        final AbstractCheck[] checks = result[tokenId];
+        if (checks == null) {
+            result[tokenId] = new AbstractCheck[] {check};
+        }
+        else if (Arrays.stream(checks).noneMatch(registered -> registered == check)) {
+            final AbstractCheck[] newChecks = Arrays.copyOf(checks, checks.length + 1);
+            newChecks[checks.length] = check;
+            result[tokenId] = newChecks;
+        }
+        return result;
+    }
+
+    /**
+     * Initiates the walk of the ASTs for ordinary and comment checks.
+     * Both ASTs are walked in one pass.
+     * Checks of a group are notified even if the file has no nodes for them.
+     * @param ast the root AST without comment nodes, or {@code null} if there are
+     *     no ordinary checks or the file has no such nodes
+     * @param astWithComments the root AST with comment nodes, or {@code null} if there are
+     *     no comment checks or the file has no nodes at all
      * @param contents the contents of the file the AST was generated from.
-     * @param astState state of AST.
      */
-    private void walk(DetailAST ast, FileContents contents,
-            AstState astState) {
-        notifyBegin(ast, contents, astState);
-        processIter(ast, astState);
-        notifyEnd(ast, astState);
+    private void walk(DetailAST ast, DetailAST astWithComments, FileContents contents) {
+        if (hasOrdinaryChecks()) {
+            notifyBegin(ast, contents, AstState.ORDINARY);
+        }
+        if (hasCommentChecks()) {
+            notifyBegin(astWithComments, contents, AstState.WITH_COMMENTS);
+        }
+        processIter(ast, astWithComments);
+        if (hasOrdinaryChecks()) {
+            notifyEnd(ast, AstState.ORDINARY);
+        }
+        if (hasCommentChecks()) {
+            notifyEnd(astWithComments, AstState.WITH_COMMENTS);
+        }
     }
 
     /**
@@ -325,7 +415,7 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
 
         for (AbstractCheck check : checks) {
             check.finishTree(rootAST);
-            messages.addAll(check.getMessages());
+            check.transferMessages(messages);
         }
     }
 
@@ -335,7 +425,7 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
      * @param astState state of AST.
      */
     private void notifyVisit(DetailAST ast, AstState astState) {
-        final Collection<AbstractCheck> visitors = getListOfChecks(ast, astState);
+        final AbstractCheck[] visitors = getListOfChecks(ast, astState);
 
         if (visitors != null) {
             for (AbstractCheck check : visitors) {
@@ -351,7 +441,7 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
      * @param astState state of AST.
      */
     private void notifyLeave(DetailAST ast, AstState astState) {
-        final Collection<AbstractCheck> visitors = getListOfChecks(ast, astState);
+        final AbstractCheck[] visitors = getListOfChecks(ast, astState);
 
         if (visitors != null) {
             for (AbstractCheck check : visitors) {
@@ -367,21 +457,49 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
      *            the node to notify for
      * @param astState
      *            state of AST.
-     * @return list of visitors
+     * @return list of visitors, or {@code null} if no check is interested in the node
      */
-    private Collection<AbstractCheck> getListOfChecks(DetailAST ast, AstState astState) {
-        final Collection<AbstractCheck> visitors;
-        final String tokenType = TokenUtil.getTokenName(ast.getType());
+    private AbstractCheck[] getListOfChecks(DetailAST ast, AstState astState) {
+        final AbstractCheck[][] table;
 
         if (astState == AstState.WITH_COMMENTS) {
-            visitors = tokenToCommentChecks.get(tokenType);
+            table = tokenToCommentChecks;
         }
         else {
-            visitors = tokenToOrdinaryChecks.get(tokenType);
+            table = tokenToOrdinaryChecks;
+        }
+
+        final int tokenType = ast.getType();
+        AbstractCheck[] visitors = null;
+        if (tokenType < table.length) {
+            visitors = table[tokenType];
         }
         return visitors;
     }
 
+    /**
+     * Checks whether any of the registered checks may keep global state,
+     * so this instance has to process all files of the audit. Checks which are
+     * annotated neither with {@link StatelessCheck} nor with {@link FileStatefulCheck}
+     * are assumed to keep global state.
+     * @return {@code true} if a check annotated with {@link GlobalStatefulCheck}
+     *     or a check without a thread mode annotation is registered.
+     */
+    /* package */ boolean hasGlobalStatefulChecks() {
+        return Stream.concat(ordinaryChecks.stream(), commentChecks.stream())
+                .anyMatch(check -> !hasFileScopedState(check.getClass()));
+    }
+
+    /**
+     * Checks whether a check class is annotated to keep no state or file scoped state only.
+     * @param checkClass the check class.
+     * @return {@code true} if the class has {@link StatelessCheck} or {@link FileStatefulCheck}.
+     */
+    private static boolean hasFileScopedState(Class<?> checkClass) {
+        return checkClass.isAnnotationPresent(StatelessCheck.class)
+                || checkClass.isAnnotationPresent(FileStatefulCheck.class);
+    }
+
     @Override
     public void destroy() {
         ordinaryChecks.forEach(AbstractCheck::destroy);
@@ -438,23 +556,47 @@ public final class TreeWalker extends AbstractFileSetCheck implements ExternalRe
     }
 
     /**
-     * Processes a node calling interested checks at each node.
-     * Uses iterative algorithm.
-     * @param root the root of tree for process
-     * @param astState state of AST.
+     * Processes the ASTs calling interested checks at each node.
+     * Uses iterative algorithm. The AST with comment nodes drives the walk, and
+     * the AST without comment nodes, which has the same nodes except comments,
+     * advances by one node for every node of the walk which is not a comment,
+     * so comment nodes reach only comment checks and other nodes reach both.
+     * @param root the root of the AST without comment nodes, may be {@code null}
+     * @param rootWithComments the root of the AST with comment nodes, may be {@code null}
      */
-    private void processIter(DetailAST root, AstState astState) {
+    private void processIter(DetailAST root, DetailAST rootWithComments) {
         DetailAST curNode = root;
-        while (curNode != null) {
-            notifyVisit(curNode, astState);
-            DetailAST toVisit = curNode.getFirstChild();
-            while (curNode != null && toVisit == null) {
-                notifyLeave(curNode, astState);
-                toVisit = curNode.getNextSibling();
-                curNode = curNode.getParent();
+        DetailAST curNodeWithComments = rootWithComments;
+        while (curNodeWithComments != null) {
+            notifyVisit(curNodeWithComments, AstState.WITH_COMMENTS);
+            if (curNode != null && !TokenUtil.isCommentType(curNodeWithComments.getType())) {
+                notifyVisit(curNode, AstState.ORDINARY);
+                curNode = getNextNode(curNode, AstState.ORDINARY);
             }
-            curNode = toVisit;
+            curNodeWithComments = getNextNode(curNodeWithComments, AstState.WITH_COMMENTS);
+        }
+        while (curNode != null) {
+            notifyVisit(curNode, AstState.ORDINARY);
+            curNode = getNextNode(curNode, AstState.ORDINARY);
+        }
+    }
+
+    /**
+     * Finds the next node of the walk, notifying checks about leaving
+     * the nodes which are completely processed.
+     * @param node the visited node.
+     * @param astState state of AST.
+     * @return the next node to visit, or {@code null} if the walk is finished.
+     */
+    private DetailAST getNextNode(DetailAST node, AstState astState) {
+        DetailAST curNode = node;
+        DetailAST toVisit = curNode.getFirstChild();
+        while (curNode != null && toVisit == null) {
+            notifyLeave(curNode, astState);
+            toVisit = curNode.getNextSibling();
+            curNode = curNode.getParent();
         }
+        return toVisit;
     }
 
     /**
@@ -19,6 +19,7 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import java.io.Flushable;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
@@ -47,7 +48,7 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 // check's name is part of API (used in configurations).
 public class XMLLogger
     extends AutomaticBean
-    implements AuditListener {
+    implements AuditListener, Flushable {
 
     /** Decimal radix. */
     private static final int BASE_10 = 10;
@@ -130,6 +131,16 @@ public class XMLLogger
         fileMessages.remove(fileName);
     }
 
+    /**
+     * Flushes the output stream.
+     */
+    @Override
+    public void flush() {
+        synchronized (writerLock) {
+            writer.flush();
+        }
+    }
+
     /**
      * Prints the file section with all file errors and exceptions.
      * @param fileName The file name, as should be printed in the opening file tag.
@@ -26,12 +26,18 @@ import java.io.OutputStream;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.DirectoryScanner;
@@ -328,29 +334,25 @@ public class CheckstyleAntTask extends Task {
      */
     private void processFiles(RootModule rootModule, final SeverityLevelCounter warningCounter,
             final String checkstyleVersion) {
-        final long startTime = System.currentTimeMillis();
-        final List<File> files = getFilesToCheck();
-        final long endTime = System.currentTimeMillis();
-        log("To locate the files took " + (endTime - startTime) + TIME_SUFFIX,
-            Project.MSG_VERBOSE);
-
         log("Running Checkstyle "
-                + Objects.toString(checkstyleVersion, "")
-                + " on " + files.size()
-                + " files", Project.MSG_INFO);
+                + Objects.toString(checkstyleVersion, ""), Project.MSG_INFO);
         log("Using configuration " + config, Project.MSG_VERBOSE);
 
+        final AtomicInteger fileCount = new AtomicInteger();
+        final Iterator<File> files = getFilesToCheck()
+                .peek(file -> fileCount.incrementAndGet())
+                .iterator();
         final int numErrs;
 
         try {
             final long processingStartTime = System.currentTimeMillis();
-            numErrs = rootModule.process(files);
+            numErrs = process(rootModule, files);
             final long processingEndTime = System.currentTimeMillis();
-            log("To process the files took " + (processingEndTime - processingStartTime)
-                + TIME_SUFFIX, Project.MSG_VERBOSE);
+            log("To locate and process " + fileCount.get() + " files took "
+                + (processingEndTime - processingStartTime) + TIME_SUFFIX, Project.MSG_VERBOSE);
         }
         catch (CheckstyleException ex) {
-            throw new BuildException("Unable to process files: " + files, ex);
+            throw new BuildException("Unable to process files", ex);
         }
         final int numWarnings = warningCounter.getCount();
         final boolean okStatus = numErrs <= maxErrors && numWarnings <= maxWarnings;
@@ -370,6 +372,29 @@ public class CheckstyleAntTask extends Task {
         }
     }
 
+    /**
+     * Processes the files with the root module. The checker requests the files
+     * while it processes them, so the paths are scanned during the audit.
+     * Other root modules get the list of all files.
+     * @param rootModule Root module to process files
+     * @param files the files to process
+     * @return the number of errors
+     * @throws CheckstyleException if error condition within Checkstyle occurs
+     */
+    private static int process(RootModule rootModule, Iterator<File> files)
+            throws CheckstyleException {
+        final int result;
+        if (rootModule instanceof Checker) {
+            result = ((Checker) rootModule).process(files);
+        }
+        else {
+            final List<File> fileList = new ArrayList<>();
+            files.forEachRemaining(fileList::add);
+            result = rootModule.process(fileList);
+        }
+        return result;
+    }
+
     /**
      * Creates new instance of the root module.
      * @return new instance of the root module
@@ -474,45 +499,38 @@ public class CheckstyleAntTask extends Task {
     }
 
     /**
-     * Returns the list of files (full path name) to process.
-     * @return the list of files included via the fileName, filesets and paths.
+     * Returns the files (full path name) to process. The filesets and each of the
+     * paths are scanned when their files are requested.
+     * @return the files included via the fileName, filesets and paths.
      */
-    private List<File> getFilesToCheck() {
-        final List<File> allFiles = new ArrayList<>();
+    private Stream<File> getFilesToCheck() {
+        final List<Supplier<List<File>>> sources = new ArrayList<>();
         if (fileName != null) {
-            // oops we've got an additional one to process, don't
-            // forget it. No sweat, it's fully resolved via the setter.
-            log("Adding standalone file for audit", Project.MSG_VERBOSE);
-            allFiles.add(new File(fileName));
+            sources.add(this::getStandaloneFile);
         }
-
-        final List<File> filesFromFileSets = scanFileSets();
-        allFiles.addAll(filesFromFileSets);
-
-        final List<File> filesFromPaths = scanPaths();
-        allFiles.addAll(filesFromPaths);
-
-        return allFiles;
-    }
-
-    /**
-     * Retrieves all files from the defined paths.
-     * @return a list of files defined via paths.
-     */
-    private List<File> scanPaths() {
-        final List<File> allFiles = new ArrayList<>();
-
+        sources.add(this::scanFileSets);
         for (int i = 0; i < paths.size(); i++) {
             final Path currentPath = paths.get(i);
-            final List<File> pathFiles = scanPath(currentPath, i + 1);
-            allFiles.addAll(pathFiles);
+            final int pathIndex = i + 1;
+            sources.add(() -> scanPath(currentPath, pathIndex));
         }
+        return sources.stream().flatMap(source -> source.get().stream());
+    }
 
-        return allFiles;
+    /**
+     * Returns the additional file to process.
+     * @return the list of the file set via the fileName.
+     */
+    private List<File> getStandaloneFile() {
+        // oops we've got an additional one to process, don't
+        // forget it. No sweat, it's fully resolved via the setter.
+        log("Adding standalone file for audit", Project.MSG_VERBOSE);
+        return Collections.singletonList(new File(fileName));
     }
 
     /**
      * Scans the given path and retrieves all files for the given path.
+     * Directories of the path are scanned in parallel.
      *
      * @param path      A path to scan.
      * @param pathIndex The index of the given path. Used in log messages only.
@@ -524,16 +542,25 @@ public class CheckstyleAntTask extends Task {
         final List<File> allFiles = new ArrayList<>();
         int concreteFilesCount = 0;
 
+        final Map<File, DirectoryScanner> scanners = new LinkedHashMap<>();
         for (String resource : resources) {
             final File file = new File(resource);
-            if (file.isFile()) {
+            if (!file.isFile()) {
+                final DirectoryScanner scanner = new DirectoryScanner();
+                scanner.setBasedir(file);
+                scanners.put(file, scanner);
+            }
+        }
+        scanners.values().parallelStream().forEach(DirectoryScanner::scan);
+
+        for (String resource : resources) {
+            final File file = new File(resource);
+            final DirectoryScanner scanner = scanners.get(file);
+            if (scanner == null) {
                 concreteFilesCount++;
                 allFiles.add(file);
             }
             else {
-                final DirectoryScanner scanner = new DirectoryScanner();
-                scanner.setBasedir(file);
-                scanner.scan();
                 final List<File> scannedFiles = retrieveAllScannedFiles(scanner, pathIndex);
                 allFiles.addAll(scannedFiles);
             }
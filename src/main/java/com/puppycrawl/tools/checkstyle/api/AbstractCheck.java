@@ -19,8 +19,11 @@
 
 package com.puppycrawl.tools.checkstyle.api;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -113,6 +116,18 @@ public abstract class AbstractCheck extends AbstractViolationReporter {
         context.get().messages.clear();
     }
 
+    /**
+     * Moves the {@link LocalizedMessage}s of the check to the collection and
+     * clears them. Unlike {@link #getMessages()}, the messages are not copied
+     * to a sorted set, they are added in the order they were logged.
+     * @param target the collection to add the messages to.
+     */
+    public final void transferMessages(Collection<? super LocalizedMessage> target) {
+        final List<LocalizedMessage> messages = context.get().messages;
+        target.addAll(messages);
+        messages.clear();
+    }
+
     /**
      * Initialize the check. This is the time to verify that the check has
      * everything required to perform it job.
@@ -281,8 +296,8 @@ public abstract class AbstractCheck extends AbstractViolationReporter {
      */
     private static class FileContext {
 
-        /** The sorted set for collecting messages. */
-        private final SortedSet<LocalizedMessage> messages = new TreeSet<>();
+        /** The list for collecting messages, they are sorted when requested. */
+        private final List<LocalizedMessage> messages = new ArrayList<>();
 
         /** The current file contents. */
         private FileContents fileContents;
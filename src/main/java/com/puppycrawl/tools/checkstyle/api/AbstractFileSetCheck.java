@@ -20,7 +20,10 @@
 package com.puppycrawl.tools.checkstyle.api;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -77,16 +80,31 @@ public abstract class AbstractFileSetCheck
     @Override
     public final SortedSet<LocalizedMessage> process(File file, FileText fileText)
             throws CheckstyleException {
-        final SortedSet<LocalizedMessage> messages = context.get().messages;
+        final SortedSet<LocalizedMessage> result = new TreeSet<>();
+        processUnsorted(file, fileText, result);
+        return result;
+    }
+
+    /**
+     * Processes a file like {@link #process(File, FileText)}, but adds the messages
+     * to the collection in the order they were logged instead of copying them to
+     * a sorted set. The checker sorts the messages of all fileset checks of a file once.
+     * @param file the file to be processed
+     * @param fileText the contents of the file.
+     * @param target the collection to add the messages of the file to.
+     * @throws CheckstyleException if error condition within Checkstyle occurs.
+     */
+    public final void processUnsorted(File file, FileText fileText,
+            Collection<? super LocalizedMessage> target) throws CheckstyleException {
+        final List<LocalizedMessage> messages = context.get().messages;
         context.get().fileContents = new FileContents(fileText);
         messages.clear();
         // Process only what interested in
         if (CommonUtil.matchesFileExtension(file, fileExtensions)) {
             processFiltered(file, fileText);
         }
-        final SortedSet<LocalizedMessage> result = new TreeSet<>(messages);
+        target.addAll(messages);
         messages.clear();
-        return result;
     }
 
     @Override
@@ -237,8 +255,8 @@ public abstract class AbstractFileSetCheck
      */
     private static class FileContext {
 
-        /** The sorted set for collecting messages. */
-        private final SortedSet<LocalizedMessage> messages = new TreeSet<>();
+        /** The list for collecting messages, they are sorted when requested. */
+        private final List<LocalizedMessage> messages = new ArrayList<>();
 
         /** The current file contents. */
         private FileContents fileContents;
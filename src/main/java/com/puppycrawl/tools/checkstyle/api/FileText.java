@@ -19,24 +19,18 @@
 
 package com.puppycrawl.tools.checkstyle.api;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.io.StringReader;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.nio.charset.UnsupportedCharsetException;
 import java.nio.file.Files;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
@@ -51,19 +45,13 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 public final class FileText {
 
     /**
-     * The number of characters to read in one go.
+     * The initial capacity of the line breaks array.
      */
-    private static final int READ_BUFFER_SIZE = 1024;
+    private static final int INITIAL_LINE_BREAKS_CAPACITY = 64;
 
-    /**
-     * Regular expression pattern matching all line terminators.
-     */
-    private static final Pattern LINE_TERMINATOR = Pattern.compile("\\n|\\r\\n?");
-
-    // For now, we always keep both full text and lines array.
-    // In the long run, however, the one passed at initialization might be
-    // enough, while the other could be lazily created when requested.
-    // This would save memory but cost CPU cycles.
+    // The full text is always kept. When the file is read, lines are created
+    // from it on first request, and they share the line breaks with the
+    // line and column lookup. Copies share all of it.
 
     /**
      * The name of the file.
@@ -78,7 +66,8 @@ public final class FileText {
     private final Charset charset;
 
     /**
-     * The lines of the file, without terminators.
+     * The lines of the file, without terminators. When the file is read,
+     * elements are {@code null} until the line is requested.
      */
     private final String[] lines;
 
@@ -125,21 +114,7 @@ public final class FileText {
         }
 
         fullText = readFile(file, decoder);
-
-        // Use the BufferedReader to break down the lines as this
-        // is about 30% faster than using the
-        // LINE_TERMINATOR.split(fullText, -1) method
-        try (BufferedReader reader = new BufferedReader(new StringReader(fullText))) {
-            final ArrayList<String> textLines = new ArrayList<>();
-            while (true) {
-                final String line = reader.readLine();
-                if (line == null) {
-                    break;
-                }
-                textLines.add(line);
-            }
-            lines = textLines.toArray(CommonUtil.EMPTY_STRING_ARRAY);
-        }
+        lines = new String[findLineBreaks().length - 1];
     }
 
     /**
@@ -150,13 +125,9 @@ public final class FileText {
         file = fileText.file;
         charset = fileText.charset;
         fullText = fileText.fullText;
-        lines = fileText.lines.clone();
-        if (fileText.lineBreaks == null) {
-            lineBreaks = null;
-        }
-        else {
-            lineBreaks = fileText.lineBreaks.clone();
-        }
+        // lines are never exposed, so they can be shared
+        lines = fileText.lines;
+        lineBreaks = fileText.lineBreaks;
     }
 
     /**
@@ -184,6 +155,8 @@ public final class FileText {
 
     /**
      * Reads file using specific decoder and returns all its content as a String.
+     * The content is decoded in one go. Content in ISO-8859-1, and pure ASCII content
+     * in UTF-8 or US-ASCII, is converted without the decoder, as each byte is a character.
      * @param inputFile File to read
      * @param decoder Charset decoder
      * @return File's text
@@ -194,19 +167,36 @@ public final class FileText {
         if (!inputFile.exists()) {
             throw new FileNotFoundException(inputFile.getPath() + " (No such file or directory)");
         }
-        final StringBuilder buf = new StringBuilder(1024);
-        final InputStream stream = Files.newInputStream(inputFile.toPath());
-        try (Reader reader = new InputStreamReader(stream, decoder)) {
-            final char[] chars = new char[READ_BUFFER_SIZE];
-            while (true) {
-                final int len = reader.read(chars);
-                if (len == -1) {
+        final byte[] bytes = Files.readAllBytes(inputFile.toPath());
+        final String text;
+        if (isLatin1Compatible(decoder.charset(), bytes)) {
+            text = new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+        else {
+            text = decoder.decode(ByteBuffer.wrap(bytes)).toString();
+        }
+        return text;
+    }
+
+    /**
+     * Checks whether the content in the charset decodes the same as in ISO-8859-1.
+     * @param charset the charset of the content
+     * @param bytes the content
+     * @return true if every byte of the content is the character with the same code
+     */
+    private static boolean isLatin1Compatible(Charset charset, byte[] bytes) {
+        boolean result = StandardCharsets.ISO_8859_1.equals(charset);
+        if (!result && (StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.US_ASCII.equals(charset))) {
+            result = true;
+            for (byte value : bytes) {
+                if (value < 0) {
+                    result = false;
                     break;
                 }
-                buf.append(chars, 0, len);
             }
         }
-        return buf.toString();
+        return result;
     }
 
     /**
@@ -241,29 +231,58 @@ public final class FileText {
      * @return an array of all lines of the text
      */
     public String[] toLinesArray() {
+        for (int lineNo = 0; lineNo < lines.length; lineNo++) {
+            get(lineNo);
+        }
         return lines.clone();
     }
 
     /**
      * Find positions of line breaks in the full text.
-     * @return an array giving the first positions of each line.
+     * Line terminators are {@code \n}, {@code \r\n} and {@code \r}.
+     * @return an array giving the first positions of each line,
+     *     followed by the length of the full text.
      */
     private int[] findLineBreaks() {
         if (lineBreaks == null) {
-            final int[] lineBreakPositions = new int[size() + 1];
-            lineBreakPositions[0] = 0;
-            int lineNo = 1;
-            final Matcher matcher = LINE_TERMINATOR.matcher(fullText);
-            while (matcher.find()) {
-                lineBreakPositions[lineNo] = matcher.end();
+            lineBreaks = computeLineBreaks(fullText);
+        }
+        return lineBreaks;
+    }
+
+    /**
+     * Computes positions of line breaks in a text.
+     * @param text the text.
+     * @return an array giving the first positions of each line,
+     *     followed by the length of the text.
+     */
+    private static int[] computeLineBreaks(String text) {
+        final int length = text.length();
+        int[] lineBreakPositions = new int[INITIAL_LINE_BREAKS_CAPACITY];
+        int lineNo = 0;
+        int pos = 0;
+        while (pos < length) {
+            final char character = text.charAt(pos);
+            pos++;
+            if (character == '\r' && pos < length && text.charAt(pos) == '\n') {
+                pos++;
+            }
+            if (character == '\n' || character == '\r') {
                 lineNo++;
+                if (lineNo == lineBreakPositions.length) {
+                    lineBreakPositions = Arrays.copyOf(lineBreakPositions, lineNo * 2);
+                }
+                lineBreakPositions[lineNo] = pos;
             }
-            if (lineNo < lineBreakPositions.length) {
-                lineBreakPositions[lineNo] = fullText.length();
+        }
+        if (lineBreakPositions[lineNo] < length) {
+            lineNo++;
+            if (lineNo == lineBreakPositions.length) {
+                lineBreakPositions = Arrays.copyOf(lineBreakPositions, lineNo + 1);
             }
-            lineBreaks = lineBreakPositions;
+            lineBreakPositions[lineNo] = length;
         }
-        return lineBreaks;
+        return Arrays.copyOf(lineBreakPositions, lineNo + 1);
     }
 
     /**
@@ -292,7 +311,21 @@ public final class FileText {
      * @return the line with the given number
      */
     public String get(final int lineNo) {
-        return lines[lineNo];
+        String line = lines[lineNo];
+        if (line == null) {
+            final int[] lineBreakPositions = findLineBreaks();
+            final int start = lineBreakPositions[lineNo];
+            int end = lineBreakPositions[lineNo + 1];
+            if (end > start && fullText.charAt(end - 1) == '\n') {
+                end--;
+            }
+            if (end > start && fullText.charAt(end - 1) == '\r') {
+                end--;
+            }
+            line = fullText.substring(start, end);
+            lines[lineNo] = line;
+        }
+        return line;
     }
 
     /**
@@ -28,8 +28,6 @@ import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
@@ -37,6 +35,8 @@ import java.util.Objects;
 import java.util.PropertyResourceBundle;
 import java.util.ResourceBundle;
 import java.util.ResourceBundle.Control;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Represents a message that can be localised. The translations come from
@@ -51,17 +51,29 @@ public final class LocalizedMessage
     private static final long serialVersionUID = 5675176836184862150L;
 
     /**
-     * A cache that maps bundle names to ResourceBundles.
+     * A cache that maps locales to the ResourceBundles of bundle names.
      * Avoids repetitive calls to ResourceBundle.getBundle().
      */
-    private static final Map<String, ResourceBundle> BUNDLE_CACHE =
-        Collections.synchronizedMap(new HashMap<>());
+    private static final Map<Locale, Map<String, ResourceBundle>> BUNDLE_CACHE =
+        new ConcurrentHashMap<>();
+
+    /**
+     * A cache that maps locales to the message formats of bundle keys.
+     * Avoids repetitive lookups in the bundles and parsing of the patterns.
+     */
+    private static final Map<Locale, Map<String, Map<String, MessageFormat>>> FORMAT_CACHE =
+        new ConcurrentHashMap<>();
+
+    /** A cache that maps custom message patterns to their message formats. */
+    private static final Map<String, MessageFormat> CUSTOM_FORMAT_CACHE =
+        new ConcurrentHashMap<>();
 
     /** The default severity level if one is not specified. */
     private static final SeverityLevel DEFAULT_SEVERITY = SeverityLevel.ERROR;
 
     /** The locale to localise messages to. **/
-    private static Locale sLocale = Locale.getDefault();
+    private static final AtomicReference<Locale> LOCALE =
+        new AtomicReference<>(Locale.getDefault());
 
     /** The line number. **/
     private final int lineNo;
@@ -97,6 +109,9 @@ public final class LocalizedMessage
     /** A custom message overriding the default message from the bundle. */
     private final String customMessage;
 
+    /** The translated message, formatted on first request. */
+    private transient TranslatedMessage message;
+
     /**
      * Creates a new {@code LocalizedMessage} instance.
      *
@@ -322,49 +337,70 @@ public final class LocalizedMessage
     /** Clears the cache. */
     public static void clearCache() {
         BUNDLE_CACHE.clear();
+        FORMAT_CACHE.clear();
+        CUSTOM_FORMAT_CACHE.clear();
     }
 
     /**
-     * Gets the translated message.
+     * Gets the translated message. The message is formatted on the first
+     * request and the result is reused until the locale is changed.
      * @return the translated message
      */
     public String getMessage() {
-        String message = getCustomMessage();
-
-        if (message == null) {
-            try {
-                // Important to use the default class loader, and not the one in
-                // the GlobalProperties object. This is because the class loader in
-                // the GlobalProperties is specified by the user for resolving
-                // custom classes.
-                final ResourceBundle resourceBundle = getBundle(bundle);
-                final String pattern = resourceBundle.getString(key);
-                final MessageFormat formatter = new MessageFormat(pattern, Locale.ROOT);
-                message = formatter.format(args);
+        final Locale locale = LOCALE.get();
+        TranslatedMessage result = message;
+        if (result == null || result.locale != locale) {
+            final MessageFormat formatter;
+            if (customMessage == null) {
+                formatter = getMessageFormat(locale);
             }
-            catch (final MissingResourceException ignored) {
-                // If the Check author didn't provide i18n resource bundles
-                // and logs audit event messages directly, this will return
-                // the author's original message
-                final MessageFormat formatter = new MessageFormat(key, Locale.ROOT);
-                message = formatter.format(args);
+            else {
+                formatter = getCustomMessageFormat(customMessage);
             }
+            // cached formats are shared between threads, but MessageFormat is not thread safe
+            result = new TranslatedMessage(locale,
+                ((MessageFormat) formatter.clone()).format(args));
+            message = result;
         }
-        return message;
+        return result.text;
     }
 
     /**
-     * Returns the formatted custom message if one is configured.
-     * @return the formatted custom message or {@code null}
-     *          if there is no custom message
+     * Returns the message format of a custom message.
+     * @param customMessage the pattern of the custom message.
+     * @return the message format, which is shared and must be cloned before use.
+     * @throws IllegalArgumentException if the pattern is not valid.
      */
-    private String getCustomMessage() {
-        String message = null;
-        if (customMessage != null) {
-            final MessageFormat formatter = new MessageFormat(customMessage, Locale.ROOT);
-            message = formatter.format(args);
-        }
-        return message;
+    private static MessageFormat getCustomMessageFormat(String customMessage) {
+        return CUSTOM_FORMAT_CACHE.computeIfAbsent(customMessage,
+            pattern -> new MessageFormat(pattern, Locale.ROOT));
+    }
+
+    /**
+     * Returns the message format of the key in the bundle.
+     * @param locale the locale to translate the message to
+     * @return the message format
+     */
+    private MessageFormat getMessageFormat(Locale locale) {
+        return FORMAT_CACHE.computeIfAbsent(locale, name -> new ConcurrentHashMap<>())
+            .computeIfAbsent(bundle, name -> new ConcurrentHashMap<>())
+            .computeIfAbsent(key, name -> {
+                String pattern;
+                try {
+                    // Important to use the default class loader, and not the one in
+                    // the GlobalProperties object. This is because the class loader in
+                    // the GlobalProperties is specified by the user for resolving
+                    // custom classes.
+                    pattern = getBundle(bundle, locale).getString(key);
+                }
+                catch (final MissingResourceException ignored) {
+                    // If the Check author didn't provide i18n resource bundles
+                    // and logs audit event messages directly, this will return
+                    // the author's original message
+                    pattern = key;
+                }
+                return new MessageFormat(pattern, Locale.ROOT);
+            });
     }
 
     /**
@@ -372,13 +408,15 @@ public final class LocalizedMessage
      * of the class emitting this message, to be sure to get the correct
      * bundle.
      * @param bundleName the bundle name
+     * @param locale the locale of the bundle
      * @return a ResourceBundle
      */
-    private ResourceBundle getBundle(String bundleName) {
-        return BUNDLE_CACHE.computeIfAbsent(bundleName, name -> {
-            return ResourceBundle.getBundle(
-                name, sLocale, sourceClass.getClassLoader(), new Utf8Control());
-        });
+    private ResourceBundle getBundle(String bundleName, Locale locale) {
+        return BUNDLE_CACHE.computeIfAbsent(locale, name -> new ConcurrentHashMap<>())
+            .computeIfAbsent(bundleName, name -> {
+                return ResourceBundle.getBundle(
+                    name, locale, sourceClass.getClassLoader(), new Utf8Control());
+            });
     }
 
     /**
@@ -439,6 +477,34 @@ public final class LocalizedMessage
         return key;
     }
 
+    /**
+     * Returns the arguments for the message format.
+     * @return a copy of the arguments or {@code null} if there are none
+     */
+    public Object[] getArgs() {
+        Object[] result = null;
+        if (args != null) {
+            result = Arrays.copyOf(args, args.length);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the name of the resource bundle to get messages from.
+     * @return the resource bundle name
+     */
+    public String getBundleName() {
+        return bundle;
+    }
+
+    /**
+     * Returns the custom message overriding the default message from the bundle.
+     * @return the custom message or {@code null} if there is none
+     */
+    public String getCustomMessage() {
+        return customMessage;
+    }
+
     /**
      * Gets the name of the source for this LocalizedMessage.
      * @return the name of the source for this LocalizedMessage
@@ -448,17 +514,19 @@ public final class LocalizedMessage
     }
 
     /**
-     * Sets a locale to use for localization.
+     * Sets a locale to use for localization. The caches are keyed by locale,
+     * so messages formatted concurrently are translated either to the previous
+     * or to the new locale, the caches are only cleared to release memory.
      * @param locale the locale to use for localization
      */
     public static void setLocale(Locale locale) {
-        clearCache();
         if (Locale.ENGLISH.getLanguage().equals(locale.getLanguage())) {
-            sLocale = Locale.ROOT;
+            LOCALE.set(Locale.ROOT);
         }
         else {
-            sLocale = locale;
+            LOCALE.set(locale);
         }
+        clearCache();
     }
 
     ////////////////////////////////////////////////////////////////////////////
@@ -494,6 +562,30 @@ public final class LocalizedMessage
         return result;
     }
 
+    /**
+     * A message translated to a locale. Instances are immutable, so they can be
+     * safely shared when the message is formatted by several threads.
+     */
+    private static final class TranslatedMessage {
+
+        /** The locale the message was translated to. */
+        private final Locale locale;
+
+        /** The translated text. */
+        private final String text;
+
+        /**
+         * Creates a new {@code TranslatedMessage} instance.
+         * @param locale the locale the message was translated to
+         * @param text the translated text
+         */
+        /* package */ TranslatedMessage(Locale locale, String text) {
+            this.locale = locale;
+            this.text = text;
+        }
+
+    }
+
     /**
      * <p>
      * Custom ResourceBundle.Control implementation which allows explicitly read
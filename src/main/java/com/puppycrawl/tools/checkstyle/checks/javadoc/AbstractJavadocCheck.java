@@ -19,11 +19,11 @@
 
 package com.puppycrawl.tools.checkstyle.checks.javadoc;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Set;
 
 import com.puppycrawl.tools.checkstyle.JavadocDetailNodeParser;
@@ -66,11 +66,16 @@ public abstract class AbstractJavadocCheck extends AbstractCheck {
             JavadocDetailNodeParser.MSG_JAVADOC_PARSE_RULE_ERROR;
 
     /**
-     * Key is "line:column". Value is {@link DetailNode} tree. Map is stored in {@link ThreadLocal}
-     * to guarantee basic thread safety and avoid shared, mutable state when not necessary.
+     * Javadoc checks of the file processed by the current thread. The checks share
+     * parsing and walking of every Javadoc comment. The checks are stored in
+     * {@link ThreadLocal} to guarantee basic thread safety and avoid shared, mutable
+     * state when not necessary.
      */
-    private static final ThreadLocal<Map<String, ParseStatus>> TREE_CACHE =
-            ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<FileChecks> FILE_CHECKS =
+            ThreadLocal.withInitial(FileChecks::new);
+
+    /** Constant for the case when no Checks are interested in a token type. */
+    private static final AbstractJavadocCheck[] EMPTY_CHECK_ARRAY = new AbstractJavadocCheck[0];
 
     /**
      * The file context.
@@ -271,50 +276,25 @@ public abstract class AbstractJavadocCheck extends AbstractCheck {
 
     @Override
     public final void beginTree(DetailAST rootAST) {
-        TREE_CACHE.get().clear();
+        FILE_CHECKS.get().addCheck(rootAST, this);
     }
 
     @Override
     public final void finishTree(DetailAST rootAST) {
-        // No code, prevent override in subclasses
+        FILE_CHECKS.get().finish();
     }
 
     @Override
     public final void visitToken(DetailAST blockCommentNode) {
         if (JavadocUtil.isJavadocComment(blockCommentNode)) {
-            // store as field, to share with child Checks
-            context.get().blockCommentAst = blockCommentNode;
-
-            final String treeCacheKey = blockCommentNode.getLineNo() + ":"
-                    + blockCommentNode.getColumnNo();
-
-            final ParseStatus result;
-
-            if (TREE_CACHE.get().containsKey(treeCacheKey)) {
-                result = TREE_CACHE.get().get(treeCacheKey);
-            }
-            else {
-                result = context.get().parser
-                        .parseJavadocAsDetailNode(blockCommentNode);
-                TREE_CACHE.get().put(treeCacheKey, result);
-            }
-
-            if (result.getParseErrorMessage() == null) {
-                if (acceptJavadocWithNonTightHtml() || !result.isNonTight()) {
-                    processTree(result.getTree());
-                }
-
-                if (violateExecutionOnNonTightHtml && result.isNonTight()) {
-                    log(result.getFirstNonTightHtmlTag().getLine(),
-                            JavadocDetailNodeParser.MSG_UNCLOSED_HTML_TAG,
-                            result.getFirstNonTightHtmlTag().getText());
-                }
+            final FileChecks fileChecks = FILE_CHECKS.get();
+            if (fileChecks.contains(this)) {
+                fileChecks.process(blockCommentNode);
             }
             else {
-                final ParseErrorMessage parseErrorMessage = result.getParseErrorMessage();
-                log(parseErrorMessage.getLineNumber(),
-                        parseErrorMessage.getMessageKey(),
-                        parseErrorMessage.getMessageArguments());
+                final FileChecks singleCheck = new FileChecks();
+                singleCheck.addCheck(null, this);
+                singleCheck.process(blockCommentNode);
             }
         }
     }
@@ -328,40 +308,50 @@ public abstract class AbstractJavadocCheck extends AbstractCheck {
     }
 
     /**
-     * Processes JavadocAST tree notifying Check.
+     * Processes JavadocAST tree notifying Checks at nodes they are interested in.
      * @param root
      *        root of JavadocAST tree.
+     * @param checks
+     *        Checks to notify.
+     * @param checksByType
+     *        Checks by Javadoc token type.
      */
-    private void processTree(DetailNode root) {
-        beginJavadocTree(root);
-        walk(root);
-        finishJavadocTree(root);
+    private static void processTree(DetailNode root, List<AbstractJavadocCheck> checks,
+                                    AbstractJavadocCheck[][] checksByType) {
+        for (AbstractJavadocCheck check : checks) {
+            check.beginJavadocTree(root);
+        }
+        walk(root, checksByType);
+        for (AbstractJavadocCheck check : checks) {
+            check.finishJavadocTree(root);
+        }
     }
 
     /**
-     * Processes a node calling Check at interested nodes.
+     * Processes a node calling Checks at interested nodes.
      * @param root
      *        the root of tree for process
+     * @param checksByType
+     *        Checks by Javadoc token type.
      */
-    private void walk(DetailNode root) {
+    private static void walk(DetailNode root, AbstractJavadocCheck[][] checksByType) {
         DetailNode curNode = root;
         while (curNode != null) {
-            boolean waitsForProcessing = shouldBeProcessed(curNode);
-
-            if (waitsForProcessing) {
-                visitJavadocToken(curNode);
+            AbstractJavadocCheck[] checks = getChecks(checksByType, curNode.getType());
+            for (AbstractJavadocCheck check : checks) {
+                check.visitJavadocToken(curNode);
             }
             DetailNode toVisit = JavadocUtil.getFirstChild(curNode);
             while (curNode != null && toVisit == null) {
-                if (waitsForProcessing) {
-                    leaveJavadocToken(curNode);
+                for (AbstractJavadocCheck check : checks) {
+                    check.leaveJavadocToken(curNode);
                 }
 
                 toVisit = JavadocUtil.getNextSibling(curNode);
                 if (toVisit == null) {
                     curNode = curNode.getParent();
                     if (curNode != null) {
-                        waitsForProcessing = shouldBeProcessed(curNode);
+                        checks = getChecks(checksByType, curNode.getType());
                     }
                 }
             }
@@ -370,12 +360,50 @@ public abstract class AbstractJavadocCheck extends AbstractCheck {
     }
 
     /**
-     * Checks whether the current node should be processed by the check.
-     * @param curNode current node.
-     * @return true if the current node should be processed by the check.
+     * Returns Checks which should process nodes of the given type.
+     * @param checksByType Checks by Javadoc token type.
+     * @param type Javadoc token type.
+     * @return Checks interested in the type.
+     */
+    private static AbstractJavadocCheck[] getChecks(AbstractJavadocCheck[][] checksByType,
+                                                    int type) {
+        final int index = type - JavadocTokenTypes.EOF;
+        AbstractJavadocCheck[] result = EMPTY_CHECK_ARRAY;
+        if (index < checksByType.length && checksByType[index] != null) {
+            result = checksByType[index];
+        }
+        return result;
+    }
+
+    /**
+     * Creates an array of Checks interested in each Javadoc token type. Array index is the
+     * token type shifted by {@link JavadocTokenTypes#EOF}, which is the lowest token type.
+     * @param checks Checks to index.
+     * @return Checks by Javadoc token type.
      */
-    private boolean shouldBeProcessed(DetailNode curNode) {
-        return javadocTokens.contains(curNode.getType());
+    private static AbstractJavadocCheck[][] createChecksByType(
+            List<AbstractJavadocCheck> checks) {
+        int maxIndex = -1;
+        for (AbstractJavadocCheck check : checks) {
+            for (int type : check.javadocTokens) {
+                maxIndex = Math.max(maxIndex, type - JavadocTokenTypes.EOF);
+            }
+        }
+        final AbstractJavadocCheck[][] result = new AbstractJavadocCheck[maxIndex + 1][];
+        for (AbstractJavadocCheck check : checks) {
+            for (int type : check.javadocTokens) {
+                final int index = type - JavadocTokenTypes.EOF;
+                if (result[index] == null) {
+                    result[index] = new AbstractJavadocCheck[] {check};
+                }
+                else {
+                    final int length = result[index].length;
+                    result[index] = Arrays.copyOf(result[index], length + 1);
+                    result[index][length] = check;
+                }
+            }
+        }
+        return result;
     }
 
     /**
@@ -396,4 +424,140 @@ public abstract class AbstractJavadocCheck extends AbstractCheck {
 
     }
 
+    /**
+     * Javadoc checks which process the same file. Every Javadoc comment is parsed
+     * and walked once for all of them.
+     */
+    private static final class FileChecks {
+
+        /** The checks in the order they were notified about the file. */
+        private final List<AbstractJavadocCheck> checks = new ArrayList<>();
+
+        /** The checks the arrays of checks by token type are created for. */
+        private final List<AbstractJavadocCheck> indexedChecks = new ArrayList<>();
+
+        /** The checks which process Javadoc comments with non-tight HTML. */
+        private final List<AbstractJavadocCheck> nonTightHtmlChecks = new ArrayList<>();
+
+        /** The checks by token type for Javadoc comments with tight HTML. */
+        private AbstractJavadocCheck[][] checksByType;
+
+        /** The checks by token type for Javadoc comments with non-tight HTML. */
+        private AbstractJavadocCheck[][] nonTightHtmlChecksByType;
+
+        /** The root of the file tree. */
+        private DetailAST rootAst;
+
+        /** Whether the checks have finished processing of the file. */
+        private boolean finished;
+
+        /** The last processed Javadoc comment. */
+        private DetailAST lastBlockCommentAst;
+
+        /**
+         * Adds a check which starts processing of a file. Checks of the previous
+         * file are forgotten when the file is another or has been finished.
+         * @param root the root of the file tree.
+         * @param check the check.
+         */
+        /* package */ void addCheck(DetailAST root, AbstractJavadocCheck check) {
+            if (finished || root != rootAst) {
+                checks.clear();
+                rootAst = root;
+                finished = false;
+                lastBlockCommentAst = null;
+            }
+            checks.add(check);
+        }
+
+        /**
+         * Marks the file as finished.
+         */
+        /* package */ void finish() {
+            finished = true;
+        }
+
+        /**
+         * Checks whether the check processes the current file.
+         * @param check the check.
+         * @return true if the check processes the current file.
+         */
+        /* package */ boolean contains(AbstractJavadocCheck check) {
+            return !finished && checks.contains(check);
+        }
+
+        /**
+         * Parses and walks the Javadoc comment for all checks, unless it has been
+         * processed already.
+         * @param blockCommentAst the Javadoc comment.
+         */
+        /* package */ void process(DetailAST blockCommentAst) {
+            if (blockCommentAst != lastBlockCommentAst) {
+                lastBlockCommentAst = blockCommentAst;
+                final AbstractJavadocCheck firstCheck = checks.get(0);
+                final ParseStatus result = firstCheck.context.get().parser
+                        .parseJavadocAsDetailNode(blockCommentAst);
+                for (AbstractJavadocCheck check : checks) {
+                    // store as field, to share with child Checks
+                    check.context.get().blockCommentAst = blockCommentAst;
+                }
+
+                if (result.getParseErrorMessage() == null) {
+                    createChecksByType();
+                    if (result.isNonTight()) {
+                        processTree(result.getTree(), nonTightHtmlChecks,
+                                nonTightHtmlChecksByType);
+                        logNonTightHtml(result);
+                    }
+                    else {
+                        processTree(result.getTree(), checks, checksByType);
+                    }
+                }
+                else {
+                    final ParseErrorMessage parseErrorMessage = result.getParseErrorMessage();
+                    for (AbstractJavadocCheck check : checks) {
+                        check.log(parseErrorMessage.getLineNumber(),
+                                parseErrorMessage.getMessageKey(),
+                                parseErrorMessage.getMessageArguments());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Logs the first non-tight HTML tag by the checks which are configured to do so.
+         * @param result the result of parsing.
+         */
+        private void logNonTightHtml(ParseStatus result) {
+            for (AbstractJavadocCheck check : checks) {
+                if (check.violateExecutionOnNonTightHtml) {
+                    check.log(result.getFirstNonTightHtmlTag().getLine(),
+                            JavadocDetailNodeParser.MSG_UNCLOSED_HTML_TAG,
+                            result.getFirstNonTightHtmlTag().getText());
+                }
+            }
+        }
+
+        /**
+         * Creates the arrays of checks by token type, unless they are created for
+         * the same checks already.
+         */
+        private void createChecksByType() {
+            if (!checks.equals(indexedChecks)) {
+                indexedChecks.clear();
+                indexedChecks.addAll(checks);
+                nonTightHtmlChecks.clear();
+                for (AbstractJavadocCheck check : checks) {
+                    if (check.acceptJavadocWithNonTightHtml()) {
+                        nonTightHtmlChecks.add(check);
+                    }
+                }
+                checksByType = AbstractJavadocCheck.createChecksByType(checks);
+                nonTightHtmlChecksByType =
+                        AbstractJavadocCheck.createChecksByType(nonTightHtmlChecks);
+            }
+        }
+
+    }
+
 }
@@ -192,10 +192,49 @@ public class SuppressFilterElement
      */
     private boolean isFileNameAndModuleNameMatching(AuditEvent event) {
         return event.getFileName() != null
-                && (fileRegexp == null || fileRegexp.matcher(event.getFileName()).find())
+                && isFileNameMatching(event.getFileName())
                 && event.getLocalizedMessage() != null
-                && (moduleId == null || moduleId.equals(event.getModuleId()))
-                && (checkRegexp == null || checkRegexp.matcher(event.getSourceName()).find());
+                && isModuleIdMatching(event)
+                && isCheckNameMatching(event.getSourceName());
+    }
+
+    /**
+     * Is matching by file name.
+     * @param fileName the file name
+     * @return true if it is matching or not set.
+     */
+    /* package */ boolean isFileNameMatching(String fileName) {
+        return fileRegexp == null || fileRegexp.matcher(fileName).find();
+    }
+
+    /**
+     * Is matching by Check name.
+     * @param sourceName the name of the check
+     * @return true if it is matching or not set.
+     */
+    /* package */ boolean isCheckNameMatching(String sourceName) {
+        return checkRegexp == null || checkRegexp.matcher(sourceName).find();
+    }
+
+    /**
+     * Is matching by module id, message, line and column. The file name and
+     * the Check name are expected to be matched already.
+     * @param event event with a file name and a localized message
+     * @return true if it is matching
+     */
+    /* package */ boolean isEventMatching(AuditEvent event) {
+        return isModuleIdMatching(event)
+                && isMessageNameMatching(event)
+                && isLineAndColumnMatching(event);
+    }
+
+    /**
+     * Is matching by module id.
+     * @param event event
+     * @return true if it is matching or not set.
+     */
+    private boolean isModuleIdMatching(AuditEvent event) {
+        return moduleId == null || moduleId.equals(event.getModuleId());
     }
 
     /**
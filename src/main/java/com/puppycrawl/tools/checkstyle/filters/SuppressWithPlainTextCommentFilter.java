@@ -21,6 +21,8 @@ package com.puppycrawl.tools.checkstyle.filters;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
@@ -91,6 +93,11 @@ import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
  * Property {@code idFormat} - Specify check ID pattern to suppress.
  * Default value is {@code null}.
  * </li>
+ * <li>
+ * Property {@code charset} - Specify the character encoding to use when reading the files.
+ * Default value is the charset property of the parent
+ * <a href="https://checkstyle.org/config.html#Checker">Checker</a> module.
+ * </li>
  * </ul>
  * <p>
  * To configure a filter to suppress audit events between a comment containing
@@ -327,6 +334,12 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
     /** Specify check ID pattern to suppress. */
     private String idFormat;
 
+    /** Specify the character encoding to use when reading the files. */
+    private String charset = StandardCharsets.UTF_8.name();
+
+    /** Suppressions of the last file which events were filtered by the current thread. */
+    private final ThreadLocal<FileSuppressions> fileSuppressions = new ThreadLocal<>();
+
     /**
      * Setter to specify comment pattern to trigger filter to begin suppression.
      * @param pattern off comment format pattern.
@@ -367,13 +380,25 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
         idFormat = format;
     }
 
+    /**
+     * Setter to specify the character encoding to use when reading the files.
+     * @param charset the charset to use for reading the files
+     * @throws UnsupportedEncodingException if charset is unsupported
+     */
+    public void setCharset(String charset) throws UnsupportedEncodingException {
+        if (!Charset.isSupported(charset)) {
+            final String message = "unsupported charset: '" + charset + "'";
+            throw new UnsupportedEncodingException(message);
+        }
+        this.charset = charset;
+    }
+
     @Override
     public boolean accept(AuditEvent event) {
         boolean accepted = true;
         if (event.getLocalizedMessage() != null) {
-            final FileText fileText = getFileText(event.getFileName());
-            if (fileText != null) {
-                final List<Suppression> suppressions = getSuppressions(fileText);
+            final List<Suppression> suppressions = getFileSuppressions(event.getFileName());
+            if (suppressions != null) {
                 accepted = getNearestSuppression(suppressions, event) == null;
             }
         }
@@ -386,21 +411,44 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
     }
 
     /**
-     * Returns {@link FileText} instance created based on the given file name.
+     * Returns the suppressions of the given file. The file is read and scanned once,
+     * while events of the same unmodified file are filtered by the current thread.
      * @param fileName the name of the file.
-     * @return {@link FileText} instance.
+     * @return list of {@link Suppression} instances sorted by line or {@code null}
+     *         if the file is a directory.
      */
-    private static FileText getFileText(String fileName) {
+    private List<Suppression> getFileSuppressions(String fileName) {
         final File file = new File(fileName);
+        final long timestamp = file.lastModified();
+        FileSuppressions suppressions = fileSuppressions.get();
+        if (suppressions == null || !suppressions.isFor(fileName, timestamp)) {
+            final FileText fileText = getFileText(file);
+            List<Suppression> fileTextSuppressions = null;
+            if (fileText != null) {
+                fileTextSuppressions = getSuppressions(fileText);
+            }
+            suppressions = new FileSuppressions(fileName, timestamp, fileTextSuppressions);
+            fileSuppressions.set(suppressions);
+        }
+        return suppressions.suppressions;
+    }
+
+    /**
+     * Returns {@link FileText} instance created based on the given file.
+     * @param file the file.
+     * @return {@link FileText} instance.
+     */
+    private FileText getFileText(File file) {
         FileText result = null;
 
         // some violations can be on a directory, instead of a file
         if (!file.isDirectory()) {
             try {
-                result = new FileText(file, StandardCharsets.UTF_8.name());
+                result = new FileText(file, charset);
             }
             catch (IOException ex) {
-                throw new IllegalStateException("Cannot read source file: " + fileName, ex);
+                throw new IllegalStateException("Cannot read source file: " + file.getPath(),
+                        ex);
             }
         }
 
@@ -449,18 +497,82 @@ public class SuppressWithPlainTextCommentFilter extends AutomaticBean implements
      * Finds the nearest {@link Suppression} instance which can suppress
      * the given {@link AuditEvent}. The nearest suppression is the suppression which scope
      * is before the line and column of the event.
-     * @param suppressions {@link Suppression} instance.
+     * @param suppressions {@link Suppression} instances sorted by line.
      * @param event {@link AuditEvent} instance.
      * @return {@link Suppression} instance.
      */
     private static Suppression getNearestSuppression(List<Suppression> suppressions,
                                                      AuditEvent event) {
-        return suppressions
-            .stream()
-            .filter(suppression -> suppression.isMatch(event))
-            .reduce((first, second) -> second)
-            .filter(suppression -> suppression.suppressionType != SuppressionType.ON)
-            .orElse(null);
+        Suppression result = null;
+        for (int index = getScopeEnd(suppressions, event.getLine()) - 1; index >= 0; index--) {
+            final Suppression suppression = suppressions.get(index);
+            if (suppression.isMatch(event)) {
+                if (suppression.suppressionType != SuppressionType.ON) {
+                    result = suppression;
+                }
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds with a binary search the number of suppressions which start
+     * on or before the given line.
+     * @param suppressions {@link Suppression} instances sorted by line.
+     * @param line the line number.
+     * @return the index of the first suppression after the line.
+     */
+    private static int getScopeEnd(List<Suppression> suppressions, int line) {
+        int low = 0;
+        int high = suppressions.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (suppressions.get(middle).lineNo <= line) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /** The suppressions of a file, valid while the file is not modified. */
+    private static final class FileSuppressions {
+
+        /** The name of the file. */
+        private final String fileName;
+
+        /** The modification time of the file. */
+        private final long timestamp;
+
+        /** The suppressions sorted by line, {@code null} for a directory. */
+        private final List<Suppression> suppressions;
+
+        /**
+         * Creates new {@code FileSuppressions} instance.
+         * @param fileName the name of the file.
+         * @param timestamp the modification time of the file.
+         * @param suppressions the suppressions sorted by line.
+         */
+        /* package */ FileSuppressions(String fileName, long timestamp,
+                List<Suppression> suppressions) {
+            this.fileName = fileName;
+            this.timestamp = timestamp;
+            this.suppressions = suppressions;
+        }
+
+        /**
+         * Checks whether the suppressions belong to the given version of the file.
+         * @param name the name of the file.
+         * @param modificationTime the modification time of the file.
+         * @return {@code true} if the suppressions can be used for the file.
+         */
+        private boolean isFor(String name, long modificationTime) {
+            return fileName.equals(name) && timestamp == modificationTime;
+        }
+
     }
 
     /** Enum which represents the type of the suppression. */
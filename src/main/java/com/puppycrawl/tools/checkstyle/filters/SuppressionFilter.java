@@ -224,6 +224,8 @@ public class SuppressionFilter extends AutomaticBean implements Filter, External
     private boolean optional;
     /** Set of individual suppresses. */
     private FilterSet filters = new FilterSet();
+    /** Index of the individual suppresses. */
+    private SuppressionIndex suppressionIndex = new SuppressionIndex(filters);
 
     /**
      * Setter to specify the location of the <em>suppressions XML document</em> file.
@@ -246,7 +248,7 @@ public class SuppressionFilter extends AutomaticBean implements Filter, External
 
     @Override
     public boolean accept(AuditEvent event) {
-        return filters.accept(event);
+        return suppressionIndex.accept(event);
     }
 
     @Override
@@ -264,6 +266,7 @@ public class SuppressionFilter extends AutomaticBean implements Filter, External
                 filters = SuppressionsLoader.loadSuppressions(file);
             }
         }
+        suppressionIndex = new SuppressionIndex(filters);
     }
 
     @Override
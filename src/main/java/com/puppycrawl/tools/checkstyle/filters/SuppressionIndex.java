@@ -0,0 +1,142 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+
+/**
+ * Applies a set of filters with the same result as {@link FilterSet}, but tests
+ * the file and Check name patterns of {@link SuppressFilterElement}s once per file
+ * and Check, instead of once per event.
+ *
+ */
+final class SuppressionIndex implements Filter {
+
+    /** The suppression elements. */
+    private final List<SuppressFilterElement> elements = new ArrayList<>();
+
+    /** Filters which are not suppression elements, they are applied to every event. */
+    private final List<Filter> otherFilters = new ArrayList<>();
+
+    /** Suppression elements of the last file which events were filtered by the current thread. */
+    private final ThreadLocal<FileElements> fileElements = new ThreadLocal<>();
+
+    /**
+     * Creates a new {@code SuppressionIndex} instance.
+     * @param filterSet the filters to index
+     */
+    /* package */ SuppressionIndex(FilterSet filterSet) {
+        for (Filter filter : filterSet.getFilters()) {
+            if (filter instanceof SuppressFilterElement) {
+                elements.add((SuppressFilterElement) filter);
+            }
+            else {
+                otherFilters.add(filter);
+            }
+        }
+    }
+
+    @Override
+    public boolean accept(AuditEvent event) {
+        boolean accepted = true;
+        if (event.getFileName() != null && event.getLocalizedMessage() != null) {
+            accepted = getFileElements(event.getFileName())
+                    .getElements(event.getSourceName())
+                    .stream()
+                    .noneMatch(element -> element.isEventMatching(event));
+        }
+        if (accepted) {
+            accepted = otherFilters.stream().allMatch(filter -> filter.accept(event));
+        }
+        return accepted;
+    }
+
+    /**
+     * Returns the suppression elements which file pattern matches the given file.
+     * @param fileName the file name
+     * @return the suppression elements of the file
+     */
+    private FileElements getFileElements(String fileName) {
+        FileElements result = fileElements.get();
+        if (result == null || !result.fileName.equals(fileName)) {
+            final List<SuppressFilterElement> matchingElements = new ArrayList<>();
+            for (SuppressFilterElement element : elements) {
+                if (element.isFileNameMatching(fileName)) {
+                    matchingElements.add(element);
+                }
+            }
+            result = new FileElements(fileName, matchingElements);
+            fileElements.set(result);
+        }
+        return result;
+    }
+
+    /**
+     * The suppression elements of a file, grouped by the Check names they match.
+     */
+    private static final class FileElements {
+
+        /** The file name. */
+        private final String fileName;
+
+        /** The suppression elements which file pattern matches the file. */
+        private final List<SuppressFilterElement> elements;
+
+        /** The suppression elements of the file by the names of the Checks they match. */
+        private final Map<String, List<SuppressFilterElement>> elementsByCheck = new HashMap<>();
+
+        /**
+         * Creates a new {@code FileElements} instance.
+         * @param fileName the file name
+         * @param elements the suppression elements which file pattern matches the file
+         */
+        /* package */ FileElements(String fileName, List<SuppressFilterElement> elements) {
+            this.fileName = fileName;
+            this.elements = elements;
+        }
+
+        /**
+         * Returns the suppression elements of the file which match the given Check name.
+         * @param sourceName the name of the Check
+         * @return the suppression elements
+         */
+        private List<SuppressFilterElement> getElements(String sourceName) {
+            return elementsByCheck.computeIfAbsent(sourceName, name -> {
+                final List<SuppressFilterElement> result = new ArrayList<>();
+                for (SuppressFilterElement element : elements) {
+                    if (element.isCheckNameMatching(name)) {
+                        result.add(element);
+                    }
+                }
+                return Collections.unmodifiableList(result);
+            });
+        }
+
+    }
+
+}
@@ -19,13 +19,15 @@
 
 package com.puppycrawl.tools.checkstyle.filters;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
 import com.puppycrawl.tools.checkstyle.TreeWalkerFilter;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 import com.puppycrawl.tools.checkstyle.xpath.AbstractNode;
 import com.puppycrawl.tools.checkstyle.xpath.RootNode;
@@ -36,8 +38,14 @@ import net.sf.saxon.sxpath.XPathExpression;
 import net.sf.saxon.trans.XPathException;
 
 /**
- * This filter element is immutable and processes {@link TreeWalkerAuditEvent}
+ * This filter element processes {@link TreeWalkerAuditEvent}
  * objects based on the criteria of file, check, module id, xpathQuery.
+ * The criteria are immutable. The xpath query is evaluated once per file and
+ * positions of the matching nodes are cached until an event of another file arrives,
+ * so the cache is the only mutable state of the filter. It is replaced as a whole
+ * by an immutable object and read only once per event, so the filter can be used
+ * by several threads: they can at worst evaluate the query again for the same file,
+ * but never match an event against the positions of another file.
  *
  */
 public class XpathFilterElement implements TreeWalkerFilter {
@@ -69,6 +77,9 @@ public class XpathFilterElement implements TreeWalkerFilter {
     /** Xpath query. */
     private final String xpathQuery;
 
+    /** Positions of nodes matching xpath query in the last processed file. */
+    private XpathMatches xpathMatches;
+
     /**
      * Creates a {@code XpathElement} instance.
      * @param files regular expression for names of filtered files
@@ -201,38 +212,57 @@ public class XpathFilterElement implements TreeWalkerFilter {
      * @return true if it is matching or not set.
      */
     private boolean isXpathQueryMatching(TreeWalkerAuditEvent event) {
-        boolean isMatching;
+        final boolean isMatching;
         if (xpathExpression == null) {
             isMatching = true;
         }
         else {
-            isMatching = false;
-            final List<AbstractNode> nodes = getItems(event)
-                    .stream().map(item -> (AbstractNode) item).collect(Collectors.toList());
-            for (AbstractNode abstractNode : nodes) {
-                isMatching = abstractNode.getTokenType() == event.getTokenType()
-                        && abstractNode.getLineNumber() == event.getLine()
-                        && abstractNode.getColumnNumber() == event.getColumnCharIndex();
-                if (isMatching) {
-                    break;
+            final DetailAST rootAst = event.getRootAst();
+            final Set<NodePosition> positions;
+            if (rootAst == null) {
+                positions = getMatchingPositions(null);
+            }
+            else {
+                XpathMatches matches = xpathMatches;
+                if (matches == null || matches.rootAst != rootAst) {
+                    matches = new XpathMatches(rootAst, getMatchingPositions(rootAst));
+                    xpathMatches = matches;
                 }
+                positions = matches.positions;
             }
+            isMatching = positions.contains(new NodePosition(event.getLine(),
+                    event.getColumnCharIndex(), event.getTokenType()));
         }
         return isMatching;
     }
 
     /**
-     * Returns list of nodes matching xpath expression given event.
-     * @param event {@code TreeWalkerAuditEvent} object
-     * @return list of nodes matching xpath expression given event
+     * Returns positions of nodes matching xpath expression in the given tree.
+     * @param rootAst root of the tree, may be null
+     * @return positions of nodes matching xpath expression
+     */
+    private Set<NodePosition> getMatchingPositions(DetailAST rootAst) {
+        final Set<NodePosition> positions = new HashSet<>();
+        for (Item<?> item : getItems(rootAst)) {
+            final AbstractNode node = (AbstractNode) item;
+            positions.add(new NodePosition(node.getLineNumber(), node.getColumnNumber(),
+                    node.getTokenType()));
+        }
+        return positions;
+    }
+
+    /**
+     * Returns list of nodes matching xpath expression in the given tree.
+     * @param rootAst root of the tree, may be null
+     * @return list of nodes matching xpath expression in the given tree
      */
-    private List<Item<?>> getItems(TreeWalkerAuditEvent event) {
+    private List<Item<?>> getItems(DetailAST rootAst) {
         final RootNode rootNode;
-        if (event.getRootAst() == null) {
+        if (rootAst == null) {
             rootNode = null;
         }
         else {
-            rootNode = new RootNode(event.getRootAst());
+            rootNode = new RootNode(rootAst);
         }
         final List<Item<?>> items;
         try {
@@ -268,4 +298,75 @@ public class XpathFilterElement implements TreeWalkerFilter {
                 && Objects.equals(xpathQuery, xpathFilter.xpathQuery);
     }
 
+    /**
+     * Positions of nodes matching xpath query in one file. Instances are
+     * immutable, so they can be safely replaced when filter is used by several threads.
+     */
+    private static final class XpathMatches {
+
+        /** Root of the file tree. */
+        private final DetailAST rootAst;
+
+        /** Positions of matching nodes. */
+        private final Set<NodePosition> positions;
+
+        /**
+         * Creates a new {@code XpathMatches} instance.
+         * @param rootAst root of the file tree
+         * @param positions positions of matching nodes
+         */
+        /* package */ XpathMatches(DetailAST rootAst, Set<NodePosition> positions) {
+            this.rootAst = rootAst;
+            this.positions = positions;
+        }
+
+    }
+
+    /**
+     * Line, column and token type of a node.
+     */
+    private static final class NodePosition {
+
+        /** Line number. */
+        private final int line;
+
+        /** Column char index. */
+        private final int column;
+
+        /** Token type. */
+        private final int tokenType;
+
+        /**
+         * Creates a new {@code NodePosition} instance.
+         * @param line line number
+         * @param column column char index
+         * @param tokenType token type
+         */
+        /* package */ NodePosition(int line, int column, int tokenType) {
+            this.line = line;
+            this.column = column;
+            this.tokenType = tokenType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(line, column, tokenType);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (other == null || getClass() != other.getClass()) {
+                return false;
+            }
+            final NodePosition position = (NodePosition) other;
+            return line == position.line
+                    && column == position.column
+                    && tokenType == position.tokenType;
+        }
+
+    }
+
 }
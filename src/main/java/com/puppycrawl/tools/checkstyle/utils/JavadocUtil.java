@@ -214,8 +214,9 @@ public final class JavadocUtil {
     public static DetailNode getFirstChild(DetailNode node) {
         DetailNode resultNode = null;
 
-        if (node.getChildren().length > 0) {
-            resultNode = node.getChildren()[0];
+        final DetailNode[] children = node.getChildren();
+        if (children.length > 0) {
+            resultNode = children[0];
         }
         return resultNode;
     }
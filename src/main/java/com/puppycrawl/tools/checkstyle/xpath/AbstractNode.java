@@ -28,14 +28,17 @@ import net.sf.saxon.Configuration;
 import net.sf.saxon.event.Receiver;
 import net.sf.saxon.expr.parser.Location;
 import net.sf.saxon.om.AtomicSequence;
+import net.sf.saxon.om.AxisInfo;
 import net.sf.saxon.om.NamespaceBinding;
 import net.sf.saxon.om.NodeInfo;
 import net.sf.saxon.om.TreeInfo;
+import net.sf.saxon.pattern.NameTest;
 import net.sf.saxon.pattern.NodeTest;
 import net.sf.saxon.tree.iter.AxisIterator;
 import net.sf.saxon.tree.util.FastStringBuffer;
 import net.sf.saxon.tree.util.Navigator;
 import net.sf.saxon.type.SchemaType;
+import net.sf.saxon.type.Type;
 
 /**
  * Represents general class for {@code ElementNode}, {@code RootNode} and {@code AttributeNode}.
@@ -43,8 +46,8 @@ import net.sf.saxon.type.SchemaType;
  */
 public abstract class AbstractNode implements NodeInfo {
 
-    /** The children. */
-    private final List<AbstractNode> children = new ArrayList<>();
+    /** The children, created when they are requested for the first time. */
+    private List<AbstractNode> children;
 
     /** The {@code TreeInfo} object. */
     private final TreeInfo treeInfo;
@@ -71,18 +74,31 @@ public abstract class AbstractNode implements NodeInfo {
     public abstract DetailAST getUnderlyingNode();
 
     /**
-     * Getter method for children.
+     * Getter method for children. Children are created on the first call.
      * @return children list
      */
     protected List<AbstractNode> getChildren() {
+        if (children == null) {
+            children = new ArrayList<>();
+            createChildren();
+        }
         return Collections.unmodifiableList(children);
     }
 
+    /**
+     * Creates children of the node with {@link #addChild(AbstractNode)}.
+     * Called once, when children are requested for the first time.
+     */
+    protected void createChildren() {
+        // no children by default
+    }
+
     /**
      * Add new child node to children list.
      * @param node child node
      */
     protected void addChild(AbstractNode node) {
+        getChildren();
         children.add(node);
     }
 
@@ -120,20 +136,31 @@ public abstract class AbstractNode implements NodeInfo {
      */
     @Override
     public boolean hasChildNodes() {
-        return !children.isEmpty();
+        return !getChildren().isEmpty();
     }
 
     /**
-     * Determines axis iteration algorithm.
+     * Determines axis iteration algorithm. Descendants tested by element name
+     * are searched in the underlying tree, so nodes are created only for the
+     * matching ones and their ancestors.
      * @param axisNumber element from {@code AxisInfo}
      * @param nodeTest filter for iterator
      * @return {@code AxisIterator} object
      */
     @Override
     public AxisIterator iterateAxis(byte axisNumber, NodeTest nodeTest) {
-        AxisIterator axisIterator = iterateAxis(axisNumber);
-        if (nodeTest != null) {
-            axisIterator = new Navigator.AxisFilter(axisIterator, nodeTest);
+        AxisIterator axisIterator;
+        if ((axisNumber == AxisInfo.DESCENDANT || axisNumber == AxisInfo.DESCENDANT_OR_SELF)
+                && isElementNameTest(nodeTest)) {
+            axisIterator = new DescendantIterator(this,
+                    axisNumber == AxisInfo.DESCENDANT_OR_SELF,
+                    ((NameTest) nodeTest).getLocalPart());
+        }
+        else {
+            axisIterator = iterateAxis(axisNumber);
+            if (nodeTest != null) {
+                axisIterator = new Navigator.AxisFilter(axisIterator, nodeTest);
+            }
         }
         return axisIterator;
     }
@@ -350,6 +377,17 @@ public abstract class AbstractNode implements NodeInfo {
         throw throwUnsupportedOperationException();
     }
 
+    /**
+     * Checks whether the test matches elements with the given name without namespace.
+     * @param nodeTest filter for iterator
+     * @return true if the test matches elements by name
+     */
+    private static boolean isElementNameTest(NodeTest nodeTest) {
+        return nodeTest instanceof NameTest
+                && ((NameTest) nodeTest).getNodeKind() == Type.ELEMENT
+                && ((NameTest) nodeTest).getMatchingNodeName().hasURI("");
+    }
+
     /**
      * Returns UnsupportedOperationException exception. Methods which throws this exception are
      * not supported for all nodes.
@@ -0,0 +1,136 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.xpath;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
+import net.sf.saxon.om.NodeInfo;
+import net.sf.saxon.tree.iter.AxisIterator;
+import net.sf.saxon.type.Type;
+
+/**
+ * Iterates descendants of a node with the given element name in document order.
+ * The underlying {@code DetailAST} tree is traversed instead of Xpath-nodes, so
+ * Xpath-nodes are created only for the matching descendants and their ancestors.
+ *
+ */
+final class DescendantIterator implements AxisIterator {
+
+    /** The node whose descendants are iterated. */
+    private final AbstractNode start;
+
+    /** The ast node where traversal stops, {@code null} for the root node. */
+    private final DetailAST boundary;
+
+    /** Element name of the matching descendants. */
+    private final String name;
+
+    /** Whether the start node itself is the next item to return. */
+    private boolean selfPending;
+
+    /** The next ast node to test. */
+    private DetailAST nextAst;
+
+    /**
+     * Creates a new {@code DescendantIterator} instance.
+     * @param start the node whose descendants are iterated
+     * @param includeSelf whether the start node itself should be returned when it matches
+     * @param name element name of the matching descendants
+     */
+    /* package */ DescendantIterator(AbstractNode start, boolean includeSelf, String name) {
+        this.start = start;
+        this.name = name;
+        final DetailAST startAst = start.getUnderlyingNode();
+        if (start.getNodeKind() == Type.DOCUMENT) {
+            boundary = null;
+            nextAst = startAst;
+        }
+        else {
+            boundary = startAst;
+            nextAst = startAst.getFirstChild();
+            selfPending = includeSelf && name.equals(start.getLocalPart());
+        }
+    }
+
+    /**
+     * Get the next item in the sequence.
+     * @return the next Item. If there are no more nodes, return null.
+     */
+    @Override
+    public NodeInfo next() {
+        NodeInfo result = null;
+        if (selfPending) {
+            selfPending = false;
+            result = start;
+        }
+        while (result == null && nextAst != null) {
+            final DetailAST ast = nextAst;
+            nextAst = getNextAst(ast);
+            if (name.equals(TokenUtil.getTokenName(ast.getType()))) {
+                result = getNode(ast);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the ast node following the given one in document order
+     * inside the iterated subtree.
+     * @param ast the current ast node
+     * @return the following ast node or {@code null} at the end of the subtree
+     */
+    private DetailAST getNextAst(DetailAST ast) {
+        DetailAST result = ast.getFirstChild();
+        DetailAST current = ast;
+        while (result == null && current != boundary) {
+            result = current.getNextSibling();
+            current = current.getParent();
+        }
+        return result;
+    }
+
+    /**
+     * Returns the Xpath-node of the given descendant ast node, creating
+     * children of its ancestors when needed.
+     * @param ast the descendant ast node
+     * @return the Xpath-node
+     */
+    private AbstractNode getNode(DetailAST ast) {
+        final Deque<DetailAST> path = new ArrayDeque<>();
+        for (DetailAST current = ast; current != boundary; current = current.getParent()) {
+            path.push(current);
+        }
+        AbstractNode node = start;
+        while (!path.isEmpty()) {
+            final DetailAST childAst = path.pop();
+            for (AbstractNode child : node.getChildren()) {
+                if (child.getUnderlyingNode() == childAst) {
+                    node = child;
+                    break;
+                }
+            }
+        }
+        return node;
+    }
+
+}
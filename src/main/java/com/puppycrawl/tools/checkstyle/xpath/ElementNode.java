@@ -60,7 +60,7 @@ public class ElementNode extends AbstractNode {
     /** Represents index among siblings. */
     private final int indexAmongSiblings;
 
-    /** The text attribute node. */
+    /** The text attribute node, created when it is requested for the first time. */
     private AttributeNode attributeNode;
 
     /**
@@ -77,15 +77,14 @@ public class ElementNode extends AbstractNode {
         this.detailAst = detailAst;
         text = TokenUtil.getTokenName(detailAst.getType());
         indexAmongSiblings = parent.getChildren().size();
-        createTextAttribute();
-        createChildren();
     }
 
     /**
-     * Iterates children of the current node and
-     * recursively creates new Xpath-nodes.
+     * Iterates children of the current node and creates new Xpath-nodes.
+     * Their own children are created when they are requested.
      */
-    private void createChildren() {
+    @Override
+    protected void createChildren() {
         DetailAST currentChild = detailAst.getFirstChild();
         while (currentChild != null) {
             final AbstractNode child = new ElementNode(root, this, currentChild);
@@ -105,11 +104,12 @@ public class ElementNode extends AbstractNode {
     public String getAttributeValue(String namespace, String localPart) {
         final String result;
         if (TEXT_ATTRIBUTE_NAME.equals(localPart)) {
-            if (attributeNode == null) {
+            final AttributeNode attribute = getAttributeNode();
+            if (attribute == null) {
                 result = null;
             }
             else {
-                result = attributeNode.getStringValue();
+                result = attribute.getStringValue();
             }
         }
         else {
@@ -167,6 +167,15 @@ public class ElementNode extends AbstractNode {
         return text;
     }
 
+    /**
+     * Returns if current node has children.
+     * @return if current node has children
+     */
+    @Override
+    public boolean hasChildNodes() {
+        return detailAst.getFirstChild() != null;
+    }
+
     /**
      * Determines axis iteration algorithm. Throws {@code UnsupportedOperationException} in case,
      * when there is no axis iterator for given axisNumber.
@@ -189,7 +198,7 @@ public class ElementNode extends AbstractNode {
                 }
                 break;
             case AxisInfo.ATTRIBUTE:
-                try (AxisIterator iterator = SingleNodeIterator.makeIterator(attributeNode)) {
+                try (AxisIterator iterator = SingleNodeIterator.makeIterator(getAttributeNode())) {
                     result = iterator;
                 }
                 break;
@@ -347,16 +356,16 @@ public class ElementNode extends AbstractNode {
 
     /**
      * Checks if token type supports {@code @text} attribute,
-     * extracts its value, creates {@code AttributeNode} object and returns it.
+     * extracts its value, creates {@code AttributeNode} object on the first call and returns it.
      * Value can be accessed using {@code @text} attribute.
+     * @return the text attribute node or null if token type does not support it
      */
-    private void createTextAttribute() {
-        AttributeNode attribute = null;
-        if (XpathUtil.supportsTextAttribute(detailAst)) {
-            attribute = new AttributeNode(TEXT_ATTRIBUTE_NAME,
+    private AttributeNode getAttributeNode() {
+        if (attributeNode == null && XpathUtil.supportsTextAttribute(detailAst)) {
+            attributeNode = new AttributeNode(TEXT_ATTRIBUTE_NAME,
                     XpathUtil.getTextAttributeValue(detailAst));
         }
-        attributeNode = attribute;
+        return attributeNode;
     }
 
     /**
@@ -55,15 +55,14 @@ public class RootNode extends AbstractNode {
     public RootNode(DetailAST detailAst) {
         super(new GenericTreeInfo(Configuration.newConfiguration()));
         this.detailAst = detailAst;
-
-        createChildren();
     }
 
     /**
-     * Iterates siblings of the current node and
-     * recursively creates new Xpath-nodes.
+     * Iterates siblings of the current node and creates new Xpath-nodes.
+     * Their own children are created when they are requested.
      */
-    private void createChildren() {
+    @Override
+    protected void createChildren() {
         DetailAST currentChild = detailAst;
         while (currentChild != null) {
             final ElementNode child = new ElementNode(this, this, currentChild);
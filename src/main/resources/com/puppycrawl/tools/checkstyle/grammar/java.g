@@ -16,6 +16,8 @@
 // License along with this library; if not, write to the Free Software
 // Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
 ////////////////////////////////////////////////////////////////////////////////
+// Changes of the AST built by this grammar must increment GRAMMAR_VERSION of
+// com.puppycrawl.tools.checkstyle.JavaAstCache, which invalidates cached ASTs.
 header {
 package com.puppycrawl.tools.checkstyle.grammar;
 
@@ -1623,6 +1625,12 @@ lambdaBody
 
 //----------------------------------------------------------------------------
 // The Java scanner
+//
+// Files are scanned by com.puppycrawl.tools.checkstyle.JavaLexer, this lexer
+// is not used for parsing. It remains the source of the token types of comments,
+// literals and the other tokens, which only the scanner defines, so that
+// GeneratedJavaTokenTypes keeps them with the same numbers. Tests compare both
+// lexers, so changes of its rules must be made in JavaLexer too.
 //----------------------------------------------------------------------------
 class GeneratedJavaLexer extends Lexer;
 
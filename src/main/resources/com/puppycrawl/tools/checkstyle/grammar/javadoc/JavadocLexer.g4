@@ -35,6 +35,21 @@ import java.util.*;
             _input.seek(_input.index() - 1);
       }
 
+      @Override
+      public void reset() {
+            super.reset();
+            recognizeXmlTags = true;
+            isJavadocTagAvailable = true;
+            insideJavadocInlineTag = 0;
+            insidePreTag = false;
+            referenceCatched = false;
+            insideReferenceArguments = false;
+            htmlTagNameCatched = false;
+            attributeCatched = false;
+            previousTokenType = 0;
+            previousToPreviousTokenType = 0;
+      }
+
 }
 
 LEADING_ASTERISK : ( (' '|'\t') {_tokenStartCharPositionInLine == 0
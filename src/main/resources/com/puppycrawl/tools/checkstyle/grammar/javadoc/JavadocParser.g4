@@ -38,6 +38,12 @@ options { tokenVocab=JavadocLexer; }
     }
 
     public ParserRuleContext nonTightTagStartContext;
+
+    @Override
+    public void reset() {
+        super.reset();
+        nonTightTagStartContext = null;
+    }
 }
 
 javadoc: (
@@ -0,0 +1,276 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Flushable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.powermock.reflect.Whitebox;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.AutomaticBean.OutputStreamOptions;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+
+public class AsyncAuditListenerTest {
+
+    @Test
+    public void testEventOrder() {
+        final RecordingListener recorder = new RecordingListener();
+        final AsyncAuditListener listener =
+                new AsyncAuditListener(recorder, 2, AsyncAuditListener.FlushPolicy.AUDIT);
+        final List<String> expected = new ArrayList<>();
+
+        listener.auditStarted(new AuditEvent(this));
+        expected.add("auditStarted");
+        for (int file = 0; file < 50; file++) {
+            final String fileName = "File" + file + ".java";
+            listener.fileStarted(new AuditEvent(this, fileName));
+            expected.add("fileStarted " + fileName);
+            listener.addError(new AuditEvent(this, fileName, createMessage(file)));
+            expected.add("addError " + fileName);
+            listener.addException(new AuditEvent(this, fileName),
+                    new IllegalStateException(fileName));
+            expected.add("addException " + fileName);
+            listener.fileFinished(new AuditEvent(this, fileName));
+            expected.add("fileFinished " + fileName);
+        }
+        listener.auditFinished(new AuditEvent(this));
+        expected.add("auditFinished");
+
+        assertEquals("Events should be passed in order before the audit is finished",
+                expected, recorder.events);
+        assertEquals("Listener should not be flushed", 0, recorder.flushes);
+    }
+
+    @Test
+    public void testFlushAfterFile() {
+        final RecordingListener recorder = new RecordingListener();
+        final AsyncAuditListener listener =
+                new AsyncAuditListener(recorder, 16, AsyncAuditListener.FlushPolicy.FILE);
+
+        listener.auditStarted(new AuditEvent(this));
+        for (int file = 0; file < 3; file++) {
+            listener.fileStarted(new AuditEvent(this, "File.java"));
+            listener.fileFinished(new AuditEvent(this, "File.java"));
+        }
+        listener.auditFinished(new AuditEvent(this));
+
+        assertEquals("Listener should be flushed after each file", 3, recorder.flushes);
+    }
+
+    @Test
+    public void testListenerException() {
+        final IllegalStateException exception = new IllegalStateException("failure");
+        final RecordingListener recorder = new RecordingListener() {
+            @Override
+            public void addError(AuditEvent event) {
+                throw exception;
+            }
+        };
+        final AsyncAuditListener listener = new AsyncAuditListener(recorder);
+
+        listener.auditStarted(new AuditEvent(this));
+        listener.addError(new AuditEvent(this, "File.java", createMessage(1)));
+        try {
+            listener.auditFinished(new AuditEvent(this));
+            fail("Exception is expected");
+        }
+        catch (IllegalStateException ex) {
+            assertSame("Exception of the listener should be rethrown", exception, ex);
+        }
+        assertEquals("Events after the failure should be dropped",
+                1, recorder.events.size());
+    }
+
+    @Test
+    public void testFailureResetOnNextAudit() {
+        final IllegalStateException exception = new IllegalStateException("failure");
+        final RecordingListener recorder = new RecordingListener() {
+            @Override
+            public void addError(AuditEvent event) {
+                if (event.getFileName().equals("Fail.java")) {
+                    throw exception;
+                }
+                super.addError(event);
+            }
+        };
+        final AsyncAuditListener listener = new AsyncAuditListener(recorder);
+
+        listener.auditStarted(new AuditEvent(this));
+        listener.addError(new AuditEvent(this, "Fail.java", createMessage(1)));
+        try {
+            listener.auditFinished(new AuditEvent(this));
+            fail("Exception is expected");
+        }
+        catch (IllegalStateException ex) {
+            assertSame("Exception of the listener should be rethrown", exception, ex);
+        }
+        recorder.events.clear();
+        fireEvents(listener);
+
+        assertEquals("Failure of the previous audit should be forgotten",
+                17, recorder.events.size());
+    }
+
+    @Test
+    public void testCloseAbortedAudit() throws Exception {
+        final RecordingListener recorder = new RecordingListener();
+        final AsyncAuditListener listener = new AsyncAuditListener(recorder);
+
+        listener.auditStarted(new AuditEvent(this));
+        listener.fileStarted(new AuditEvent(this, "File.java"));
+        final Thread writer = Whitebox.getInternalState(listener, "writer");
+        listener.close();
+
+        assertFalse("Writer thread should be stopped", writer.isAlive());
+        assertNull("Writer thread should be forgotten",
+                Whitebox.getInternalState(listener, "writer"));
+        listener.close();
+    }
+
+    @Test
+    public void testRestartAfterAbortedAudit() throws Exception {
+        final RecordingListener recorder = new RecordingListener();
+        final AsyncAuditListener listener = new AsyncAuditListener(recorder);
+
+        listener.auditStarted(new AuditEvent(this));
+        listener.fileStarted(new AuditEvent(this, "Aborted.java"));
+        final Thread writer = Whitebox.getInternalState(listener, "writer");
+        listener.auditStarted(new AuditEvent(this));
+        listener.fileStarted(new AuditEvent(this, "File.java"));
+        listener.auditFinished(new AuditEvent(this));
+
+        assertFalse("Writer thread of the aborted audit should be stopped", writer.isAlive());
+        final List<String> events = recorder.events;
+        assertEquals("Events of the next audit should be passed",
+                Arrays.asList("auditStarted", "fileStarted File.java", "auditFinished"),
+                events.subList(events.size() - 3, events.size()));
+    }
+
+    @Test
+    public void testInvalidCapacity() {
+        try {
+            final Object listener = new AsyncAuditListener(new RecordingListener(), 0,
+                    AsyncAuditListener.FlushPolicy.BATCH);
+            fail("Exception is expected: " + listener);
+        }
+        catch (IllegalArgumentException ex) {
+            assertEquals("Invalid exception message",
+                    "Capacity must be greater than zero", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testDefaultLoggerOutput() throws Exception {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        fireEvents(new DefaultLogger(expected, OutputStreamOptions.CLOSE));
+        final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        fireEvents(new AsyncAuditListener(new DefaultLogger(actual, OutputStreamOptions.CLOSE)));
+
+        assertEquals("Output should not change",
+                expected.toString(StandardCharsets.UTF_8.name()),
+                actual.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    @Test
+    public void testXmlLoggerOutput() throws Exception {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        fireEvents(new XMLLogger(expected, OutputStreamOptions.CLOSE));
+        final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        fireEvents(new AsyncAuditListener(new XMLLogger(actual, OutputStreamOptions.CLOSE)));
+
+        assertEquals("Output should not change",
+                expected.toString(StandardCharsets.UTF_8.name()),
+                actual.toString(StandardCharsets.UTF_8.name()));
+    }
+
+    private void fireEvents(AuditListener listener) {
+        listener.auditStarted(new AuditEvent(this));
+        for (int file = 0; file < 5; file++) {
+            final String fileName = "File" + file + ".java";
+            listener.fileStarted(new AuditEvent(this, fileName));
+            listener.addError(new AuditEvent(this, fileName, createMessage(file + 1)));
+            listener.fileFinished(new AuditEvent(this, fileName));
+        }
+        listener.auditFinished(new AuditEvent(this));
+    }
+
+    private LocalizedMessage createMessage(int line) {
+        return new LocalizedMessage(line, 1, Definitions.CHECKSTYLE_BUNDLE, "message {0}",
+                new Object[] {line}, SeverityLevel.ERROR, null, getClass(), null);
+    }
+
+    private static class RecordingListener implements AuditListener, Flushable {
+
+        private final List<String> events = new ArrayList<>();
+
+        private int flushes;
+
+        @Override
+        public void auditStarted(AuditEvent event) {
+            events.add("auditStarted");
+        }
+
+        @Override
+        public void auditFinished(AuditEvent event) {
+            events.add("auditFinished");
+        }
+
+        @Override
+        public void fileStarted(AuditEvent event) {
+            events.add("fileStarted " + event.getFileName());
+        }
+
+        @Override
+        public void fileFinished(AuditEvent event) {
+            events.add("fileFinished " + event.getFileName());
+        }
+
+        @Override
+        public void addError(AuditEvent event) {
+            events.add("addError " + event.getFileName());
+        }
+
+        @Override
+        public void addException(AuditEvent event, Throwable throwable) {
+            events.add("addException " + event.getFileName());
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+
+    }
+
+}
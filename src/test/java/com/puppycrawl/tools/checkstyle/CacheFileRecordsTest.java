@@ -0,0 +1,91 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CacheFileRecordsTest {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testAppendedRecordsAreReplayed() throws IOException {
+        final Path path = temporaryFolder.newFile().toPath();
+        final Properties details = new Properties();
+        details.setProperty("first", "1");
+        details.setProperty("second", "2");
+        CacheFileRecords.write(path, details);
+        final Map<String, String> changes = new LinkedHashMap<>();
+        changes.put("first", null);
+        changes.put("third", "3");
+        CacheFileRecords.append(path, changes);
+
+        final Properties actual = new Properties();
+        final int records = CacheFileRecords.read(Files.readAllBytes(path), actual);
+
+        assertEquals("Invalid number of records", 4, records);
+        final Properties expected = new Properties();
+        expected.setProperty("second", "2");
+        expected.setProperty("third", "3");
+        assertEquals("Invalid details", expected, actual);
+    }
+
+    @Test
+    public void testLegacyFormat() throws IOException {
+        final Properties details = new Properties();
+        final int records = CacheFileRecords.read(
+                "key = value".getBytes(StandardCharsets.ISO_8859_1), details);
+
+        assertEquals("Legacy file should be rewritten", -1, records);
+        assertEquals("Invalid legacy details", "value", details.getProperty("key"));
+    }
+
+    @Test
+    public void testBrokenFile() throws IOException {
+        final Path path = temporaryFolder.newFile().toPath();
+        final Properties details = new Properties();
+        details.setProperty("key", "value");
+        CacheFileRecords.write(path, details);
+        final byte[] content = Files.readAllBytes(path);
+
+        final Properties actual = new Properties();
+        final int records = CacheFileRecords.read(
+                Arrays.copyOf(content, content.length - 1), actual);
+
+        assertEquals("Broken file should be rewritten", -1, records);
+        assertTrue("Details of a broken file should be discarded", actual.isEmpty());
+    }
+
+}
@@ -0,0 +1,195 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.api.SeverityLevel;
+
+public class CachedViolationsTest {
+
+    private static final ClassLoader CLASS_LOADER = CachedViolationsTest.class.getClassLoader();
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final List<LocalizedMessage> violations = Arrays.asList(
+                new LocalizedMessage(1, 2, 3, 4, "bundle", "key",
+                        new Object[] {"arg", 1, 2L, 3.5, true, 'c', null},
+                        SeverityLevel.WARNING, "id", getClass(), "custom {0}"),
+                new LocalizedMessage(5, 6, 7, 8, null, null, null, null, null,
+                        LocalizedMessage.class, null));
+        final List<LocalizedMessage> decoded =
+                CachedViolations.decode(CachedViolations.encode(violations), CLASS_LOADER);
+        assertEquals("Invalid decoded violations", violations, decoded);
+        assertArrayEquals("Invalid decoded arguments",
+                new Object[] {"arg", 1, 2L, 3.5, true, 'c', null}, decoded.get(0).getArgs());
+        assertEquals("Invalid decoded severity", SeverityLevel.WARNING,
+                decoded.get(0).getSeverityLevel());
+        assertEquals("Invalid decoded column char index", 3,
+                decoded.get(0).getColumnCharIndex());
+        assertEquals("Invalid decoded token type", 4, decoded.get(0).getTokenType());
+        assertNull("Invalid decoded severity", decoded.get(1).getSeverityLevel());
+    }
+
+    @Test
+    public void testSourceClassLoader() throws IOException {
+        final String encoded = CachedViolations.encode(Collections.singletonList(
+                new LocalizedMessage(1, 2, "bundle", "key", null, null, getClass(), null)));
+        final Set<String> loadedClasses = new HashSet<>();
+        final ClassLoader classLoader = new ClassLoader(CLASS_LOADER) {
+            @Override
+            public Class<?> loadClass(String name) throws ClassNotFoundException {
+                loadedClasses.add(name);
+                return super.loadClass(name);
+            }
+        };
+        final List<LocalizedMessage> decoded = CachedViolations.decode(encoded, classLoader);
+        assertEquals("Invalid decoded source", getClass().getName(),
+                decoded.get(0).getSourceName());
+        assertEquals("Source class should be loaded by the given class loader",
+                Collections.singleton(getClass().getName()), loadedClasses);
+        assertNull("Source class unknown to the class loader should not be decoded",
+                CachedViolations.decode(encoded, new ClassLoader(null) { }));
+    }
+
+    @Test
+    public void testUnsupportedArgument() {
+        final LocalizedMessage violation = new LocalizedMessage(1, 2, "bundle", "key",
+                new Object[] {Collections.emptyList()}, null, getClass(), null);
+        try {
+            CachedViolations.encode(Collections.singletonList(violation));
+            fail("IOException is expected");
+        }
+        catch (IOException ex) {
+            assertTrue("Invalid exception message: " + ex.getMessage(),
+                    ex.getMessage().startsWith("Unsupported argument type"));
+        }
+    }
+
+    @Test
+    public void testBrokenEntries() throws IOException {
+        final String valid = CachedViolations.encode(Collections.singletonList(
+                new LocalizedMessage(1, 2, "bundle", "key", new Object[] {"arg"}, null,
+                        getClass(), null)));
+        final byte[] bytes = Base64.getDecoder().decode(valid);
+        assertNull("Invalid Base64 should not be decoded",
+                CachedViolations.decode("%", CLASS_LOADER));
+        assertNull("Empty entry should not be decoded",
+                CachedViolations.decode("", CLASS_LOADER));
+        assertNull("Unknown version should not be decoded",
+                decode(bytes, 0, (byte) 2));
+        assertNull("Empty list should not be decoded",
+                CachedViolations.decode(encode(output -> {
+                    output.writeByte(1);
+                    output.writeInt(0);
+                }), CLASS_LOADER));
+        assertNull("Truncated entry should not be decoded", CachedViolations.decode(
+                Base64.getEncoder().encodeToString(Arrays.copyOf(bytes, bytes.length - 1)),
+                CLASS_LOADER));
+        assertNull("Entry with trailing data should not be decoded", CachedViolations.decode(
+                Base64.getEncoder().encodeToString(Arrays.copyOf(bytes, bytes.length + 1)),
+                CLASS_LOADER));
+    }
+
+    @Test
+    public void testInvalidValues() throws IOException {
+        assertNull("Unknown string type should not be decoded",
+                CachedViolations.decode(encode(output -> {
+                    writeHeader(output);
+                    output.writeByte(7);
+                }), CLASS_LOADER));
+        assertNull("Unknown severity should not be decoded",
+                CachedViolations.decode(encode(output -> {
+                    writeHeader(output);
+                    output.writeByte(1);
+                    output.writeUTF("fatal");
+                }), CLASS_LOADER));
+        assertNull("Unknown argument type should not be decoded",
+                CachedViolations.decode(encode(output -> {
+                    writeHeader(output);
+                    writeNullStrings(output, 4);
+                    output.writeInt(1);
+                    output.writeByte(7);
+                }), CLASS_LOADER));
+        assertNull("Unknown source class should not be decoded",
+                CachedViolations.decode(encode(output -> {
+                    writeHeader(output);
+                    writeNullStrings(output, 4);
+                    output.writeInt(-1);
+                    output.writeUTF("com.puppycrawl.tools.checkstyle.UnknownClass");
+                    output.writeByte(0);
+                }), CLASS_LOADER));
+    }
+
+    private static List<LocalizedMessage> decode(byte[] bytes, int index, byte value) {
+        final byte[] copy = bytes.clone();
+        copy[index] = value;
+        return CachedViolations.decode(Base64.getEncoder().encodeToString(copy), CLASS_LOADER);
+    }
+
+    private static void writeHeader(DataOutputStream output) throws IOException {
+        output.writeByte(1);
+        output.writeInt(1);
+        output.writeInt(1);
+        output.writeInt(2);
+        output.writeInt(0);
+        output.writeInt(0);
+    }
+
+    private static void writeNullStrings(DataOutputStream output, int count)
+            throws IOException {
+        for (int index = 0; index < count; index++) {
+            output.writeByte(0);
+        }
+    }
+
+    private static String encode(Writer writer) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(outputStream)) {
+            writer.write(output);
+        }
+        return Base64.getEncoder().encodeToString(outputStream.toByteArray());
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+
+        void write(DataOutputStream output) throws IOException;
+
+    }
+
+}
@@ -39,14 +39,13 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOError;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.LineNumberReader;
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -57,7 +56,9 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -81,6 +82,7 @@ import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
 import com.puppycrawl.tools.checkstyle.api.MessageDispatcher;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
 import com.puppycrawl.tools.checkstyle.checks.NewlineAtEndOfFileCheck;
+import com.puppycrawl.tools.checkstyle.checks.TodoCommentCheck;
 import com.puppycrawl.tools.checkstyle.checks.TranslationCheck;
 import com.puppycrawl.tools.checkstyle.checks.coding.HiddenFieldCheck;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionFilter;
@@ -426,10 +428,9 @@ public class CheckerTest extends AbstractModuleTestSupport {
         assertEquals("Basedir is set to unexpected value",
                 "testBaseDir", context.get("basedir"));
 
-        final Field sLocale = LocalizedMessage.class.getDeclaredField("sLocale");
-        sLocale.setAccessible(true);
-        final Locale locale = (Locale) sLocale.get(null);
-        assertEquals("Locale is set to unexpected value", Locale.ITALY, locale);
+        final AtomicReference<Locale> locale =
+                Whitebox.getInternalState(LocalizedMessage.class, "LOCALE");
+        assertEquals("Locale is set to unexpected value", Locale.ITALY, locale.get());
     }
 
     @Test
@@ -527,13 +528,11 @@ public class CheckerTest extends AbstractModuleTestSupport {
         final String[] expected = CommonUtil.EMPTY_STRING_ARRAY;
 
         verify(checkerConfig, tmpFile.getPath(), expected);
-        final Properties cacheAfterFirstRun = new Properties();
-        cacheAfterFirstRun.load(Files.newBufferedReader(cacheFile.toPath()));
+        final Properties cacheAfterFirstRun = TestUtil.loadCacheFile(cacheFile);
 
         // one more time to reuse cache
         verify(checkerConfig, tmpFile.getPath(), expected);
-        final Properties cacheAfterSecondRun = new Properties();
-        cacheAfterSecondRun.load(Files.newBufferedReader(cacheFile.toPath()));
+        final Properties cacheAfterSecondRun = TestUtil.loadCacheFile(cacheFile);
 
         assertEquals("Cache from first run differs from second run cache",
                 cacheAfterFirstRun, cacheAfterSecondRun);
@@ -559,15 +558,14 @@ public class CheckerTest extends AbstractModuleTestSupport {
         // invoke destroy to persist cache
         checker.destroy();
 
-        final Properties cache = new Properties();
-        cache.load(Files.newBufferedReader(cacheFile.toPath()));
+        final Properties cache = TestUtil.loadCacheFile(cacheFile);
 
         // There should 2 objects in cache: processed file (file.java) and checker configuration.
         final int expectedNumberOfObjectsInCache = 2;
         assertEquals("Cache has unexpected size",
                 expectedNumberOfObjectsInCache, cache.size());
 
-        final String expectedConfigHash = "B8535A811CA90BE8B7A14D40BCA62B4FC2447B46";
+        final String expectedConfigHash = "55A72E0E1CF89F4DA9E0D3EA71873942242B4AE4";
         assertEquals("Cache has unexpected hash",
                 expectedConfigHash, cache.getProperty(PropertyCacheFile.CONFIG_HASH_KEY));
 
@@ -591,8 +589,7 @@ public class CheckerTest extends AbstractModuleTestSupport {
         // invoke destroy to persist cache
         checker.destroy();
 
-        final Properties cacheAfterClear = new Properties();
-        cacheAfterClear.load(Files.newBufferedReader(cacheFile.toPath()));
+        final Properties cacheAfterClear = TestUtil.loadCacheFile(cacheFile);
 
         assertEquals("Cache has unexpected size",
                 1, cacheAfterClear.size());
@@ -604,8 +601,7 @@ public class CheckerTest extends AbstractModuleTestSupport {
 
         // file that should be audited is not in cache
         verify(checker, pathToEmptyFile, pathToEmptyFile, expected);
-        final Properties cacheAfterSecondRun = new Properties();
-        cacheAfterSecondRun.load(Files.newBufferedReader(cacheFile.toPath()));
+        final Properties cacheAfterSecondRun = TestUtil.loadCacheFile(cacheFile);
 
         assertNotNull("Cache has null path",
                 cacheAfterSecondRun.getProperty(pathToEmptyFile));
@@ -638,8 +634,7 @@ public class CheckerTest extends AbstractModuleTestSupport {
         final PropertyCacheFile cache = Whitebox.getInternalState(checker, "cacheFile");
         cache.persist();
 
-        final Properties cacheAfterClear = new Properties();
-        cacheAfterClear.load(Files.newBufferedReader(cacheFile.toPath()));
+        final Properties cacheAfterClear = TestUtil.loadCacheFile(cacheFile);
 
         assertEquals("Cache has unexpected size",
                 1, cacheAfterClear.size());
@@ -771,13 +766,11 @@ public class CheckerTest extends AbstractModuleTestSupport {
         final String pathToEmptyFile = temporaryFolder.newFile("file.java").getPath();
 
         verify(checkerConfig, pathToEmptyFile, expected);
-        final Properties cacheAfterFirstRun = new Properties();
-        cacheAfterFirstRun.load(Files.newBufferedReader(cacheFile.toPath()));
+        final Properties cacheAfterFirstRun = TestUtil.loadCacheFile(cacheFile);
 
         // One more time to use cache.
         verify(checkerConfig, pathToEmptyFile, expected);
-        final Properties cacheAfterSecondRun = new Properties();
-        cacheAfterSecondRun.load(Files.newBufferedReader(cacheFile.toPath()));
+        final Properties cacheAfterSecondRun = TestUtil.loadCacheFile(cacheFile);
 
         assertEquals(
                 "Cache file has changed its path",
@@ -830,10 +823,10 @@ public class CheckerTest extends AbstractModuleTestSupport {
         final String[] expected = CommonUtil.EMPTY_STRING_ARRAY;
 
         verify(checker, pathToEmptyFile, expected);
-        final Properties cacheAfterFirstRun = new Properties();
-        cacheAfterFirstRun.load(Files.newBufferedReader(cacheFile.toPath()));
+        final Properties cacheAfterFirstRun = TestUtil.loadCacheFile(cacheFile);
 
-        final int expectedNumberOfObjectsInCacheAfterFirstRun = 4;
+        // the local resource file also has its size and modification time in cache
+        final int expectedNumberOfObjectsInCacheAfterFirstRun = 5;
         assertEquals("Number of items in cache differs from expected",
                 expectedNumberOfObjectsInCacheAfterFirstRun, cacheAfterFirstRun.size());
 
@@ -847,8 +840,7 @@ public class CheckerTest extends AbstractModuleTestSupport {
         checker.configure(checkerConfig);
 
         verify(checker, pathToEmptyFile, expected);
-        final Properties cacheAfterSecondRun = new Properties();
-        cacheAfterSecondRun.load(Files.newBufferedReader(cacheFile.toPath()));
+        final Properties cacheAfterSecondRun = TestUtil.loadCacheFile(cacheFile);
 
         assertEquals("Cache file has changed its path",
             cacheAfterFirstRun.getProperty(pathToEmptyFile),
@@ -865,7 +857,7 @@ public class CheckerTest extends AbstractModuleTestSupport {
         );
         assertNotNull("Cache has null as a resource key",
                 cacheAfterFirstRun.getProperty(firstExternalResourceKey));
-        final int expectedNumberOfObjectsInCacheAfterSecondRun = 4;
+        final int expectedNumberOfObjectsInCacheAfterSecondRun = 5;
         assertEquals("Number of items in cache differs from expected",
                 expectedNumberOfObjectsInCacheAfterSecondRun, cacheAfterSecondRun.size());
         assertNull("Cache has not null as a resource key",
@@ -874,6 +866,35 @@ public class CheckerTest extends AbstractModuleTestSupport {
                 cacheAfterSecondRun.getProperty(secondExternalResourceKey));
     }
 
+    @Test
+    public void testAstCacheDirectory() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(HiddenFieldCheck.class));
+        treeWalkerConfig.addChild(createModuleConfig(TodoCommentCheck.class));
+
+        final DefaultConfiguration checkerConfig = createRootConfig(treeWalkerConfig);
+        checkerConfig.addAttribute("charset", StandardCharsets.UTF_8.name());
+        final File cacheDirectory = temporaryFolder.newFolder();
+        checkerConfig.addAttribute("astCacheDirectory", cacheDirectory.getPath());
+
+        final File file = temporaryFolder.newFile("InputCheckerAstCache.java");
+        Files.write(file.toPath(), ("class A {\n    // TODO: fix\n    int a;\n"
+                + "    void m(int a) {}\n}\n").getBytes(StandardCharsets.UTF_8));
+        final String[] expected = {
+            "2: " + getCheckMessage(TodoCommentCheck.class, TodoCommentCheck.MSG_KEY, "TODO:"),
+            "4:16: " + getCheckMessage(HiddenFieldCheck.class, HiddenFieldCheck.MSG_KEY, "a"),
+        };
+
+        verify(checkerConfig, file.getPath(), expected);
+        try (Stream<Path> entries = Files.walk(cacheDirectory.toPath())) {
+            assertEquals("AST should be cached", 1,
+                    entries.filter(Files::isRegularFile).count());
+        }
+
+        // one more time to read the cached AST
+        verify(checkerConfig, file.getPath(), expected);
+    }
+
     @Test
     public void testClearLazyLoadCacheInDetailAST() throws Exception {
         final DefaultConfiguration checkConfig1 =
@@ -911,13 +932,9 @@ public class CheckerTest extends AbstractModuleTestSupport {
 
         verify(checkerConfig, fileViolationPath, expected);
 
-        try (InputStream input = Files.newInputStream(cacheFile.toPath())) {
-            final Properties details = new Properties();
-            details.load(input);
-
-            assertNotNull("suppressed violation file saved in cache",
-                    details.getProperty(fileViolationPath));
-        }
+        final Properties details = TestUtil.loadCacheFile(cacheFile);
+        assertNotNull("suppressed violation file saved in cache",
+                details.getProperty(fileViolationPath));
     }
 
     @Test
@@ -965,8 +982,7 @@ public class CheckerTest extends AbstractModuleTestSupport {
             // destroy is called by Main
             checker.destroy();
 
-            final Properties cache = new Properties();
-            cache.load(Files.newBufferedReader(cacheFile.toPath()));
+            final Properties cache = TestUtil.loadCacheFile(cacheFile);
 
             assertEquals("Cache has unexpected size",
                     1, cache.size());
@@ -1028,8 +1044,7 @@ public class CheckerTest extends AbstractModuleTestSupport {
             // destroy is called by Main
             checker.destroy();
 
-            final Properties cache = new Properties();
-            cache.load(Files.newBufferedReader(cacheFile.toPath()));
+            final Properties cache = TestUtil.loadCacheFile(cacheFile);
 
             assertEquals("Cache has unexpected size",
                     1, cache.size());
@@ -1086,8 +1101,7 @@ public class CheckerTest extends AbstractModuleTestSupport {
             // destroy is called by Main
             checker.destroy();
 
-            final Properties cache = new Properties();
-            cache.load(Files.newBufferedReader(cacheFile.toPath()));
+            final Properties cache = TestUtil.loadCacheFile(cacheFile);
 
             assertEquals("Cache has unexpected size",
                     1, cache.size());
@@ -1177,8 +1191,7 @@ public class CheckerTest extends AbstractModuleTestSupport {
             // destroy is called by Main
             checker.destroy();
 
-            final Properties cache = new Properties();
-            cache.load(Files.newBufferedReader(cacheFile.toPath()));
+            final Properties cache = TestUtil.loadCacheFile(cacheFile);
 
             assertEquals("Cache has unexpected size",
                     1, cache.size());
@@ -1428,6 +1441,30 @@ public class CheckerTest extends AbstractModuleTestSupport {
         checker.destroy();
     }
 
+    @Test
+    public void testMultiThreadModeException() throws Exception {
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(CheckWhichThrowsError.class));
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("root", new ThreadModeSettings(2, 1));
+        checkerConfig.addChild(treeWalkerConfig);
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+
+        final String filePath = getPath("InputChecker.java");
+        try {
+            checker.process(Collections.singletonList(new File(filePath)));
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertEquals("Error message is not expected",
+                    "Exception was thrown while processing " + filePath, ex.getMessage());
+            assertThat("Cause is not expected",
+                    ex.getCause(), instanceOf(IndexOutOfBoundsException.class));
+        }
+    }
+
     private static class DummyFilter implements Filter {
 
         @Override
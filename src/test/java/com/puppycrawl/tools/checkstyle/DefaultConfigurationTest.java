@@ -21,6 +21,7 @@ package com.puppycrawl.tools.checkstyle;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.fail;
 
 import java.util.Map;
@@ -110,4 +111,43 @@ public class DefaultConfigurationTest {
         assertEquals("Invalid thread mode", multiThreadMode, config.getThreadModeSettings());
     }
 
+    @Test
+    public void testFingerprint() {
+        final DefaultConfiguration config = createFingerprintConfig("first", "second");
+        final String fingerprint = config.getFingerprint();
+        assertEquals("Invalid fingerprint length", 40, fingerprint.length());
+        assertEquals("Fingerprint should not depend on the order of attributes",
+                fingerprint, createFingerprintConfig("second", "first").getFingerprint());
+
+        final DefaultConfiguration changedName = new DefaultConfiguration("MyConfig1");
+        assertNotEquals("Fingerprint should depend on the name",
+                new DefaultConfiguration("MyConfig").getFingerprint(),
+                changedName.getFingerprint());
+
+        final DefaultConfiguration changedAttribute = createFingerprintConfig("first", "second");
+        changedAttribute.addAttribute("first", "value");
+        assertNotEquals("Fingerprint should depend on the attributes",
+                fingerprint, changedAttribute.getFingerprint());
+
+        final DefaultConfiguration changedMessage = createFingerprintConfig("first", "second");
+        changedMessage.addMessage("key", "value1");
+        assertNotEquals("Fingerprint should depend on the messages",
+                fingerprint, changedMessage.getFingerprint());
+
+        final DefaultConfiguration changedChild = createFingerprintConfig("first", "second");
+        ((DefaultConfiguration) changedChild.getChildren()[0]).addAttribute("nullValue", null);
+        assertNotEquals("Fingerprint should depend on the children",
+                fingerprint, changedChild.getFingerprint());
+    }
+
+    private static DefaultConfiguration createFingerprintConfig(String... attributes) {
+        final DefaultConfiguration config = new DefaultConfiguration("MyConfig");
+        for (String attribute : attributes) {
+            config.addAttribute(attribute, attribute + "Value");
+        }
+        config.addMessage("key", "value");
+        config.addChild(new DefaultConfiguration("childConfig"));
+        return config;
+    }
+
 }
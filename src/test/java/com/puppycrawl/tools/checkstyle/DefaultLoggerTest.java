@@ -65,6 +65,27 @@ public class DefaultLoggerTest {
             output.contains("java.lang.IllegalStateException: upsss"));
     }
 
+    @Test
+    public void testFlushAfterFile() throws Exception {
+        final ByteArrayOutputStream infoStream = new ByteArrayOutputStream();
+        final DefaultLogger dl = new DefaultLogger(infoStream, OutputStreamOptions.NONE);
+        dl.addException(new AuditEvent(5000, "myfile"), new IllegalStateException("upsss"));
+        dl.fileFinished(new AuditEvent(5000, "myfile"));
+        assertTrue("Output should be flushed after file", infoStream.size() > 0);
+    }
+
+    @Test
+    public void testNoFlushAfterFileWithAsyncListener() throws Exception {
+        final ByteArrayOutputStream infoStream = new ByteArrayOutputStream();
+        final DefaultLogger dl = new DefaultLogger(infoStream, OutputStreamOptions.NONE);
+        assertNotNull("Listener should be created", new AsyncAuditListener(dl));
+        dl.addException(new AuditEvent(5000, "myfile"), new IllegalStateException("upsss"));
+        dl.fileFinished(new AuditEvent(5000, "myfile"));
+        assertEquals("Output should not be flushed after file", 0, infoStream.size());
+        dl.flush();
+        assertTrue("Output should be flushed", infoStream.size() > 0);
+    }
+
     @Test
     public void testCtorWithTwoParameters() {
         final OutputStream infoStream = new ByteArrayOutputStream();
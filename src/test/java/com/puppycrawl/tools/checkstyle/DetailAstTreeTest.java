@@ -0,0 +1,226 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
+
+public class DetailAstTreeTest extends AbstractModuleTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/javaparser";
+    }
+
+    @Test
+    public void testEmptyTree() {
+        assertNull("Copy of empty AST should be null", DetailAstTree.copyOf(null));
+    }
+
+    @Test
+    public void testCopyWithoutComments() throws Exception {
+        final DetailAST ast = JavaParser.parseFile(
+                new File(getPath("InputJavaParserHiddenComments.java")),
+                JavaParser.Options.WITHOUT_COMMENTS);
+        verifyCopy(ast, DetailAstTree.copyOf(ast));
+    }
+
+    @Test
+    public void testCopyWithComments() throws Exception {
+        final DetailAST ast = JavaParser.parseFile(
+                new File(getPath("InputJavaParserHiddenComments.java")),
+                JavaParser.Options.WITH_COMMENTS);
+        verifyCopy(ast, DetailAstTree.copyOf(ast));
+    }
+
+    @Test
+    public void testNodesWithComments() throws Exception {
+        final DetailAST ast = JavaParser.parseFile(
+                new File(getPath("InputJavaParserHiddenComments.java")),
+                JavaParser.Options.WITHOUT_COMMENTS);
+        final List<DetailAST> nodesWithComments = new ArrayList<>();
+        DetailAstTree.copyOf(ast, nodesWithComments);
+
+        final DetailAST expected = JavaParser.appendHiddenCommentNodes(JavaParser.parseFile(
+                new File(getPath("InputJavaParserHiddenComments.java")),
+                JavaParser.Options.WITHOUT_COMMENTS));
+        verifyCopy(expected, JavaParser.appendHiddenCommentNodes(ast, nodesWithComments));
+    }
+
+    @Test
+    public void testNodeIdentity() throws Exception {
+        final DetailAST ast = JavaParser.parseFile(
+                new File(getPath("InputJavaParserHiddenComments.java")),
+                JavaParser.Options.WITHOUT_COMMENTS);
+        final DetailAST copy = DetailAstTree.copyOf(ast);
+        final DetailAST child = copy.getNextSibling().getFirstChild();
+
+        assertSame("Node should be created once", child, child.getNextSibling()
+                .getPreviousSibling());
+        assertSame("Node should be created once", copy.getNextSibling(), child.getParent());
+        assertSame("Invalid last child", child.getParent().getLastChild(),
+                child.getParent().findFirstToken(TokenTypes.OBJBLOCK));
+    }
+
+    @Test
+    public void testBranchContains() throws Exception {
+        final DetailAST copy = DetailAstTree.copyOf(JavaParser.parseFile(
+                new File(getPath("InputJavaParserHiddenComments.java")),
+                JavaParser.Options.WITH_COMMENTS));
+        final DetailAST classDef = copy.getNextSibling();
+
+        assertTrue("Branch should contain comment",
+                classDef.branchContains(TokenTypes.BLOCK_COMMENT_BEGIN));
+        assertTrue("Branch should contain its own type",
+                classDef.branchContains(TokenTypes.CLASS_DEF));
+        assertFalse("Branch should not contain sibling",
+                classDef.getFirstChild().branchContains(TokenTypes.OBJBLOCK));
+        assertFalse("Branch should not contain negative type", classDef.branchContains(-1));
+        assertFalse("Branch should not contain unknown type",
+                classDef.branchContains(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testCopyWithoutCommentNodes() throws Exception {
+        final DetailAST ast = JavaParser.parseFile(
+                new File(getPath("InputJavaParserHiddenComments.java")),
+                JavaParser.Options.WITHOUT_COMMENTS);
+        final DetailAST astWithComments = DetailAstTree.copyOf(JavaParser.parseFile(
+                new File(getPath("InputJavaParserHiddenComments.java")),
+                JavaParser.Options.WITH_COMMENTS));
+        verifyCopy(ast, DetailAstTree.copyWithoutComments(astWithComments));
+    }
+
+    @Test
+    public void testManyBranchTypes() throws Exception {
+        final String[] operators = {"+", "-", "*", "/", "%", "&", "|", "^"};
+        final List<String> lines = new ArrayList<>();
+        lines.add("class InputManyBranchTypes {");
+        for (int index = 0; index < 1 << operators.length; index++) {
+            final StringBuilder expression = new StringBuilder("1");
+            for (int operator = 0; operator < operators.length; operator++) {
+                if ((index & 1 << operator) != 0) {
+                    expression.append(' ').append(operators[operator]).append(" 1");
+                }
+            }
+            lines.add("    int f" + index + " = " + expression + ";");
+        }
+        lines.add("}");
+        final DetailAST ast = JavaParser.parseFileText(
+                new FileText(new File("InputManyBranchTypes.java"), lines),
+                JavaParser.Options.WITHOUT_COMMENTS);
+        verifyCopy(ast, DetailAstTree.copyOf(ast));
+    }
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        final DetailAST ast = JavaParser.parseFile(
+                new File(getPath("InputJavaParserHiddenComments.java")),
+                JavaParser.Options.WITH_COMMENTS);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            DetailAstTree.write(DetailAstTree.copyOf(ast), output);
+        }
+        verifyCopy(ast, DetailAstTree.read(ByteBuffer.wrap(bytes.toByteArray())));
+    }
+
+    @Test
+    public void testReadInvalidParent() throws Exception {
+        final ByteBuffer input = ByteBuffer.allocate(Integer.BYTES * 8);
+        input.putInt(1).putInt(0).putInt(1).putInt(TokenTypes.IDENT).putInt(1).putInt(0)
+                .putInt(0).putInt(0).flip();
+        try {
+            DetailAstTree.read(input);
+            fail("Exception is expected");
+        }
+        catch (IOException ex) {
+            assertEquals("Invalid exception message", "Invalid node 0", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testReadInvalidToken() throws Exception {
+        final ByteBuffer input = ByteBuffer.allocate(Integer.BYTES * 8);
+        input.putInt(1).putInt(0).putInt(1).putInt(-1).putInt(1).putInt(0)
+                .putInt(0).putInt(-1).flip();
+        try {
+            DetailAstTree.read(input);
+            fail("Exception is expected");
+        }
+        catch (IOException ex) {
+            assertEquals("Invalid exception message", "Invalid token of node 0",
+                    ex.getMessage());
+        }
+    }
+
+    private static void verifyCopy(DetailAST expected, DetailAST actual) {
+        DetailAST expectedNode = expected;
+        DetailAST actualNode = actual;
+        while (expectedNode != null) {
+            verifyNode(expectedNode, actualNode);
+            verifyCopy(expectedNode.getFirstChild(), actualNode.getFirstChild());
+            expectedNode = expectedNode.getNextSibling();
+            actualNode = actualNode.getNextSibling();
+        }
+        assertNull("Copy should not have more siblings", actualNode);
+    }
+
+    private static void verifyNode(DetailAST expected, DetailAST actual) {
+        assertEquals("Invalid node", expected.toString(), actual.toString());
+        assertEquals("Invalid type", expected.getType(), actual.getType());
+        assertEquals("Invalid child count", expected.getChildCount(), actual.getChildCount());
+        assertEquals("Invalid number of children",
+                expected.getNumberOfChildren(), actual.getNumberOfChildren());
+        assertEquals("Invalid child count of type", expected.getChildCount(TokenTypes.IDENT),
+                actual.getChildCount(TokenTypes.IDENT));
+        assertEquals("Invalid parent", String.valueOf(expected.getParent()),
+                String.valueOf(actual.getParent()));
+        assertEquals("Invalid previous sibling", String.valueOf(expected.getPreviousSibling()),
+                String.valueOf(actual.getPreviousSibling()));
+        assertEquals("Invalid last child", String.valueOf(expected.getLastChild()),
+                String.valueOf(actual.getLastChild()));
+        assertEquals("Invalid first token", String.valueOf(expected.findFirstToken(
+                TokenTypes.IDENT)), String.valueOf(actual.findFirstToken(TokenTypes.IDENT)));
+        for (int type : TokenUtil.getAllTokenIds()) {
+            assertEquals("Invalid branch content of " + expected, expected.branchContains(type),
+                    actual.branchContains(type));
+        }
+    }
+
+}
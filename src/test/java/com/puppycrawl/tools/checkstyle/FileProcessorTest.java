@@ -0,0 +1,449 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.puppycrawl.tools.checkstyle.api.AbstractFileSetCheck;
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.AuditListener;
+import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.Filter;
+import com.puppycrawl.tools.checkstyle.checks.NewlineAtEndOfFileCheck;
+import com.puppycrawl.tools.checkstyle.checks.coding.HiddenFieldCheck;
+import com.puppycrawl.tools.checkstyle.filefilters.BeforeExecutionExclusionFileFilter;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
+
+/**
+ * Tests of the processing of files by {@link Checker#process} through
+ * {@link FileProcessor} with several threads, streamed files and cached violations.
+ */
+public class FileProcessorTest extends AbstractModuleTestSupport {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/checker";
+    }
+
+    @Test
+    public void testMultiThreadModeNotifiesListenersInFileOrder() throws Exception {
+        final List<File> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            final File file = temporaryFolder.newFile("InputChecker" + i + ".java");
+            Files.write(file.toPath(), ("class InputChecker" + i + " {\n    private int field;\n"
+                    + "    void method(int field) { }\n}").getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+
+        final List<String> singleThreadEvents =
+                processWithRecordingListener(ThreadModeSettings.SINGLE_THREAD_MODE_INSTANCE, files);
+        final List<String> multiThreadEvents =
+                processWithRecordingListener(new ThreadModeSettings(4, 1), files);
+
+        assertEquals("Unexpected number of events", 80, singleThreadEvents.size());
+        assertEquals("Events differ in multi thread mode",
+                singleThreadEvents, multiThreadEvents);
+    }
+
+    @Test
+    public void testMultiThreadModeWithCache() throws Exception {
+        final File cacheFile = temporaryFolder.newFile();
+        final File fileWithViolation = temporaryFolder.newFile("InputCheckerViolation.java");
+        Files.write(fileWithViolation.toPath(),
+                "class A {}".getBytes(StandardCharsets.UTF_8));
+        final File fileWithoutViolation = temporaryFolder.newFile("InputCheckerNoViolation.java");
+        Files.write(fileWithoutViolation.toPath(),
+                "class B {}\n".getBytes(StandardCharsets.UTF_8));
+
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("root", new ThreadModeSettings(2, 1));
+        checkerConfig.addAttribute("cacheFile", cacheFile.getPath());
+        checkerConfig.addChild(createModuleConfig(NewlineAtEndOfFileCheck.class));
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+
+        final int errors = checker.process(Arrays.asList(fileWithViolation, fileWithoutViolation));
+        checker.destroy();
+
+        final Properties cache = TestUtil.loadCacheFile(cacheFile);
+        assertEquals("Unexpected number of errors", 1, errors);
+        assertNull("File with violation is in cache",
+                cache.getProperty(fileWithViolation.getAbsolutePath()));
+        assertNotNull("File without violation is not in cache",
+                cache.getProperty(fileWithoutViolation.getAbsolutePath()));
+    }
+
+    @Test
+    public void testMultiThreadModeExceptionWithCache() throws Exception {
+        final File cacheFile = temporaryFolder.newFile();
+        final File file = temporaryFolder.newFile("InputChecker.java");
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("root", new ThreadModeSettings(2, 1));
+        checkerConfig.addAttribute("cacheFile", cacheFile.getPath());
+        checkerConfig.addChild(createModuleConfig(FailingFileSet.class));
+        FailingFileSet.FAIL.set(false);
+        final Checker checker = createChecker(checkerConfig);
+        checker.process(Collections.singletonList(file));
+        checker.destroy();
+        assertNotNull("File should be in cache",
+                TestUtil.loadCacheFile(cacheFile).getProperty(file.getAbsolutePath()));
+
+        assertTrue("File should be modified",
+                file.setLastModified(file.lastModified() - 10_000));
+        FailingFileSet.FAIL.set(true);
+        final Checker failingChecker = createChecker(checkerConfig);
+        try {
+            failingChecker.process(Collections.singletonList(file));
+            fail("Exception is expected");
+        }
+        catch (CheckstyleException ex) {
+            assertEquals("Error message is not expected",
+                    "Exception was thrown while processing " + file.getPath(), ex.getMessage());
+        }
+        failingChecker.destroy();
+        assertNull("Failed file should be removed from cache",
+                TestUtil.loadCacheFile(cacheFile).getProperty(file.getAbsolutePath()));
+    }
+
+    @Test
+    public void testMultiThreadModeFiltersPerThread() throws Exception {
+        ThreadRecordingFilter.INSTANCES.clear();
+        final List<File> files = new ArrayList<>();
+        for (int index = 0; index < 20; index++) {
+            final File file = temporaryFolder.newFile("InputChecker" + index + ".java");
+            Files.write(file.toPath(), "class A {}".getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("root", new ThreadModeSettings(4, 1));
+        checkerConfig.addChild(createModuleConfig(CountingViolationFileSet.class));
+        checkerConfig.addChild(createModuleConfig(ThreadRecordingFilter.class));
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        checker.addFilter(new ThreadRecordingFilter());
+        final RecordingAuditListener listener = new RecordingAuditListener();
+        checker.addListener(listener);
+
+        checker.process(files);
+
+        assertEquals("All violations should be reported", 60, listener.getEvents().size());
+        final Set<ThreadRecordingFilter> filters = ThreadRecordingFilter.INSTANCES;
+        assertTrue("Filter instances should be created for threads", filters.size() > 2);
+        for (ThreadRecordingFilter filter : filters) {
+            assertFalse("Filter should be called by one thread at a time",
+                    filter.concurrent.get());
+        }
+    }
+
+    @Test
+    public void testCacheViolations() throws Exception {
+        verifyCacheViolations(new ThreadModeSettings(1, 1));
+    }
+
+    @Test
+    public void testMultiThreadModeCacheViolations() throws Exception {
+        verifyCacheViolations(new ThreadModeSettings(2, 1));
+    }
+
+    private void verifyCacheViolations(ThreadModeSettings threadModeSettings)
+            throws Exception {
+        final File cacheFile = temporaryFolder.newFile();
+        final File firstFile = temporaryFolder.newFile("InputCheckerFirst.java");
+        Files.write(firstFile.toPath(), "class A {}\n".getBytes(StandardCharsets.UTF_8));
+        final File secondFile = temporaryFolder.newFile("InputCheckerSecond.java");
+        Files.write(secondFile.toPath(), "class B {}\n".getBytes(StandardCharsets.UTF_8));
+        final List<File> files = Arrays.asList(firstFile, secondFile);
+        CountingViolationFileSet.PROCESSED_FILES.set(0);
+
+        final List<String> expected =
+                processWithCachedViolations(threadModeSettings, cacheFile, files);
+        assertEquals("Unexpected number of processed files",
+                2, CountingViolationFileSet.PROCESSED_FILES.get());
+        assertEquals("Unexpected events", 6, expected.size());
+
+        final List<String> cached =
+                processWithCachedViolations(threadModeSettings, cacheFile, files);
+        assertEquals("Cached files should not be processed",
+                2, CountingViolationFileSet.PROCESSED_FILES.get());
+        assertEquals("Cached violations should be reported", expected, cached);
+
+        Files.write(secondFile.toPath(), "class C {}\n".getBytes(StandardCharsets.UTF_8));
+        processWithCachedViolations(threadModeSettings, cacheFile, files);
+        assertEquals("Changed file should be processed",
+                3, CountingViolationFileSet.PROCESSED_FILES.get());
+    }
+
+    @Test
+    public void testProcessIterator() throws Exception {
+        final File firstFile = temporaryFolder.newFile("InputCheckerFirst.java");
+        final File ignoredFile = temporaryFolder.newFile("InputCheckerIgnored.txt");
+        final File secondFile = temporaryFolder.newFile("InputCheckerSecond.java");
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(new DefaultConfiguration("root"));
+        checker.setFileExtensions("java");
+        final RecordingAuditListener listener = new RecordingAuditListener();
+        checker.addListener(listener);
+        final Iterator<File> files = Arrays.asList(firstFile, ignoredFile, secondFile).iterator();
+        final Iterator<File> recordingFiles = new Iterator<File>() {
+            @Override
+            public boolean hasNext() {
+                return files.hasNext();
+            }
+
+            @Override
+            public File next() {
+                final File file = files.next();
+                listener.events.add("next " + file.getAbsolutePath());
+                return file;
+            }
+        };
+
+        final int errors = checker.process(recordingFiles);
+
+        assertEquals("Unexpected number of errors", 0, errors);
+        final List<String> expected = Arrays.asList(
+                "next " + firstFile.getAbsolutePath(),
+                "fileStarted " + firstFile.getAbsolutePath(),
+                "fileFinished " + firstFile.getAbsolutePath(),
+                "next " + ignoredFile.getAbsolutePath(),
+                "next " + secondFile.getAbsolutePath(),
+                "fileStarted " + secondFile.getAbsolutePath(),
+                "fileFinished " + secondFile.getAbsolutePath());
+        assertEquals("Files should be requested as they are processed",
+                expected, listener.getEvents());
+    }
+
+    @Test
+    public void testProcessIteratorMultiThread() throws Exception {
+        final File firstFile = temporaryFolder.newFile("InputCheckerFirst.java");
+        final File ignoredFile = temporaryFolder.newFile("InputCheckerIgnored.txt");
+        final File secondFile = temporaryFolder.newFile("InputCheckerSecond.java");
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(new DefaultConfiguration("root", new ThreadModeSettings(2, 1)));
+        checker.setFileExtensions("java");
+        final RecordingAuditListener listener = new RecordingAuditListener();
+        checker.addListener(listener);
+
+        checker.process(Arrays.asList(firstFile, ignoredFile, secondFile).iterator());
+
+        final List<String> expected = Arrays.asList(
+                "fileStarted " + firstFile.getAbsolutePath(),
+                "fileFinished " + firstFile.getAbsolutePath(),
+                "fileStarted " + secondFile.getAbsolutePath(),
+                "fileFinished " + secondFile.getAbsolutePath());
+        assertEquals("Unexpected events", expected, listener.getEvents());
+    }
+
+    @Test
+    public void testProcessIteratorMultiThreadFinishesCompletedFiles() throws Exception {
+        final File file = temporaryFolder.newFile("InputCheckerFirst.java");
+        final DefaultConfiguration filterConfig =
+                createModuleConfig(BeforeExecutionExclusionFileFilter.class);
+        filterConfig.addAttribute("fileNamePattern", "Excluded");
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("root", new ThreadModeSettings(2, 1));
+        checkerConfig.addChild(filterConfig);
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        final RecordingAuditListener listener = new RecordingAuditListener();
+        checker.addListener(listener);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        final Iterator<File> files = new Iterator<File>() {
+            private File next = file;
+
+            @Override
+            public boolean hasNext() {
+                return listener.getEvents().isEmpty() && System.nanoTime() < deadline;
+            }
+
+            @Override
+            public File next() {
+                final File result = next;
+                next = temporaryFolder.getRoot().toPath()
+                        .resolve("InputCheckerExcluded.java").toFile();
+                return result;
+            }
+        };
+
+        checker.process(files);
+
+        assertEquals("Unexpected events", Arrays.asList("fileStarted " + file.getAbsolutePath(),
+                "fileFinished " + file.getAbsolutePath()), listener.getEvents());
+        assertTrue("Processed file should be finished before the files are exhausted",
+                System.nanoTime() < deadline);
+    }
+
+    private static List<String> processWithCachedViolations(
+            ThreadModeSettings threadModeSettings, File cacheFile, List<File> files)
+            throws CheckstyleException {
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("root", threadModeSettings);
+        checkerConfig.addAttribute("cacheFile", cacheFile.getPath());
+        checkerConfig.addAttribute("cacheViolations", "true");
+        checkerConfig.addChild(createModuleConfig(CountingViolationFileSet.class));
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        final RecordingAuditListener listener = new RecordingAuditListener();
+        checker.addListener(listener);
+        checker.process(files);
+        checker.destroy();
+        return listener.getEvents();
+    }
+
+    private static List<String> processWithRecordingListener(ThreadModeSettings threadModeSettings,
+            List<File> files) throws CheckstyleException {
+        final DefaultConfiguration treeWalkerConfig = createModuleConfig(TreeWalker.class);
+        treeWalkerConfig.addChild(createModuleConfig(HiddenFieldCheck.class));
+        final DefaultConfiguration checkerConfig =
+                new DefaultConfiguration("root", threadModeSettings);
+        checkerConfig.addChild(treeWalkerConfig);
+        checkerConfig.addChild(createModuleConfig(NewlineAtEndOfFileCheck.class));
+        final Checker checker = new Checker();
+        checker.setModuleClassLoader(Thread.currentThread().getContextClassLoader());
+        checker.configure(checkerConfig);
+        final RecordingAuditListener listener = new RecordingAuditListener();
+        checker.addListener(listener);
+        checker.process(files);
+        checker.destroy();
+        return listener.getEvents();
+    }
+
+    private static class CountingViolationFileSet extends AbstractFileSetCheck {
+
+        private static final AtomicInteger PROCESSED_FILES = new AtomicInteger();
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            PROCESSED_FILES.incrementAndGet();
+            log(1, "violation in {0}", fileText.get(0));
+        }
+
+    }
+
+    private static class FailingFileSet extends AbstractFileSetCheck {
+
+        private static final AtomicBoolean FAIL = new AtomicBoolean();
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            if (FAIL.get()) {
+                throw new IllegalStateException("processing failed");
+            }
+        }
+
+    }
+
+    private static class ThreadRecordingFilter implements Filter {
+
+        private static final Set<ThreadRecordingFilter> INSTANCES =
+                ConcurrentHashMap.newKeySet();
+
+        private final AtomicInteger active = new AtomicInteger();
+
+        private final AtomicBoolean concurrent = new AtomicBoolean();
+
+        @Override
+        public boolean accept(AuditEvent event) {
+            if (active.incrementAndGet() > 1) {
+                concurrent.set(true);
+            }
+            INSTANCES.add(this);
+            Thread.yield();
+            active.decrementAndGet();
+            return true;
+        }
+
+    }
+
+    private static class RecordingAuditListener implements AuditListener {
+
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void auditStarted(AuditEvent event) {
+            // not used
+        }
+
+        @Override
+        public void auditFinished(AuditEvent event) {
+            // not used
+        }
+
+        @Override
+        public void fileStarted(AuditEvent event) {
+            events.add("fileStarted " + event.getFileName());
+        }
+
+        @Override
+        public void fileFinished(AuditEvent event) {
+            events.add("fileFinished " + event.getFileName());
+        }
+
+        @Override
+        public void addError(AuditEvent event) {
+            events.add(event.getFileName() + ":" + event.getLine() + " " + event.getMessage());
+        }
+
+        @Override
+        public void addException(AuditEvent event, Throwable throwable) {
+            // not used
+        }
+
+        public List<String> getEvents() {
+            return Collections.unmodifiableList(events);
+        }
+
+    }
+
+}
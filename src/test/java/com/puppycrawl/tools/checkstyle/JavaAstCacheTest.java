@@ -0,0 +1,191 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileContents;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+
+public class JavaAstCacheTest extends AbstractPathTestSupport {
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/javaparser";
+    }
+
+    @Test
+    public void testCachedAst() throws Exception {
+        final JavaAstCache cache = new JavaAstCache(temporaryFolder.getRoot().toPath());
+        final FileText text = new FileText(
+                new File(getPath("InputJavaParserHiddenComments.java")),
+                StandardCharsets.UTF_8.name());
+        final JavaParseResult parsed = new JavaParseResult(text, cache);
+        final String expected = toString(parsed.getAstWithComments());
+        assertNotNull("Entry should be written",
+                cache.get(JavaAstCache.getKey(text), new FileContents(text)));
+
+        final JavaParseResult cached = new JavaParseResult(text, cache);
+        assertEquals("Invalid cached AST", expected, toString(cached.getAstWithComments()));
+        assertEquals("Invalid AST without comments", toString(parsed.getAst()),
+                toString(cached.getAst()));
+        verifyComments(parsed.getContents(), cached.getContents());
+    }
+
+    @Test
+    public void testParseFileText() throws Exception {
+        final JavaAstCache cache = new JavaAstCache(temporaryFolder.getRoot().toPath());
+        final FileText text = new FileText(
+                new File(getPath("InputJavaParserHiddenComments.java")),
+                StandardCharsets.UTF_8.name());
+        final DetailAST ast = JavaParser.parseFileText(text, JavaParser.Options.WITH_COMMENTS);
+        assertEquals("Invalid AST with comments", toString(ast), toString(
+                JavaParser.parseFileText(text, JavaParser.Options.WITH_COMMENTS, cache)));
+        assertEquals("Invalid cached AST without comments",
+                toString(JavaParser.parseFileText(text, JavaParser.Options.WITHOUT_COMMENTS)),
+                toString(JavaParser.parseFileText(text, JavaParser.Options.WITHOUT_COMMENTS,
+                        cache)));
+    }
+
+    @Test
+    public void testBrokenEntry() throws Exception {
+        final JavaAstCache cache = new JavaAstCache(temporaryFolder.getRoot().toPath());
+        final FileText text = new FileText(
+                new File(getPath("InputJavaParserHiddenComments.java")),
+                StandardCharsets.UTF_8.name());
+        final String expected = toString(new JavaParseResult(text, cache).getAstWithComments());
+        final Path entry = findEntry();
+        final byte[] bytes = Files.readAllBytes(entry);
+        Files.write(entry, new byte[] {bytes[0], bytes[1]});
+
+        final FileContents contents = new FileContents(text);
+        assertNull("Broken entry should be missing",
+                cache.get(JavaAstCache.getKey(text), contents));
+        assertEquals("Comments of broken entry should not be reported",
+                Collections.emptyMap(), contents.getSingleLineComments());
+        assertEquals("Broken entry should be replaced", expected,
+                toString(new JavaParseResult(text, cache).getAstWithComments()));
+        assertEquals("Invalid size of replaced entry", bytes.length, Files.size(entry));
+    }
+
+    @Test
+    public void testCorruptedEntry() throws Exception {
+        final JavaAstCache cache = new JavaAstCache(temporaryFolder.getRoot().toPath());
+        final FileText text = new FileText(
+                new File(getPath("InputJavaParserHiddenComments.java")),
+                StandardCharsets.UTF_8.name());
+        final String expected = toString(new JavaParseResult(text, cache).getAstWithComments());
+        final Path entry = findEntry();
+        final byte[] bytes = Files.readAllBytes(entry);
+        // the last node is written as type, line, column, text and parent
+        final int lastNode = bytes.length - Integer.BYTES * 5;
+        final int[][] corruptions = {
+            {lastNode, -5},
+            {lastNode, Integer.MAX_VALUE},
+            {lastNode + Integer.BYTES, -7},
+            {lastNode + Integer.BYTES * 2, Integer.MIN_VALUE},
+        };
+        for (int[] corruption : corruptions) {
+            final byte[] corrupted = bytes.clone();
+            ByteBuffer.wrap(corrupted).putInt(corruption[0], corruption[1]);
+            Files.write(entry, corrupted);
+
+            final FileContents contents = new FileContents(text);
+            assertNull("Corrupted entry should be missing",
+                    cache.get(JavaAstCache.getKey(text), contents));
+            assertEquals("Comments of corrupted entry should not be reported",
+                    Collections.emptyMap(), contents.getSingleLineComments());
+            assertEquals("Corrupted entry should be replaced", expected,
+                    toString(new JavaParseResult(text, cache).getAstWithComments()));
+        }
+    }
+
+    @Test
+    public void testUnwritableCache() throws Exception {
+        final JavaAstCache cache = new JavaAstCache(temporaryFolder.getRoot().toPath());
+        final File version = temporaryFolder.getRoot().listFiles()[0];
+        assertTrue("Directory should be deleted", version.delete());
+        assertTrue("File should be created", version.createNewFile());
+        final FileText text = new FileText(
+                new File(getPath("InputJavaParserHiddenComments.java")),
+                StandardCharsets.UTF_8.name());
+
+        final JavaParseResult parsed = new JavaParseResult(text, cache);
+        assertEquals("AST should be parsed without cache",
+                toString(new JavaParseResult(text).getAstWithComments()),
+                toString(parsed.getAstWithComments()));
+    }
+
+    @Test
+    public void testEmptyFile() throws Exception {
+        final JavaAstCache cache = new JavaAstCache(temporaryFolder.getRoot().toPath());
+        final FileText text = new FileText(new File("Empty.java"), Collections.emptyList());
+
+        assertNull("Empty file should have no AST",
+                new JavaParseResult(text, cache).getAstWithComments());
+        assertNull("Empty file should not be cached",
+                cache.get(JavaAstCache.getKey(text), new FileContents(text)));
+    }
+
+    private Path findEntry() throws IOException {
+        final File[] versions = temporaryFolder.getRoot().listFiles();
+        assertEquals("Invalid number of grammar versions", 1, versions.length);
+        final File[] entries = versions[0].listFiles();
+        assertEquals("Invalid number of entries", 1, entries.length);
+        return entries[0].toPath();
+    }
+
+    private static void verifyComments(FileContents expected, FileContents actual) {
+        assertEquals("Invalid single line comments",
+                expected.getSingleLineComments().toString(),
+                actual.getSingleLineComments().toString());
+        assertEquals("Invalid block comments", expected.getBlockComments().toString(),
+                actual.getBlockComments().toString());
+    }
+
+    private static String toString(DetailAST root) {
+        final StringBuilder result = new StringBuilder();
+        for (DetailAST node = root; node != null; node = node.getNextSibling()) {
+            result.append(node).append(node.getParent()).append('(')
+                    .append(toString(node.getFirstChild())).append(')');
+        }
+        return result.toString();
+    }
+
+}
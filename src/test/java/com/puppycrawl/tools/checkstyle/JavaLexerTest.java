@@ -0,0 +1,176 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import antlr.RecognitionException;
+import antlr.Token;
+import antlr.TokenStream;
+import antlr.TokenStreamException;
+import antlr.TokenStreamRecognitionException;
+import com.puppycrawl.tools.checkstyle.grammar.CommentListener;
+import com.puppycrawl.tools.checkstyle.grammar.GeneratedJavaLexer;
+
+public class JavaLexerTest extends AbstractPathTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/grammar";
+    }
+
+    @Test
+    public void testSameTokensAsGeneratedLexer() throws Exception {
+        final List<Path> files;
+        try (Stream<Path> paths = Files.walk(new File(getPath("")).toPath())) {
+            files = paths.filter(path -> path.toString().endsWith(".java"))
+                    .collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            final String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            verifyTokens(file.toString(), text);
+        }
+    }
+
+    @Test
+    public void testNumbers() throws Exception {
+        final String[] texts = {
+            "0 00 07 0_7 08 0_ 09.5 1 1_000 1__0 1_ 123L 0x1F 0X1f_F 0x 0x_1 0b101 0B1_0 0b2",
+            "0xFFl 1.0 1. .5 1.e5 1.0e 1e5 1e-5 1E+5f 1f 1F 1d 1.5D .5e1d 1_0.0_1 1_.0 1._0",
+            "0x1p1 0x1.p-1 0X.8P+2d 0x1.8p1f 0x1p 0x1.8 0x1d 0x.p1 ... .. . .a a.b 1..2 1.f.d",
+            "1e 1ef 1.0e+ 0x1p1_0 0x1P1__1 0x1_p1 5.d 09 08.0 0_8 0x1.1_1p0",
+        };
+        for (String text : texts) {
+            verifyTokens(text, text);
+        }
+    }
+
+    @Test
+    public void testLiterals() throws Exception {
+        final String[] texts = {
+            "'a' '\\n' '\\'' '\\\\' '\\u0041' '\\uuu0041' '\\0' '\\7' '\\377' '\\48' '\\u005c\\'",
+            "\"\" \"a\\tb\" \"\\u005c\\u0041\" \"\\u005Cn\" \"\\123\\4\\56\" \"line\nbreak\" x",
+            "'\\u00' '\\q' 'ab' '' \"\\u005cq\"",
+            "\"unclosed",
+            "'",
+            "\"\\12",
+            "'ab'",
+            "'a",
+        };
+        for (String text : texts) {
+            verifyTokens(text, text);
+        }
+    }
+
+    @Test
+    public void testIdentifiersAndOperators() throws Exception {
+        final String[] texts = {
+            "class assert enum _ $ a1 null true instanceof Class",
+            "\u00e9" + "t" + "\u00e9", "x" + "\u0000" + "y", "a" + "\u00a0",
+            "a " + "\uffff" + " b",
+            ">>>= >>= >>> >> >= > <<= << <= < :: : -> -- -= - ++ += + == = != ! ~ ? @ ;",
+            "a#b", "#", "a\\b", "\\", "`",
+        };
+        for (String text : texts) {
+            verifyTokens(text, text);
+        }
+    }
+
+    @Test
+    public void testCommentsAndLineBreaks() throws Exception {
+        final String[] texts = {
+            "a // Comment\nb /* block */ c /** Javadoc\r\n * Text\r */ d",
+            "a\r\nb\rc\nd\r\re\n\nf\t\fg",
+            "//", "// End", "//\r", "/**/", "/***/", "/*/ */", "/* * / */", "a /* x \r\n\r\n */",
+            "a /* b", "/* *", "/* **", "/*\r\n", "/*\r\n*", "/*\r", "/*\n",
+        };
+        for (String text : texts) {
+            verifyTokens(text, text);
+        }
+    }
+
+    private static void verifyTokens(String name, String text) throws Exception {
+        final List<String> expected = new ArrayList<>();
+        final GeneratedJavaLexer generatedLexer = new GeneratedJavaLexer(new StringReader(text));
+        generatedLexer.setCommentListener(new Recorder(expected));
+        generatedLexer.setTokenObjectClass("antlr.CommonHiddenStreamToken");
+        expected.addAll(getTokens(generatedLexer));
+
+        final List<String> actual = new ArrayList<>();
+        actual.addAll(getTokens(new JavaLexer(text, new Recorder(actual))));
+
+        assertEquals("Invalid tokens of " + name, expected, actual);
+    }
+
+    private static List<String> getTokens(TokenStream lexer) throws Exception {
+        final List<String> tokens = new ArrayList<>();
+        try {
+            Token token;
+            do {
+                token = lexer.nextToken();
+                tokens.add(token.getType() + "|" + token.getText() + "|"
+                        + token.getLine() + ":" + token.getColumn());
+            } while (token.getType() != Token.EOF_TYPE);
+        }
+        catch (TokenStreamRecognitionException ex) {
+            final RecognitionException cause = ex.recog;
+            tokens.add(cause.getClass().getSimpleName() + ": " + cause);
+        }
+        catch (TokenStreamException ex) {
+            tokens.add(ex.toString());
+        }
+        return tokens;
+    }
+
+    private static final class Recorder implements CommentListener {
+
+        private final List<String> events;
+
+        /* package */ Recorder(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void reportSingleLineComment(String type, int startLineNo, int startColNo) {
+            events.add(type + " " + startLineNo + ":" + startColNo);
+        }
+
+        @Override
+        public void reportBlockComment(String type, int startLineNo, int startColNo,
+                int endLineNo, int endColNo) {
+            events.add(type + " " + startLineNo + ":" + startColNo
+                    + "-" + endLineNo + ":" + endColNo);
+        }
+
+    }
+
+}
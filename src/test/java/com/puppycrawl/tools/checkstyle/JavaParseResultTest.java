@@ -0,0 +1,112 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
+
+public class JavaParseResultTest extends AbstractPathTestSupport {
+
+    @Override
+    protected String getPackageLocation() {
+        return "com/puppycrawl/tools/checkstyle/javaparser";
+    }
+
+    @Test
+    public void testAstWithoutCommentsOnly() throws Exception {
+        final FileText text = getFileText();
+        final JavaParseResult result = new JavaParseResult(text, null, true, false);
+
+        assertEquals("Invalid AST", toString(JavaParser.parseFileText(text,
+                JavaParser.Options.WITHOUT_COMMENTS)), toString(result.getAst()));
+        assertNull("Parsed AST should be released", getParsedAst(result));
+        try {
+            result.getAstWithComments();
+            fail("Exception is expected");
+        }
+        catch (IllegalStateException ex) {
+            assertEquals("Invalid exception message",
+                    "AST with comment nodes is not required", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testAstWithCommentsOnly() throws Exception {
+        final FileText text = getFileText();
+        final JavaParseResult result = new JavaParseResult(text, null, false, true);
+
+        assertEquals("Invalid AST with comments", toString(JavaParser.parseFileText(text,
+                JavaParser.Options.WITH_COMMENTS)), toString(result.getAstWithComments()));
+        assertNull("Parsed AST should be released", getParsedAst(result));
+        assertNull("AST without comments should not be copied",
+                TestUtil.getClassDeclaredField(JavaParseResult.class, "ast").get(result));
+        try {
+            result.getAst();
+            fail("Exception is expected");
+        }
+        catch (IllegalStateException ex) {
+            assertEquals("Invalid exception message",
+                    "AST without comment nodes is not required", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testBothAsts() throws Exception {
+        final FileText text = getFileText();
+        final JavaParseResult result = new JavaParseResult(text);
+
+        assertEquals("Invalid AST", toString(JavaParser.parseFileText(text,
+                JavaParser.Options.WITHOUT_COMMENTS)), toString(result.getAst()));
+        assertEquals("Invalid AST with comments", toString(JavaParser.parseFileText(text,
+                JavaParser.Options.WITH_COMMENTS)), toString(result.getAstWithComments()));
+        assertNull("Parsed AST should be released", getParsedAst(result));
+    }
+
+    private FileText getFileText() throws Exception {
+        return new FileText(new File(getPath("InputJavaParserHiddenComments.java")),
+                StandardCharsets.UTF_8.name());
+    }
+
+    private static Object getParsedAst(JavaParseResult result) throws Exception {
+        final Field field = TestUtil.getClassDeclaredField(JavaParseResult.class, "parsedAST");
+        return field.get(result);
+    }
+
+    private static String toString(DetailAST root) {
+        final StringBuilder result = new StringBuilder();
+        for (DetailAST node = root; node != null; node = node.getNextSibling()) {
+            result.append(node).append(node.getParent()).append('(')
+                    .append(toString(node.getFirstChild())).append(')');
+        }
+        return result.toString();
+    }
+
+}
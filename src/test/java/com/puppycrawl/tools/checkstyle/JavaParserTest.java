@@ -166,6 +166,26 @@ public class JavaParserTest extends AbstractModuleTestSupport {
         }
     }
 
+    @Test
+    public void testAppendHiddenCommentNodesOfCollectedNodes() throws Exception {
+        for (String fileName : Arrays.asList("InputJavaParserHiddenComments.java",
+                "InputJavaParserHiddenComments2.java", "InputJavaParserHiddenComments3.java")) {
+            final File file = new File(getPath(fileName));
+            final DetailAST expected = JavaParser.parseFile(file,
+                    JavaParser.Options.WITH_COMMENTS);
+
+            final DetailAST root = JavaParser.parseFile(file,
+                    JavaParser.Options.WITHOUT_COMMENTS);
+            final List<DetailAST> nodesWithComments = new ArrayList<>();
+            collectNodesWithComments(root, nodesWithComments);
+            final DetailAST actual =
+                    JavaParser.appendHiddenCommentNodes(root, nodesWithComments);
+
+            assertEquals("Invalid tree with comments of " + fileName,
+                    treeToString(expected), treeToString(actual));
+        }
+    }
+
     @Test
     public void testComments() throws Exception {
         final DetailAST root =
@@ -181,6 +201,26 @@ public class JavaParserTest extends AbstractModuleTestSupport {
                 counter.blockComments.toArray());
     }
 
+    private static void collectNodesWithComments(DetailAST root, List<DetailAST> result) {
+        for (DetailAST ast = root; ast != null; ast = ast.getNextSibling()) {
+            if (JavaParser.hasHiddenCommentsBefore(ast)) {
+                result.add(ast);
+            }
+            collectNodesWithComments(ast.getFirstChild(), result);
+        }
+    }
+
+    private static String treeToString(DetailAST root) {
+        final StringBuilder result = new StringBuilder(1024);
+        for (DetailAST ast = root; ast != null; ast = ast.getNextSibling()) {
+            result.append(ast.getType()).append(' ').append(ast.getText())
+                    .append(" [").append(ast.getLineNo()).append(':')
+                    .append(ast.getColumnNo()).append("] (")
+                    .append(treeToString(ast.getFirstChild())).append(')');
+        }
+        return result.toString();
+    }
+
     private static final class CountComments {
         private final List<String> lineComments = new ArrayList<>();
         private final List<String> blockComments = new ArrayList<>();
@@ -53,4 +53,19 @@ public class JavadocDetailNodeParserTest extends AbstractModuleTestSupport {
         assertEquals("Invalid parse result", expected, actual);
     }
 
+    @Test
+    public void testParseJavadocAsDetailNodeWithTwoStagePrediction() throws Exception {
+        final DetailAST ast = JavaParser.parseFile(
+            new File(getPath("InputJavadocDetailNodeParser.java")),
+            JavaParser.Options.WITH_COMMENTS)
+                .getNextSibling().getFirstChild().getFirstChild();
+        final JavadocDetailNodeParser parser = new JavadocDetailNodeParser();
+        final String expected = toLfLineEnding(DetailNodeTreeStringPrinter.printTree(
+                parser.parseJavadocAsDetailNode(ast).getTree(), "", ""));
+        parser.setTwoStagePrediction(true);
+        final String actual = toLfLineEnding(DetailNodeTreeStringPrinter.printTree(
+                parser.parseJavadocAsDetailNode(ast).getTree(), "", ""));
+        assertEquals("Parse result should not depend on prediction mode", expected, actual);
+    }
+
 }
@@ -0,0 +1,77 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.junit.Test;
+
+import com.puppycrawl.tools.checkstyle.api.DetailNode;
+import com.puppycrawl.tools.checkstyle.api.JavadocTokenTypes;
+
+public class JavadocNodeTreeTest {
+
+    @Test
+    public void testStructure() {
+        final JavadocNodeTree tree = new JavadocNodeTree(CharStreams.fromString("ab"));
+        final int root = tree.addNode(JavadocTokenTypes.JAVADOC, 1, 0, -1);
+        final int text = tree.addNode(JavadocTokenTypes.TEXT, 1, 0, root);
+        tree.setText(text, 0, 1);
+        final int eof = tree.addNode(JavadocTokenTypes.EOF, 1, 2, root);
+        tree.shiftColumnNumber(eof, 3);
+
+        assertEquals("Invalid size", 3, tree.size());
+        final DetailNode rootNode = tree.getRoot();
+        assertNull("Root should not have parent", rootNode.getParent());
+        assertEquals("Invalid root index", -1, rootNode.getIndex());
+        assertEquals("Invalid root text", "JAVADOC", rootNode.getText());
+
+        final DetailNode[] children = rootNode.getChildren();
+        assertEquals("Invalid number of children", 2, children.length);
+        assertSame("Nodes should be created once", children[0], rootNode.getChildren()[0]);
+        assertSame("Invalid parent", rootNode, children[1].getParent());
+        assertEquals("Invalid index", 1, children[1].getIndex());
+        assertEquals("Invalid text", "ab", children[0].getText());
+        assertEquals("Invalid EOF text", "<EOF>", children[1].getText());
+        assertEquals("Invalid line number", 1, children[1].getLineNumber());
+        assertEquals("Invalid column number", 5, children[1].getColumnNumber());
+        assertEquals("Leaf should not have children", 0, children[0].getChildren().length);
+    }
+
+    @Test
+    public void testGrowth() {
+        final JavadocNodeTree tree = new JavadocNodeTree(CharStreams.fromString(""));
+        final int root = tree.addNode(JavadocTokenTypes.JAVADOC, 1, 0, -1);
+        final int count = 100;
+        for (int i = 0; i < count; i++) {
+            tree.addNode(JavadocTokenTypes.NEWLINE, i + 1, 0, root);
+        }
+
+        final DetailNode[] children = tree.getRoot().getChildren();
+        assertEquals("Invalid number of children", count, children.length);
+        assertEquals("Invalid line number of last child",
+                count, children[count - 1].getLineNumber());
+        assertEquals("Invalid index of last child", count - 1, children[count - 1].getIndex());
+    }
+
+}
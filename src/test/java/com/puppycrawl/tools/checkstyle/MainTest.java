@@ -40,6 +40,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.logging.Handler;
@@ -764,6 +765,23 @@ public class MainTest {
         assertEquals("Invalid result size", 0, result.size());
     }
 
+    @Test
+    public void testListFilesDirectory() throws Exception {
+        final File directory = temporaryFolder.newFolder();
+        final File file = new File(directory, "First.java");
+        assertTrue("File should be created", file.createNewFile());
+        final List<Pattern> patternsToExclude = new ArrayList<>();
+
+        final List<File> result = Whitebox.invokeMethod(Main.class, "listFiles",
+                directory, patternsToExclude);
+        assertEquals("Invalid entries", Collections.singletonList(file), result);
+
+        patternsToExclude.add(Pattern.compile(directory.getName() + "$"));
+        final List<File> excluded = Whitebox.invokeMethod(Main.class, "listFiles",
+                directory, patternsToExclude);
+        assertEquals("Excluded directory should not be listed", 0, excluded.size());
+    }
+
     @Test
     public void testFileReferenceDuringException() throws Exception {
         exit.expectSystemExitWithStatus(-2);
@@ -1665,7 +1683,7 @@ public class MainTest {
         }
         catch (IllegalArgumentException ex) {
             assertEquals("Invalid error message",
-                    "Multi thread mode for Checker module is not implemented",
+                    "Multi thread mode for TreeWalker module is not implemented",
                 ex.getMessage());
         }
     }
@@ -19,22 +19,28 @@
 
 package com.puppycrawl.tools.checkstyle;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Properties;
@@ -47,10 +53,15 @@ import org.junit.rules.TemporaryFolder;
 import com.google.common.io.BaseEncoding;
 import com.google.common.io.ByteStreams;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
+import com.puppycrawl.tools.checkstyle.api.FileText;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
 
 public class PropertyCacheFileTest extends AbstractPathTestSupport {
 
+    private static final ClassLoader CLASS_LOADER = PropertyCacheFileTest.class.getClassLoader();
+
     @Rule
     public final TemporaryFolder temporaryFolder = new TemporaryFolder();
 
@@ -94,6 +105,218 @@ public class PropertyCacheFileTest extends AbstractPathTestSupport {
                 cache.isInCache("myFile1", 1));
     }
 
+    @Test
+    public void testViolationsInCache() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = temporaryFolder.newFile().getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        final LocalizedMessage message = new LocalizedMessage(1, 2, "bundle", "key",
+                new Object[] {"arg", 1}, null, getClass(), null);
+        cache.put("myFile", "HASH", Collections.singletonList(message));
+        cache.put("myFile1", "HASH", Collections.emptyList());
+        assertEquals("Invalid cached violations", Collections.singletonList(message),
+                cache.getViolations("myFile", "HASH", CLASS_LOADER));
+        assertEquals("Invalid cached violations", Collections.emptyList(),
+                cache.getViolations("myFile1", "HASH", CLASS_LOADER));
+        assertNull("Should return null when content hash is different",
+                cache.getViolations("myFile", "HASH1", CLASS_LOADER));
+        assertNull("Should return null when content hash is different",
+                cache.getViolations("myFile1", "HAS", CLASS_LOADER));
+        assertNull("Should return null when file is not in cache",
+                cache.getViolations("myFile2", "HASH", CLASS_LOADER));
+    }
+
+    @Test
+    public void testViolationsInCacheAfterPersist() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = temporaryFolder.newFile().getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        cache.load();
+        final LocalizedMessage message = new LocalizedMessage(1, 2, "bundle", "key",
+                null, null, getClass(), null);
+        cache.put("myFile", "HASH", Collections.singletonList(message));
+        cache.persist();
+
+        final PropertyCacheFile loadedCache = new PropertyCacheFile(config, filePath);
+        loadedCache.load();
+        assertEquals("Invalid cached violations", Collections.singletonList(message),
+                loadedCache.getViolations("myFile", "HASH", CLASS_LOADER));
+    }
+
+    @Test
+    public void testNotSerializableViolations() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = temporaryFolder.newFile().getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        final LocalizedMessage message = new LocalizedMessage(1, 2, "bundle", "key",
+                new Object[] {new Object()}, null, getClass(), null);
+        cache.put("myFile", "HASH", Collections.emptyList());
+        cache.put("myFile", "HASH", Collections.singletonList(message));
+        assertNull("File should be removed when violations are not serializable",
+                cache.get("myFile"));
+    }
+
+    @Test
+    public void testBrokenViolations() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = temporaryFolder.newFile().getPath();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        cache.put("myFile1", "HASH:", Collections.emptyList());
+        cache.put("myFile2", "HASH_", Collections.emptyList());
+        assertNull("Should return null when violations cannot be restored",
+                cache.getViolations("myFile1", "HASH", CLASS_LOADER));
+        assertNull("Should return null when hash is different",
+                cache.getViolations("myFile2", "HASH", CLASS_LOADER));
+    }
+
+    @Test
+    public void testPersistAppendsChanges() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final File cacheFile = temporaryFolder.newFile();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
+        cache.load();
+        cache.put("myFile", 1);
+        cache.put("myFile1", 1);
+        cache.put("myFile2", 1);
+        cache.persist();
+        final byte[] persisted = Files.readAllBytes(cacheFile.toPath());
+
+        final PropertyCacheFile loadedCache =
+                new PropertyCacheFile(config, cacheFile.getPath());
+        loadedCache.load();
+        loadedCache.put("myFile", 1);
+        loadedCache.persist();
+        assertArrayEquals("Unchanged cache should not be written", persisted,
+                Files.readAllBytes(cacheFile.toPath()));
+
+        loadedCache.put("myFile", 2);
+        loadedCache.remove("myFile1");
+        loadedCache.remove("myFile3");
+        loadedCache.persist();
+        final byte[] appended = Files.readAllBytes(cacheFile.toPath());
+        assertArrayEquals("Changes should be appended", persisted,
+                Arrays.copyOf(appended, persisted.length));
+
+        final PropertyCacheFile reloadedCache =
+                new PropertyCacheFile(config, cacheFile.getPath());
+        reloadedCache.load();
+        assertTrue("Should return true when file is in cache",
+                reloadedCache.isInCache("myFile", 2));
+        assertNull("Removed file should not be in cache", reloadedCache.get("myFile1"));
+        assertTrue("Should return true when file is in cache",
+                reloadedCache.isInCache("myFile2", 1));
+    }
+
+    @Test
+    public void testPersistCompactsFile() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final File cacheFile = temporaryFolder.newFile();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
+        cache.load();
+        cache.put("myFile", 1);
+        cache.persist();
+        final long initialSize = Files.size(cacheFile.toPath());
+
+        for (int timestamp = 2; timestamp < 10; timestamp++) {
+            cache.put("myFile", timestamp);
+            cache.persist();
+        }
+        assertTrue("Cache file should be compacted",
+                Files.size(cacheFile.toPath()) <= initialSize * 2);
+
+        final PropertyCacheFile loadedCache =
+                new PropertyCacheFile(config, cacheFile.getPath());
+        loadedCache.load();
+        assertTrue("Should return true when file is in cache",
+                loadedCache.isInCache("myFile", 9));
+    }
+
+    @Test
+    public void testPersistRewritesChangedFile() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final File cacheFile = temporaryFolder.newFile();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
+        cache.load();
+        cache.put("myFile", 1);
+        cache.persist();
+        Files.write(cacheFile.toPath(), new byte[] {1}, StandardOpenOption.APPEND);
+        cache.put("myFile1", 1);
+        cache.persist();
+
+        final PropertyCacheFile loadedCache =
+                new PropertyCacheFile(config, cacheFile.getPath());
+        loadedCache.load();
+        assertTrue("Should return true when file is in cache",
+                loadedCache.isInCache("myFile", 1));
+        assertTrue("Should return true when file is in cache",
+                loadedCache.isInCache("myFile1", 1));
+    }
+
+    @Test
+    public void testLoadBrokenFile() throws IOException {
+        final Configuration config = new DefaultConfiguration("myName");
+        final File cacheFile = temporaryFolder.newFile();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
+        cache.load();
+        cache.put("myFile", 1);
+        cache.persist();
+
+        final byte[] content = Files.readAllBytes(cacheFile.toPath());
+        for (byte[] brokenContent : new byte[][] {
+            Arrays.copyOf(content, content.length - 1),
+            Arrays.copyOf(content, content.length + 1),
+        }) {
+            Files.write(cacheFile.toPath(), brokenContent);
+            final PropertyCacheFile loadedCache =
+                    new PropertyCacheFile(config, cacheFile.getPath());
+            loadedCache.load();
+            assertFalse("Broken cache file should be discarded",
+                    loadedCache.isInCache("myFile", 1));
+            assertNotNull("Config hash key should not be null",
+                    loadedCache.get(PropertyCacheFile.CONFIG_HASH_KEY));
+        }
+    }
+
+    @Test
+    public void testLoadLegacyFormat() throws Exception {
+        final Configuration config = new DefaultConfiguration("myName");
+        final File cacheFile = temporaryFolder.newFile();
+        final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
+        cache.load();
+        final Properties legacy = new Properties();
+        legacy.setProperty(PropertyCacheFile.CONFIG_HASH_KEY,
+                cache.get(PropertyCacheFile.CONFIG_HASH_KEY));
+        legacy.setProperty("myFile", "1");
+        try (OutputStream out = Files.newOutputStream(cacheFile.toPath())) {
+            legacy.store(out, null);
+        }
+
+        final PropertyCacheFile loadedCache =
+                new PropertyCacheFile(config, cacheFile.getPath());
+        loadedCache.load();
+        assertTrue("Should return true when file is in cache",
+                loadedCache.isInCache("myFile", 1));
+        loadedCache.persist();
+        assertEquals("Cache should be converted to binary format",
+                legacy, TestUtil.loadCacheFile(cacheFile));
+        assertFalse("Cache should be converted to binary format",
+                new String(Files.readAllBytes(cacheFile.toPath()), StandardCharsets.UTF_8)
+                        .contains("myFile="));
+    }
+
+    @Test
+    public void testContentHash() throws IOException {
+        final String charset = StandardCharsets.UTF_8.name();
+        final File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), "content".getBytes(StandardCharsets.UTF_8));
+        final String hash = PropertyCacheFile.getContentHash(new FileText(file, charset));
+        assertEquals("Content hash should be the same for the same content",
+                hash, PropertyCacheFile.getContentHash(new FileText(file, charset)));
+        Files.write(file.toPath(), "content1".getBytes(StandardCharsets.UTF_8));
+        assertNotEquals("Content hash should differ for a different content",
+                hash, PropertyCacheFile.getContentHash(new FileText(file, charset)));
+    }
+
     @Test
     public void testResetIfFileDoesNotExist() throws IOException {
         final Configuration config = new DefaultConfiguration("myName");
@@ -209,17 +432,45 @@ public class PropertyCacheFileTest extends AbstractPathTestSupport {
         final URI uri = CommonUtil.getUriByFilename(pathToResource);
         final byte[] input =
                 ByteStreams.toByteArray(new BufferedInputStream(uri.toURL().openStream()));
-        final ByteArrayOutputStream out = new ByteArrayOutputStream();
-        try (ObjectOutputStream oos = new ObjectOutputStream(out)) {
-            oos.writeObject(input);
-        }
-        digest.update(out.toByteArray());
+        digest.update(input);
         final String expected = BaseEncoding.base16().upperCase().encode(digest.digest());
 
         assertEquals("Hashes are not equal", expected,
                 cache.get("module-resource*?:" + pathToResource));
     }
 
+    @Test
+    public void testExternalResourceIsNotReadWhenFileIsNotModified() throws Exception {
+        final Configuration config = new DefaultConfiguration("myName");
+        final String filePath = temporaryFolder.newFile().getPath();
+        final File resource = temporaryFolder.newFile();
+        Files.write(resource.toPath(), "first".getBytes(StandardCharsets.UTF_8));
+        final FileTime lastModifiedTime = Files.getLastModifiedTime(resource.toPath());
+        final Set<String> resources = Collections.singleton(resource.getPath());
+        final String resourceKey = PropertyCacheFile.EXTERNAL_RESOURCE_KEY_PREFIX
+                + resource.getPath();
+
+        final PropertyCacheFile cache = new PropertyCacheFile(config, filePath);
+        cache.load();
+        cache.putExternalResources(resources);
+        final String hash = cache.get(resourceKey);
+        cache.put("myFile", 1);
+
+        // same size and modification time, the content is not read again
+        Files.write(resource.toPath(), "other".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(resource.toPath(), lastModifiedTime);
+        cache.putExternalResources(resources);
+        assertEquals("Resource hash should be reused", hash, cache.get(resourceKey));
+        assertTrue("Cache should not be reset", cache.isInCache("myFile", 1));
+
+        Files.setLastModifiedTime(resource.toPath(),
+                FileTime.fromMillis(lastModifiedTime.toMillis() + 1000));
+        cache.putExternalResources(resources);
+        assertNotEquals("Resource hash should be calculated again",
+                hash, cache.get(resourceKey));
+        assertFalse("Cache should be reset", cache.isInCache("myFile", 1));
+    }
+
     @Test
     public void testCacheDirectoryDoesNotExistAndShouldBeCreated() throws IOException {
         final Configuration config = new DefaultConfiguration("myName");
@@ -254,14 +505,13 @@ public class PropertyCacheFileTest extends AbstractPathTestSupport {
         final PropertyCacheFile cache = new PropertyCacheFile(config, cacheFile.getPath());
         cache.load();
 
-        final String expectedInitialConfigHash = "91753B970AFDF9F5F3DFA0D258064841949D3C6B";
+        final String expectedInitialConfigHash = "2DE12A274818CC7ABC2D417FAF66471CFE2F82C";
         final String actualInitialConfigHash = cache.get(PropertyCacheFile.CONFIG_HASH_KEY);
         assertEquals("Invalid config hash", expectedInitialConfigHash, actualInitialConfigHash);
 
         cache.persist();
 
-        final Properties details = new Properties();
-        details.load(Files.newBufferedReader(cacheFile.toPath()));
+        final Properties details = TestUtil.loadCacheFile(cacheFile);
         assertEquals("Invalid details size", 1, details.size());
 
         // change in config
@@ -271,7 +521,7 @@ public class PropertyCacheFileTest extends AbstractPathTestSupport {
             new PropertyCacheFile(config, cacheFile.getPath());
         cacheAfterChangeInConfig.load();
 
-        final String expectedConfigHashAfterChange = "4CF5EC78955B81D76153ACC2CA6D60CB77FDCB2A";
+        final String expectedConfigHashAfterChange = "3704EFF9E92DED02DE4F04B0D4535F7DD1544F6D";
         final String actualConfigHashAfterChange =
             cacheAfterChangeInConfig.get(PropertyCacheFile.CONFIG_HASH_KEY);
         assertEquals("Invalid config hash",
@@ -279,8 +529,7 @@ public class PropertyCacheFileTest extends AbstractPathTestSupport {
 
         cacheAfterChangeInConfig.persist();
 
-        final Properties detailsAfterChangeInConfig = new Properties();
-        detailsAfterChangeInConfig.load(Files.newBufferedReader(cacheFile.toPath()));
+        final Properties detailsAfterChangeInConfig = TestUtil.loadCacheFile(cacheFile);
         assertEquals("Invalid cache size", 1, detailsAfterChangeInConfig.size());
     }
 
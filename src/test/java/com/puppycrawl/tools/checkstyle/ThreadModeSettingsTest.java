@@ -43,15 +43,8 @@ public class ThreadModeSettingsTest {
     public void testResolveCheckerInMultiThreadMode() {
         final ThreadModeSettings configuration = new ThreadModeSettings(2, 2);
 
-        try {
-            configuration.resolveName(ThreadModeSettings.CHECKER_MODULE_NAME);
-            fail("An exception is expected");
-        }
-        catch (IllegalArgumentException ex) {
-            assertEquals("Invalid exception message",
-                    "Multi thread mode for Checker module is not implemented",
-                    ex.getMessage());
-        }
+        assertEquals("Invalid name resolved", ThreadModeSettings.MULTI_THREAD_CHECKER_MODULE_NAME,
+                configuration.resolveName(ThreadModeSettings.CHECKER_MODULE_NAME));
     }
 
     @Test
@@ -77,6 +70,24 @@ public class ThreadModeSettingsTest {
         }
     }
 
+    @Test
+    public void testResolveTreeWalkerInMultiThreadCheckerMode() {
+        final ThreadModeSettings configuration = new ThreadModeSettings(2, 1);
+        final String actual =
+                configuration.resolveName(ThreadModeSettings.TREE_WALKER_MODULE_NAME);
+        assertThat("Invalid name resolved: " + actual,
+                actual, is(ThreadModeSettings.TREE_WALKER_MODULE_NAME));
+    }
+
+    @Test
+    public void testResolveTreeWalkerInSingleThreadCheckerMode() {
+        final ThreadModeSettings configuration = new ThreadModeSettings(1, 2);
+        final String actual =
+                configuration.resolveName(ThreadModeSettings.TREE_WALKER_MODULE_NAME);
+        assertThat("Invalid name resolved: " + actual,
+                actual, is(ThreadModeSettings.TREE_WALKER_MODULE_NAME));
+    }
+
     @Test
     public void testResolveTreeWalkerInSingleThreadMode() {
         final ThreadModeSettings singleThreadMode = ThreadModeSettings.SINGLE_THREAD_MODE_INSTANCE;
@@ -21,6 +21,8 @@ package com.puppycrawl.tools.checkstyle;
 
 import static com.puppycrawl.tools.checkstyle.checks.naming.AbstractNameCheck.MSG_INVALID_PATTERN;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -31,11 +33,13 @@ import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -47,6 +51,7 @@ import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
 import com.puppycrawl.tools.checkstyle.api.CheckstyleException;
 import com.puppycrawl.tools.checkstyle.api.Configuration;
 import com.puppycrawl.tools.checkstyle.api.Context;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
@@ -63,6 +68,7 @@ import com.puppycrawl.tools.checkstyle.filters.SuppressWithNearbyCommentFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionCommentFilter;
 import com.puppycrawl.tools.checkstyle.filters.SuppressionXpathFilter;
 import com.puppycrawl.tools.checkstyle.utils.CommonUtil;
+import com.puppycrawl.tools.checkstyle.utils.TokenUtil;
 
 public class TreeWalkerTest extends AbstractModuleTestSupport {
 
@@ -354,6 +360,58 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
         }
     }
 
+    @Test
+    public void testChecksAreNotifiedInRegistrationOrder() throws Exception {
+        final TreeWalker treeWalker = new TreeWalker();
+        final PackageObjectFactory factory = new PackageObjectFactory(
+                new HashSet<>(), Thread.currentThread().getContextClassLoader());
+        treeWalker.setModuleFactory(factory);
+        treeWalker.finishLocalSetup();
+        final String[] ids = {"third", "first", "second"};
+        for (String id : ids) {
+            final DefaultConfiguration checkConfig =
+                    createModuleConfig(VerifyVisitOrderCheck.class);
+            checkConfig.addAttribute("id", id);
+            treeWalker.setupChild(checkConfig);
+        }
+        final File file = temporaryFolder.newFile("file.java");
+        final FileText fileText = new FileText(file, Collections.singletonList("class A {}"));
+        treeWalker.setFileContents(new FileContents(fileText));
+        VerifyVisitOrderCheck.VISITS.clear();
+
+        treeWalker.processFiltered(file, fileText);
+
+        assertEquals("Checks were not notified in registration order",
+                Arrays.asList(ids), VerifyVisitOrderCheck.VISITS);
+    }
+
+    @Test
+    public void testOrdinaryAndCommentChecksWalkedInOnePass() throws Exception {
+        final File file = temporaryFolder.newFile("file.java");
+        final FileText fileText = new FileText(file, Arrays.asList(
+                "// header", "class A { /* block */", "    int a; // line", "}", "// footer"));
+        final List<String> ordinaryOnly = walkWithRecordingChecks(file, fileText,
+                RecordingCheck.class);
+        final List<String> commentOnly = walkWithRecordingChecks(file, fileText,
+                RecordingCommentCheck.class);
+        final List<String> both = walkWithRecordingChecks(file, fileText,
+                RecordingCheck.class, RecordingCommentCheck.class);
+
+        assertFalse("Ordinary checks should not see comments",
+                ordinaryOnly.contains("visit " + TokenTypes.SINGLE_LINE_COMMENT));
+        assertTrue("Comment checks should see comments",
+                commentOnly.contains("visit " + TokenTypes.SINGLE_LINE_COMMENT));
+        assertEquals("Ordinary checks should be notified as in a separate walk",
+                ordinaryOnly, filterRecords(both, RecordingCheck.class));
+        assertEquals("Comment checks should be notified as in a separate walk",
+                commentOnly, filterRecords(both, RecordingCommentCheck.class));
+        final List<String> visitors = both.stream().filter(record -> record.contains(" visit "))
+                .map(record -> record.substring(0, record.indexOf(' ')))
+                .collect(Collectors.toList());
+        assertTrue("Both ASTs should be walked in one pass",
+                visitors.indexOf("RecordingCommentCheck") < visitors.lastIndexOf("RecordingCheck"));
+    }
+
     @Test
     public void testSetupChild() throws Exception {
         final TreeWalker treeWalker = new TreeWalker();
@@ -374,6 +432,36 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
         assertEquals("expected tab width", 99, tabWidth);
     }
 
+    @Test
+    public void testHasGlobalStatefulChecks() throws Exception {
+        final TreeWalker treeWalker = new TreeWalker();
+        final PackageObjectFactory factory = new PackageObjectFactory(
+                new HashSet<>(), Thread.currentThread().getContextClassLoader());
+        treeWalker.setModuleFactory(factory);
+        treeWalker.finishLocalSetup();
+
+        treeWalker.setupChild(createModuleConfig(HiddenFieldCheck.class));
+        assertFalse("TreeWalker should not have global stateful checks",
+                treeWalker.hasGlobalStatefulChecks());
+
+        treeWalker.setupChild(createModuleConfig(GlobalStatefulTestCheck.class));
+        assertTrue("TreeWalker should have global stateful checks",
+                treeWalker.hasGlobalStatefulChecks());
+    }
+
+    @Test
+    public void testHasGlobalStatefulChecksWithoutAnnotation() throws Exception {
+        final TreeWalker treeWalker = new TreeWalker();
+        final PackageObjectFactory factory = new PackageObjectFactory(
+                new HashSet<>(), Thread.currentThread().getContextClassLoader());
+        treeWalker.setModuleFactory(factory);
+        treeWalker.finishLocalSetup();
+
+        treeWalker.setupChild(createModuleConfig(VerifyRootCheck.class));
+        assertTrue("Checks without thread mode annotation should be treated as global stateful",
+                treeWalker.hasGlobalStatefulChecks());
+    }
+
     @Test
     public void testBehaviourWithChecksAndFilters() throws Exception {
         final DefaultConfiguration filterConfig =
@@ -400,6 +488,27 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
                 expected);
     }
 
+    @Test
+    public void testTreeWalkersShareParsedFile() throws Exception {
+        final DefaultConfiguration firstConfig = createModuleConfig(TreeWalker.class);
+        firstConfig.addChild(createModuleConfig(VerifyRootCheck.class));
+        final DefaultConfiguration secondConfig = createModuleConfig(TreeWalker.class);
+        secondConfig.addChild(createModuleConfig(VerifyRootCheck.class));
+        final DefaultConfiguration checkerConfig = createRootConfig(firstConfig);
+        checkerConfig.addChild(secondConfig);
+        VerifyRootCheck.ROOTS.clear();
+        VerifyRootCheck.CONTENTS.clear();
+
+        verify(checkerConfig, getPath("InputTreeWalkerSuppressionCommentFilter.java"),
+                CommonUtil.EMPTY_STRING_ARRAY);
+
+        assertEquals("Both walkers should walk the AST", 2, VerifyRootCheck.ROOTS.size());
+        assertSame("Walkers should share the AST",
+                VerifyRootCheck.ROOTS.get(0), VerifyRootCheck.ROOTS.get(1));
+        assertSame("Walkers should share the file contents",
+                VerifyRootCheck.CONTENTS.get(0), VerifyRootCheck.CONTENTS.get(1));
+    }
+
     @Test
     public void testFinishLocalSetupFullyInitialized() {
         final TreeWalker treeWalker = new TreeWalker();
@@ -512,6 +621,86 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
         verify(checkerConfig, filePath, expected);
     }
 
+    @SafeVarargs
+    private static List<String> walkWithRecordingChecks(File file, FileText fileText,
+            Class<? extends RecordingCheck>... checks) throws Exception {
+        final TreeWalker treeWalker = new TreeWalker();
+        treeWalker.setModuleFactory(new PackageObjectFactory(
+                new HashSet<>(), Thread.currentThread().getContextClassLoader()));
+        treeWalker.finishLocalSetup();
+        for (Class<? extends RecordingCheck> check : checks) {
+            treeWalker.setupChild(createModuleConfig(check));
+        }
+        treeWalker.setFileContents(new FileContents(fileText));
+        RecordingCheck.RECORDS.clear();
+        treeWalker.processFiltered(file, fileText);
+        final List<String> records = new ArrayList<>(RecordingCheck.RECORDS);
+        if (checks.length == 1) {
+            records.replaceAll(record -> record.substring(record.indexOf(' ') + 1));
+        }
+        return records;
+    }
+
+    private static List<String> filterRecords(List<String> records,
+            Class<? extends RecordingCheck> check) {
+        final String prefix = check.getSimpleName() + ' ';
+        return records.stream().filter(record -> record.startsWith(prefix))
+                .map(record -> record.substring(prefix.length()))
+                .collect(Collectors.toList());
+    }
+
+    private static class RecordingCheck extends AbstractCheck {
+
+        private static final List<String> RECORDS = new ArrayList<>();
+
+        @Override
+        public int[] getDefaultTokens() {
+            return getAcceptableTokens();
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return Arrays.stream(TokenUtil.getAllTokenIds())
+                    .filter(type -> isCommentNodesRequired() || !TokenUtil.isCommentType(type))
+                    .toArray();
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return CommonUtil.EMPTY_INT_ARRAY;
+        }
+
+        @Override
+        public void beginTree(DetailAST rootAST) {
+            RECORDS.add(getClass().getSimpleName() + " begin " + rootAST.getType());
+        }
+
+        @Override
+        public void visitToken(DetailAST ast) {
+            RECORDS.add(getClass().getSimpleName() + " visit " + ast.getType());
+        }
+
+        @Override
+        public void leaveToken(DetailAST ast) {
+            RECORDS.add(getClass().getSimpleName() + " leave " + ast.getType());
+        }
+
+        @Override
+        public void finishTree(DetailAST rootAST) {
+            RECORDS.add(getClass().getSimpleName() + " finish " + rootAST.getType());
+        }
+
+    }
+
+    private static class RecordingCommentCheck extends RecordingCheck {
+
+        @Override
+        public boolean isCommentNodesRequired() {
+            return true;
+        }
+
+    }
+
     private static class BadJavaDocCheck extends AbstractCheck {
 
         @Override
@@ -625,4 +814,79 @@ public class TreeWalkerTest extends AbstractModuleTestSupport {
 
     }
 
+    @GlobalStatefulCheck
+    private static class GlobalStatefulTestCheck extends AbstractCheck {
+
+        @Override
+        public int[] getDefaultTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return CommonUtil.EMPTY_INT_ARRAY;
+        }
+
+    }
+
+    private static class VerifyRootCheck extends AbstractCheck {
+
+        private static final List<DetailAST> ROOTS = new ArrayList<>();
+
+        private static final List<FileContents> CONTENTS = new ArrayList<>();
+
+        @Override
+        public int[] getDefaultTokens() {
+            return CommonUtil.EMPTY_INT_ARRAY;
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return CommonUtil.EMPTY_INT_ARRAY;
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return CommonUtil.EMPTY_INT_ARRAY;
+        }
+
+        @Override
+        public void beginTree(DetailAST rootAST) {
+            ROOTS.add(rootAST);
+            CONTENTS.add(getFileContents());
+        }
+
+    }
+
+    private static class VerifyVisitOrderCheck extends AbstractCheck {
+
+        private static final List<String> VISITS = new ArrayList<>();
+
+        @Override
+        public int[] getDefaultTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public int[] getAcceptableTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public int[] getRequiredTokens() {
+            return new int[] {TokenTypes.CLASS_DEF};
+        }
+
+        @Override
+        public void visitToken(DetailAST ast) {
+            VISITS.add(getId());
+        }
+
+    }
+
 }
@@ -185,7 +185,7 @@ public class CheckstyleAntTaskTest extends AbstractPathTestSupport {
                 filesToCheck.size(), is(8));
         assertThat("The path of file differs from expected",
                 filesToCheck.get(5).getAbsolutePath(), is(getPath(FLAWLESS_INPUT)));
-        assertEquals(8, antTask.getLoggedMessages().size(),
+        assertEquals(7, antTask.getLoggedMessages().size(),
                 "Amount of logged messages in unexpected");
     }
 
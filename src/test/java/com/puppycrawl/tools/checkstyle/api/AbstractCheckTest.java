@@ -26,10 +26,12 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.io.File;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
 
@@ -261,6 +263,20 @@ public class AbstractCheckTest extends AbstractModuleTestSupport {
         assertEquals(0, check.getMessages().size(), "Invalid message size");
     }
 
+    @Test
+    public void testTransferMessages() {
+        final AbstractCheck check = new DummyAbstractCheck();
+
+        check.log(2, "key", "args");
+        check.log(1, "key", "args");
+        final List<LocalizedMessage> messages = new ArrayList<>();
+        check.transferMessages(messages);
+        assertEquals(2, messages.size(), "Invalid message size");
+        assertEquals(2, messages.get(0).getLineNo(), "Messages should be in logged order");
+        assertEquals(1, messages.get(1).getLineNo(), "Messages should be in logged order");
+        assertEquals(0, check.getMessages().size(), "Messages should be cleared");
+    }
+
     @Test
     public void testLineColumnLog() throws Exception {
         final ViolationCheck check = new ViolationCheck();
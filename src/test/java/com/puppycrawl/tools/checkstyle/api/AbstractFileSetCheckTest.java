@@ -27,6 +27,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -86,6 +87,21 @@ public class AbstractFileSetCheckTest extends AbstractModuleTestSupport {
         assertTrue(secondFileMessages.isEmpty(), "Message should be empty, but was not");
     }
 
+    @Test
+    public void testProcessUnsorted() throws Exception {
+        final DummyFileSetCheck check = new DummyFileSetCheck();
+        check.configure(new DefaultConfiguration("filesetcheck"));
+        check.setFileExtensions("tmp");
+        final File file = new File("inputAbstractFileSetCheck.tmp");
+        final List<LocalizedMessage> messages = new ArrayList<>();
+        check.processUnsorted(file, new FileText(file, Collections.emptyList()), messages);
+
+        assertEquals(1, messages.size(), "Invalid number of messages");
+        assertEquals("File should not be empty.", messages.get(0).getMessage(),
+                "Invalid message");
+        assertTrue(check.getMessages().isEmpty(), "Internal message should be empty");
+    }
+
     @Test
     public void testNotProcessed() throws Exception {
         final ExceptionFileSetCheck check = new ExceptionFileSetCheck();
@@ -176,6 +192,20 @@ public class AbstractFileSetCheckTest extends AbstractModuleTestSupport {
         assertEquals(6, message.getColumnNo(), "expected column");
     }
 
+    @Test
+    public void testAddSortedMessages() throws Exception {
+        final SortedMessagesFileSetCheck check = new SortedMessagesFileSetCheck();
+        check.configure(new DefaultConfiguration("filesetcheck"));
+        final File file = new File(getPath("InputAbstractFileSetLineColumn.txt"));
+        final FileText theText = new FileText(file.getAbsoluteFile(),
+                StandardCharsets.UTF_8.name());
+        final SortedSet<LocalizedMessage> internalMessages = check.process(file, theText);
+
+        assertEquals(2, internalMessages.size(), "Invalid number of messages");
+        assertEquals(1, internalMessages.first().getLineNo(), "Invalid first message");
+        assertEquals(2, internalMessages.last().getLineNo(), "Invalid last message");
+    }
+
     @Test
     public void testGetMessageDispatcher() {
         final DummyFileSetCheck check = new DummyFileSetCheck();
@@ -245,6 +275,21 @@ public class AbstractFileSetCheckTest extends AbstractModuleTestSupport {
 
     }
 
+    private static class SortedMessagesFileSetCheck extends AbstractFileSetCheck {
+
+        private static final String MSG_KEY = "Violation.";
+
+        @Override
+        protected void processFiltered(File file, FileText fileText) {
+            final SortedSet<LocalizedMessage> messages = new TreeSet<>();
+            messages.add(new LocalizedMessage(2, getMessageBundle(), MSG_KEY, null,
+                    getSeverityLevel(), getId(), getClass(), null));
+            addMessages(messages);
+            log(1, MSG_KEY);
+        }
+
+    }
+
     private static class MultiFileViolationFileSetCheck extends AbstractFileSetCheck {
 
         private static final String MSG_KEY = "Violation.";
@@ -113,11 +113,9 @@ public class AbstractViolationReporterTest {
     @Test
     public void testCustomMessageWithParametersNegative() throws Exception {
         final DefaultConfiguration config = createModuleConfig(emptyCheck.getClass());
-        config.addMessage("msgKey", "This is a custom message {0.");
-        emptyCheck.configure(config);
 
         try {
-            emptyCheck.log(1, "msgKey", "TestParam");
+            config.addMessage("msgKey", "This is a custom message {0.");
             fail("exception expected");
         }
         catch (IllegalArgumentException ex) {
@@ -23,6 +23,7 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
@@ -30,11 +31,14 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.powermock.reflect.Whitebox;
 
 import com.puppycrawl.tools.checkstyle.AbstractPathTestSupport;
@@ -42,6 +46,9 @@ import com.puppycrawl.tools.checkstyle.internal.utils.CheckUtil;
 
 public class FileTextTest extends AbstractPathTestSupport {
 
+    @TempDir
+    public File temporaryFolder;
+
     @Override
     protected String getPackageLocation() {
         return "com/puppycrawl/tools/checkstyle/api/filetext";
@@ -100,7 +107,8 @@ public class FileTextTest extends AbstractPathTestSupport {
         final String filepath = getPath("InputFileTextImportControl.xml");
         final FileText fileText = new FileText(new File(filepath), charset.name());
         final FileText copy = new FileText(fileText);
-        assertNull(Whitebox.getInternalState(copy, "lineBreaks"), "LineBreaks not null");
+        assertSame(Whitebox.getInternalState(fileText, "lineBreaks"),
+                Whitebox.getInternalState(copy, "lineBreaks"), "LineBreaks not shared");
         final LineColumn lineColumn = copy.lineColumn(100);
         assertEquals(3, lineColumn.getLine(), "Invalid line");
         if (CheckUtil.CRLF.equals(CheckUtil.getLineSeparatorForFile(filepath, charset))) {
@@ -130,6 +138,65 @@ public class FileTextTest extends AbstractPathTestSupport {
         assertArrayEquals(new String[] {"abc"}, fileText.toLinesArray(), "Invalid line");
     }
 
+    @Test
+    public void testLineTerminators() throws IOException {
+        final File file = new File(temporaryFolder, "terminators.txt");
+        Files.write(file.toPath(), "a\nb\r\n\rc\r\n\nd".getBytes(StandardCharsets.UTF_8));
+        final FileText fileText = new FileText(file, StandardCharsets.UTF_8.name());
+
+        assertArrayEquals(new String[] {"a", "b", "", "c", "", "d"},
+                fileText.toLinesArray(), "Invalid lines");
+        assertEquals(new LineColumn(4, 0), fileText.lineColumn(6), "Invalid line column");
+    }
+
+    @Test
+    public void testTerminatorAtEndOfFile() throws IOException {
+        final File file = new File(temporaryFolder, "terminator.txt");
+        Files.write(file.toPath(), "a\r\n".getBytes(StandardCharsets.UTF_8));
+        final FileText fileText = new FileText(file, StandardCharsets.UTF_8.name());
+
+        assertEquals(1, fileText.size(), "Invalid number of lines");
+        assertEquals("a", fileText.get(0), "Invalid line");
+        assertEquals("a\r\n", fileText.getFullText().toString(), "Invalid full text");
+    }
+
+    @Test
+    public void testDecoding() throws IOException {
+        final File file = new File(temporaryFolder, "decoding.txt");
+        Files.write(file.toPath(), new byte[] {'a', (byte) 0xE9, 'b'});
+        final String text = "a" + (char) 0xE9 + "b";
+        final String replaced = "a" + (char) 0xFFFD + "b";
+
+        assertEquals(text, new FileText(file, StandardCharsets.ISO_8859_1.name()).get(0),
+                "Invalid ISO-8859-1 text");
+        assertEquals(replaced, new FileText(file, StandardCharsets.UTF_8.name()).get(0),
+                "Malformed input should be replaced");
+        assertEquals(replaced, new FileText(file, StandardCharsets.US_ASCII.name()).get(0),
+                "Unmappable character should be replaced");
+
+        Files.write(file.toPath(), text.getBytes(StandardCharsets.UTF_8));
+        assertEquals(text, new FileText(file, StandardCharsets.UTF_8.name()).get(0),
+                "Invalid UTF-8 text");
+
+        Files.write(file.toPath(), "ab".getBytes(StandardCharsets.UTF_8));
+        assertEquals("ab", new FileText(file, StandardCharsets.UTF_8.name()).get(0),
+                "Invalid ASCII text");
+    }
+
+    @Test
+    public void testLinesCreatedOnDemand() throws IOException {
+        final Path path = new File(getPath("InputFileTextImportControl.xml")).toPath();
+        final FileText fileText = new FileText(path.toFile(), StandardCharsets.UTF_8.name());
+        final String[] lines = Whitebox.getInternalState(fileText, "lines");
+        assertNull(lines[1], "Line should not be created before request");
+
+        final FileText copy = new FileText(fileText);
+        final String line = copy.get(1);
+        assertEquals(Files.readAllLines(path, StandardCharsets.UTF_8).get(1), line,
+                "Invalid line");
+        assertSame(line, fileText.get(1), "Line should be shared between copies");
+    }
+
     @Test
     public void testFindLineBreaks() throws Exception {
         final FileText fileText = new FileText(new File("fileName"), Arrays.asList("1", "2"));
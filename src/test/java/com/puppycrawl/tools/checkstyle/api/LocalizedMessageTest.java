@@ -23,10 +23,12 @@ import static com.puppycrawl.tools.checkstyle.utils.CommonUtil.EMPTY_OBJECT_ARRA
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
@@ -39,6 +41,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -125,6 +128,30 @@ public class LocalizedMessageTest {
                 localizedMessage.getSourceName(), "Invalid source name");
     }
 
+    @Test
+    public void testGetArgs() {
+        final Object[] args = {"arg", 1};
+        final LocalizedMessage localizedMessage = new LocalizedMessage(1, "bundle", "key",
+                args, "module", LocalizedMessage.class, null);
+        args[0] = "changed";
+        final Object[] result = localizedMessage.getArgs();
+        result[1] = 2;
+
+        assertArrayEquals(new Object[] {"arg", 1}, localizedMessage.getArgs(),
+                "Invalid arguments");
+        assertNull(new LocalizedMessage(1, "bundle", "key", null, "module",
+                LocalizedMessage.class, null).getArgs(), "Arguments should be null");
+    }
+
+    @Test
+    public void testGetBundleAndCustomMessage() {
+        final LocalizedMessage localizedMessage = new LocalizedMessage(1, "bundle", "key",
+                EMPTY_OBJECT_ARRAY, "module", LocalizedMessage.class, "custom");
+
+        assertEquals("bundle", localizedMessage.getBundleName(), "Invalid bundle");
+        assertEquals("custom", localizedMessage.getCustomMessage(), "Invalid custom message");
+    }
+
     @Test
     public void testMessageInEnglish() {
         final LocalizedMessage localizedMessage = createSampleLocalizedMessage();
@@ -297,7 +324,7 @@ public class LocalizedMessageTest {
 
         assertEquals("Empty statement.", localizedMessage.getMessage(), "Invalid message");
 
-        final Map<String, ResourceBundle> bundleCache =
+        final Map<Locale, Map<String, ResourceBundle>> bundleCache =
                 Whitebox.getInternalState(LocalizedMessage.class, "BUNDLE_CACHE");
 
         assertEquals(1, bundleCache.size(), "Invalid bundle cache size");
@@ -307,6 +334,47 @@ public class LocalizedMessageTest {
         assertEquals(0, bundleCache.size(), "Invalid bundle cache size");
     }
 
+    @Test
+    public void testFormatCacheKeyedByLocale() {
+        LocalizedMessage.setLocale(Locale.ROOT);
+
+        assertEquals("Empty statement.", createSampleLocalizedMessage().getMessage(),
+                "Invalid message");
+
+        // the locale changes without clearing the caches
+        final AtomicReference<Locale> locale =
+                Whitebox.getInternalState(LocalizedMessage.class, "LOCALE");
+        locale.set(Locale.FRENCH);
+
+        assertEquals("Instruction vide.", createSampleLocalizedMessage().getMessage(),
+                "Message should be translated to the new locale");
+    }
+
+    @Test
+    public void testMessageFormattedOnce() {
+        LocalizedMessage.setLocale(Locale.ROOT);
+        final LocalizedMessage localizedMessage = createSampleLocalizedMessage();
+        final String message = localizedMessage.getMessage();
+
+        assertSame(message, localizedMessage.getMessage(), "Message should be formatted once");
+
+        LocalizedMessage.setLocale(Locale.FRENCH);
+
+        assertEquals("Instruction vide.", localizedMessage.getMessage(),
+                "Message should be translated to the new locale");
+    }
+
+    @Test
+    public void testCustomMessageFormatCached() {
+        final LocalizedMessage first = new LocalizedMessage(1, 1, "messages.properties", "key",
+                new Object[] {"first"}, SeverityLevel.ERROR, null, getClass(), "Custom {0}.");
+        final LocalizedMessage second = new LocalizedMessage(2, 1, "messages.properties", "key",
+                new Object[] {"second"}, SeverityLevel.ERROR, null, getClass(), "Custom {0}.");
+
+        assertEquals("Custom first.", first.getMessage(), "Invalid message");
+        assertEquals("Custom second.", second.getMessage(), "Invalid message");
+    }
+
     @Test
     public void testTokenType() {
         final LocalizedMessage localizedMessage1 = new LocalizedMessage(1, 1, TokenTypes.CLASS_DEF,
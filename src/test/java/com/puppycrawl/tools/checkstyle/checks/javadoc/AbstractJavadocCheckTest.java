@@ -27,8 +27,11 @@ import static com.puppycrawl.tools.checkstyle.checks.javadoc.SummaryJavadocCheck
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,9 +41,11 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.contrib.java.lang.system.SystemErrRule;
 import org.junit.rules.TemporaryFolder;
+import org.powermock.reflect.Whitebox;
 
 import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
 import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
+import com.puppycrawl.tools.checkstyle.JavadocDetailNodeParser;
 import com.puppycrawl.tools.checkstyle.TreeWalker;
 import com.puppycrawl.tools.checkstyle.api.DetailNode;
 import com.puppycrawl.tools.checkstyle.api.JavadocTokenTypes;
@@ -117,6 +122,45 @@ public class AbstractJavadocCheckTest extends AbstractModuleTestSupport {
         assertEquals("Error is unexpected", "", systemErr.getLog());
     }
 
+    @Test
+    public void testParsingErrorsWithTwoStagePrediction() throws Exception {
+        final DefaultConfiguration checkConfig = createModuleConfig(TempCheck.class);
+        final String[] expected = {
+            "4: " + getCheckMessage(MSG_JAVADOC_MISSED_HTML_CLOSE, 4, "unclosedTag"),
+            "8: " + getCheckMessage(MSG_JAVADOC_WRONG_SINGLETON_TAG, 35, "img"),
+        };
+        System.setProperty(JavadocDetailNodeParser.TWO_STAGE_PREDICTION, "true");
+        try {
+            verify(checkConfig, getPath("InputAbstractJavadocParsingErrors.java"), expected);
+        }
+        finally {
+            System.clearProperty(JavadocDetailNodeParser.TWO_STAGE_PREDICTION);
+        }
+        assertEquals("Error is unexpected", "", systemErr.getLog());
+    }
+
+    @Test
+    public void testTwoStagePredictionBySystemProperty() throws Exception {
+        PredictionRecordingCheck.PREDICTIONS.clear();
+        final DefaultConfiguration checksConfig = createModuleConfig(TreeWalker.class);
+        checksConfig.addChild(createModuleConfig(PredictionRecordingCheck.class));
+        checksConfig.addChild(createModuleConfig(JavadocParagraphCheck.class));
+
+        final DefaultConfiguration checkerConfig = createRootConfig(checksConfig);
+
+        System.setProperty(JavadocDetailNodeParser.TWO_STAGE_PREDICTION, "true");
+        try {
+            verify(checkerConfig, getPath("InputAbstractJavadocCorrectParagraph.java"));
+        }
+        finally {
+            System.clearProperty(JavadocDetailNodeParser.TWO_STAGE_PREDICTION);
+        }
+        assertFalse("Javadoc trees should be processed",
+                PredictionRecordingCheck.PREDICTIONS.isEmpty());
+        assertFalse("Two-stage prediction should be used when the system property is set",
+                PredictionRecordingCheck.PREDICTIONS.contains(Boolean.FALSE));
+    }
+
     @Test
     public void testWithMultipleChecks() throws Exception {
         final DefaultConfiguration checksConfig = createModuleConfig(TreeWalker.class);
@@ -128,6 +172,26 @@ public class AbstractJavadocCheckTest extends AbstractModuleTestSupport {
         verify(checkerConfig, getPath("InputAbstractJavadocCorrectParagraph.java"));
     }
 
+    @Test
+    public void testJavadocTreeSharedBetweenChecks() throws Exception {
+        JavadocTreeRecordingCheck.TREES.clear();
+        final DefaultConfiguration checksConfig = createModuleConfig(TreeWalker.class);
+        checksConfig.addChild(createModuleConfig(JavadocTreeRecordingCheck.class));
+        checksConfig.addChild(createModuleConfig(JavadocTreeRecordingCheck.class));
+
+        final DefaultConfiguration checkerConfig = createRootConfig(checksConfig);
+
+        verify(checkerConfig, getPath("InputAbstractJavadocCorrectParagraph.java"));
+        final List<DetailNode> trees = JavadocTreeRecordingCheck.TREES;
+        assertFalse("Javadoc trees should be processed", trees.isEmpty());
+        assertEquals("Each Javadoc tree should be processed by both checks",
+                0, trees.size() % 2);
+        for (int index = 0; index < trees.size(); index += 2) {
+            assertSame("Javadoc should be parsed once for both checks",
+                    trees.get(index), trees.get(index + 1));
+        }
+    }
+
     @Test
     public void testAntlrError() throws Exception {
         final DefaultConfiguration checkConfig = createModuleConfig(TempCheck.class);
@@ -572,6 +636,41 @@ public class AbstractJavadocCheckTest extends AbstractModuleTestSupport {
 
     }
 
+    public static class JavadocTreeRecordingCheck extends AbstractJavadocCheck {
+
+        private static final List<DetailNode> TREES = new ArrayList<>();
+
+        @Override
+        public int[] getDefaultJavadocTokens() {
+            return new int[] {JavadocTokenTypes.JAVADOC};
+        }
+
+        @Override
+        public void visitJavadocToken(DetailNode ast) {
+            TREES.add(ast);
+        }
+
+    }
+
+    public static class PredictionRecordingCheck extends AbstractJavadocCheck {
+
+        private static final List<Boolean> PREDICTIONS = new ArrayList<>();
+
+        @Override
+        public int[] getDefaultJavadocTokens() {
+            return new int[] {JavadocTokenTypes.JAVADOC};
+        }
+
+        @Override
+        public void visitJavadocToken(DetailNode ast) {
+            final ThreadLocal<?> context = Whitebox.getInternalState(this, "context",
+                    AbstractJavadocCheck.class);
+            final Object parser = Whitebox.getInternalState(context.get(), "parser");
+            PREDICTIONS.add(Whitebox.getInternalState(parser, "twoStagePrediction"));
+        }
+
+    }
+
     public static class NonTightHtmlTagIntolerantCheck extends AbstractJavadocCheck {
 
         private boolean reportVisitJavadocToken;
@@ -22,17 +22,23 @@ package com.puppycrawl.tools.checkstyle.filters;
 import static com.puppycrawl.tools.checkstyle.checks.whitespace.FileTabCharacterCheck.MSG_CONTAINS_TAB;
 import static com.puppycrawl.tools.checkstyle.checks.whitespace.FileTabCharacterCheck.MSG_FILE_CONTAINS_TAB;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.powermock.reflect.Whitebox;
 
 import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
@@ -53,6 +59,9 @@ public class SuppressWithPlainTextCommentFilterTest extends AbstractModuleTestSu
 
     private static final String MSG_REGEXP_EXCEEDED = "regexp.exceeded";
 
+    @TempDir
+    public File temporaryFolder;
+
     @Override
     protected String getPackageLocation() {
         return "com/puppycrawl/tools/checkstyle/filters/suppresswithplaintextcommentfilter";
@@ -740,4 +749,49 @@ public class SuppressWithPlainTextCommentFilterTest extends AbstractModuleTestSu
         return coll.toArray(CommonUtil.EMPTY_STRING_ARRAY);
     }
 
+    @Test
+    public void testFilterRereadsModifiedFile() throws IOException {
+        final File file = File.createTempFile("file", ".txt", temporaryFolder);
+        Files.write(file.toPath(), Arrays.asList("// CHECKSTYLE:OFF", "line"),
+                StandardCharsets.UTF_8);
+        final SuppressWithPlainTextCommentFilter filter = new SuppressWithPlainTextCommentFilter();
+        final AuditEvent event = new AuditEvent(this, file.getPath(), new LocalizedMessage(2, 1,
+                "bundle", "key", null, SeverityLevel.ERROR, "moduleId", getClass(),
+                "customMessage"));
+        assertFalse(filter.accept(event), "filter should reject suppressed event");
+        assertFalse(filter.accept(event), "filter should reject suppressed event");
+
+        Files.write(file.toPath(), Arrays.asList("// no suppression", "line"),
+                StandardCharsets.UTF_8);
+        assertTrue(file.setLastModified(file.lastModified() - 1000),
+                "modification time should be changed");
+        assertTrue(filter.accept(event), "filter should accept event of modified file");
+    }
+
+    @Test
+    public void testFilterWithCharset() throws Exception {
+        final File file = File.createTempFile("file", ".txt", temporaryFolder);
+        Files.write(file.toPath(), Arrays.asList("// CHECKSTYLE:OFF", "line"),
+                StandardCharsets.UTF_16);
+        final SuppressWithPlainTextCommentFilter filter = new SuppressWithPlainTextCommentFilter();
+        filter.setCharset(StandardCharsets.UTF_16.name());
+        final AuditEvent event = new AuditEvent(this, file.getPath(), new LocalizedMessage(2, 1,
+                "bundle", "key", null, SeverityLevel.ERROR, "moduleId", getClass(),
+                "customMessage"));
+        assertFalse(filter.accept(event), "filter should reject suppressed event");
+    }
+
+    @Test
+    public void testInvalidCharset() {
+        final SuppressWithPlainTextCommentFilter filter = new SuppressWithPlainTextCommentFilter();
+        try {
+            filter.setCharset("UNKNOWN-CHARSET");
+            fail("Exception is expected");
+        }
+        catch (UnsupportedEncodingException ex) {
+            assertEquals("unsupported charset: 'UNKNOWN-CHARSET'", ex.getMessage(),
+                    "Invalid exception message");
+        }
+    }
+
 }
@@ -0,0 +1,112 @@
+////////////////////////////////////////////////////////////////////////////////
+// checkstyle: Checks Java source code for adherence to a set of rules.
+// Copyright (C) 2001-2019 the original author or authors.
+//
+// This library is free software; you can redistribute it and/or
+// modify it under the terms of the GNU Lesser General Public
+// License as published by the Free Software Foundation; either
+// version 2.1 of the License, or (at your option) any later version.
+//
+// This library is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+// Lesser General Public License for more details.
+//
+// You should have received a copy of the GNU Lesser General Public
+// License along with this library; if not, write to the Free Software
+// Foundation, Inc., 59 Temple Place, Suite 330, Boston, MA  02111-1307  USA
+////////////////////////////////////////////////////////////////////////////////
+
+package com.puppycrawl.tools.checkstyle.filters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.puppycrawl.tools.checkstyle.api.AuditEvent;
+import com.puppycrawl.tools.checkstyle.api.FilterSet;
+import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
+
+public class SuppressionIndexTest {
+
+    @Test
+    public void testSameResultAsFilterSet() {
+        final FilterSet filterSet = new FilterSet();
+        filterSet.addFilter(new SuppressFilterElement("First", "SuppressionIndexTest",
+                null, null, "1-5", null));
+        filterSet.addFilter(new SuppressFilterElement("Second", null, null, "moduleId",
+                null, null));
+        filterSet.addFilter(new SuppressFilterElement(null, "String", "message", null,
+                null, "3"));
+        filterSet.addFilter(new SuppressFilterElement("Java", "Integer", null, null,
+                null, null));
+        final SuppressionIndex index = new SuppressionIndex(filterSet);
+
+        int suppressedCount = 0;
+        for (AuditEvent event : createEvents()) {
+            final boolean accepted = filterSet.accept(event);
+            assertEquals(accepted, index.accept(event),
+                    "Invalid result for " + event.getFileName() + ":" + event.getLine() + " "
+                    + event.getSourceName() + " " + event.getModuleId() + " "
+                    + event.getMessage());
+            if (!accepted) {
+                suppressedCount++;
+            }
+        }
+        assertEquals(44, suppressedCount, "Invalid number of suppressed events");
+    }
+
+    @Test
+    public void testEventsWithoutMessage() {
+        final FilterSet filterSet = new FilterSet();
+        filterSet.addFilter(new SuppressFilterElement(".", null, null, null, null, null));
+        final SuppressionIndex index = new SuppressionIndex(filterSet);
+        assertTrue(index.accept(new AuditEvent(this, "Test.java")),
+                "Event without message should be accepted");
+        assertTrue(index.accept(new AuditEvent(this)),
+                "Event without file should be accepted");
+    }
+
+    @Test
+    public void testOtherFilters() {
+        final FilterSet filterSet = new FilterSet();
+        filterSet.addFilter(event -> event.getLine() != 2);
+        final SuppressionIndex index = new SuppressionIndex(filterSet);
+        final AuditEvent acceptedEvent = new AuditEvent(this, "Test.java",
+                new LocalizedMessage(1, 0, "", "", null, null, getClass(), null));
+        final AuditEvent rejectedEvent = new AuditEvent(this, "Test.java",
+                new LocalizedMessage(2, 0, "", "", null, null, getClass(), null));
+        assertTrue(index.accept(acceptedEvent), "Event should be accepted");
+        assertFalse(index.accept(rejectedEvent), "Event should be rejected");
+    }
+
+    private List<AuditEvent> createEvents() {
+        final String[] fileNames = {"First.java", "Second.java", "Third.java", "Java.java"};
+        final Class<?>[] sources = {SuppressionIndexTest.class, String.class, Integer.class};
+        final String[] moduleIds = {null, "moduleId", "otherId"};
+        final List<AuditEvent> events = new ArrayList<>();
+        for (String fileName : fileNames) {
+            for (Class<?> source : sources) {
+                for (String moduleId : moduleIds) {
+                    events.add(createEvent(fileName, 1, moduleId, source, "message"));
+                    events.add(createEvent(fileName, 3, moduleId, source, "message"));
+                    events.add(createEvent(fileName, 3, moduleId, source, "other"));
+                    events.add(createEvent(fileName, 7, moduleId, source, "other"));
+                }
+            }
+        }
+        return events;
+    }
+
+    private AuditEvent createEvent(String fileName, int line, String moduleId,
+            Class<?> source, String message) {
+        return new AuditEvent(this, fileName,
+                new LocalizedMessage(line, line, "", "", null, moduleId, source, message));
+    }
+
+}
@@ -21,6 +21,8 @@ package com.puppycrawl.tools.checkstyle.filters;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -34,10 +36,12 @@ import org.junit.jupiter.api.Test;
 import com.puppycrawl.tools.checkstyle.AbstractModuleTestSupport;
 import com.puppycrawl.tools.checkstyle.JavaParser;
 import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
+import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.FileContents;
 import com.puppycrawl.tools.checkstyle.api.FileText;
 import com.puppycrawl.tools.checkstyle.api.LocalizedMessage;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
 import net.sf.saxon.sxpath.XPathEvaluator;
 import net.sf.saxon.sxpath.XPathExpression;
 import nl.jqno.equalsverifier.EqualsVerifier;
@@ -145,6 +149,28 @@ public class XpathFilterElementTest extends AbstractModuleTestSupport {
         }
     }
 
+    @Test
+    public void testQueryEvaluatedOncePerFile() throws Exception {
+        final String xpath = "//VARIABLE_DEF[./IDENT[@text='pi']]";
+        final XpathFilterElement filter = new XpathFilterElement(
+                "InputXpathFilterElementSuppressByXpath", "Test", null, null, xpath);
+        final DetailAST rootAst = JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS);
+        final TreeWalkerAuditEvent matchingEvent = getEvent(5, 8,
+                TokenTypes.VARIABLE_DEF, rootAst);
+        final TreeWalkerAuditEvent nonMatchingEvent = getEvent(10, 4,
+                TokenTypes.VARIABLE_DEF, rootAst);
+        assertFalse(filter.accept(matchingEvent), "Event should be rejected");
+        final Object matches = TestUtil.getClassDeclaredField(XpathFilterElement.class,
+                "xpathMatches").get(filter);
+        assertTrue(filter.accept(nonMatchingEvent), "Event should be accepted");
+        assertSame(matches, TestUtil.getClassDeclaredField(XpathFilterElement.class,
+                "xpathMatches").get(filter), "Query results should be reused for the same file");
+        assertFalse(filter.accept(getEvent(5, 8, TokenTypes.VARIABLE_DEF)),
+                "Event should be rejected");
+        assertNotSame(matches, TestUtil.getClassDeclaredField(XpathFilterElement.class,
+                "xpathMatches").get(filter), "Query should be evaluated for another file");
+    }
+
     @Test
     public void testNoQuery() throws Exception {
         final TreeWalkerAuditEvent event = getEvent(15, 8,
@@ -308,18 +334,24 @@ public class XpathFilterElementTest extends AbstractModuleTestSupport {
                 xpathEvaluator.createExpression("//METHOD_DEF"),
                 xpathEvaluator.createExpression("//VARIABLE_DEF"))
                 .usingGetClass()
-                .withIgnoredFields("fileRegexp", "checkRegexp", "messageRegexp", "xpathExpression")
+                .withIgnoredFields("fileRegexp", "checkRegexp", "messageRegexp", "xpathExpression",
+                        "xpathMatches")
                 .report();
         assertEquals(EqualsVerifierReport.SUCCESS, ev, "Error: " + ev.getMessage());
     }
 
     private TreeWalkerAuditEvent getEvent(int line, int column, int tokenType)
             throws Exception {
+        return getEvent(line, column, tokenType,
+                JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS));
+    }
+
+    private TreeWalkerAuditEvent getEvent(int line, int column, int tokenType,
+            DetailAST rootAst) {
         final LocalizedMessage message =
                 new LocalizedMessage(line, column, tokenType, "", "", null, null, null,
                         getClass(), null);
-        return new TreeWalkerAuditEvent(fileContents, file.getName(), message,
-                JavaParser.parseFile(file, JavaParser.Options.WITHOUT_COMMENTS));
+        return new TreeWalkerAuditEvent(fileContents, file.getName(), message, rootAst);
     }
 
 }
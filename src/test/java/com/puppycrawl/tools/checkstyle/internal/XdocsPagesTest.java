@@ -150,6 +150,8 @@ public class XdocsPagesTest {
             // loads string into memory similar to file
             "Header.header",
             "RegexpHeader.header",
+            // creates cache in directory
+            "Checker.astCacheDirectory",
             // deprecated fields
             "JavadocMethod.minLineCount",
             "JavadocMethod.allowMissingJavadoc",
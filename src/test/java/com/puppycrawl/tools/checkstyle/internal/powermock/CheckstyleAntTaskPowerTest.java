@@ -84,13 +84,13 @@ public class CheckstyleAntTaskPowerTest extends AbstractPathTestSupport {
 
         final List<MessageLevelPair> expectedList = Arrays.asList(
                 new MessageLevelPair("checkstyle version ", Project.MSG_VERBOSE),
-                new MessageLevelPair("Adding standalone file for audit", Project.MSG_VERBOSE),
-                new MessageLevelPair("To locate the files took 0 ms.", Project.MSG_VERBOSE),
                 new MessageLevelPair("Running Checkstyle ", Project.MSG_INFO),
                 new MessageLevelPair("Using configuration ", Project.MSG_VERBOSE),
                 new MessageLevelPair(auditStartedMessage.getMessage(), Project.MSG_DEBUG),
+                new MessageLevelPair("Adding standalone file for audit", Project.MSG_VERBOSE),
                 new MessageLevelPair(auditFinishedMessage.getMessage(), Project.MSG_DEBUG),
-                new MessageLevelPair("To process the files took 0 ms.", Project.MSG_VERBOSE),
+                new MessageLevelPair("To locate and process 1 files took 0 ms.",
+                        Project.MSG_VERBOSE),
                 new MessageLevelPair("Total execution took 0 ms.", Project.MSG_VERBOSE)
         );
 
@@ -120,7 +120,7 @@ public class CheckstyleAntTaskPowerTest extends AbstractPathTestSupport {
         }
         catch (BuildException ex) {
             assertTrue("Error message is unexpected",
-                    ex.getMessage().startsWith("Unable to process files:"));
+                    ex.getMessage().startsWith("Unable to process files"));
         }
     }
 
@@ -20,6 +20,7 @@
 package com.puppycrawl.tools.checkstyle.internal.powermock;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.times;
 import static org.powermock.api.mockito.PowerMockito.spy;
 import static org.powermock.api.mockito.PowerMockito.verifyPrivate;
@@ -61,8 +62,6 @@ public class TreeWalkerPowerTest extends AbstractModuleTestSupport {
     @Test
     public void testBehaviourWithOnlyOrdinaryChecks() throws Exception {
         final TreeWalker treeWalkerSpy = spy(new TreeWalker());
-        final Class<?> classAstState =
-                Class.forName("com.puppycrawl.tools.checkstyle.TreeWalker$AstState");
         final PackageObjectFactory factory = new PackageObjectFactory(
                 new HashSet<>(), Thread.currentThread().getContextClassLoader());
         treeWalkerSpy.configure(createModuleConfig(TypeNameCheck.class));
@@ -75,16 +74,14 @@ public class TreeWalkerPowerTest extends AbstractModuleTestSupport {
         treeWalkerSpy.setFileContents(new FileContents(fileText));
         Whitebox.invokeMethod(treeWalkerSpy, "processFiltered", file, fileText);
         verifyPrivate(treeWalkerSpy, times(1)).invoke("walk",
-                any(DetailAST.class), any(FileContents.class), any(classAstState));
-        verifyPrivate(treeWalkerSpy, times(0)).invoke("getFilteredMessages",
+                any(DetailAST.class), isNull(), any(FileContents.class));
+        verifyPrivate(treeWalkerSpy, times(0)).invoke("removeFilteredMessages",
                 any(String.class), any(FileContents.class), any(DetailAST.class));
     }
 
     @Test
     public void testBehaviourWithOnlyCommentChecks() throws Exception {
         final TreeWalker treeWalkerSpy = spy(new TreeWalker());
-        final Class<?> classAstState =
-                Class.forName("com.puppycrawl.tools.checkstyle.TreeWalker$AstState");
         final PackageObjectFactory factory = new PackageObjectFactory(
                 new HashSet<>(), Thread.currentThread().getContextClassLoader());
         treeWalkerSpy.configure(createModuleConfig(CommentsIndentationCheck.class));
@@ -97,8 +94,8 @@ public class TreeWalkerPowerTest extends AbstractModuleTestSupport {
         treeWalkerSpy.setFileContents(new FileContents(fileText));
         Whitebox.invokeMethod(treeWalkerSpy, "processFiltered", file, fileText);
         verifyPrivate(treeWalkerSpy, times(1)).invoke("walk",
-                any(DetailAST.class), any(FileContents.class), any(classAstState));
-        verifyPrivate(treeWalkerSpy, times(0)).invoke("getFilteredMessages",
+                isNull(), any(DetailAST.class), any(FileContents.class));
+        verifyPrivate(treeWalkerSpy, times(0)).invoke("removeFilteredMessages",
                 any(String.class), any(FileContents.class), any(DetailAST.class));
     }
 
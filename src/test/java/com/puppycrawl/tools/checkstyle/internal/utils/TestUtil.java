@@ -19,6 +19,7 @@
 
 package com.puppycrawl.tools.checkstyle.internal.utils;
 
+import java.io.File;
 import java.io.OutputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -26,11 +27,14 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.Properties;
 import java.util.Set;
 import java.util.function.Predicate;
 
+import com.puppycrawl.tools.checkstyle.DefaultConfiguration;
 import com.puppycrawl.tools.checkstyle.PackageNamesLoader;
 import com.puppycrawl.tools.checkstyle.PackageObjectFactory;
+import com.puppycrawl.tools.checkstyle.PropertyCacheFile;
 import com.puppycrawl.tools.checkstyle.TreeWalkerAuditEvent;
 import com.puppycrawl.tools.checkstyle.TreeWalkerFilter;
 import com.puppycrawl.tools.checkstyle.api.AbstractCheck;
@@ -114,6 +118,23 @@ public final class TestUtil {
         return resultMethod;
     }
 
+    /**
+     * Reads all entries of a cache file, whatever format it has, without checking
+     * the configuration hash.
+     *
+     * @param cacheFile the cache file.
+     * @return the entries of the cache file.
+     * @throws ReflectiveOperationException if the cache file cannot be read.
+     */
+    public static Properties loadCacheFile(File cacheFile) throws ReflectiveOperationException {
+        final PropertyCacheFile cache = new PropertyCacheFile(
+                new DefaultConfiguration("cache"), cacheFile.getPath());
+        getClassDeclaredMethod(PropertyCacheFile.class, "readDetails")
+                .invoke(cache, cacheFile.toPath());
+        return (Properties) getClassDeclaredField(PropertyCacheFile.class, "details")
+                .get(cache);
+    }
+
     /**
      * Checks if stateful field is cleared during {@link AbstractCheck#beginTree} in check.
      *
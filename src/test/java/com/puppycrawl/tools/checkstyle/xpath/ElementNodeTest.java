@@ -35,12 +35,16 @@ import com.puppycrawl.tools.checkstyle.DetailAstImpl;
 import com.puppycrawl.tools.checkstyle.JavaParser;
 import com.puppycrawl.tools.checkstyle.api.DetailAST;
 import com.puppycrawl.tools.checkstyle.api.TokenTypes;
+import com.puppycrawl.tools.checkstyle.internal.utils.TestUtil;
 import net.sf.saxon.om.AxisInfo;
+import net.sf.saxon.om.NamePool;
 import net.sf.saxon.om.NodeInfo;
+import net.sf.saxon.pattern.NameTest;
 import net.sf.saxon.tree.iter.ArrayIterator;
 import net.sf.saxon.tree.iter.AxisIterator;
 import net.sf.saxon.tree.iter.EmptyIterator;
 import net.sf.saxon.tree.util.Navigator;
+import net.sf.saxon.type.Type;
 
 public class ElementNodeTest extends AbstractPathTestSupport {
 
@@ -184,4 +188,37 @@ public class ElementNodeTest extends AbstractPathTestSupport {
             assertTrue("Invalid iterator", iterator instanceof EmptyIterator);
         }
     }
+
+    @Test
+    public void testDescendantsAreCreatedOnDemand() throws Exception {
+        final String xpath = "//METHOD_DEF";
+        final List<NodeInfo> nodes = getXpathItems(xpath, rootNode);
+        assertEquals("Invalid number of nodes", 2, nodes.size());
+        assertEquals("Invalid token type", TokenTypes.METHOD_DEF,
+                ((AbstractNode) nodes.get(0)).getTokenType());
+        assertEquals("Invalid line number", 9, nodes.get(0).getLineNumber());
+        assertEquals("Invalid line number", 22, nodes.get(1).getLineNumber());
+        assertNull("Children of the matching node should not be created",
+                TestUtil.getClassDeclaredField(AbstractNode.class, "children")
+                        .get(nodes.get(0)));
+        assertEquals("Nodes should be the same as ones reachable from the parent",
+                nodes.get(0), ((AbstractNode) nodes.get(0).getParent()).getChildren().get(1));
+    }
+
+    @Test
+    public void testIterateDescendantOrSelfByName() throws Exception {
+        final List<NodeInfo> nodes = getXpathItems("//METHOD_DEF", rootNode);
+        final AbstractNode methodNode = (AbstractNode) nodes.get(0);
+        final NameTest nameTest = new NameTest(Type.ELEMENT, "", "METHOD_DEF",
+                new NamePool());
+        try (AxisIterator iterator = methodNode.iterateAxis(AxisInfo.DESCENDANT_OR_SELF,
+                nameTest)) {
+            assertEquals("Invalid node", methodNode, iterator.next());
+            assertNull("Invalid node", iterator.next());
+        }
+        try (AxisIterator iterator = methodNode.iterateAxis(AxisInfo.DESCENDANT, nameTest)) {
+            assertNull("Invalid node", iterator.next());
+        }
+    }
+
 }